@@ -26,6 +26,8 @@ package org.restlet.ext.jackson;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.restlet.data.MediaType;
 import org.restlet.data.Preference;
@@ -35,6 +37,10 @@ import org.restlet.representation.Representation;
 import org.restlet.representation.Variant;
 import org.restlet.resource.Resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
 /**
  * Converter between the JSON, JSON Smile, CSV, XML, YAML and Representation
  * classes based on Jackson.
@@ -73,6 +79,15 @@ public class JacksonConverter extends ConverterHelper {
     private static final VariantInfo VARIANT_TEXT_YAML = new VariantInfo(
             MediaType.TEXT_YAML);
 
+    /** The shared Jackson object mappers, per media type. */
+    private final ConcurrentMap<MediaType, ObjectMapper> objectMappers = new ConcurrentHashMap<MediaType, ObjectMapper>();
+
+    /** The shared Jackson object readers, per media type and target class. */
+    private final ConcurrentMap<MediaType, ConcurrentMap<Class<?>, ObjectReader>> objectReaders = new ConcurrentHashMap<MediaType, ConcurrentMap<Class<?>, ObjectReader>>();
+
+    /** The shared Jackson object writers, per media type and source class. */
+    private final ConcurrentMap<MediaType, ConcurrentMap<Class<?>, ObjectWriter>> objectWriters = new ConcurrentHashMap<MediaType, ConcurrentMap<Class<?>, ObjectWriter>>();
+
     /**
      * Creates the marshaling {@link JacksonRepresentation}.
      * 
@@ -84,7 +99,15 @@ public class JacksonConverter extends ConverterHelper {
      * @return The marshaling {@link JacksonRepresentation}.
      */
     protected <T> JacksonRepresentation<T> create(MediaType mediaType, T source) {
-        return new JacksonRepresentation<T>(mediaType, source);
+        JacksonRepresentation<T> result = new JacksonRepresentation<T>(
+                mediaType, source);
+
+        if ((source != null) && (mediaType != null)) {
+            result.setSharedObjectWriter(getObjectWriter(mediaType,
+                    source.getClass()));
+        }
+
+        return result;
     }
 
     /**
@@ -99,7 +122,151 @@ public class JacksonConverter extends ConverterHelper {
      */
     protected <T> JacksonRepresentation<T> create(Representation source,
             Class<T> objectClass) {
-        return new JacksonRepresentation<T>(source, objectClass);
+        JacksonRepresentation<T> result = new JacksonRepresentation<T>(source,
+                objectClass);
+
+        if ((objectClass != null) && (source.getMediaType() != null)) {
+            result.setSharedObjectReader(getObjectReader(
+                    source.getMediaType(), objectClass));
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a Jackson object mapper for the given media type, shared by all
+     * the representations created by this converter. By default, it relies on
+     * {@link JacksonRepresentation#createObjectMapper()}. Override it to
+     * customize the mappings used by this converter. Note that the result
+     * should not be modified once returned as it will be used concurrently.
+     * 
+     * @param mediaType
+     *            The media type, without parameters.
+     * @return The Jackson object mapper.
+     */
+    protected ObjectMapper createObjectMapper(MediaType mediaType) {
+        return new JacksonRepresentation<Object>(mediaType, null)
+                .createObjectMapper();
+    }
+
+    /**
+     * Returns the media type used as cache key, without parameters.
+     * 
+     * @param mediaType
+     *            The media type.
+     * @return The media type used as cache key.
+     */
+    private MediaType getKey(MediaType mediaType) {
+        return mediaType.getParameters().isEmpty() ? mediaType : mediaType
+                .getParent();
+    }
+
+    /**
+     * Returns the shared Jackson object mapper for the given media type,
+     * creating it if necessary.
+     * 
+     * @param mediaType
+     *            The media type.
+     * @return The shared Jackson object mapper.
+     * @see #createObjectMapper(MediaType)
+     */
+    protected ObjectMapper getObjectMapper(MediaType mediaType) {
+        MediaType key = getKey(mediaType);
+        ObjectMapper result = objectMappers.get(key);
+
+        if (result == null) {
+            result = createObjectMapper(key);
+            ObjectMapper prev = objectMappers.putIfAbsent(key, result);
+
+            if (prev != null) {
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the shared and thread-safe Jackson object reader for the given
+     * media type and target class, creating it if necessary.
+     * 
+     * @param mediaType
+     *            The source media type.
+     * @param objectClass
+     *            The target class.
+     * @return The shared Jackson object reader.
+     */
+    protected ObjectReader getObjectReader(MediaType mediaType,
+            Class<?> objectClass) {
+        MediaType key = getKey(mediaType);
+        ConcurrentMap<Class<?>, ObjectReader> readers = getReaders(key);
+        ObjectReader result = readers.get(objectClass);
+
+        if (result == null) {
+            JacksonRepresentation<?> representation = newTemplate(key,
+                    objectClass);
+            result = representation.createObjectReader();
+            ObjectReader prev = readers.putIfAbsent(objectClass, result);
+
+            if (prev != null) {
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the shared and thread-safe Jackson object writer for the given
+     * media type and source class, creating it if necessary.
+     * 
+     * @param mediaType
+     *            The target media type.
+     * @param objectClass
+     *            The source class.
+     * @return The shared Jackson object writer.
+     */
+    protected ObjectWriter getObjectWriter(MediaType mediaType,
+            Class<?> objectClass) {
+        MediaType key = getKey(mediaType);
+        ConcurrentMap<Class<?>, ObjectWriter> writers = getWriters(key);
+        ObjectWriter result = writers.get(objectClass);
+
+        if (result == null) {
+            JacksonRepresentation<?> representation = newTemplate(key,
+                    objectClass);
+            result = representation.createObjectWriter();
+            ObjectWriter prev = writers.putIfAbsent(objectClass, result);
+
+            if (prev != null) {
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the cache of object readers for the given media type key.
+     * 
+     * @param key
+     *            The media type key.
+     * @return The cache of object readers.
+     */
+    private ConcurrentMap<Class<?>, ObjectReader> getReaders(MediaType key) {
+        ConcurrentMap<Class<?>, ObjectReader> result = objectReaders.get(key);
+
+        if (result == null) {
+            result = new ConcurrentHashMap<Class<?>, ObjectReader>();
+            ConcurrentMap<Class<?>, ObjectReader> prev = objectReaders
+                    .putIfAbsent(key, result);
+
+            if (prev != null) {
+                result = prev;
+            }
+        }
+
+        return result;
     }
 
     @Override
@@ -133,6 +300,29 @@ public class JacksonConverter extends ConverterHelper {
         return result;
     }
 
+    /**
+     * Returns the cache of object writers for the given media type key.
+     * 
+     * @param key
+     *            The media type key.
+     * @return The cache of object writers.
+     */
+    private ConcurrentMap<Class<?>, ObjectWriter> getWriters(MediaType key) {
+        ConcurrentMap<Class<?>, ObjectWriter> result = objectWriters.get(key);
+
+        if (result == null) {
+            result = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+            ConcurrentMap<Class<?>, ObjectWriter> prev = objectWriters
+                    .putIfAbsent(key, result);
+
+            if (prev != null) {
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Indicates if the given variant is compatible with the media types
      * supported by this converter.
@@ -155,6 +345,26 @@ public class JacksonConverter extends ConverterHelper {
                             .isCompatible(variant));
     }
 
+    /**
+     * Creates a template representation, used to derive the shared object
+     * readers and writers from the shared object mapper.
+     * 
+     * @param mediaType
+     *            The media type key.
+     * @param objectClass
+     *            The object class.
+     * @return The template representation.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private JacksonRepresentation<?> newTemplate(MediaType mediaType,
+            Class<?> objectClass) {
+        JacksonRepresentation<Object> result = new JacksonRepresentation<Object>(
+                mediaType, null);
+        result.setObjectClass((Class) objectClass);
+        result.setObjectMapper(getObjectMapper(mediaType));
+        return result;
+    }
+
     @Override
     public float score(Object source, Variant target, Resource resource) {
         float result = -1.0F;
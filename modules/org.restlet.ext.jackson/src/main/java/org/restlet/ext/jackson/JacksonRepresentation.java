@@ -101,9 +101,15 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
     /** The modifiable Jackson object reader. */
     private volatile ObjectReader objectReader;
 
+    /** Indicates if the object reader is shared with a converter cache. */
+    private volatile boolean objectReaderShared;
+
     /** The modifiable Jackson object writer. */
     private volatile ObjectWriter objectWriter;
 
+    /** Indicates if the object writer is shared with a converter cache. */
+    private volatile boolean objectWriterShared;
+
     /** The representation to parse. */
     private volatile Representation representation;
 
@@ -331,6 +337,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
     public ObjectMapper getObjectMapper() {
         if (this.objectMapper == null) {
             this.objectMapper = createObjectMapper();
+            releaseShared();
         }
 
         return this.objectMapper;
@@ -364,6 +371,22 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
         return this.objectWriter;
     }
 
+    /**
+     * Discards the object reader and writer shared with a converter cache, so
+     * that they are created again based on the modifiable object mapper.
+     */
+    private void releaseShared() {
+        if (this.objectReaderShared) {
+            this.objectReader = null;
+            this.objectReaderShared = false;
+        }
+
+        if (this.objectWriterShared) {
+            this.objectWriter = null;
+            this.objectWriterShared = false;
+        }
+    }
+
     // [ifndef android] method
     /**
      * Indicates if the parser will expand entity reference nodes. By default
@@ -406,6 +429,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      */
     public void setExpandingEntityRefs(boolean expandEntityRefs) {
         this.expandingEntityRefs = expandEntityRefs;
+        releaseShared();
     }
 
     /**
@@ -426,6 +450,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      */
     public void setObjectClass(Class<T> objectClass) {
         this.objectClass = objectClass;
+        releaseShared();
     }
 
     /**
@@ -436,6 +461,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      */
     public void setObjectMapper(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        releaseShared();
     }
 
     /**
@@ -446,6 +472,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      */
     public void setObjectReader(ObjectReader objectReader) {
         this.objectReader = objectReader;
+        this.objectReaderShared = false;
     }
 
     /**
@@ -456,6 +483,33 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      */
     public void setObjectWriter(ObjectWriter objectWriter) {
         this.objectWriter = objectWriter;
+        this.objectWriterShared = false;
+    }
+
+    /**
+     * Sets a Jackson object reader shared with other representations, such as
+     * the ones cached by {@link JacksonConverter}. It is discarded as soon as
+     * the modifiable object mapper is requested or set.
+     * 
+     * @param objectReader
+     *            The shared Jackson object reader.
+     */
+    void setSharedObjectReader(ObjectReader objectReader) {
+        this.objectReader = objectReader;
+        this.objectReaderShared = (objectReader != null);
+    }
+
+    /**
+     * Sets a Jackson object writer shared with other representations, such as
+     * the ones cached by {@link JacksonConverter}. It is discarded as soon as
+     * the modifiable object mapper is requested or set.
+     * 
+     * @param objectWriter
+     *            The shared Jackson object writer.
+     */
+    void setSharedObjectWriter(ObjectWriter objectWriter) {
+        this.objectWriter = objectWriter;
+        this.objectWriterShared = (objectWriter != null);
     }
 
     // [ifndef android] method
@@ -468,6 +522,7 @@ public class JacksonRepresentation<T> extends OutputRepresentation {
      */
     public void setValidatingDtd(boolean validating) {
         this.validatingDtd = validating;
+        releaseShared();
     }
 
     @Override
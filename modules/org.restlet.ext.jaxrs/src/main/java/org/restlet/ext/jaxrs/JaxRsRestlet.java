@@ -41,7 +41,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.ws.rs.Produces;
@@ -59,6 +62,7 @@ import org.restlet.data.Method;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
 import org.restlet.engine.Engine;
+import org.restlet.engine.util.SystemUtils;
 import org.restlet.ext.jaxrs.internal.core.CallContext;
 import org.restlet.ext.jaxrs.internal.core.ThreadLocalizedContext;
 import org.restlet.ext.jaxrs.internal.exceptions.ConvertRepresentationException;
@@ -141,6 +145,56 @@ public class JaxRsRestlet extends Restlet {
         }
     }
 
+    /**
+     * Key of the resource method selected for a request, see
+     * {@link JaxRsRestlet#identifyMethod(ResObjAndRemPath, MediaType)}.
+     */
+    private static final class MethodKey {
+
+        private final SortedMetadata<MediaType> accMediaTypes;
+
+        private final MediaType givenMediaType;
+
+        private final int hashCode;
+
+        private final org.restlet.data.Method httpMethod;
+
+        private final Collection<ResourceMethod> resourceMethods;
+
+        MethodKey(Collection<ResourceMethod> resourceMethods,
+                org.restlet.data.Method httpMethod, MediaType givenMediaType,
+                SortedMetadata<MediaType> accMediaTypes) {
+            this.resourceMethods = resourceMethods;
+            this.httpMethod = httpMethod;
+            this.givenMediaType = givenMediaType;
+            this.accMediaTypes = accMediaTypes;
+            this.hashCode = SystemUtils.hashCode(resourceMethods, httpMethod,
+                    givenMediaType, accMediaTypes);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof MethodKey)) {
+                return false;
+            }
+            MethodKey other = (MethodKey) object;
+            return (this.hashCode == other.hashCode)
+                    && this.resourceMethods.equals(other.resourceMethods)
+                    && this.httpMethod.equals(other.httpMethod)
+                    && Objects.equals(this.givenMediaType,
+                            other.givenMediaType)
+                    && Objects.equals(this.accMediaTypes, other.accMediaTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
     /**
      * Structure to return the obtained {@link ResourceObject} and the remaining
      * path after identifying the object.
@@ -184,6 +238,9 @@ public class JaxRsRestlet extends Restlet {
 
     private static final Annotation[] EMPTY_ANNOTATION_ARRAY = new Annotation[0];
 
+    /** The maximum number of cached resource method selections. */
+    private static final int MAX_CACHED_METHODS = 1000;
+
     static {
         javax.ws.rs.ext.RuntimeDelegate
                 .setInstance(new org.restlet.ext.jaxrs.internal.spi.RuntimeDelegateImpl());
@@ -198,6 +255,22 @@ public class JaxRsRestlet extends Restlet {
 
     private volatile ObjectFactory objectFactory;
 
+    /**
+     * The resource methods selected for the candidate methods of a path, the
+     * HTTP method, the given and the accepted media types. Least recently used
+     * entries are evicted first.
+     */
+    private final Map<MethodKey, ResourceMethod> methodSelections = new LinkedHashMap<MethodKey, ResourceMethod>(
+            16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<MethodKey, ResourceMethod> eldest) {
+            return size() > MAX_CACHED_METHODS;
+        }
+    };
+
     private final JaxRsProviders providers;
 
     private final ResourceClasses resourceClasses;
@@ -849,44 +922,23 @@ public class JaxRsRestlet extends Restlet {
                 .getMethodsForPath(u);
         if (resourceMethods.isEmpty())
             excHandler.resourceMethodNotFound();// NICE (resourceClass, u);
-        // (a) 2: remove methods not support the given method
-        boolean alsoGet = httpMethod.equals(Method.HEAD);
-        removeNotSupportedHttpMethod(resourceMethods, httpMethod, alsoGet);
-        if (resourceMethods.isEmpty()) {
-            Set<Method> allowedMethods = resourceClass.getAllowedMethods(u);
-            if (httpMethod.equals(Method.OPTIONS)) {
-                callContext.getResponse().getAllowedMethods()
-                        .addAll(allowedMethods);
-                throw new RequestHandledException();
-            }
-            excHandler.methodNotAllowed(allowedMethods);
-        }
-        // (a) 3
-        if (givenMediaType != null) {
-            Collection<ResourceMethod> supporting = resourceMethods;
-            resourceMethods = new ArrayList<ResourceMethod>();
-            for (ResourceMethod resourceMethod : supporting) {
-                if (resourceMethod.isGivenMediaTypeSupported(givenMediaType))
-                    resourceMethods.add(resourceMethod);
-            }
-            if (resourceMethods.isEmpty())
-                excHandler.unsupportedMediaType(supporting);
-        }
-        // (a) 4
         SortedMetadata<MediaType> accMediaTypes = callContext
                 .getAccMediaTypes();
-        Collection<ResourceMethod> supporting = resourceMethods;
-        resourceMethods = new ArrayList<ResourceMethod>();
-        for (ResourceMethod resourceMethod : supporting) {
-            if (resourceMethod.isAcceptedMediaTypeSupported(accMediaTypes))
-                resourceMethods.add(resourceMethod);
+        // The selection only depends on the candidate methods of the path
+        MethodKey methodKey = new MethodKey(resourceMethods, httpMethod,
+                givenMediaType, accMediaTypes);
+        ResourceMethod bestResourceMethod;
+        synchronized (this.methodSelections) {
+            bestResourceMethod = this.methodSelections.get(methodKey);
         }
-        if (resourceMethods.isEmpty()) {
-            excHandler.noResourceMethodForAccMediaTypes(supporting);
+        if (bestResourceMethod == null) {
+            bestResourceMethod = selectMethod(resourceClass,
+                    new ArrayList<ResourceMethod>(resourceMethods), u,
+                    httpMethod, givenMediaType, accMediaTypes);
+            synchronized (this.methodSelections) {
+                this.methodSelections.put(methodKey, bestResourceMethod);
+            }
         }
-        // (b) and (c)
-        ResourceMethod bestResourceMethod = getBestMethod(resourceMethods,
-                givenMediaType, accMediaTypes, httpMethod);
         MatchingResult mr = bestResourceMethod.getPathRegExp().match(u);
         addPathVarsToMap(mr, callContext);
         String matchedUriPart = mr.getMatched();
@@ -912,33 +964,26 @@ public class JaxRsRestlet extends Restlet {
     private RroRemPathAndMatchedPath identifyRootResource(RemainingPath u)
             throws WebApplicationException, RequestHandledException {
         // 1. Identify the root resource class:
-        // (a)
-        // c: Set<Class>: root resource classes
-        // e: Set<RegExp>
-        // Map<UriTemplateRegExp, Class> eAndCs = new HashMap();
-        Collection<RootResourceClass> eAndCs = new ArrayList<RootResourceClass>();
-        // (a) and (b) and (c) Filter E
-        for (RootResourceClass rootResourceClass : this.resourceClasses.roots()) {
-            // Map.Entry<UriTemplateRegExp, Class> eAndC = eAndCIter.next();
-            // UriTemplateRegExp regExp = eAndC.getKey();
-            // Class clazz = eAndC.getValue();
+        // (a) and (b) and (c) Filter E, (e) the candidates are already sorted
+        RootResourceClass tClass = null;
+        MatchingResult matchResult = null;
+        for (RootResourceClass rootResourceClass : this.resourceClasses
+                .roots(u)) {
             PathRegExp rrcPathRegExp = rootResourceClass.getPathRegExp();
             MatchingResult matchingResult = rrcPathRegExp.match(u);
             if (matchingResult == null)
                 continue; // doesn't match
-            if (matchingResult.getFinalCapturingGroup().isEmptyOrSlash())
-                eAndCs.add(rootResourceClass);
-            else if (rootResourceClass.hasSubResourceMethodsOrLocators())
-                eAndCs.add(rootResourceClass);
+            if (matchingResult.getFinalCapturingGroup().isEmptyOrSlash()
+                    || rootResourceClass.hasSubResourceMethodsOrLocators()) {
+                tClass = rootResourceClass;
+                matchResult = matchingResult;
+                break;
+            }
         }
         // (d)
-        if (eAndCs.isEmpty())
+        if (tClass == null)
             excHandler.rootResourceNotFound();
-        // (e) and (f)
-        RootResourceClass tClass = getFirstByNoOfLiteralCharsNoOfCapturingGroups(eAndCs);
         // (f)
-        PathRegExp rMatch = tClass.getPathRegExp();
-        MatchingResult matchResult = rMatch.match(u);
         u = matchResult.getFinalCapturingGroup();
         addPathVarsToMap(matchResult, tlContext.get());
         ResourceObject o = instantiateRrc(tClass);
@@ -1181,6 +1226,72 @@ public class JaxRsRestlet extends Restlet {
         return method;
     }
 
+    /**
+     * Selects the method that will handle the request among the methods
+     * matching the remaining path, see JAX-RS-Spec (2008-04-16), section 3.7.2
+     * "Request Matching", Part 3 (a) 2 to (c).
+     * 
+     * @param resourceClass
+     *            the resource class
+     * @param resourceMethods
+     *            the modifiable collection of methods matching the path
+     * @param u
+     *            the remaining path
+     * @param httpMethod
+     *            the HTTP method of the request
+     * @param givenMediaType
+     *            the media type of the request entity, or null
+     * @param accMediaTypes
+     *            the accepted media types
+     * @return the selected resource method.
+     * @throws RequestHandledException
+     *             for example if the method was OPTIONS, but no special
+     *             Resource Method for OPTIONS is available.
+     */
+    private ResourceMethod selectMethod(ResourceClass resourceClass,
+            Collection<ResourceMethod> resourceMethods, RemainingPath u,
+            org.restlet.data.Method httpMethod, MediaType givenMediaType,
+            SortedMetadata<MediaType> accMediaTypes)
+            throws RequestHandledException {
+        CallContext callContext = tlContext.get();
+        // (a) 2: remove methods not support the given method
+        boolean alsoGet = httpMethod.equals(Method.HEAD);
+        removeNotSupportedHttpMethod(resourceMethods, httpMethod, alsoGet);
+        if (resourceMethods.isEmpty()) {
+            Set<Method> allowedMethods = resourceClass.getAllowedMethods(u);
+            if (httpMethod.equals(Method.OPTIONS)) {
+                callContext.getResponse().getAllowedMethods()
+                        .addAll(allowedMethods);
+                throw new RequestHandledException();
+            }
+            excHandler.methodNotAllowed(allowedMethods);
+        }
+        // (a) 3
+        if (givenMediaType != null) {
+            Collection<ResourceMethod> supporting = resourceMethods;
+            resourceMethods = new ArrayList<ResourceMethod>();
+            for (ResourceMethod resourceMethod : supporting) {
+                if (resourceMethod.isGivenMediaTypeSupported(givenMediaType))
+                    resourceMethods.add(resourceMethod);
+            }
+            if (resourceMethods.isEmpty())
+                excHandler.unsupportedMediaType(supporting);
+        }
+        // (a) 4
+        Collection<ResourceMethod> supporting = resourceMethods;
+        resourceMethods = new ArrayList<ResourceMethod>();
+        for (ResourceMethod resourceMethod : supporting) {
+            if (resourceMethod.isAcceptedMediaTypeSupported(accMediaTypes))
+                resourceMethods.add(resourceMethod);
+        }
+        if (resourceMethods.isEmpty()) {
+            excHandler.noResourceMethodForAccMediaTypes(supporting);
+        }
+        // (b) and (c)
+        return getBestMethod(resourceMethods, givenMediaType, accMediaTypes,
+                httpMethod);
+    }
+
     /**
      * Sets the Restlet that will handle the {@link Request}s, if no resource
      * method could be found.
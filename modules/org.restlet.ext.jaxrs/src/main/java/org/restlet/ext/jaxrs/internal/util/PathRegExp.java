@@ -133,8 +133,43 @@ public class PathRegExp {
         }
     }
 
+    /**
+     * Returns the first segment of the given path template, if it only
+     * contains unreserved characters matching themselves.
+     * 
+     * @param pathTemplate
+     *            the path template
+     * @param start
+     *            the index of the first char of the segment
+     * @return the first literal segment, or null if the first segment is empty
+     *         or contains template variables or special characters.
+     */
+    private static String getFirstLiteralSegment(String pathTemplate,
+            int start) {
+        int end = start;
+        for (; end < pathTemplate.length(); end++) {
+            final char c = pathTemplate.charAt(end);
+            if (c == '/') {
+                break;
+            }
+            // '.' is not escaped in the pattern, so it is not literal
+            if (!(((c >= 'A') && (c <= 'Z')) || ((c >= 'a') && (c <= 'z'))
+                    || ((c >= '0') && (c <= '9')) || (c == '-')
+                    || (c == '_') || (c == '~'))) {
+                return null;
+            }
+        }
+        return (end > start) ? pathTemplate.substring(start, end) : null;
+    }
+
     private final boolean emptyOrSlash;
 
+    /**
+     * The first segment of the path template, if it is literal, otherwise
+     * null.
+     */
+    private final String firstLiteralSegment;
+
     /** Contains the number of literal chars in this Regular Expression */
     private final Integer noLitChars;
 
@@ -216,6 +251,8 @@ public class PathRegExp {
         }
         this.noLitChars = noLitChars;
         this.noOfCapturingGroups = numberOfCapturingGroups;
+        this.firstLiteralSegment = getFirstLiteralSegment(pathTemplate,
+                forStart);
         // 4. If the resulting string ends with "/" then remove the final char.
         // 5. Append "(/.*)?" to the result.
         if (pathPattern.length() > 0
@@ -255,6 +292,18 @@ public class PathRegExp {
         return this.pattern.pattern().equals(otherRegExp.pattern.pattern());
     }
 
+    /**
+     * Returns the first segment of the path template, if it is literal. A
+     * remaining path can only match this regular expression if its first
+     * segment is equal to it.
+     * 
+     * @return the first literal segment, or null if the first segment is empty
+     *         or is not literal.
+     */
+    public String getFirstLiteralSegment() {
+        return this.firstLiteralSegment;
+    }
+
     /**
      * @return the number of capturing groups with regular expressions that are
      *         not the default.
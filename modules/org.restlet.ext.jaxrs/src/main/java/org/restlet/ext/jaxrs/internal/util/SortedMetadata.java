@@ -201,6 +201,22 @@ public class SortedMetadata<T extends Metadata> implements Iterable<T> {
         this.metadatas = metadatas;
     }
 
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof SortedMetadata)) {
+            return false;
+        }
+        return this.metadatas.equals(((SortedMetadata<?>) object).metadatas);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.metadatas.hashCode();
+    }
+
     /**
      * Checks, if this SortedMetadata is empty
      * 
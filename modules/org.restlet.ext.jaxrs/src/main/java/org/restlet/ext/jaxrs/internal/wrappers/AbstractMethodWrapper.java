@@ -32,6 +32,7 @@ import javax.ws.rs.Encoded;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 
+import org.restlet.engine.util.MethodInvoker;
 import org.restlet.ext.jaxrs.internal.core.ThreadLocalizedContext;
 import org.restlet.ext.jaxrs.internal.exceptions.ConvertRepresentationException;
 import org.restlet.ext.jaxrs.internal.exceptions.IllegalMethodParamTypeException;
@@ -64,6 +65,9 @@ public abstract class AbstractMethodWrapper extends AbstractJaxRsWrapper {
      */
     final Method executeMethod;
 
+    /** The invoker of the {@link #executeMethod}. */
+    private final MethodInvoker executeMethodInvoker;
+
     final ParameterList parameters;
 
     final ResourceClass resourceClass;
@@ -99,6 +103,7 @@ public abstract class AbstractMethodWrapper extends AbstractJaxRsWrapper {
         super(PathRegExp.createForMethod(annotatedMethod));
         this.executeMethod = executeMethod;
         this.executeMethod.setAccessible(true);
+        this.executeMethodInvoker = new MethodInvoker(executeMethod);
         // NICE log message, if an Exception with no exc mapper is declared.
         this.resourceClass = resourceClass;
         final boolean leaveEncoded = resourceClass.isLeaveEncoded()
@@ -161,7 +166,7 @@ public abstract class AbstractMethodWrapper extends AbstractJaxRsWrapper {
             WebApplicationException {
         final Object[] args = this.parameters.get();
         final Object jaxRsResourceObj = resourceObject.getJaxRsResourceObject();
-        return this.executeMethod.invoke(jaxRsResourceObj, args);
+        return this.executeMethodInvoker.invoke(jaxRsResourceObj, args);
     }
 
     @Override
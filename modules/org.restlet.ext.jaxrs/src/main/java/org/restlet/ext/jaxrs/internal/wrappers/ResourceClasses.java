@@ -25,7 +25,11 @@
 package org.restlet.ext.jaxrs.internal.wrappers;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -44,6 +48,7 @@ import org.restlet.ext.jaxrs.internal.exceptions.InjectException;
 import org.restlet.ext.jaxrs.internal.exceptions.MissingAnnotationException;
 import org.restlet.ext.jaxrs.internal.exceptions.MissingConstructorException;
 import org.restlet.ext.jaxrs.internal.util.PathRegExp;
+import org.restlet.ext.jaxrs.internal.util.RemainingPath;
 import org.restlet.ext.jaxrs.internal.wrappers.provider.ExtensionBackwardMapping;
 import org.restlet.ext.jaxrs.internal.wrappers.provider.JaxRsProviders;
 
@@ -56,6 +61,88 @@ import org.restlet.ext.jaxrs.internal.wrappers.provider.JaxRsProviders;
 @Deprecated
 public class ResourceClasses {
 
+    /**
+     * Immutable table of the root resource classes, sorted as required by the
+     * JAX-RS specification, section 3.7.2, part 1.e, and indexed by the first
+     * literal segment of their path.
+     */
+    private static final class MatchingTable {
+
+        /** The root resource classes for each first literal segment. */
+        private final Map<String, List<RootResourceClass>> bySegment;
+
+        /** The root resource classes without first literal segment. */
+        private final List<RootResourceClass> others;
+
+        MatchingTable(Iterable<RootResourceClass> roots) {
+            List<RootResourceClass> sorted = new ArrayList<RootResourceClass>();
+            for (RootResourceClass rrc : roots) {
+                sorted.add(rrc);
+            }
+            // The sort is stable, so equal classes keep their registration order
+            Collections.sort(sorted, PRECEDENCE);
+
+            this.bySegment = new HashMap<String, List<RootResourceClass>>();
+            this.others = new ArrayList<RootResourceClass>();
+            for (RootResourceClass rrc : sorted) {
+                String segment = rrc.getPathRegExp().getFirstLiteralSegment();
+                if ((segment == null) || this.bySegment.containsKey(segment)) {
+                    continue;
+                }
+                List<RootResourceClass> candidates = new ArrayList<RootResourceClass>();
+                for (RootResourceClass candidate : sorted) {
+                    String candidateSegment = candidate.getPathRegExp()
+                            .getFirstLiteralSegment();
+                    if ((candidateSegment == null)
+                            || candidateSegment.equals(segment)) {
+                        candidates.add(candidate);
+                    }
+                }
+                this.bySegment.put(segment, candidates);
+            }
+            for (RootResourceClass rrc : sorted) {
+                if (rrc.getPathRegExp().getFirstLiteralSegment() == null) {
+                    this.others.add(rrc);
+                }
+            }
+        }
+
+        List<RootResourceClass> get(RemainingPath remainingPath) {
+            String path = remainingPath.getWithoutParams();
+            int slash = path.indexOf('/');
+            String segment = (slash < 0) ? path : path.substring(0, slash);
+            List<RootResourceClass> result = this.bySegment.get(segment);
+            return (result == null) ? this.others : result;
+        }
+    }
+
+    /**
+     * Sorts the root resource classes by the number of literal characters, the
+     * number of capturing groups and the number of capturing groups with non
+     * default regular expressions, all in descending order.
+     */
+    private static final Comparator<RootResourceClass> PRECEDENCE = new Comparator<RootResourceClass>() {
+        public int compare(RootResourceClass rrc1, RootResourceClass rrc2) {
+            PathRegExp regExp1 = rrc1.getPathRegExp();
+            PathRegExp regExp2 = rrc2.getPathRegExp();
+            int result = compareDesc(regExp1.getNoOfLiteralChars(),
+                    regExp2.getNoOfLiteralChars());
+            if (result == 0) {
+                result = compareDesc(regExp1.getNoOfCapturingGroups(),
+                        regExp2.getNoOfCapturingGroups());
+            }
+            if (result == 0) {
+                result = compareDesc(regExp1.getNoNonDefCaprGroups(),
+                        regExp2.getNoNonDefCaprGroups());
+            }
+            return result;
+        }
+
+        private int compareDesc(int i1, int i2) {
+            return (i1 > i2) ? -1 : ((i1 == i2) ? 0 : 1);
+        }
+    };
+
     private final ExtensionBackwardMapping extensionBackwardMapping;
 
     private final JaxRsProviders jaxRsProviders;
@@ -72,6 +159,10 @@ public class ResourceClasses {
 
     private final ThreadLocalizedContext tlContext;
 
+    /** The table used to match the root resource classes. */
+    private volatile MatchingTable matchingTable = new MatchingTable(
+            Collections.<RootResourceClass> emptySet());
+
     /**
      * @param tlContext
      *            the {@link ThreadLocalizedContext} of the
@@ -159,6 +250,7 @@ public class ResourceClasses {
             }
         }
         rootResourceClasses.add(newRrc);
+        updateMatchingTable();
         return true;
     }
 
@@ -243,6 +335,7 @@ public class ResourceClasses {
             }
         }
         rootResourceClasses.add(newRrc);
+        updateMatchingTable();
         return true;
     }
 
@@ -333,4 +426,25 @@ public class ResourceClasses {
     public Iterable<RootResourceClass> roots() {
         return this.rootResourceClasses;
     }
+
+    /**
+     * Returns the root resource classes that may match the given remaining
+     * path, in the order of precedence defined by the JAX-RS specification,
+     * section 3.7.2, part 1.e. The first one matching the path is the one to
+     * use.
+     * 
+     * @param remainingPath
+     *            the remaining path after the base ref
+     * @return the candidate root resource classes
+     */
+    public Iterable<RootResourceClass> roots(RemainingPath remainingPath) {
+        return this.matchingTable.get(remainingPath);
+    }
+
+    /**
+     * Rebuilds the table used to match the root resource classes.
+     */
+    private synchronized void updateMatchingTable() {
+        this.matchingTable = new MatchingTable(this.rootResourceClasses);
+    }
 }
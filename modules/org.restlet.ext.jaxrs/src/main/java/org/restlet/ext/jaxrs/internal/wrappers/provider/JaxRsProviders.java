@@ -30,10 +30,13 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -72,8 +75,84 @@ import org.restlet.ext.jaxrs.internal.util.Converter;
 public class JaxRsProviders implements javax.ws.rs.ext.Providers,
         MessageBodyReaderSet {
 
+    /**
+     * Key of a provider resolution: the Java type to read or write, with its
+     * annotations and media type. The annotations and media type are null for
+     * the writer sub sets.
+     */
+    private static final class ResolutionKey {
+
+        private final Annotation[] annotations;
+
+        private final Type genericType;
+
+        private final int hashCode;
+
+        private final MediaType mediaType;
+
+        private final Class<?> type;
+
+        ResolutionKey(Class<?> type, Type genericType,
+                Annotation[] annotations, MediaType mediaType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.mediaType = mediaType;
+            this.hashCode = Objects.hash(type, genericType,
+                    Arrays.hashCode(annotations), mediaType);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+
+            if (!(object instanceof ResolutionKey)) {
+                return false;
+            }
+
+            ResolutionKey other = (ResolutionKey) object;
+            return (this.hashCode == other.hashCode)
+                    && Objects.equals(this.type, other.type)
+                    && Objects.equals(this.genericType, other.genericType)
+                    && Arrays.equals(this.annotations, other.annotations)
+                    && Objects.equals(this.mediaType, other.mediaType);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
     private static final Logger localLogger = Context.getCurrentLogger();
 
+    /**
+     * Maximum number of cached provider resolutions per kind. When reached,
+     * the cache is cleared, as media types with parameters coming from the
+     * requests could make it grow without limits.
+     */
+    private static final int MAX_CACHED_RESOLUTIONS = 1000;
+
+    /** Cached resolution meaning that no provider matches. */
+    private static final List<ProviderWrapper> NO_PROVIDER = Collections
+            .emptyList();
+
+    /**
+     * Caches the given resolution unless the cache is full, in which case it
+     * is cleared first.
+     */
+    private static void cache(
+            Map<ResolutionKey, List<ProviderWrapper>> resolutions,
+            ResolutionKey key, List<ProviderWrapper> providers) {
+        if (resolutions.size() >= MAX_CACHED_RESOLUTIONS) {
+            resolutions.clear();
+        }
+
+        resolutions.put(key, providers);
+    }
+
     /**
      * Returns the generic class of the given {@link ContextResolver} class.
      */
@@ -111,8 +190,23 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
 
     private volatile ObjectFactory objectFactory;
 
+    /**
+     * The message body reader selected for a type, its annotations and media
+     * type, or {@link #NO_PROVIDER}.
+     */
+    private final Map<ResolutionKey, List<ProviderWrapper>> readerResolutions;
+
     private final ThreadLocalizedContext tlContext;
 
+    /**
+     * The message body writer selected for a type, its annotations and media
+     * type, or {@link #NO_PROVIDER}.
+     */
+    private final Map<ResolutionKey, List<ProviderWrapper>> writerResolutions;
+
+    /** The message body writers supporting a type. */
+    private final Map<ResolutionKey, List<ProviderWrapper>> writerSubSets;
+
     /**
      * Creates a new JaxRsProviders.
      * 
@@ -129,6 +223,9 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
         this.messageBodyWriterWrappers = new CopyOnWriteArrayList<ProviderWrapper>();
         this.contextResolvers = new CopyOnWriteArraySet<ProviderWrapper>();
         this.excMappers = new ConcurrentHashMap<Class<? extends Throwable>, ProviderWrapper>();
+        this.readerResolutions = new ConcurrentHashMap<ResolutionKey, List<ProviderWrapper>>();
+        this.writerResolutions = new ConcurrentHashMap<ResolutionKey, List<ProviderWrapper>>();
+        this.writerSubSets = new ConcurrentHashMap<ResolutionKey, List<ProviderWrapper>>();
 
         this.objectFactory = objectFactory;
         this.tlContext = tlContext;
@@ -161,6 +258,7 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
         if (provider.isExceptionMapper())
             this.addExcMapper(provider);
         this.all.add(provider);
+        clearResolutions();
     }
 
     /**
@@ -255,6 +353,16 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
         return true;
     }
 
+    /**
+     * Clears the cached entity provider resolutions, as they may change when
+     * providers are added or removed.
+     */
+    private void clearResolutions() {
+        this.readerResolutions.clear();
+        this.writerResolutions.clear();
+        this.writerSubSets.clear();
+    }
+
     /**
      * converts the cause of the given InvocationTargetException to a
      * {@link Response}, if an {@link ExceptionMapper} could be found.<br>
@@ -310,22 +418,50 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
      */
     public MessageBodyReader getBestReader(Class<?> paramType,
             Type genericType, Annotation[] annotations, MediaType mediaType) {
-        // NICE optimization: may be cached for speed.
+        ResolutionKey key = new ResolutionKey(paramType, genericType,
+                annotations, mediaType);
+        List<ProviderWrapper> resolution = this.readerResolutions.get(key);
+
+        if (resolution == NO_PROVIDER) {
+            return null;
+        } else if (resolution != null) {
+            try {
+                return resolution.get(0).getInitializedReader();
+            } catch (ProviderNotInitializableException e) {
+                // Look for another reader
+            } catch (WebApplicationException e) {
+                // Look for another reader
+            }
+        }
+
+        boolean complete = true;
+
         for (ProviderWrapper mbrw : this.messageBodyReaderWrappers) {
             if (mbrw.supportsRead(mediaType)) {
                 MessageBodyReader mbr;
                 try {
                     mbr = mbrw.getInitializedReader();
                 } catch (ProviderNotInitializableException e) {
+                    complete = false;
                     continue;
                 } catch (WebApplicationException e) {
+                    complete = false;
                     continue;
                 }
                 if (mbr.isReadable(paramType, genericType, annotations,
-                        Converter.toJaxRsMediaType(mediaType)))
+                        Converter.toJaxRsMediaType(mediaType))) {
+                    cache(this.readerResolutions, key,
+                            Collections.singletonList(mbrw));
                     return mbr;
+                }
             }
         }
+
+        // Only remember the absence of reader if all of them could be checked
+        if (complete) {
+            cache(this.readerResolutions, key, NO_PROVIDER);
+        }
+
         return null;
     }
 
@@ -464,21 +600,51 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
             Class<T> type, Type genericType, Annotation[] annotations,
             javax.ws.rs.core.MediaType mediaType) {
         MediaType restletMediaType = Converter.toRestletMediaType(mediaType);
+        ResolutionKey key = new ResolutionKey(type, genericType, annotations,
+                restletMediaType);
+        List<ProviderWrapper> resolution = this.writerResolutions.get(key);
+
+        if (resolution == NO_PROVIDER) {
+            return null;
+        } else if (resolution != null) {
+            try {
+                return (javax.ws.rs.ext.MessageBodyWriter<T>) resolution.get(0)
+                        .getInitializedWriter().getJaxRsWriter();
+            } catch (ProviderNotInitializableException e) {
+                // Look for another writer
+            } catch (WebApplicationException e) {
+                // Look for another writer
+            }
+        }
+
+        boolean complete = true;
+
         for (ProviderWrapper mbww : this.messageBodyWriterWrappers) {
             if (mbww.supportsWrite(restletMediaType)) {
                 MessageBodyWriter mbw;
                 try {
                     mbw = mbww.getInitializedWriter();
                 } catch (ProviderNotInitializableException e) {
+                    complete = false;
                     continue;
                 } catch (WebApplicationException e) {
+                    complete = false;
                     continue;
                 }
-                if (mbw.isWriteable(type, genericType, annotations, mediaType))
+                if (mbw.isWriteable(type, genericType, annotations, mediaType)) {
+                    cache(this.writerResolutions, key,
+                            Collections.singletonList(mbww));
                     return (javax.ws.rs.ext.MessageBodyWriter<T>) mbw
                             .getJaxRsWriter();
+                }
             }
         }
+
+        // Only remember the absence of writer if all of them could be checked
+        if (complete) {
+            cache(this.writerResolutions, key, NO_PROVIDER);
+        }
+
         return null;
     }
 
@@ -536,6 +702,7 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
             if (providerWrapper.equals(provider))
                 excMapperEntryIter.remove();
         }
+        clearResolutions();
     }
 
     /**
@@ -562,19 +729,34 @@ public class JaxRsProviders implements javax.ws.rs.ext.Providers,
      */
     public MessageBodyWriterSubSet writerSubSet(Class<?> entityClass,
             Type genericType) {
+        final ResolutionKey key = new ResolutionKey(entityClass, genericType,
+                null, null);
+        final List<ProviderWrapper> cached = this.writerSubSets.get(key);
+        final List<ProviderWrapper> mbwws = (cached == null) ? this.messageBodyWriterWrappers
+                : cached;
+        final List<ProviderWrapper> supporting = new ArrayList<ProviderWrapper>();
         final List<MessageBodyWriter> mbws = new ArrayList<MessageBodyWriter>();
-        for (ProviderWrapper mbww : this.messageBodyWriterWrappers) {
+        boolean complete = true;
+
+        for (ProviderWrapper mbww : mbwws) {
             MessageBodyWriter mbw;
             try {
                 mbw = mbww.getInitializedWriter();
             } catch (ProviderNotInitializableException e) {
+                complete = false;
                 continue;
             }
-            if (mbw.supportsWrite(entityClass, genericType)) {
+            if ((cached != null) || mbw.supportsWrite(entityClass, genericType)) {
+                supporting.add(mbww);
                 mbws.add(mbw);
             }
         }
-        // NICE optimization: may be cached for speed.
+
+        // Only remember the sub set if all the writers could be checked
+        if ((cached == null) && complete) {
+            cache(this.writerSubSets, key, supporting);
+        }
+
         return new MessageBodyWriterSubSet(mbws, entityClass, genericType);
     }
 }
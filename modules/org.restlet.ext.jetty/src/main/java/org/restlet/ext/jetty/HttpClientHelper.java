@@ -34,6 +34,8 @@ import java.util.logging.Level;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
@@ -99,6 +101,28 @@ import org.restlet.ext.jetty.internal.RestletSslContextFactory;
  * <td>Whether to follow HTTP redirects</td>
  * </tr>
  * <tr>
+ * <td>http2</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Whether to use HTTP/2 instead of HTTP/1.1; with HTTPS the protocol is
+ * negotiated with ALPN which requires an ALPN implementation such as
+ * jetty-alpn-java-client on Java 9 and later; with HTTP the HTTP/2 preface is
+ * sent directly (prior knowledge); in both cases the server must support
+ * HTTP/2</td>
+ * </tr>
+ * <tr>
+ * <td>http2InitialSessionRecvWindow</td>
+ * <td>int</td>
+ * <td>16*1024*1024</td>
+ * <td>HTTP/2 initial flow control window in bytes for a whole connection</td>
+ * </tr>
+ * <tr>
+ * <td>http2InitialStreamRecvWindow</td>
+ * <td>int</td>
+ * <td>8*1024*1024</td>
+ * <td>HTTP/2 initial flow control window in bytes for each stream</td>
+ * </tr>
+ * <tr>
  * <td>idleTimeout</td>
  * <td>long</td>
  * <td>60000</td>
@@ -109,7 +133,9 @@ import org.restlet.ext.jetty.internal.RestletSslContextFactory;
  * <td>maxConnectionsPerDestination</td>
  * <td>int</td>
  * <td>10</td>
- * <td>Sets the max number of connections to open to each destination</td>
+ * <td>Sets the max number of connections to open to each destination; with
+ * HTTP/2, requests are multiplexed on each connection up to the max concurrent
+ * streams announced by the server</td>
  * </tr>
  * <tr>
  * <td>maxRedirects</td>
@@ -234,7 +260,20 @@ public class HttpClientHelper extends
                     "Unable to create the SSL context factory.", e);
         }
 
-        HttpClient httpClient = new HttpClient(sslContextFactory);
+        HttpClient httpClient;
+
+        if (isHttp2()) {
+            HTTP2Client http2Client = new HTTP2Client();
+            http2Client
+                    .setInitialSessionRecvWindow(getHttp2InitialSessionRecvWindow());
+            http2Client
+                    .setInitialStreamRecvWindow(getHttp2InitialStreamRecvWindow());
+            httpClient = new HttpClient(new HttpClientTransportOverHTTP2(
+                    http2Client), sslContextFactory);
+        } else {
+            httpClient = new HttpClient(sslContextFactory);
+        }
+
         httpClient.setAddressResolutionTimeout(getAddressResolutionTimeout());
         httpClient.setBindAddress(getBindAddress());
         httpClient.setConnectTimeout(getConnectTimeout());
@@ -328,6 +367,28 @@ public class HttpClientHelper extends
         return null;
     }
 
+    /**
+     * HTTP/2 initial flow control window in bytes for a whole connection.
+     * Defaults to 16*1024*1024.
+     * 
+     * @return HTTP/2 initial session receive window.
+     */
+    public int getHttp2InitialSessionRecvWindow() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2InitialSessionRecvWindow", "16777216"));
+    }
+
+    /**
+     * HTTP/2 initial flow control window in bytes for each stream. Defaults to
+     * 8*1024*1024.
+     * 
+     * @return HTTP/2 initial stream receive window.
+     */
+    public int getHttp2InitialStreamRecvWindow() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2InitialStreamRecvWindow", "8388608"));
+    }
+
     /**
      * Returns the wrapped Jetty HTTP client.
      * 
@@ -475,6 +536,20 @@ public class HttpClientHelper extends
                 "followRedirects", "true"));
     }
 
+    /**
+     * Whether to use HTTP/2 instead of HTTP/1.1. Defaults to false.
+     * <p>
+     * With HTTPS, the protocol is negotiated with ALPN. With HTTP, the HTTP/2
+     * preface is sent directly (prior knowledge). In both cases, the server
+     * must support HTTP/2.
+     * 
+     * @return Whether to use HTTP/2.
+     */
+    public boolean isHttp2() {
+        return Boolean.parseBoolean(getHelpedParameters().getFirstValue(
+                "http2", "false"));
+    }
+
     /**
      * Whether request events must be strictly ordered. Defaults to false.
      * <p>
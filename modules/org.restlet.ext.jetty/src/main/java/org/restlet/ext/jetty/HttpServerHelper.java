@@ -31,7 +31,8 @@ import org.restlet.Server;
 import org.restlet.data.Protocol;
 
 /**
- * Jetty HTTP server connector.
+ * Jetty HTTP server connector. HTTP/2 in clear text (h2c) can be enabled with
+ * the "http2.enabled" parameter.
  * 
  * @see <a href="http://www.eclipse.org/jetty/">Jetty home page</a>
  * @author Jerome Louvel
@@ -53,6 +54,15 @@ public class HttpServerHelper extends JettyServerHelper {
     @Override
     protected ConnectionFactory[] createConnectionFactories(final HttpConfiguration configuration) {
         // Create and configure the Jetty HTTP connector
-        return new ConnectionFactory[]{new HttpConnectionFactory(configuration) };
+        final HttpConnectionFactory http1 = new HttpConnectionFactory(configuration);
+
+        if (isHttp2Enabled()) {
+            // HTTP/1.1 stays the default, HTTP/2 is reached either by an "h2c"
+            // upgrade or by a connection starting with the HTTP/2 preface
+            return new ConnectionFactory[] { http1,
+                    createHttp2ConnectionFactory(configuration, false) };
+        }
+
+        return new ConnectionFactory[]{ http1 };
     }
 }
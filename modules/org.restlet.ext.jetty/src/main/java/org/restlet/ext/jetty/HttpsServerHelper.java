@@ -26,6 +26,8 @@ package org.restlet.ext.jetty;
 
 import java.util.logging.Level;
 
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http2.HTTP2Cipher;
 import org.eclipse.jetty.server.AbstractConnectionFactory;
 import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.HttpConfiguration;
@@ -48,6 +50,14 @@ import org.restlet.ext.jetty.internal.RestletSslContextFactory;
  * <th>Description</th>
  * </tr>
  * <tr>
+ * <td>http2.enabled</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Whether HTTP/2 can be negotiated with ALPN, HTTP/1.1 remaining the
+ * default protocol; an ALPN implementation such as jetty-alpn-java-server on
+ * Java 9 and later must be available</td>
+ * </tr>
+ * <tr>
  * <td>sslContextFactory</td>
  * <td>String</td>
  * <td>org.restlet.engine.ssl.DefaultSslContextFactory</td>
@@ -91,8 +101,24 @@ public class HttpsServerHelper extends JettyServerHelper {
         try {
             org.eclipse.jetty.util.ssl.SslContextFactory sslContextFactory = new RestletSslContextFactory(
                     org.restlet.engine.ssl.SslUtils.getSslContextFactory(this));
+            HttpConnectionFactory http1 = new HttpConnectionFactory(
+                    configuration);
+
+            if (isHttp2Enabled()) {
+                // Let ALPN pick HTTP/2 when the client supports it, using
+                // cipher suites allowed by HTTP/2 first
+                ConnectionFactory http2 = createHttp2ConnectionFactory(
+                        configuration, true);
+                ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory(
+                        http2.getProtocol(), http1.getProtocol());
+                alpn.setDefaultProtocol(http1.getProtocol());
+                sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+                return AbstractConnectionFactory.getFactories(
+                        sslContextFactory, alpn, http2, http1);
+            }
+
             return  AbstractConnectionFactory.getFactories(sslContextFactory,
-                    new HttpConnectionFactory(configuration));
+                    http1);
         } catch (Exception e) {
             getLogger().log(Level.WARNING,
                     "Unable to create the Jetty SSL context factory", e);
@@ -31,6 +31,9 @@ import java.util.concurrent.Executor;
 
 import javax.servlet.ServletException;
 
+import org.eclipse.jetty.http2.server.AbstractHTTP2ServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
 import org.eclipse.jetty.io.ArrayByteBufferPool;
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.server.ConnectionFactory;
@@ -156,6 +159,32 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * processing the content</td>
  * </tr>
  * <tr>
+ * <td>http2.enabled</td>
+ * <td>boolean</td>
+ * <td>false</td>
+ * <td>Whether HTTP/2 is supported in addition to HTTP/1.1; over TLS it is negotiated with ALPN which requires an ALPN
+ * implementation such as jetty-alpn-java-server on Java 9 and later; in clear text, clients either upgrade with the
+ * "h2c" token or send the HTTP/2 preface directly (prior knowledge)</td>
+ * </tr>
+ * <tr>
+ * <td>http2.initialSessionRecvWindow</td>
+ * <td>int</td>
+ * <td>1024*1024</td>
+ * <td>HTTP/2 initial flow control window in bytes for a whole connection</td>
+ * </tr>
+ * <tr>
+ * <td>http2.initialStreamRecvWindow</td>
+ * <td>int</td>
+ * <td>512*1024</td>
+ * <td>HTTP/2 initial flow control window in bytes for each stream</td>
+ * </tr>
+ * <tr>
+ * <td>http2.maxConcurrentStreams</td>
+ * <td>int</td>
+ * <td>128</td>
+ * <td>HTTP/2 maximum number of concurrent streams that a client may open on a connection</td>
+ * </tr>
+ * <tr>
  * <td>lowResource.period</td>
  * <td>int</td>
  * <td>1000</td>
@@ -195,8 +224,7 @@ import org.restlet.ext.jetty.internal.JettyServerCall;
  * </table>
  * 
  * @see <a href="http://www.eclipse.org/jetty/">Jetty home page</a>
- * @see <a href="https://wiki.eclipse.org/Jetty/Feature/SPDY">Jetty SPDY page</a>
- * @see <a href="https://wiki.eclipse.org/Jetty/Feature/NPN">Jetty NPN configuration page</a>
+ * @see <a href="https://www.eclipse.org/jetty/documentation/9.4.x/http2.html">Jetty HTTP/2 page</a>
  * @author Jerome Louvel
  * @author Tal Liron
  */
@@ -284,6 +312,28 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
         return configuration;
     }
 
+    /**
+     * Creates a Jetty HTTP/2 connection factory configured with the HTTP/2
+     * parameters.
+     * 
+     * @param configuration
+     *            The HTTP configuration.
+     * @param confidential
+     *            True if the connection factory is used over TLS, false for
+     *            clear text HTTP/2 (h2c).
+     * @return A new Jetty HTTP/2 connection factory.
+     */
+    protected AbstractHTTP2ServerConnectionFactory createHttp2ConnectionFactory(
+            HttpConfiguration configuration, boolean confidential) {
+        final AbstractHTTP2ServerConnectionFactory result = confidential ? new HTTP2ServerConnectionFactory(
+                configuration) : new HTTP2CServerConnectionFactory(
+                configuration);
+        result.setInitialSessionRecvWindow(getHttp2InitialSessionRecvWindow());
+        result.setInitialStreamRecvWindow(getHttp2InitialStreamRecvWindow());
+        result.setMaxConcurrentStreams(getHttp2MaxConcurrentStreams());
+        return result;
+    }
+
     /**
      * Creates new internal Jetty connection factories.
      * 
@@ -511,6 +561,39 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
                 "http.headerCacheSize", "512"));
     }
 
+    /**
+     * HTTP/2 initial flow control window in bytes for a whole connection.
+     * Defaults to 1024*1024.
+     * 
+     * @return HTTP/2 initial session receive window.
+     */
+    public int getHttp2InitialSessionRecvWindow() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialSessionRecvWindow", "1048576"));
+    }
+
+    /**
+     * HTTP/2 initial flow control window in bytes for each stream. Defaults to
+     * 512*1024.
+     * 
+     * @return HTTP/2 initial stream receive window.
+     */
+    public int getHttp2InitialStreamRecvWindow() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.initialStreamRecvWindow", "524288"));
+    }
+
+    /**
+     * HTTP/2 maximum number of concurrent streams that a client may open on a
+     * connection. Defaults to 128.
+     * 
+     * @return HTTP/2 maximum concurrent streams.
+     */
+    public int getHttp2MaxConcurrentStreams() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "http2.maxConcurrentStreams", "128"));
+    }
+
     /**
      * HTTP output buffer size in bytes. Defaults to 32*1024.
      * <p>
@@ -675,6 +758,19 @@ public abstract class JettyServerHelper extends org.restlet.engine.adapter.HttpS
                 String.valueOf(Thread.NORM_PRIORITY)));
     }
 
+    /**
+     * Whether HTTP/2 is supported in addition to HTTP/1.1. Defaults to false.
+     * <p>
+     * Over TLS, the protocol is negotiated with ALPN. In clear text, clients
+     * either upgrade with the "h2c" token or send the HTTP/2 preface directly.
+     * 
+     * @return Whether HTTP/2 is supported.
+     */
+    public boolean isHttp2Enabled() {
+        return Boolean.parseBoolean(getHelpedParameters().getFirstValue(
+                "http2.enabled", "false"));
+    }
+
     /**
      * Returns the wrapped Jetty server.
      * 
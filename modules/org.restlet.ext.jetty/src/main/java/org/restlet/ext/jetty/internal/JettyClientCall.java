@@ -39,6 +39,7 @@ import org.eclipse.jetty.client.util.InputStreamContentProvider;
 import org.eclipse.jetty.client.util.InputStreamResponseListener;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpVersion;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Uniform;
@@ -286,6 +287,12 @@ public class JettyClientCall extends ClientCall {
             this.httpResponse = this.inputStreamResponseListener.get(
                     clientHelper.getIdleTimeout(), TimeUnit.MILLISECONDS);
 
+            // Let the response tell which protocol version was used
+            final HttpVersion httpVersion = this.httpResponse.getVersion();
+            if (httpVersion != null)
+                setVersion((httpVersion.getVersion() / 10) + "."
+                        + (httpVersion.getVersion() % 10));
+
             result = new Status(getStatusCode(), getReasonPhrase());
         } catch (IOException e) {
             this.clientHelper.getLogger().log(Level.WARNING,
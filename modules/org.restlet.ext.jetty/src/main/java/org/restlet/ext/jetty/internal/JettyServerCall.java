@@ -24,19 +24,27 @@
 
 package org.restlet.ext.jetty.internal;
 
+import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.io.EofException;
 import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.HttpOutput;
 import org.restlet.Response;
 import org.restlet.Server;
 import org.restlet.data.Header;
+import org.restlet.data.Protocol;
 import org.restlet.data.Status;
 import org.restlet.engine.adapter.ServerCall;
+import org.restlet.engine.application.RangeRepresentation;
 import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.FileRepresentation;
+import org.restlet.representation.Representation;
 import org.restlet.util.Series;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.security.cert.Certificate;
 import java.util.Arrays;
 import java.util.Enumeration;
@@ -152,6 +160,21 @@ public class JettyServerCall extends ServerCall {
         return getChannel().getRequest().getMethod();
     }
 
+    /**
+     * Returns the exact protocol, {@link Protocol#HTTP_2} or
+     * {@link Protocol#HTTPS_2} when the request was received with HTTP/2.
+     * 
+     * @return The exact protocol.
+     */
+    @Override
+    public Protocol getProtocol() {
+        if (getChannel().getRequest().getHttpVersion() == HttpVersion.HTTP_2) {
+            return isConfidential() ? Protocol.HTTPS_2 : Protocol.HTTP_2;
+        }
+
+        return super.getProtocol();
+    }
+
     public InputStream getRequestEntityStream(long size) {
         try {
             return getChannel().getRequest().getInputStream();
@@ -252,6 +275,24 @@ public class JettyServerCall extends ServerCall {
         return null;
     }
 
+    /**
+     * Returns the protocol version of the request, such as "1.1" or "2.0".
+     * 
+     * @return The protocol version of the request.
+     */
+    @Override
+    public String getVersion() {
+        final HttpVersion httpVersion = getChannel().getRequest()
+                .getHttpVersion();
+
+        if (httpVersion == null) {
+            return super.getVersion();
+        }
+
+        return (httpVersion.getVersion() / 10) + "."
+                + (httpVersion.getVersion() % 10);
+    }
+
     /**
      * Indicates if the request was made using a confidential mean.<br>
      * 
@@ -268,6 +309,17 @@ public class JettyServerCall extends ServerCall {
                 || super.isConnectionBroken(exception);
     }
 
+    /**
+     * Indicates if the request was received with HTTP/2, whose streams signal
+     * the end of the request entity.
+     * 
+     * @return True if the request was received with HTTP/2.
+     */
+    @Override
+    protected boolean isRequestEntityFramed() {
+        return getChannel().getRequest().getHttpVersion() == HttpVersion.HTTP_2;
+    }
+
     @Override
     public void sendResponse(Response response) throws IOException {
         // Add call headers
@@ -312,4 +364,37 @@ public class JettyServerCall extends ServerCall {
             }
         }
     }
+
+    /**
+     * Writes the response body. When the entity is backed by a file, either
+     * directly or via a range, the file region is memory mapped and handed to
+     * Jetty which writes it to the socket without copying it through the heap.
+     * Other entities are written to the response stream as usual.
+     */
+    @Override
+    protected void writeResponseBody(Representation entity,
+            OutputStream responseEntityStream) throws IOException {
+        Representation source = (entity instanceof RangeRepresentation) ? ((RangeRepresentation) entity)
+                .getWrappedRepresentation() : entity;
+        long size = entity.getAvailableSize();
+
+        if ((responseEntityStream instanceof HttpOutput)
+                && (source instanceof FileRepresentation)
+                && (size > IoUtils.BUFFER_SIZE)
+                && (size <= Integer.MAX_VALUE)) {
+            FileChannel fileChannel = ((FileRepresentation) source)
+                    .getChannel();
+
+            try {
+                long index = IoUtils.getAvailableIndex(entity);
+                ((HttpOutput) responseEntityStream).sendContent(fileChannel
+                        .map(FileChannel.MapMode.READ_ONLY, index,
+                                Math.min(size, fileChannel.size() - index)));
+            } finally {
+                fileChannel.close();
+            }
+        } else {
+            super.writeResponseBody(entity, responseEntityStream);
+        }
+    }
 }
@@ -45,6 +45,7 @@ import org.restlet.data.Status;
 import org.restlet.engine.Engine;
 import org.restlet.engine.connector.ConnectorHelper;
 import org.restlet.engine.log.LoggingThreadFactory;
+import org.restlet.ext.nio.internal.buffer.BufferPool;
 import org.restlet.ext.nio.internal.controller.ConnectionController;
 
 /**
@@ -156,6 +157,15 @@ import org.restlet.ext.nio.internal.controller.ConnectionController;
  * use direct buffers.</td>
  * </tr>
  * <tr>
+ * <td>maxPooledBuffers</td>
+ * <td>int</td>
+ * <td>128</td>
+ * <td>Maximum number of idle byte buffers of each size kept by the pool shared
+ * by the connections. The connections lease their buffers while they exchange
+ * messages and release them when idle. If the value is '0', each connection
+ * allocates its own buffers.</td>
+ * </tr>
+ * <tr>
  * <td>throttleTimeMs</td>
  * <td>int</td>
  * <td>0</td>
@@ -177,6 +187,9 @@ import org.restlet.ext.nio.internal.controller.ConnectionController;
 public abstract class BaseHelper<T extends Connector> extends
         ConnectorHelper<T> {
 
+    /** The pool of byte buffers shared by the connections. */
+    private volatile BufferPool bufferPool;
+
     /** Indicates if it is helping a client connector. */
     protected final boolean clientSide;
 
@@ -237,6 +250,16 @@ public abstract class BaseHelper<T extends Connector> extends
         return result;
     }
 
+    /**
+     * Creates the pool of byte buffers shared by the connections.
+     * 
+     * @return The pool of byte buffers or null if buffers aren't pooled.
+     */
+    protected BufferPool createBufferPool() {
+        return (getMaxPooledBuffers() > 0) ? new BufferPool(isDirectBuffers(),
+                getMaxPooledBuffers()) : null;
+    }
+
     /**
      * Creates a new controller.
      * 
@@ -316,6 +339,11 @@ public abstract class BaseHelper<T extends Connector> extends
             }
         }
 
+        // Free the idle byte buffers
+        if (getBufferPool() != null) {
+            getBufferPool().clear();
+        }
+
         // Stops the controller
         if (this.controllerService != null) {
             this.controller.shutdown();
@@ -381,6 +409,16 @@ public abstract class BaseHelper<T extends Connector> extends
         }
     }
 
+    /**
+     * Returns the pool of byte buffers shared by the connections. Its metrics
+     * indicate the number of buffers created, leased and idle.
+     * 
+     * @return The pool of byte buffers or null if buffers aren't pooled.
+     */
+    public BufferPool getBufferPool() {
+        return this.bufferPool;
+    }
+
     /**
      * Returns the controller task.
      * 
@@ -441,6 +479,17 @@ public abstract class BaseHelper<T extends Connector> extends
                 "maxIoIdleTimeMs", "60000"));
     }
 
+    /**
+     * Returns the maximum number of idle byte buffers of each size kept by the
+     * pool.
+     * 
+     * @return The maximum number of idle byte buffers of each size.
+     */
+    public int getMaxPooledBuffers() {
+        return Integer.parseInt(getHelpedParameters().getFirstValue(
+                "maxPooledBuffers", "128"));
+    }
+
     /**
      * Returns the maximum number of calls that can be queued if there aren't
      * any worker thread available to service them. If the value is '0', then no
@@ -748,6 +797,7 @@ public abstract class BaseHelper<T extends Connector> extends
     @Override
     public void start() throws Exception {
         super.start();
+        this.bufferPool = createBufferPool();
         this.controllerService = createControllerService();
 
         if (hasWorkerThreads()) {
@@ -30,6 +30,7 @@ import java.net.UnknownHostException;
 import java.nio.channels.SocketChannel;
 import java.util.Iterator;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 
 import org.restlet.Client;
@@ -37,6 +38,7 @@ import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.data.Reference;
 import org.restlet.data.Status;
+import org.restlet.engine.resource.ClientFuture;
 import org.restlet.ext.nio.internal.connection.Connection;
 import org.restlet.ext.nio.internal.controller.ConnectionController;
 import org.restlet.ext.nio.internal.state.ConnectionState;
@@ -187,11 +189,33 @@ public abstract class ClientConnectionHelper extends ConnectionHelper<Client> {
                                     + response.getRequest());
                 }
 
-                Connection<Client> bestConn = getBestConnection(response
-                        .getRequest());
+                Request request = response.getRequest();
+
+                if (isAborted(request)) {
+                    // Cancelled before being sent
+                    response.setStatus(Status.CONNECTOR_ERROR_COMMUNICATION,
+                            "The client call was aborted");
+                    unblock(response);
+                    return;
+                }
+
+                final Connection<Client> bestConn = getBestConnection(request);
 
                 if (bestConn != null) {
+                    request.getAttributes().put(
+                            ClientFuture.ATTRIBUTE_ABORT_HANDLER,
+                            new BooleanSupplier() {
+                                public boolean getAsBoolean() {
+                                    bestConn.abort();
+                                    return true;
+                                }
+                            });
                     bestConn.getOutboundWay().handle(response);
+
+                    if (isAborted(request)) {
+                        // Cancelled while the abort handler was registered
+                        bestConn.abort();
+                    }
                 } else {
                     getLogger().log(Level.WARNING,
                             "Unable to find a connection to send the request");
@@ -313,6 +337,7 @@ public abstract class ClientConnectionHelper extends ConnectionHelper<Client> {
                         createSocketChannel(request.isConfidential(),
                                 socketAddress), getController(), socketAddress);
                 getConnections().add(result);
+                getController().getConnections().add(result);
             }
         }
 
@@ -461,12 +486,36 @@ public abstract class ClientConnectionHelper extends ConnectionHelper<Client> {
         handleOutbound(response, true);
     }
 
+    /**
+     * Indicates if the given request was aborted by the future of an
+     * asynchronous call, see {@link ClientFuture#abort()}.
+     * 
+     * @param request
+     *            The request to test.
+     * @return True if the request was aborted.
+     */
+    protected boolean isAborted(Request request) {
+        return Boolean.TRUE.equals(request.getAttributes().get(
+                ClientFuture.ATTRIBUTE_ABORTED));
+    }
+
     @Override
     public boolean isControllerDaemon() {
         return Boolean.parseBoolean(getHelpedParameters().getFirstValue(
                 "controllerDaemon", "true"));
     }
 
+    /**
+     * Returns true as asynchronous calls are queued and their callback invoked
+     * by the controller once the response has been received.
+     *
+     * @return True.
+     */
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+
     @Override
     public boolean isProxying() {
         return getProxyHost() != null;
@@ -69,6 +69,14 @@ import org.restlet.ext.nio.internal.request.InboundRequest;
  * <td>Enable/disable the SO_REUSEADDR socket option. See
  * java.io.ServerSocket#reuseAddress property for additional details.</td>
  * </tr>
+ * <tr>
+ * <td>selectorThreads</td>
+ * <td>int</td>
+ * <td>1</td>
+ * <td>Number of threads selecting the connections ready for IO operations,
+ * each with its own NIO selector. The first one also accepts new connections,
+ * which are assigned to the thread controlling the fewest connections.</td>
+ * </tr>
  * </table>
  * 
  * @author Jerome Louvel
@@ -207,6 +215,13 @@ public abstract class ServerConnectionHelper extends ConnectionHelper<Server> {
                     if (canHandle(connection, response)) {
                         // Add the response to the outbound queue
                         connection.getOutboundWay().handle(response);
+
+                        if (!getController().getSelectorControllers()
+                                .isEmpty()) {
+                            // Let the selector thread of the connection
+                            // register its interest in writing
+                            connection.wakeupController();
+                        }
                     } else {
                         // Put the response at the end of the queue
                         getOutboundMessages().add(response);
@@ -230,6 +245,18 @@ public abstract class ServerConnectionHelper extends ConnectionHelper<Server> {
         return (ServerConnectionController) super.getController();
     }
 
+    /**
+     * Returns the number of threads selecting the connections ready for IO
+     * operations.
+     * 
+     * @return The number of threads selecting the connections ready for IO
+     *         operations.
+     */
+    public int getSelectorThreads() {
+        return Math.max(1, Integer.parseInt(getHelpedParameters()
+                .getFirstValue("selectorThreads", "1")));
+    }
+
     /**
      * Returns the server socket channel.
      * 
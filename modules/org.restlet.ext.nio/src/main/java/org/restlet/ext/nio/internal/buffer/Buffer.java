@@ -31,6 +31,7 @@ import java.nio.channels.WritableByteChannel;
 import java.util.logging.Level;
 
 import org.restlet.Context;
+import org.restlet.engine.header.HeadBuilder;
 import org.restlet.engine.header.HeaderUtils;
 import org.restlet.ext.nio.internal.util.NioUtils;
 
@@ -64,12 +65,18 @@ public class Buffer {
         return result;
     }
 
-    /** The byte buffer. */
-    private final ByteBuffer bytes;
+    /** The byte buffer, null when released to the pool. */
+    private volatile ByteBuffer bytes;
 
     /** The index of the buffer's beginning while filling. */
     private volatile int fillBegin;
 
+    /** The optional pool leasing the byte buffer. */
+    private final BufferPool pool;
+
+    /** The byte buffer size. */
+    private final int size;
+
     /** The byte buffer IO state. */
     private volatile BufferState state;
 
@@ -95,9 +102,30 @@ public class Buffer {
         super();
         this.fillBegin = 0;
         this.bytes = byteBuffer;
+        this.pool = null;
+        this.size = byteBuffer.capacity();
         this.state = byteBufferState;
     }
 
+    /**
+     * Constructor. The byte buffer is leased from the given pool when bytes
+     * need to be filled, and can be released back to it once the buffer is
+     * empty via the {@link #release()} method.
+     * 
+     * @param pool
+     *            The pool leasing the byte buffer.
+     * @param bufferSize
+     *            The byte buffer size.
+     */
+    public Buffer(BufferPool pool, int bufferSize) {
+        super();
+        this.fillBegin = 0;
+        this.bytes = null;
+        this.pool = pool;
+        this.size = bufferSize;
+        this.state = BufferState.FILLING;
+    }
+
     /**
      * Constructor. Allocates a new non-direct byte buffer.
      * 
@@ -175,7 +203,7 @@ public class Buffer {
      * @return The maximum capacity of this buffer.
      */
     public final int capacity() {
-        return getBytes().capacity();
+        return this.size;
     }
 
     /**
@@ -183,7 +211,11 @@ public class Buffer {
      */
     public void clear() {
         this.fillBegin = 0;
-        this.bytes.clear();
+
+        if (this.bytes != null) {
+            this.bytes.clear();
+        }
+
         this.state = BufferState.FILLING;
     }
 
@@ -207,7 +239,8 @@ public class Buffer {
      * @return True if bytes could be drained.
      */
     public boolean couldDrain() {
-        return (isFilling() && (getBytes().position() > this.fillBegin));
+        return (isFilling() && !isReleased() && (getBytes()
+                .position() > this.fillBegin));
     }
 
     /**
@@ -270,6 +303,58 @@ public class Buffer {
         return NioUtils.copy(getBytes(), targetBuffer, maxDrained);
     }
 
+    /**
+     * Drains the buffer into a head builder, one header line at a time.
+     * 
+     * @param headBuilder
+     *            The head builder to fill.
+     * @param builderState
+     *            The builder state.
+     * @return The new builder state.
+     * @throws IOException
+     */
+    public BufferState drain(HeadBuilder headBuilder, BufferState builderState)
+            throws IOException {
+        int next;
+
+        if (builderState == BufferState.IDLE) {
+            builderState = BufferState.FILLING;
+        }
+
+        while ((builderState != BufferState.DRAINING)
+                && getBytes().hasRemaining()) {
+            next = getBytes().get() & 0xFF;
+
+            switch (builderState) {
+            case FILLING:
+                if (HeaderUtils.isCarriageReturn(next)) {
+                    builderState = BufferState.FILLED;
+                } else {
+                    headBuilder.append(next);
+                }
+
+                break;
+
+            case FILLED:
+                if (HeaderUtils.isLineFeed(next)) {
+                    builderState = BufferState.DRAINING;
+                } else {
+                    throw new IOException(
+                            "Missing line feed character at the end of the line. Found character \""
+                                    + (char) next + "\" (" + next + ") instead");
+                }
+
+                break;
+
+            default:
+                // Nothing to do
+                break;
+            }
+        }
+
+        return builderState;
+    }
+
     /**
      * Drains the buffer into a line builder (start line or header line).
      * 
@@ -425,12 +510,26 @@ public class Buffer {
     }
 
     /**
-     * Returns the byte buffer.
+     * Returns the byte buffer. If it was released, a new one is leased from the
+     * pool.
      * 
      * @return The byte buffer.
      */
     public ByteBuffer getBytes() {
-        return bytes;
+        ByteBuffer result = this.bytes;
+
+        if (result == null) {
+            synchronized (getLock()) {
+                result = this.bytes;
+
+                if (result == null) {
+                    result = this.pool.lease(this.size);
+                    this.bytes = result;
+                }
+            }
+        }
+
+        return result;
     }
 
     /**
@@ -440,7 +539,7 @@ public class Buffer {
      * @return The lock on which multiple thread can synchronize.
      */
     public Object getLock() {
-        return this.bytes;
+        return this;
     }
 
     /**
@@ -458,7 +557,7 @@ public class Buffer {
      * @return True if the buffer has remaining bytes to be read or written.
      */
     public final boolean hasRemaining() {
-        return getBytes().hasRemaining();
+        return isReleased() || getBytes().hasRemaining();
     }
 
     /**
@@ -478,7 +577,8 @@ public class Buffer {
      * @return True if the buffer is empty.
      */
     public boolean isEmpty() {
-        return isFilling() ? (capacity() == remaining()) : !hasRemaining();
+        return isReleased()
+                || (isFilling() ? (capacity() == remaining()) : !hasRemaining());
     }
 
     /**
@@ -491,6 +591,15 @@ public class Buffer {
         return getState() == BufferState.FILLING;
     }
 
+    /**
+     * Indicates if the byte buffer was released to the pool.
+     * 
+     * @return True if the byte buffer was released to the pool.
+     */
+    public boolean isReleased() {
+        return this.bytes == null;
+    }
+
     /**
      * Processes as a loop the IO event by draining or filling the IO buffer.
      * Note that synchronization of the {@link #getLock()} object is
@@ -655,7 +764,24 @@ public class Buffer {
      * @return The number of bytes that can be read or written.
      */
     public final int remaining() {
-        return getBytes().remaining();
+        return isReleased() ? this.size : getBytes().remaining();
+    }
+
+    /**
+     * Releases the byte buffer to the pool if the buffer is empty, so that its
+     * memory can be used by other connections until new bytes need to be
+     * filled. Does nothing if the buffer isn't pooled.
+     */
+    public void release() {
+        synchronized (getLock()) {
+            if ((this.pool != null) && !isReleased() && isEmpty()) {
+                ByteBuffer byteBuffer = this.bytes;
+                this.bytes = null;
+                this.fillBegin = 0;
+                this.state = BufferState.FILLING;
+                this.pool.release(byteBuffer);
+            }
+        }
     }
 
     /**
@@ -670,7 +796,8 @@ public class Buffer {
 
     @Override
     public String toString() {
-        return getBytes().toString() + ", " + getState() + ", " + isEmpty();
+        return (isReleased() ? "Released buffer" : getBytes().toString())
+                + ", " + getState() + ", " + isEmpty();
     }
 
 }
@@ -0,0 +1,271 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.nio.internal.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.restlet.engine.util.Pool;
+
+/**
+ * Pool of byte buffers shared by the connections of a connector helper. The
+ * byte buffers are grouped by capacity, each size class keeping a bounded
+ * number of idle buffers. Buffers released while their size class is full are
+ * left to the garbage collector.
+ * 
+ * @deprecated Will be removed to favor lower-level network extensions allowing more control at the Restlet API level.
+ */
+@Deprecated
+public class BufferPool {
+
+    /**
+     * Pool of byte buffers of the same capacity.
+     */
+    private class SizeClass extends Pool<ByteBuffer> {
+
+        /** The capacity of the byte buffers. */
+        private final int capacity;
+
+        /**
+         * Constructor.
+         * 
+         * @param capacity
+         *            The capacity of the byte buffers.
+         */
+        public SizeClass(int capacity) {
+            super();
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected void clear(ByteBuffer byteBuffer) {
+            byteBuffer.clear();
+        }
+
+        @Override
+        protected ByteBuffer createObject() {
+            createdCount.incrementAndGet();
+            return isDirect() ? ByteBuffer.allocateDirect(this.capacity)
+                    : ByteBuffer.allocate(this.capacity);
+        }
+
+        @Override
+        protected Queue<ByteBuffer> createStore() {
+            if (getMaxIdle() == 0) {
+                // Never keeps idle byte buffers
+                return new SynchronousQueue<ByteBuffer>();
+            }
+
+            return new ArrayBlockingQueue<ByteBuffer>(getMaxIdle());
+        }
+
+        /**
+         * Returns the number of idle byte buffers.
+         * 
+         * @return The number of idle byte buffers.
+         */
+        public int getIdleCount() {
+            return getStore().size();
+        }
+    }
+
+    /** The number of byte buffers created. */
+    private final AtomicLong createdCount;
+
+    /** Indicates if direct NIO buffers are allocated. */
+    private final boolean direct;
+
+    /** The number of byte buffers currently leased. */
+    private final AtomicLong leasedCount;
+
+    /** The total number of leases. */
+    private final AtomicLong leaseCount;
+
+    /** The maximum number of idle byte buffers per size class. */
+    private final int maxIdle;
+
+    /** The size classes. */
+    private final ConcurrentMap<Integer, SizeClass> sizeClasses;
+
+    /**
+     * Constructor.
+     * 
+     * @param direct
+     *            Indicates if direct NIO buffers are allocated.
+     * @param maxIdle
+     *            The maximum number of idle byte buffers per size class. Zero
+     *            disables the pooling, released byte buffers being left to
+     *            the garbage collector.
+     * @throws IllegalArgumentException
+     *             If the maximum number of idle byte buffers is negative.
+     */
+    public BufferPool(boolean direct, int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException(
+                    "The maximum number of idle byte buffers can't be negative: "
+                            + maxIdle);
+        }
+
+        this.createdCount = new AtomicLong();
+        this.direct = direct;
+        this.leasedCount = new AtomicLong();
+        this.leaseCount = new AtomicLong();
+        this.maxIdle = maxIdle;
+        this.sizeClasses = new ConcurrentHashMap<Integer, SizeClass>();
+    }
+
+    /**
+     * Clears the idle byte buffers.
+     */
+    public void clear() {
+        for (SizeClass sizeClass : this.sizeClasses.values()) {
+            sizeClass.clear();
+        }
+    }
+
+    /**
+     * Returns the number of byte buffers created since the pool creation.
+     * 
+     * @return The number of byte buffers created.
+     */
+    public long getCreatedCount() {
+        return this.createdCount.get();
+    }
+
+    /**
+     * Returns the number of idle byte buffers kept by the pool.
+     * 
+     * @return The number of idle byte buffers.
+     */
+    public int getIdleCount() {
+        int result = 0;
+
+        for (SizeClass sizeClass : this.sizeClasses.values()) {
+            result += sizeClass.getIdleCount();
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the total number of leases since the pool creation.
+     * 
+     * @return The total number of leases.
+     */
+    public long getLeaseCount() {
+        return this.leaseCount.get();
+    }
+
+    /**
+     * Returns the number of byte buffers currently leased.
+     * 
+     * @return The number of byte buffers currently leased.
+     */
+    public long getLeasedCount() {
+        return this.leasedCount.get();
+    }
+
+    /**
+     * Returns the maximum number of idle byte buffers per size class.
+     * 
+     * @return The maximum number of idle byte buffers per size class.
+     */
+    public int getMaxIdle() {
+        return this.maxIdle;
+    }
+
+    /**
+     * Returns the size class of the given capacity, creating it if needed.
+     * 
+     * @param capacity
+     *            The capacity of the byte buffers.
+     * @return The size class.
+     */
+    private SizeClass getSizeClass(int capacity) {
+        SizeClass result = this.sizeClasses.get(capacity);
+
+        if (result == null) {
+            result = new SizeClass(capacity);
+            SizeClass prev = this.sizeClasses.putIfAbsent(capacity, result);
+
+            if (prev != null) {
+                // Reuse previous size class
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Indicates if direct NIO buffers are allocated.
+     * 
+     * @return True if direct NIO buffers are allocated.
+     */
+    public boolean isDirect() {
+        return this.direct;
+    }
+
+    /**
+     * Leases a cleared byte buffer of the given capacity, reusing an idle one
+     * if possible.
+     * 
+     * @param capacity
+     *            The capacity of the byte buffer.
+     * @return The leased byte buffer.
+     */
+    public ByteBuffer lease(int capacity) {
+        this.leaseCount.incrementAndGet();
+        this.leasedCount.incrementAndGet();
+        return getSizeClass(capacity).checkout();
+    }
+
+    /**
+     * Releases a byte buffer previously leased.
+     * 
+     * @param byteBuffer
+     *            The byte buffer to release.
+     */
+    public void release(ByteBuffer byteBuffer) {
+        if (byteBuffer != null) {
+            this.leasedCount.decrementAndGet();
+            getSizeClass(byteBuffer.capacity()).checkin(byteBuffer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Buffer pool: " + getCreatedCount() + " created, "
+                + getLeasedCount() + " leased, " + getIdleCount() + " idle, "
+                + getLeaseCount() + " leases";
+    }
+
+}
@@ -26,7 +26,9 @@ package org.restlet.ext.nio.internal.channel;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.logging.Level;
 
 import org.restlet.Context;
@@ -123,6 +125,50 @@ public class ReadableSizedChannel extends WrapperChannel<ReadableByteChannel>
         return result;
     }
 
+    /**
+     * Transfers some bytes directly from the underlying file channel to the
+     * target channel, relying on the
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)} method
+     * to avoid copying them into an intermediary buffer. The underlying
+     * channel must be a {@link FileChannel}.
+     * 
+     * @param target
+     *            The target channel.
+     * @return The number of bytes transferred, or -1 if the end of the channel
+     *         has been reached.
+     */
+    public int transferTo(WritableByteChannel target) throws IOException {
+        int result = 0;
+
+        if (getAvailableSize() > 0) {
+            FileChannel fileChannel = (FileChannel) getWrappedChannel();
+            long position = fileChannel.position();
+            result = (int) fileChannel.transferTo(position,
+                    Math.min(getAvailableSize(), Integer.MAX_VALUE), target);
+
+            if (result > 0) {
+                fileChannel.position(position + result);
+                setAvailableSize(getAvailableSize() - result);
+
+                if (Context.getCurrentLogger().isLoggable(Level.FINER)) {
+                    Context.getCurrentLogger().finer(
+                            "Bytes (transferred | available) : " + result
+                                    + " | " + getAvailableSize());
+                }
+            } else if (position >= fileChannel.size()) {
+                result = -1;
+            }
+        } else {
+            result = -1;
+        }
+
+        if (result == -1) {
+            setEndDetected(true);
+        }
+
+        return result;
+    }
+
     /**
      * Sets the remaining size that should be read from the source channel.
      * 
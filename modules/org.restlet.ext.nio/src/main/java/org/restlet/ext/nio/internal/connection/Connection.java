@@ -63,6 +63,12 @@ import org.restlet.util.SelectionRegistration;
 @Deprecated
 public class Connection<T extends Connector> implements SelectionListener {
 
+    /** Indicates if an abort was requested by a client call. */
+    private volatile boolean aborted;
+
+    /** The IO controller. */
+    private volatile ConnectionController controller;
+
     /** The parent connector helper. */
     private final ConnectionHelper<T> helper;
 
@@ -130,11 +136,23 @@ public class Connection<T extends Connector> implements SelectionListener {
         init(socketChannel, controller, socketAddress);
     }
 
+    /**
+     * Requests the connection to be closed by its controller, failing all the
+     * messages it handles. Typically invoked by a thread cancelling a client
+     * call, see {@link org.restlet.engine.resource.ClientFuture}.
+     */
+    public void abort() {
+        this.aborted = true;
+        wakeupController();
+    }
+
     /**
      * Clears the connection so it can be reused. Typically invoked by a
      * connection pool.
      */
     public void clear() {
+        this.aborted = false;
+        this.controller = null;
         this.inboundWay.clear();
         this.outboundWay.clear();
         this.readableSelectionChannel = null;
@@ -258,6 +276,15 @@ public class Connection<T extends Connector> implements SelectionListener {
                         .getInetAddress().getHostAddress();
     }
 
+    /**
+     * Returns the IO controller of this connection.
+     * 
+     * @return The IO controller of this connection.
+     */
+    public ConnectionController getController() {
+        return controller;
+    }
+
     /**
      * Returns the parent connector helper.
      * 
@@ -443,10 +470,12 @@ public class Connection<T extends Connector> implements SelectionListener {
     public void init(SocketChannel socketChannel,
             ConnectionController controller, InetSocketAddress socketAddress)
             throws IOException {
+        this.aborted = false;
         this.persistent = helper.isPersistingConnections();
         this.pipelining = helper.isPipeliningConnections();
         this.maxIoIdleTimeMs = helper.getMaxIoIdleTimeMs();
         this.state = ConnectionState.OPENING;
+        this.controller = controller;
         this.socketChannel = socketChannel;
         this.socketAddress = socketAddress;
 
@@ -472,6 +501,15 @@ public class Connection<T extends Connector> implements SelectionListener {
         onActivity();
     }
 
+    /**
+     * Indicates if an abort was requested, see {@link #abort()}.
+     * 
+     * @return True if an abort was requested.
+     */
+    public boolean isAborted() {
+        return this.aborted;
+    }
+
     /**
      * Indicates if the connection is available to handle new messages.
      * 
@@ -570,7 +608,7 @@ public class Connection<T extends Connector> implements SelectionListener {
         close(false);
 
         // Give the controller a hint to clean up the closed connection
-        getHelper().getController().wakeup();
+        wakeupController();
     }
 
     /**
@@ -824,4 +862,18 @@ public class Connection<T extends Connector> implements SelectionListener {
 
         return result;
     }
+
+    /**
+     * Wakes up the IO controller of this connection, or the helper's controller
+     * if the connection isn't associated to a controller.
+     */
+    public void wakeupController() {
+        ConnectionController controller = getController();
+
+        if (controller == null) {
+            controller = getHelper().getController();
+        }
+
+        controller.wakeup();
+    }
 }
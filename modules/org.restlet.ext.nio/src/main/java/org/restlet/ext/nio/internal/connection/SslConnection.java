@@ -439,7 +439,7 @@ public class SslConnection<T extends Connector> extends Connection<T> {
                                 "Unable to handle SSL handshake", e);
                     }
 
-                    getHelper().getController().wakeup();
+                    wakeupController();
                 }
             });
         }
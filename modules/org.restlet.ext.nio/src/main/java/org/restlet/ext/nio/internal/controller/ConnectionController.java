@@ -31,11 +31,14 @@ import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 import org.restlet.Context;
+import org.restlet.data.Status;
 import org.restlet.engine.io.WakeupListener;
 import org.restlet.ext.nio.ConnectionHelper;
 import org.restlet.ext.nio.internal.connection.Connection;
@@ -53,6 +56,9 @@ import org.restlet.util.SelectionRegistration;
 public class ConnectionController extends Controller implements Runnable,
         WakeupListener {
 
+    /** The connections controlled by this controller. */
+    private final List<Connection<?>> connections;
+
     /** The list of new selection registrations. */
     private final Queue<SelectionRegistration> newRegistrations;
 
@@ -70,6 +76,7 @@ public class ConnectionController extends Controller implements Runnable,
      */
     public ConnectionController(ConnectionHelper<?> helper) {
         super(helper);
+        this.connections = new CopyOnWriteArrayList<Connection<?>>();
         this.newRegistrations = new ConcurrentLinkedQueue<SelectionRegistration>();
         this.updatedRegistrations = new ConcurrentLinkedQueue<SelectionRegistration>();
     }
@@ -91,11 +98,15 @@ public class ConnectionController extends Controller implements Runnable,
 
         if (conn.getState() == ConnectionState.CLOSED) {
             // Detach the connection and collect it
+            getConnections().remove(conn);
             getHelper().getConnections().remove(conn);
             getHelper().checkin(conn);
         } else if ((conn.getState() == ConnectionState.CLOSING)
                 && conn.isEmpty()) {
             conn.close(false);
+        } else if (conn.isAborted()) {
+            conn.onError("The client call was aborted", null,
+                    Status.CONNECTOR_ERROR_COMMUNICATION);
         } else if (conn.hasTimedOut()) {
             conn.onTimeOut();
         } else if (conn.updateState()) {
@@ -106,12 +117,12 @@ public class ConnectionController extends Controller implements Runnable,
     }
 
     /**
-     * Controls all helper connections.
+     * Controls all the connections of this controller.
      * 
      * @throws IOException
      */
     protected void controlConnections() throws IOException {
-        for (Connection<?> connection : getHelper().getConnections()) {
+        for (Connection<?> connection : getConnections()) {
             controlConnection(connection);
         }
     }
@@ -136,7 +147,7 @@ public class ConnectionController extends Controller implements Runnable,
 
     @Override
     protected void doInit() {
-        this.selector = createSelector();
+        initSelector();
         // Done in the controller for thread safety reason regarding the byte
         // buffers part of the pooled connections
         getHelper().createConnectionPool();
@@ -167,6 +178,16 @@ public class ConnectionController extends Controller implements Runnable,
         selectKeys(sleepTime);
     }
 
+    /**
+     * Returns the connections controlled by this controller. They are also
+     * part of the helper's connections.
+     * 
+     * @return The connections controlled by this controller.
+     */
+    public List<Connection<?>> getConnections() {
+        return this.connections;
+    }
+
     /**
      * Returns the queue of new selection registrations.
      * 
@@ -194,6 +215,13 @@ public class ConnectionController extends Controller implements Runnable,
         return this.updatedRegistrations;
     }
 
+    /**
+     * Opens the NIO selector.
+     */
+    protected void initSelector() {
+        this.selector = createSelector();
+    }
+
     /**
      * Called back when a ready key has been selected.
      * 
@@ -101,6 +101,17 @@ public abstract class Controller {
         return getHelper().getWorkerService();
     }
 
+    /**
+     * Indicates if the controller detects the overload of the helper's worker
+     * service. By default, it is the case if the helper has worker threads.
+     * 
+     * @return True if the controller detects the overload of the worker
+     *         service.
+     */
+    protected boolean isDetectingOverload() {
+        return getHelper().hasWorkerThreads();
+    }
+
     /**
      * Indicates if the controller is overloaded.
      * 
@@ -127,12 +138,12 @@ public abstract class Controller {
             doInit();
             setRunning(true);
             long sleepTime = getHelper().getControllerSleepTimeMs();
-            boolean hasWorkerThreads = getHelper().hasWorkerThreads();
+            boolean detectingOverload = isDetectingOverload();
             boolean isWorkerServiceOverloaded;
 
             while (isRunning()) {
                 try {
-                    if (hasWorkerThreads) {
+                    if (detectingOverload) {
                         isWorkerServiceOverloaded = getHelper()
                                 .isWorkerServiceOverloaded();
 
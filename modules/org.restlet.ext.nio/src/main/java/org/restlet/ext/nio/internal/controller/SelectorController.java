@@ -0,0 +1,109 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.nio.internal.controller;
+
+import org.restlet.data.Status;
+import org.restlet.ext.nio.ConnectionHelper;
+import org.restlet.ext.nio.internal.connection.Connection;
+
+/**
+ * Controls the IO work of a subset of the connections of a parent server
+ * helper, with its own NIO selector and thread. Unlike the main controller, it
+ * doesn't accept new connections, but it shares the handling of the helper's
+ * inbound and outbound messages.<br>
+ * <br>
+ * When it stops, normally or after an unexpected error, the connections it
+ * still controls are closed as no other thread would select them anymore.
+ * 
+ * @deprecated Will be removed to favor lower-level network extensions allowing more control at the Restlet API level.
+ */
+@Deprecated
+public class SelectorController extends ConnectionController {
+
+    /** Indicates if the controller has stopped and released its selector. */
+    private volatile boolean released;
+
+    /**
+     * Constructor.
+     * 
+     * @param helper
+     *            The parent connector helper.
+     */
+    public SelectorController(ConnectionHelper<?> helper) {
+        super(helper);
+    }
+
+    /**
+     * Closes the connections still controlled, signaling an error to their
+     * ways. Each connection is only closed once, even if this method is
+     * invoked concurrently.
+     */
+    public void closeConnections() {
+        for (Connection<?> connection : getConnections()) {
+            if (getConnections().remove(connection)) {
+                connection.onError(
+                        "The selector thread controlling the connection stopped",
+                        null, Status.CONNECTOR_ERROR_INTERNAL);
+                getHelper().getConnections().remove(connection);
+                getHelper().checkin(connection);
+            }
+        }
+    }
+
+    @Override
+    protected void doInit() {
+        // The connection pool is created by the main controller
+        initSelector();
+    }
+
+    @Override
+    protected void doRelease() {
+        this.released = true;
+
+        try {
+            closeConnections();
+        } finally {
+            super.doRelease();
+        }
+    }
+
+    @Override
+    protected boolean isDetectingOverload() {
+        // Detected by the main controller
+        return false;
+    }
+
+    /**
+     * Indicates if the controller has stopped and released its selector. New
+     * connections must not be assigned to it anymore.
+     * 
+     * @return True if the controller has stopped.
+     */
+    public boolean isReleased() {
+        return this.released;
+    }
+
+}
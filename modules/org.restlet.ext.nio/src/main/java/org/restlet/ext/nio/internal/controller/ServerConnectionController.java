@@ -31,18 +31,27 @@ import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.restlet.Server;
 import org.restlet.engine.io.IoUtils;
+import org.restlet.engine.log.LoggingThreadFactory;
 import org.restlet.ext.nio.ServerConnectionHelper;
 import org.restlet.ext.nio.internal.connection.Connection;
 
 /**
  * Controls the IO work of parent server helper and manages its connections.
- * Listens on a server socket channel for incoming connections.
+ * Listens on a server socket channel for incoming connections. When the helper
+ * has several selector threads, the accepted connections are assigned to the
+ * least loaded controller, either this one or one of the additional
+ * {@link SelectorController} instances.
  * 
  * @author Jerome Louvel
  * @deprecated Will be removed to favor lower-level network extensions allowing more control at the Restlet API level.
@@ -53,6 +62,12 @@ public class ServerConnectionController extends ConnectionController {
     /** The latch to countdown when the socket is ready to accept connections. */
     private final CountDownLatch latch;
 
+    /** The additional selector controllers. */
+    private volatile List<SelectorController> selectorControllers;
+
+    /** The service running the additional selector controllers. */
+    private volatile ExecutorService selectorService;
+
     /**
      * Constructor.
      * 
@@ -62,6 +77,7 @@ public class ServerConnectionController extends ConnectionController {
     public ServerConnectionController(ServerConnectionHelper helper) {
         super(helper);
         this.latch = new CountDownLatch(1);
+        this.selectorControllers = Collections.emptyList();
     }
 
     /**
@@ -83,6 +99,25 @@ public class ServerConnectionController extends ConnectionController {
     protected void doInit() {
         super.doInit();
 
+        // Start the additional selector controllers
+        int selectorThreads = getHelper().getSelectorThreads();
+
+        if (selectorThreads > 1) {
+            List<SelectorController> controllers = new ArrayList<SelectorController>();
+            this.selectorService = Executors.newFixedThreadPool(
+                    selectorThreads - 1, new LoggingThreadFactory(getHelper()
+                            .getLogger(), getHelper().isControllerDaemon()));
+
+            for (int i = 1; i < selectorThreads; i++) {
+                SelectorController controller = new SelectorController(
+                        getHelper());
+                controllers.add(controller);
+                this.selectorService.submit(controller);
+            }
+
+            this.selectorControllers = controllers;
+        }
+
         // Register interest in NIO accept events
         try {
             getHelper().getServerSocketChannel().register(getSelector(),
@@ -96,6 +131,31 @@ public class ServerConnectionController extends ConnectionController {
         this.latch.countDown();
     }
 
+    @Override
+    protected void doRelease() {
+        super.doRelease();
+
+        // Stop the additional selector controllers
+        if (this.selectorService != null) {
+            for (SelectorController controller : this.selectorControllers) {
+                controller.shutdown();
+            }
+
+            this.selectorService.shutdown();
+
+            try {
+                this.selectorService.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                getHelper().getLogger().log(Level.FINE,
+                        "Interruption while shutting down the selector service",
+                        ex);
+            }
+
+            this.selectorService = null;
+            this.selectorControllers = Collections.emptyList();
+        }
+    }
+
     /**
      * Returns the parent server helper.
      * 
@@ -105,6 +165,38 @@ public class ServerConnectionController extends ConnectionController {
         return (ServerConnectionHelper) super.getHelper();
     }
 
+    /**
+     * Returns the controller that should handle a new connection. It is the
+     * one controlling the fewest connections, among this controller and the
+     * additional selector controllers that haven't stopped.
+     * 
+     * @return The controller that should handle a new connection.
+     */
+    protected ConnectionController getNextController() {
+        ConnectionController result = this;
+        int fewest = getConnections().size();
+
+        for (SelectorController controller : this.selectorControllers) {
+            int size = controller.getConnections().size();
+
+            if ((size < fewest) && !controller.isReleased()) {
+                result = controller;
+                fewest = size;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the additional selector controllers.
+     * 
+     * @return The additional selector controllers.
+     */
+    public List<SelectorController> getSelectorControllers() {
+        return this.selectorControllers;
+    }
+
     @Override
     protected void onSelected(SelectionKey key) throws IOException {
         if (!key.isAcceptable()) {
@@ -124,13 +216,28 @@ public class ServerConnectionController extends ConnectionController {
                     if ((getHelper().getMaxTotalConnections() == -1)
                             || (connectionsCount <= getHelper()
                                     .getMaxTotalConnections())) {
+                        ConnectionController controller = getNextController();
                         Connection<Server> connection = getHelper().checkout(
                                 socketChannel,
-                                this,
+                                controller,
                                 (InetSocketAddress) socketChannel.socket()
                                         .getRemoteSocketAddress());
                         connection.open();
                         getHelper().getConnections().add(connection);
+                        controller.getConnections().add(connection);
+
+                        if (controller instanceof SelectorController) {
+                            SelectorController selectorController = (SelectorController) controller;
+
+                            if (selectorController.isReleased()) {
+                                // Stopped since it was chosen
+                                selectorController.closeConnections();
+                            } else {
+                                // Let the selector thread register the
+                                // connection
+                                selectorController.wakeup();
+                            }
+                        }
 
                         if (getHelper().getLogger().isLoggable(Level.FINE)) {
                             getHelper().getLogger().fine(
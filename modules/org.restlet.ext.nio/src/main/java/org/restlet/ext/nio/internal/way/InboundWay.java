@@ -31,7 +31,7 @@ import java.util.logging.Level;
 import org.restlet.Response;
 import org.restlet.data.Header;
 import org.restlet.data.Status;
-import org.restlet.engine.header.HeaderReader;
+import org.restlet.engine.header.HeadBuilder;
 import org.restlet.engine.header.HeaderUtils;
 import org.restlet.engine.io.ReadableSelectionChannel;
 import org.restlet.ext.nio.internal.buffer.Buffer;
@@ -63,6 +63,9 @@ public abstract class InboundWay extends Way {
     /** The NIO selection registration of the entity. */
     private volatile SelectionRegistration entityRegistration;
 
+    /** The builder of the header lines of the current message. */
+    private final HeadBuilder headBuilder;
+
     /**
      * Constructor.
      * 
@@ -74,6 +77,7 @@ public abstract class InboundWay extends Way {
     public InboundWay(Connection<?> connection, int bufferSize) {
         super(connection, bufferSize);
         this.builderIndex = 0;
+        this.headBuilder = new HeadBuilder();
     }
 
     @Override
@@ -81,6 +85,16 @@ public abstract class InboundWay extends Way {
         super.clear();
         this.builderIndex = 0;
         this.entityRegistration = null;
+        this.headBuilder.clear();
+    }
+
+    /**
+     * Returns the builder of the header lines of the current message.
+     * 
+     * @return The builder of the header lines of the current message.
+     */
+    protected HeadBuilder getHeadBuilder() {
+        return headBuilder;
     }
 
     /**
@@ -149,14 +163,24 @@ public abstract class InboundWay extends Way {
      */
     protected boolean fillLine() throws IOException {
         boolean result = false;
-        setLineBuilderState(getBuffer().drain(getLineBuilder(),
-                getLineBuilderState()));
+
+        if (getMessageState() == MessageState.HEADERS) {
+            // Header lines are kept as bytes until their value is read
+            setLineBuilderState(getBuffer().drain(getHeadBuilder(),
+                    getLineBuilderState()));
+        } else {
+            setLineBuilderState(getBuffer().drain(getLineBuilder(),
+                    getLineBuilderState()));
+        }
 
         if (getLineBuilderState() == BufferState.DRAINING) {
             result = true;
 
             if (getLogger().isLoggable(Level.FINE)) {
-                getLogger().log(Level.FINE, getLineBuilder().toString());
+                getLogger().log(
+                        Level.FINE,
+                        (getMessageState() == MessageState.HEADERS) ? getHeadBuilder()
+                                .getLine() : getLineBuilder().toString());
             }
         }
 
@@ -299,7 +323,7 @@ public abstract class InboundWay extends Way {
 
         // Wakeup the controller to update the registrations,
         // since this callback can be called asynchronous
-        getHelper().getController().wakeup();
+        getConnection().wakeupController();
 
         if (getLogger().isLoggable(Level.FINER)) {
             getLogger().finer("Inbound message completed");
@@ -365,8 +389,14 @@ public abstract class InboundWay extends Way {
      * @throws IOException
      */
     protected Header readHeader() throws IOException {
-        Header header = HeaderReader.readHeader(getLineBuilder());
+        Header header = getHeadBuilder().readHeader();
         clearLineBuilder();
+
+        if (header == null) {
+            // The next message head needs a new byte array
+            getHeadBuilder().clear();
+        }
+
         return header;
     }
 
@@ -41,10 +41,12 @@ import org.restlet.engine.connector.ConnectorHelper;
 import org.restlet.engine.header.HeaderConstants;
 import org.restlet.engine.header.HeaderUtils;
 import org.restlet.engine.io.BlockableChannel;
+import org.restlet.engine.io.IoUtils;
 import org.restlet.engine.util.StringUtils;
 import org.restlet.ext.nio.internal.buffer.Buffer;
 import org.restlet.ext.nio.internal.channel.ReadableChunkingChannel;
 import org.restlet.ext.nio.internal.channel.ReadableSizedChannel;
+import org.restlet.ext.nio.internal.channel.WritableSocketChannel;
 import org.restlet.ext.nio.internal.connection.Connection;
 import org.restlet.ext.nio.internal.state.IoState;
 import org.restlet.ext.nio.internal.state.MessageState;
@@ -144,6 +146,23 @@ public abstract class OutboundWay extends Way {
      */
     protected abstract void addHeaders(Series<Header> headers);
 
+    /**
+     * Indicates if the entity can be directly transferred from its file
+     * channel to the socket channel, bypassing the IO buffer. This requires a
+     * file entity of known size, an empty IO buffer and a plain socket
+     * channel, without SSL or tracing wrappers.
+     * 
+     * @param buffer
+     *            The IO buffer.
+     * @return True if the entity can be directly transferred.
+     */
+    protected boolean canTransferEntity(Buffer buffer) {
+        return (getEntityChannelType() == EntityType.TRANSFERABLE)
+                && (getEntityChannel() instanceof ReadableSizedChannel)
+                && buffer.isEmpty()
+                && (getConnection().getWritableSelectionChannel() instanceof WritableSocketChannel);
+    }
+
     @Override
     public void clear() {
         super.clear();
@@ -297,7 +316,9 @@ public abstract class OutboundWay extends Way {
         // buffer
         if (getMessageState() == MessageState.BODY) {
             try {
-                int filled = buffer.fill(getEntityChannel());
+                int filled = canTransferEntity(buffer) ? ((ReadableSizedChannel) getEntityChannel())
+                        .transferTo(getConnection().getSocketChannel())
+                        : buffer.fill(getEntityChannel());
 
                 // Detect end of entity reached
                 if (filled == -1) {
@@ -378,6 +399,8 @@ public abstract class OutboundWay extends Way {
 
             if (rbc instanceof FileChannel) {
                 setEntityChannelType(EntityType.TRANSFERABLE);
+                ((FileChannel) rbc).position(IoUtils
+                        .getAvailableIndex(getActualMessage().getEntity()));
             } else if (rbc instanceof BlockableChannel) {
                 BlockableChannel bc = (BlockableChannel) rbc;
 
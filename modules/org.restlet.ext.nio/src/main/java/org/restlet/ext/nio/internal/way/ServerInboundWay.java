@@ -132,6 +132,11 @@ public abstract class ServerInboundWay extends InboundWay {
             // Add it to the helper queue
             getHelper().getInboundMessages().add(message);
 
+            if (getConnection().getController() != getHelper().getController()) {
+                // Let the selector thread of the connection handle it
+                getConnection().wakeupController();
+            }
+
             if (!message.getRequest().isEntityAvailable()) {
                 // The request has been completely read
                 onMessageCompleted(false);
@@ -96,7 +96,9 @@ public abstract class Way implements SelectionListener, CompletionListener,
      */
     public Way(Connection<?> connection, int bufferSize) {
         this.connection = connection;
-        this.buffer = new Buffer(bufferSize, getHelper().isDirectBuffers());
+        this.buffer = (getHelper().getBufferPool() == null) ? new Buffer(
+                bufferSize, getHelper().isDirectBuffers()) : new Buffer(
+                getHelper().getBufferPool(), bufferSize);
         this.headers = null;
         this.ioState = IoState.IDLE;
         this.lineBuilder = new StringBuilder();
@@ -134,6 +136,7 @@ public abstract class Way implements SelectionListener, CompletionListener,
         }
 
         this.buffer.clear();
+        this.buffer.release();
         this.headers = null;
         this.ioState = IoState.IDLE;
         clearLineBuilder();
@@ -459,6 +462,12 @@ public abstract class Way implements SelectionListener, CompletionListener,
             } else if ((getIoState() == IoState.PROCESSING)) {
                 onPostProcessing();
             }
+
+            if ((getMessageState() == MessageState.IDLE)
+                    && getBuffer().isEmpty()) {
+                // Return the byte buffer to the pool until new bytes arrive
+                getBuffer().release();
+            }
         } catch (Exception e) {
             getConnection().onError("Error while processing a connection", e,
                     Status.CONNECTOR_ERROR_COMMUNICATION);
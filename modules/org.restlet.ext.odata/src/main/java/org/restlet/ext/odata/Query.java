@@ -40,6 +40,7 @@ import org.restlet.ext.atom.Link;
 import org.restlet.ext.atom.Relation;
 import org.restlet.ext.odata.internal.EntryContentHandler;
 import org.restlet.ext.odata.internal.FeedContentHandler;
+import org.restlet.ext.odata.internal.StreamingEntryIterator;
 import org.restlet.ext.odata.internal.edm.EntityType;
 import org.restlet.ext.odata.internal.edm.Metadata;
 import org.restlet.representation.Representation;
@@ -170,6 +171,9 @@ public class Query<T> implements Iterable<T> {
     /** Type of query: unknown. */
     public static final int TYPE_UNKNOWN = 0;
 
+    /** The default number of entities buffered in streaming mode. */
+    public static final int DEFAULT_STREAM_BUFFER_SIZE = 64;
+
     /** The number of entities. */
     private int count;
 
@@ -190,6 +194,9 @@ public class Query<T> implements Iterable<T> {
     /** Is the inline asked for? */
     private boolean inlineCount;
 
+    /** Is the next page read while the current one is consumed? */
+    private boolean prefetch;
+
     /** Internal logger. */
     private Logger logger;
 
@@ -202,6 +209,12 @@ public class Query<T> implements Iterable<T> {
     /** The parent client service. */
     private Service service;
 
+    /**
+     * The number of entities buffered in streaming mode, or 0 if the whole
+     * feed is parsed before iteration.
+     */
+    private int streamBufferSize;
+
     /** The path of the targeted entity relatively to the data service URI. */
     private String subpath;
 
@@ -258,6 +271,8 @@ public class Query<T> implements Iterable<T> {
             result.setQuery(getQuery() + "&" + name + "=" + value);
         }
 
+        result.prefetch = this.prefetch;
+        result.streamBufferSize = this.streamBufferSize;
         return result;
     }
 
@@ -294,6 +309,8 @@ public class Query<T> implements Iterable<T> {
             result.setQuery(getQuery() + "&" + builder.toString());
         }
 
+        result.prefetch = this.prefetch;
+        result.streamBufferSize = this.streamBufferSize;
         return result;
     }
 
@@ -623,6 +640,17 @@ public class Query<T> implements Iterable<T> {
         return result;
     }
 
+    /**
+     * Indicates if the entities of an entity set are streamed to the iterator
+     * as they are parsed.
+     * 
+     * @return True if the entities are streamed.
+     * @see #stream(int, boolean)
+     */
+    public boolean isStreaming() {
+        return streamBufferSize > 0;
+    }
+
     /**
      * Returns true if the query has been executed.
      * 
@@ -641,6 +669,18 @@ public class Query<T> implements Iterable<T> {
     public Iterator<T> iterator() {
         Iterator<T> result = null;
 
+        if (isStreaming() && !isExecuted()) {
+            String targetUri = createTargetUri();
+
+            if ((guessType(targetUri) == TYPE_ENTITY_SET)
+                    && (service.getMetadata() != null)) {
+                return new StreamingEntryIterator<T>(service, new Reference(
+                        targetUri), entityClass, entityType,
+                        (Metadata) service.getMetadata(), streamBufferSize,
+                        prefetch, getLogger());
+            }
+        }
+
         try {
             execute();
             result = entities.iterator();
@@ -762,6 +802,34 @@ public class Query<T> implements Iterable<T> {
         return addParameter("$skiptoken", token);
     }
 
+    /**
+     * Creates a new Query<T> whose iterator streams the entities of the entity
+     * set as they are parsed, instead of parsing the whole feed first. Pages
+     * are retrieved and parsed by a background thread and handed to the
+     * iterator through a bounded buffer, so memory stays bounded whatever the
+     * size of the feed. The returned iterator implements
+     * {@link java.io.Closeable} and should be closed if it isn't consumed until
+     * the end. Queries that don't target an entity set are executed as usual.
+     * 
+     * @param bufferSize
+     *            The maximum number of parsed entities waiting to be consumed.
+     * @param prefetch
+     *            True if the next page should be retrieved while the current
+     *            one is still consumed.
+     * @return A new Query<T> streaming its entities.
+     * @see #DEFAULT_STREAM_BUFFER_SIZE
+     */
+    @SuppressWarnings("unchecked")
+    public Query<T> stream(int bufferSize, boolean prefetch) {
+        Query<T> result = new Query<T>(this.getService(), this.getSubpath(),
+                (Class<T>) this.entityClass);
+        result.setQuery(getQuery());
+        result.inlineCount = this.inlineCount;
+        result.prefetch = prefetch;
+        result.streamBufferSize = Math.max(1, bufferSize);
+        return result;
+    }
+
     /**
      * Creates a new Query<T> with the $top option set in the URI generated by
      * the returned query.
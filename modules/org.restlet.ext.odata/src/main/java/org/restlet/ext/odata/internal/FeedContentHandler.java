@@ -129,6 +129,18 @@ public class FeedContentHandler<T> extends FeedReader {
         this.metadata = metadata;
     }
 
+    /**
+     * Handles an entity parsed from the feed. By default, it is added to the
+     * list of discovered entities.
+     * 
+     * @param entity
+     *            The parsed entity.
+     * @see #getEntities()
+     */
+    protected void addEntity(T entity) {
+        entities.add(entity);
+    }
+
     @Override
     public void characters(char[] ch, int start, int length)
             throws SAXException {
@@ -201,7 +213,7 @@ public class FeedContentHandler<T> extends FeedReader {
             T entity = entryHandler.getEntity();
 
             if (entity != null) {
-                entities.add(entity);
+                addEntity(entity);
             } else {
                 getLogger().warning("Can't add a null entity.");
             }
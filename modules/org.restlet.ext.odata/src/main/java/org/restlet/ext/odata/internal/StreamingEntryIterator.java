@@ -0,0 +1,540 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.odata.internal;
+
+import java.io.Closeable;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.restlet.data.MediaType;
+import org.restlet.data.Reference;
+import org.restlet.ext.atom.Entry;
+import org.restlet.ext.atom.Feed;
+import org.restlet.ext.atom.Link;
+import org.restlet.ext.atom.Relation;
+import org.restlet.ext.odata.Service;
+import org.restlet.ext.odata.internal.edm.EntityType;
+import org.restlet.ext.odata.internal.edm.Metadata;
+import org.restlet.representation.Representation;
+import org.restlet.resource.ClientResource;
+import org.restlet.resource.ResourceException;
+
+/**
+ * Iterator that streams the entities of an entity set as they are parsed from
+ * the Atom feed, transparently supporting server-side paging. The feed pages
+ * are retrieved and parsed by a background thread, which hands the entities to
+ * the iterator through a bounded buffer. The memory used is therefore bounded
+ * by the size of this buffer, whatever the size of the feed.<br>
+ * <br>
+ * When prefetching is enabled, the next page is retrieved as soon as the
+ * current one is parsed, while its last entities are still consumed. Otherwise,
+ * the next page is only retrieved once the current one has been fully
+ * consumed. In this case, the background thread is released if the next page
+ * isn't requested during {@link #IDLE_TIMEOUT_MS}, and a new one is started
+ * when it is.<br>
+ * <br>
+ * Iterators that aren't consumed until the end should be closed in order to
+ * release the background thread and the underlying connection. Otherwise, they
+ * are released once garbage collected. Slow consumers are simply waited for.<br>
+ * <br>
+ * If the feed can't be entirely read, the error is thrown by the
+ * {@link #hasNext()} and {@link #next()} methods once the entities parsed
+ * before it have been consumed.
+ * 
+ * @param <T>
+ *            The type of the streamed entities.
+ */
+public class StreamingEntryIterator<T> implements Iterator<T>, Closeable {
+
+    /**
+     * Producer parsing the feed pages in the background. It only keeps a weak
+     * reference to the iterator in order to detect when it is abandoned.
+     */
+    private static class Producer<T> implements Runnable {
+
+        /** Indicates if the iterator has been closed or abandoned. */
+        private volatile boolean closed;
+
+        /** The value of the first "count" tag, or -1. */
+        private volatile int count;
+
+        /** The class of the streamed entities. */
+        private final Class<?> entityClass;
+
+        /** The entity type of the streamed entities. */
+        private final EntityType entityType;
+
+        /** The error that stopped the reading of the feed. */
+        private volatile Throwable failure;
+
+        /** The reference of the first page. */
+        private final Reference firstPage;
+
+        /** The internal logger. */
+        private final Logger logger;
+
+        /** The metadata of the OData service. */
+        private final Metadata metadata;
+
+        /** The reference of the next page to read. */
+        private Reference nextPage;
+
+        /** The iterator fed by this producer. */
+        private final WeakReference<Object> owner;
+
+        /** Lets the background thread read the next page. */
+        private final Semaphore pageRequests;
+
+        /** Indicates if the next page is read while the current one is consumed. */
+        private final boolean prefetch;
+
+        /** The buffer between the background thread and the iterator. */
+        private final BlockingQueue<Object> queue;
+
+        /** The underlying service. */
+        private final Service service;
+
+        /** Indicates if the background thread stopped for good. */
+        private volatile boolean stopped;
+
+        /**
+         * Indicates if the background thread was released while waiting for
+         * the next page to be requested.
+         */
+        private boolean suspended;
+
+        /**
+         * Constructor.
+         * 
+         * @param owner
+         *            The iterator fed by this producer.
+         * @param service
+         *            The underlying service.
+         * @param firstPage
+         *            The reference of the first page of the feed.
+         * @param entityClass
+         *            The class of the streamed entities.
+         * @param entityType
+         *            The entity type of the streamed entities.
+         * @param metadata
+         *            The metadata of the OData service.
+         * @param bufferSize
+         *            The maximum number of parsed entities waiting to be
+         *            consumed.
+         * @param prefetch
+         *            True if the next page is read while the current one is
+         *            consumed.
+         * @param logger
+         *            The logger.
+         */
+        private Producer(Object owner, Service service, Reference firstPage,
+                Class<?> entityClass, EntityType entityType,
+                Metadata metadata, int bufferSize, boolean prefetch,
+                Logger logger) {
+            this.closed = false;
+            this.count = -1;
+            this.entityClass = entityClass;
+            this.entityType = entityType;
+            this.failure = null;
+            this.firstPage = firstPage;
+            this.logger = logger;
+            this.metadata = metadata;
+            this.nextPage = firstPage;
+            this.owner = new WeakReference<Object>(owner);
+            this.pageRequests = new Semaphore(0);
+            this.prefetch = prefetch;
+            this.queue = new ArrayBlockingQueue<Object>(Math.max(1, bufferSize));
+            this.service = service;
+            this.stopped = false;
+            this.suspended = false;
+        }
+
+        /**
+         * Waits until the next page is requested by the iterator. If it isn't
+         * requested during {@link #IDLE_TIMEOUT_MS}, the producer is suspended
+         * in order to release its thread.
+         * 
+         * @param page
+         *            The reference of the next page.
+         * @return False if the producer has been suspended.
+         * @throws InterruptedException
+         */
+        private boolean awaitPageRequest(Reference page)
+                throws InterruptedException {
+            if (this.pageRequests.tryAcquire(IDLE_TIMEOUT_MS,
+                    TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+
+            synchronized (this) {
+                if (this.pageRequests.tryAcquire()) {
+                    return true;
+                }
+
+                this.nextPage = page;
+                this.suspended = true;
+                return false;
+            }
+        }
+
+        /**
+         * Records the error that stopped the reading of the feed, unless the
+         * iterator was closed.
+         * 
+         * @param t
+         *            The error.
+         */
+        private void fail(Throwable t) {
+            if (!this.closed && (this.failure == null)) {
+                this.failure = t;
+            }
+        }
+
+        /**
+         * Indicates if the iterator has been garbage collected.
+         * 
+         * @return True if the iterator has been garbage collected.
+         */
+        private boolean isAbandoned() {
+            return this.owner.get() == null;
+        }
+
+        /**
+         * Hands an item to the iterator, waiting for room in the buffer.
+         * 
+         * @param item
+         *            The item.
+         * @throws CancellationException
+         *             If the iterator was closed or abandoned, or if the
+         *             thread was interrupted.
+         */
+        private void put(Object item) throws CancellationException {
+            try {
+                while (!this.closed) {
+                    if (this.queue.offer(item, 1, TimeUnit.SECONDS)) {
+                        return;
+                    }
+
+                    if (isAbandoned()) {
+                        this.logger.fine("Closing an abandoned OData stream");
+                        this.closed = true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                fail(e);
+            }
+
+            throw new CancellationException();
+        }
+
+        /**
+         * Retrieves and parses a page of the feed.
+         * 
+         * @param page
+         *            The reference of the page.
+         * @return The reference of the next page or null.
+         * @throws Exception
+         */
+        private Reference readPage(Reference page) throws Exception {
+            Reference result = null;
+            ClientResource resource = service.createResource(page);
+
+            try {
+                Representation rep = resource.get(MediaType.APPLICATION_ATOM);
+
+                if (resource.getStatus().isSuccess()) {
+                    FeedContentHandler<T> handler = new FeedContentHandler<T>(
+                            entityClass, entityType, metadata, logger) {
+                        /** The parsed feed. */
+                        private Feed feed;
+
+                        @Override
+                        protected void addEntity(T entity) {
+                            put(entity);
+                        }
+
+                        @Override
+                        public void endEntry(Entry entry) {
+                            super.endEntry(entry);
+
+                            // Don't retain the parsed entries
+                            List<Entry> entries = (this.feed == null) ? null
+                                    : this.feed.getEntries();
+
+                            if ((entries != null) && !entries.isEmpty()
+                                    && (entries.get(entries.size() - 1) == entry)) {
+                                entries.remove(entries.size() - 1);
+                            }
+                        }
+
+                        @Override
+                        public void startFeed(Feed feed) {
+                            super.startFeed(feed);
+                            this.feed = feed;
+                        }
+                    };
+
+                    Feed feed = new Feed(rep, handler);
+
+                    if (count == -1) {
+                        count = handler.getCount();
+                    }
+
+                    for (Link link : feed.getLinks()) {
+                        if (Relation.NEXT.equals(link.getRel())) {
+                            result = link.getHref();
+                            break;
+                        }
+                    }
+                } else {
+                    throw new ResourceException(resource.getStatus());
+                }
+            } finally {
+                service.setLatestRequest(resource.getRequest());
+                service.setLatestResponse(resource.getResponse());
+
+                if (resource.getResponseEntity() != null) {
+                    resource.getResponseEntity().release();
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Called by the iterator once the current page has been consumed. Lets
+         * the background thread read the next page, or restarts it if it has
+         * been suspended.
+         */
+        private synchronized void requestPage() {
+            if (this.suspended) {
+                this.suspended = false;
+                start();
+            } else {
+                this.pageRequests.release();
+            }
+        }
+
+        public void run() {
+            boolean suspending = false;
+
+            try {
+                Reference page = this.nextPage;
+
+                while ((page != null) && !this.closed && !suspending) {
+                    page = readPage(page);
+
+                    if ((page != null) && !this.prefetch && !this.closed) {
+                        // Wait until the current page is consumed
+                        put(END_OF_PAGE);
+                        suspending = !awaitPageRequest(page);
+                    }
+                }
+            } catch (CancellationException ce) {
+                // The iterator was closed or the thread interrupted
+            } catch (InterruptedException ie) {
+                fail(ie);
+            } catch (Throwable t) {
+                if (!this.closed) {
+                    this.logger.log(Level.FINE, "Can't parse the content of "
+                            + this.firstPage, t);
+                }
+
+                fail(t);
+            } finally {
+                if (!suspending) {
+                    try {
+                        put(END);
+                    } catch (CancellationException ce) {
+                        // The iterator was closed or the thread interrupted
+                    } finally {
+                        this.stopped = true;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Starts a background thread reading the feed from the next page.
+         */
+        private void start() {
+            Thread thread = new Thread(this, "Restlet-OData-Stream");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /** Marks the end of the feed. */
+    private static final Object END = new Object();
+
+    /** Marks the end of a page, in non-prefetching mode. */
+    private static final Object END_OF_PAGE = new Object();
+
+    /**
+     * Delay after which the background thread is released if the next page
+     * isn't requested, in non-prefetching mode, in milliseconds.
+     */
+    public static final long IDLE_TIMEOUT_MS = 60000L;
+
+    /** Indicates if the end of the feed has been reached. */
+    private boolean done;
+
+    /** The next entity, already taken from the buffer. */
+    private T nextEntity;
+
+    /** The producer parsing the feed pages in the background. */
+    private final Producer<T> producer;
+
+    /**
+     * Constructor. Starts reading the feed in the background.
+     * 
+     * @param service
+     *            The underlying service.
+     * @param firstPage
+     *            The reference of the first page of the feed.
+     * @param entityClass
+     *            The class of the streamed entities.
+     * @param entityType
+     *            The entity type of the streamed entities.
+     * @param metadata
+     *            The metadata of the OData service.
+     * @param bufferSize
+     *            The maximum number of parsed entities waiting to be consumed.
+     * @param prefetch
+     *            True if the next page is read while the current one is
+     *            consumed.
+     * @param logger
+     *            The logger.
+     */
+    public StreamingEntryIterator(Service service, Reference firstPage,
+            Class<?> entityClass, EntityType entityType, Metadata metadata,
+            int bufferSize, boolean prefetch, Logger logger) {
+        this.done = false;
+        this.producer = new Producer<T>(this, service, firstPage, entityClass,
+                entityType, metadata, bufferSize, prefetch, logger);
+        this.producer.start();
+    }
+
+    /**
+     * Stops the background reading of the feed. The iterator has no more
+     * elements.
+     */
+    public void close() {
+        this.producer.closed = true;
+        this.done = true;
+        this.nextEntity = null;
+        this.producer.queue.clear();
+        this.producer.pageRequests.release();
+    }
+
+    /**
+     * Returns the value of the "count" tag of the first page, that is to say
+     * the size of the entity set, or -1 if it isn't known yet.
+     * 
+     * @return The size of the entity set or -1.
+     */
+    public int getCount() {
+        return this.producer.count;
+    }
+
+    /**
+     * Indicates if the iterator has more elements.
+     * 
+     * @return True if the iterator has more elements.
+     * @throws RuntimeException
+     *             If the feed couldn't be entirely read, or if the current
+     *             thread was interrupted.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        while ((this.nextEntity == null) && !this.done) {
+            Object item;
+
+            try {
+                item = this.producer.queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new RuntimeException("Interrupted while streaming "
+                        + this.producer.firstPage, e);
+            }
+
+            if (item == null) {
+                // The background thread may have stopped without notice
+                this.done = this.producer.stopped
+                        && this.producer.queue.isEmpty();
+            } else if (item == END) {
+                this.done = true;
+            } else if (item == END_OF_PAGE) {
+                this.producer.requestPage();
+            } else {
+                this.nextEntity = (T) item;
+            }
+        }
+
+        if ((this.nextEntity == null) && !this.producer.closed
+                && (this.producer.failure != null)) {
+            throw new RuntimeException("Can't stream the entities of "
+                    + this.producer.firstPage, this.producer.failure);
+        }
+
+        return this.nextEntity != null;
+    }
+
+    /**
+     * Returns the next element.
+     * 
+     * @return The next element.
+     * @throws NoSuchElementException
+     *             If the iterator has no more elements.
+     * @throws RuntimeException
+     *             If the feed couldn't be entirely read, or if the current
+     *             thread was interrupted.
+     */
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T result = this.nextEntity;
+        this.nextEntity = null;
+        return result;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+}
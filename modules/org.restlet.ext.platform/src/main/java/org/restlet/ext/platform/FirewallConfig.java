@@ -32,6 +32,8 @@ import org.restlet.ext.platform.internal.firewall.rule.FirewallCounterRule;
 import org.restlet.ext.platform.internal.firewall.rule.FirewallIpFilteringRule;
 import org.restlet.ext.platform.internal.firewall.rule.FirewallRule;
 import org.restlet.ext.platform.internal.firewall.rule.PeriodicFirewallCounterRule;
+import org.restlet.ext.platform.internal.firewall.rule.SlidingWindowFirewallRule;
+import org.restlet.ext.platform.internal.firewall.rule.TokenBucketFirewallRule;
 import org.restlet.ext.platform.internal.firewall.rule.policy.HostDomainCountingPolicy;
 import org.restlet.ext.platform.internal.firewall.rule.policy.IpAddressCountingPolicy;
 import org.restlet.ext.platform.internal.firewall.rule.policy.UserCountingPolicy;
@@ -150,6 +152,49 @@ public class FirewallConfig {
         add(rule);
     }
 
+    /**
+     * Adds a rule that restricts access by sliding period of time according to
+     * the IP address of the request's client. Contrary to
+     * {@link #addIpAddressesPeriodicCounter(int, TimeUnit, int)}, the limit
+     * can't be exceeded around the boundaries of the periods. A unique limit
+     * is applied for all IP addresses.
+     * 
+     * @param period
+     *            The period of time.
+     * @param periodUnit
+     *            Period time unit associated to the rule.
+     * @param limit
+     *            The maximum number of accepted requests for a period of time.
+     * @throws IllegalArgumentException
+     *             If the limit is over
+     *             {@link SlidingWindowFirewallRule#MAX_LIMIT}.
+     */
+    public void addIpAddressesSlidingWindowCounter(int period,
+            TimeUnit periodUnit, int limit) {
+        add(new SlidingWindowFirewallRule(period, periodUnit,
+                new IpAddressCountingPolicy(), new UniqueLimitPolicy(limit)));
+    }
+
+    /**
+     * Adds a rule that restricts access according to the IP address of the
+     * request's client, with a token bucket refilled at a steady rate of
+     * "limit" tokens per period of time. A unique limit is applied for all IP
+     * addresses.
+     * 
+     * @param period
+     *            The period of time.
+     * @param periodUnit
+     *            Period time unit associated to the rule.
+     * @param limit
+     *            The maximum number of accepted requests for a period of time,
+     *            which is also the maximum burst size.
+     */
+    public void addIpAddressesTokenBucket(int period, TimeUnit periodUnit,
+            int limit) {
+        add(new TokenBucketFirewallRule(period, periodUnit,
+                new IpAddressCountingPolicy(), new UniqueLimitPolicy(limit)));
+    }
+
     /**
      * Adds a rule that restricts access to the given set of IP addresses.
      * 
@@ -232,4 +277,53 @@ public class FirewallConfig {
                 defaultLimit)));
         add(rule);
     }
+
+    /**
+     * Adds a rule that restricts access according to the {@link Role} of the
+     * current authenticated {@link User}. Each role is defined a limit in terms
+     * of requests by sliding period of time, in any other case a default limit
+     * is applied.
+     * 
+     * @param period
+     *            The period of time.
+     * @param periodUnit
+     *            Period time unit associated to the rule.
+     * @param limitsPerRole
+     *            The limit assigned per role's name.
+     * @param defaultLimit
+     *            The limit assigned for any other roles, or for user without
+     *            assigned role.
+     * @throws IllegalArgumentException
+     *             If a limit is over
+     *             {@link SlidingWindowFirewallRule#MAX_LIMIT}.
+     */
+    public void addRolesSlidingWindowCounter(int period, TimeUnit periodUnit,
+            Map<String, Integer> limitsPerRole, int defaultLimit) {
+        add(new SlidingWindowFirewallRule(period, periodUnit,
+                new UserCountingPolicy(), new RoleLimitPolicy(limitsPerRole,
+                        defaultLimit)));
+    }
+
+    /**
+     * Adds a rule that restricts access according to the {@link Role} of the
+     * current authenticated {@link User}. Each role is defined a limit in terms
+     * of requests by period of time, enforced by a token bucket refilled at a
+     * steady rate. In any other case a default limit is applied.
+     * 
+     * @param period
+     *            The period of time.
+     * @param periodUnit
+     *            Period time unit associated to the rule.
+     * @param limitsPerRole
+     *            The limit assigned per role's name.
+     * @param defaultLimit
+     *            The limit assigned for any other roles, or for user without
+     *            assigned role.
+     */
+    public void addRolesTokenBucket(int period, TimeUnit periodUnit,
+            Map<String, Integer> limitsPerRole, int defaultLimit) {
+        add(new TokenBucketFirewallRule(period, periodUnit,
+                new UserCountingPolicy(), new RoleLimitPolicy(limitsPerRole,
+                        defaultLimit)));
+    }
 }
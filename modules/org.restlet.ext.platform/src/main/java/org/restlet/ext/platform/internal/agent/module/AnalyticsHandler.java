@@ -24,9 +24,6 @@
 
 package org.restlet.ext.platform.internal.agent.module;
 
-import java.util.Collections;
-import java.util.Date;
-import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ExecutorService;
@@ -34,18 +31,18 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.ext.platform.internal.RestletCloudConfig;
 import org.restlet.ext.platform.internal.agent.AgentUtils;
-import org.restlet.ext.platform.internal.agent.bean.CallLog;
 import org.restlet.ext.platform.internal.agent.bean.CallLogs;
 import org.restlet.ext.platform.internal.agent.bean.ModulesSettings;
 import org.restlet.ext.platform.internal.agent.resource.AnalyticsResource;
 
-import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class AnalyticsHandler {
@@ -97,8 +94,20 @@ public class AnalyticsHandler {
     /** Executor service used for async tasks */
     private ExecutorService executorService;
 
-    /** List of call logs */
-    private final List<CallLog> callLogs;
+    /** Buffer of call logs */
+    private final CallLogBuffer callLogs;
+
+    /** Number of call logs dropped when the last flush was done. */
+    private long droppedCallLogs;
+
+    /** Indicates if a flush has been requested and not started yet. */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /** Number of call logs lost because they couldn't be posted. */
+    private final AtomicLong lostCallLogs = new AtomicLong();
+
+    /** Number of call logs posted to Restlet Cloud. */
+    private final AtomicLong postedCallLogs = new AtomicLong();
 
     /**
      * Create a new analytics handler with the specified settings.
@@ -113,10 +122,8 @@ public class AnalyticsHandler {
         analyticsClientResource = AgentUtils.getClientResource(restletCloudConfig,
                 modulesSettings, AnalyticsResource.class,
                 AnalyticsModule.ANALYTICS_PATH);
-        callLogs = Collections.synchronizedList(Lists
-                .<CallLog> newArrayListWithExpectedSize(bufferSize));
-
         bufferSize = restletCloudConfig.getAgentAnalyticsBufferSize();
+        callLogs = new CallLogBuffer(bufferSize);
         executorService = new ThreadPoolExecutor(1, THREAD_MAX_NUMBER, 0L,
                 TimeUnit.SECONDS,
                 new LinkedBlockingQueue<Runnable>(bufferSize),
@@ -138,7 +145,10 @@ public class AnalyticsHandler {
     }
 
     /**
-     * Generates a CallLog for the request and adds it to the buffer.
+     * Records the call made with the request in the buffer. If the buffer is
+     * full, the call is dropped. When enough calls have been buffered, a flush
+     * is requested to the executor service, so that the current thread is
+     * never delayed.
      * 
      * @param request
      *            The Request object associated with the request.
@@ -152,45 +162,79 @@ public class AnalyticsHandler {
      */
     public void addCallLogToBuffer(Request request, Response response,
             int duration, long startTime) {
-
-        CallLog callLog = new CallLog();
-        callLog.setDate(new Date(startTime));
-        callLog.setDuration(duration);
-        callLog.setMethod(request.getMethod().getName());
-        callLog.setPath(request.getResourceRef().getPath());
-        callLog.setRemoteIp(request.getClientInfo().getUpstreamAddress());
-        callLog.setStatusCode(response.getStatus().getCode());
-        callLog.setUserAgent(request.getClientInfo().getAgent());
-
-        callLog.setUserToken((request.getClientInfo().getUser() == null) ? ""
-                : request.getClientInfo().getUser().getIdentifier());
-
-        callLogs.add(callLog);
-
-        if (callLogs.size() >= bufferSize) {
-            flushLogs();
+        boolean flushNeeded = callLogs.add(startTime, duration, request
+                .getMethod().getName(), request.getResourceRef().getPath(),
+                request.getClientInfo().getUpstreamAddress(), response
+                        .getStatus().getCode(), request.getClientInfo()
+                        .getAgent(),
+                (request.getClientInfo().getUser() == null) ? "" : request
+                        .getClientInfo().getUser().getIdentifier());
+
+        if (flushNeeded && flushRequested.compareAndSet(false, true)) {
+            try {
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        flushRequested.set(false);
+                        flushLogs();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The next timer task will flush the buffer
+                flushRequested.set(false);
+            }
         }
     }
 
     /**
-     * Creates a new Thread that asynchronously posts call logs to Restlet Cloud
+     * Merges the buffered call logs and asynchronously posts them to Restlet
+     * Cloud.
      */
     public void flushLogs() {
-        if (callLogs.isEmpty()) {
-            return;
-        }
-
         CallLogs logsToPost;
+
         synchronized (callLogs) {
-            if (callLogs.isEmpty()) {
-                return;
+            logsToPost = callLogs.drain();
+            long dropped = callLogs.getDroppedCount();
+
+            if (dropped > droppedCallLogs) {
+                LOGGER.warning((dropped - droppedCallLogs)
+                        + " call logs dropped because the buffer was full.");
+                droppedCallLogs = dropped;
             }
-            logsToPost = new CallLogs(callLogs.size());
-            logsToPost.addAll(callLogs);
-            callLogs.clear();
         }
 
-        postLogs(logsToPost);
+        if (!logsToPost.isEmpty()) {
+            postLogs(logsToPost);
+        }
+    }
+
+    /**
+     * Returns the number of call logs dropped because the buffer was full.
+     * 
+     * @return The number of call logs dropped because the buffer was full.
+     */
+    public long getDroppedCallLogs() {
+        return callLogs.getDroppedCount();
+    }
+
+    /**
+     * Returns the number of call logs lost because they couldn't be posted to
+     * Restlet Cloud.
+     * 
+     * @return The number of call logs lost because they couldn't be posted.
+     */
+    public long getLostCallLogs() {
+        return lostCallLogs.get();
+    }
+
+    /**
+     * Returns the number of call logs posted to Restlet Cloud.
+     * 
+     * @return The number of call logs posted to Restlet Cloud.
+     */
+    public long getPostedCallLogs() {
+        return postedCallLogs.get();
     }
 
     /**
@@ -209,7 +253,8 @@ public class AnalyticsHandler {
         } catch (RejectedExecutionException e) {
             LOGGER.severe("Posting " + logsToPost.size()
                     + " call logs failed permanently due to \""
-                    + e.getCause().getMessage() + "\".");
+                    + e.getMessage() + "\".");
+            lostCallLogs.addAndGet(logsToPost.size());
             errorSendLog(logsToPost);
         }
     }
@@ -244,6 +289,7 @@ public class AnalyticsHandler {
             for (int attemptNumber = 1; attemptNumber <= MAX_ATTEMPTS + 1; attemptNumber++) {
                 try {
                     analyticsClientResource.postLogs(logsToPost);
+                    postedCallLogs.addAndGet(logsToPost.size());
                     LOGGER.fine(logsToPost.size()
                             + " call logs sent to the analytics service.");
                     break;
@@ -252,6 +298,7 @@ public class AnalyticsHandler {
                         LOGGER.severe("Posting " + logsToPost.size()
                                 + " call logs failed permanently after "
                                 + MAX_ATTEMPTS + " attempts.");
+                        lostCallLogs.addAndGet(logsToPost.size());
                         errorSendLog(logsToPost);
                     } else {
                         LOGGER.warning("Error sending "
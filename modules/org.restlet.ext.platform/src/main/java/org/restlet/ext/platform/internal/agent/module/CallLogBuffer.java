@@ -0,0 +1,292 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.platform.internal.agent.module;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.restlet.ext.platform.internal.agent.bean.CallLog;
+import org.restlet.ext.platform.internal.agent.bean.CallLogs;
+
+/**
+ * Bounded buffer of call logs, striped by thread to avoid contention between
+ * the threads handling requests. Each stripe is made of two segments of
+ * preallocated and reusable records: one receives the new calls while the
+ * other one is being drained. Adding a call only claims a record with an
+ * atomic increment and copies the call fields in it, without locking nor
+ * allocation. When the current segment of a stripe is full, new calls are
+ * dropped until the next drain.<br>
+ * <br>
+ * The buffer can be filled concurrently, but only drained by one thread at a
+ * time.
+ */
+public class CallLogBuffer {
+
+    /** Compact and reusable call log record. */
+    private static final class Record {
+
+        private long date;
+
+        private int duration;
+
+        private String method;
+
+        private String path;
+
+        private String remoteIp;
+
+        private int statusCode;
+
+        private String userAgent;
+
+        private String userToken;
+
+        /**
+         * Releases the references held by this record.
+         */
+        private void clear() {
+            this.method = null;
+            this.path = null;
+            this.remoteIp = null;
+            this.userAgent = null;
+            this.userToken = null;
+        }
+
+        /**
+         * Creates the call log bean matching this record.
+         * 
+         * @return The call log bean.
+         */
+        private CallLog toCallLog() {
+            CallLog result = new CallLog();
+            result.setDate(new Date(this.date));
+            result.setDuration(this.duration);
+            result.setMethod(this.method);
+            result.setPath(this.path);
+            result.setRemoteIp(this.remoteIp);
+            result.setStatusCode(this.statusCode);
+            result.setUserAgent(this.userAgent);
+            result.setUserToken(this.userToken);
+            return result;
+        }
+    }
+
+    /** Segment of records of a stripe. */
+    private static final class Segment {
+
+        /**
+         * The number of claimed records, possibly above the capacity, or a
+         * negative value once the segment is closed for draining.
+         */
+        private final AtomicInteger claimed = new AtomicInteger();
+
+        /** The number of records claimed and completely written. */
+        private final AtomicInteger published = new AtomicInteger();
+
+        /** The preallocated records. */
+        private final Record[] records;
+
+        private Segment(int capacity) {
+            this.records = new Record[capacity];
+
+            for (int i = 0; i < capacity; i++) {
+                this.records[i] = new Record();
+            }
+        }
+    }
+
+    /** Value of the claimed records counter of a closed segment. */
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    /** The number of calls dropped because the buffer was full. */
+    private final LongAdder dropped;
+
+    /** The number of calls of a stripe that triggers a flush. */
+    private final int flushThreshold;
+
+    /** The segments being drained or waiting to be reused, by stripe. */
+    private final Segment[] spares;
+
+    /** The current segments, by stripe. */
+    private final AtomicReference<Segment>[] stripes;
+
+    /**
+     * Constructor. Uses a stripe per available processor, rounded to the next
+     * power of two.
+     * 
+     * @param bufferSize
+     *            The number of calls buffered before a flush is needed.
+     */
+    public CallLogBuffer(int bufferSize) {
+        this(bufferSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor. The capacity of each stripe segment is the buffer size, so
+     * that calls can still be accepted while a flush is pending.
+     * 
+     * @param bufferSize
+     *            The number of calls buffered before a flush is needed.
+     * @param stripesCount
+     *            The minimum number of stripes, rounded to the next power of
+     *            two.
+     */
+    @SuppressWarnings("unchecked")
+    public CallLogBuffer(int bufferSize, int stripesCount) {
+        int capacity = Math.max(1, bufferSize);
+        int count = Integer.highestOneBit(Math.max(1, stripesCount));
+
+        if (count < stripesCount) {
+            count <<= 1;
+        }
+
+        this.dropped = new LongAdder();
+        this.flushThreshold = Math.max(1, capacity / count);
+        this.spares = new Segment[count];
+        this.stripes = new AtomicReference[count];
+
+        for (int i = 0; i < count; i++) {
+            this.spares[i] = new Segment(capacity);
+            this.stripes[i] = new AtomicReference<Segment>(new Segment(
+                    capacity));
+        }
+    }
+
+    /**
+     * Adds a call to the buffer, or drops it if the buffer is full.
+     * 
+     * @param date
+     *            The date of the call, as an epoch.
+     * @param duration
+     *            The duration of the call in milliseconds.
+     * @param method
+     *            The method name.
+     * @param path
+     *            The path of the resource reference.
+     * @param remoteIp
+     *            The address of the client.
+     * @param statusCode
+     *            The status code of the response.
+     * @param userAgent
+     *            The user agent of the client.
+     * @param userToken
+     *            The identifier of the user.
+     * @return True if a flush is needed.
+     */
+    public boolean add(long date, int duration, String method, String path,
+            String remoteIp, int statusCode, String userAgent, String userToken) {
+        AtomicReference<Segment> stripe = this.stripes[(int) Thread
+                .currentThread().getId() & (this.stripes.length - 1)];
+        Segment segment;
+        int index;
+
+        do {
+            segment = stripe.get();
+            index = segment.claimed.getAndIncrement();
+        } while (index < 0);
+
+        if (index >= segment.records.length) {
+            this.dropped.increment();
+            return true;
+        }
+
+        Record record = segment.records[index];
+        record.date = date;
+        record.duration = duration;
+        record.method = method;
+        record.path = path;
+        record.remoteIp = remoteIp;
+        record.statusCode = statusCode;
+        record.userAgent = userAgent;
+        record.userToken = userToken;
+        segment.published.incrementAndGet();
+
+        return (index + 1) == this.flushThreshold;
+    }
+
+    /**
+     * Removes the buffered calls of all stripes and returns them as call log
+     * beans. Must not be invoked concurrently.
+     * 
+     * @return The buffered call logs, possibly empty.
+     */
+    public CallLogs drain() {
+        CallLogs result = new CallLogs();
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            Segment segment = this.stripes[i].get();
+
+            if (segment.claimed.get() == 0) {
+                continue;
+            }
+
+            // Install the spare segment, then close the current one
+            Segment spare = this.spares[i];
+            spare.published.set(0);
+            spare.claimed.set(0);
+            this.stripes[i].set(spare);
+            int count = Math.min(segment.claimed.getAndSet(CLOSED),
+                    segment.records.length);
+
+            // Wait for the writers still copying their call
+            while (segment.published.get() < count) {
+                Thread.yield();
+            }
+
+            result.ensureCapacity(result.size() + count);
+
+            for (int j = 0; j < count; j++) {
+                result.add(segment.records[j].toCallLog());
+                segment.records[j].clear();
+            }
+
+            this.spares[i] = segment;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of calls dropped because the buffer was full.
+     * 
+     * @return The number of calls dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Returns the number of stripes.
+     * 
+     * @return The number of stripes.
+     */
+    public int getStripesCount() {
+        return this.stripes.length;
+    }
+
+}
@@ -24,6 +24,8 @@
 
 package org.restlet.ext.platform.internal.firewall.handler.policy;
 
+import java.util.Collection;
+
 import org.restlet.Request;
 import org.restlet.ext.platform.internal.firewall.rule.policy.CountingPolicy;
 
@@ -46,4 +48,35 @@ public abstract class LimitPolicy {
      */
     public abstract int getLimit(Request request, String countedValue);
 
+    /**
+     * Returns the highest limit currently associated to any counted value, or
+     * -1 if it isn't known. Returns -1 by default.
+     * 
+     * @return The highest limit or -1.
+     */
+    public int getMaxLimit() {
+        return -1;
+    }
+
+    /**
+     * Returns the highest of a default limit and of a collection of limits.
+     * 
+     * @param defaultLimit
+     *            The default limit.
+     * @param limits
+     *            The other limits.
+     * @return The highest limit.
+     */
+    protected static int max(int defaultLimit, Collection<Integer> limits) {
+        int result = defaultLimit;
+
+        for (Integer limit : limits) {
+            if ((limit != null) && (limit > result)) {
+                result = limit;
+            }
+        }
+
+        return result;
+    }
+
 }
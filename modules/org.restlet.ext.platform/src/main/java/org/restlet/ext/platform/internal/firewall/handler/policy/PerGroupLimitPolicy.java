@@ -122,4 +122,9 @@ public class PerGroupLimitPolicy extends LimitPolicy {
         return result;
     }
 
+    @Override
+    public int getMaxLimit() {
+        return max(defaultLimit, limitsPerGroup.values());
+    }
+
 }
@@ -102,4 +102,9 @@ public class PerValueLimitPolicy extends LimitPolicy {
         return result;
     }
 
+    @Override
+    public int getMaxLimit() {
+        return max(defaultLimit, limitsPerValue.values());
+    }
+
 }
@@ -149,6 +149,11 @@ public class RoleLimitPolicy extends LimitPolicy {
         return limitsPerRole;
     }
 
+    @Override
+    public int getMaxLimit() {
+        return max(defaultLimit, limitsPerRole.values());
+    }
+
     /**
      * Set the policy's default limit.
      * 
@@ -51,4 +51,9 @@ public class UniqueLimitPolicy extends LimitPolicy {
         return limit;
     }
 
+    @Override
+    public int getMaxLimit() {
+        return limit;
+    }
+
 }
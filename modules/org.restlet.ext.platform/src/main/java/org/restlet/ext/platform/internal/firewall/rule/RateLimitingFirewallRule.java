@@ -0,0 +1,224 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.platform.internal.firewall.rule;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Status;
+import org.restlet.ext.platform.internal.firewall.handler.policy.LimitPolicy;
+import org.restlet.ext.platform.internal.firewall.rule.counter.RateLimitStates;
+import org.restlet.ext.platform.internal.firewall.rule.policy.CountingPolicy;
+import org.restlet.routing.Filter;
+
+/**
+ * {@link FirewallRule} limiting the rate of requests of each counted value
+ * (value returned by the {@link CountingPolicy}) to the limit given by a
+ * {@link LimitPolicy} for a period of time. Requests over the limit are
+ * answered with a {@link Status#CLIENT_ERROR_TOO_MANY_REQUESTS} status.<br>
+ * <br>
+ * Contrary to the {@link PeriodicFirewallCounterRule}, the state of each
+ * counted value fits in a single long, updated without lock nor allocation.
+ * The states are kept in a {@link RateLimitStates} table bounded in size.
+ */
+public abstract class RateLimitingFirewallRule extends FirewallRule {
+
+    /** The default maximum number of counted values tracked. */
+    public static final int DEFAULT_MAX_COUNTED_VALUES = 1000000;
+
+    /**
+     * Indicates if an unknown counted value should be blocked by default.
+     * Default is true
+     */
+    private volatile boolean blockingUnknownCountedValue = true;
+
+    /** The associated counting policy. */
+    private final CountingPolicy countingPolicy;
+
+    /** The associated limit policy. */
+    private final LimitPolicy limitPolicy;
+
+    /** The time origin of the rule, in nanoseconds. */
+    private final long origin;
+
+    /** The period, in nanoseconds. */
+    private final long period;
+
+    /** The rate limitation states, by counted value. */
+    private final RateLimitStates states;
+
+    /**
+     * Constructor.
+     * 
+     * @param period
+     *            The period of time.
+     * @param periodUnit
+     *            Period time unit.
+     * @param countingPolicy
+     *            The associated counting policy.
+     * @param limitPolicy
+     *            The associated limit policy.
+     * @param maxCountedValues
+     *            The maximum number of counted values tracked.
+     */
+    public RateLimitingFirewallRule(int period, TimeUnit periodUnit,
+            CountingPolicy countingPolicy, LimitPolicy limitPolicy,
+            int maxCountedValues) {
+        this.period = Math.max(1, periodUnit.toNanos(period));
+        this.countingPolicy = countingPolicy;
+        this.limitPolicy = limitPolicy;
+        this.origin = nanoTime();
+
+        // Sweep the idle states every two periods, at least every minute
+        this.states = new RateLimitStates(Math.max(2 * this.period,
+                TimeUnit.MINUTES.toNanos(1)), maxCountedValues, 0) {
+            @Override
+            protected boolean isIdle(long state, long now) {
+                return RateLimitingFirewallRule.this.isIdle(state, now);
+            }
+        };
+    }
+
+    /**
+     * Determines the counted value, and blocks the request if its rate limit
+     * is reached.
+     * 
+     * @param request
+     *            The request to handle.
+     * @param response
+     *            The response to update.
+     * @return The continuation status.
+     */
+    @Override
+    public int beforeHandle(Request request, Response response) {
+        String countedValue = this.countingPolicy.getCountedValue(request);
+
+        if (countedValue == null) {
+            return isBlockingUnknownCountedValue() ? Filter.SKIP
+                    : Filter.CONTINUE;
+        }
+
+        long now = nanoTime() - this.origin;
+        int limit = this.limitPolicy.getLimit(request, countedValue);
+
+        if ((limit > 0)
+                && tryAcquire(this.states.get(countedValue, now), limit, now)) {
+            return Filter.CONTINUE;
+        }
+
+        Logger logger = Context.getCurrentLogger();
+
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("The current request has been blocked because \""
+                    + countedValue + "\" issued too many requests.");
+        }
+
+        response.setStatus(Status.CLIENT_ERROR_TOO_MANY_REQUESTS);
+        return Filter.SKIP;
+    }
+
+    /**
+     * Returns the number of counted values currently tracked.
+     * 
+     * @return The number of counted values currently tracked.
+     */
+    public int getCountedValuesCount() {
+        return this.states.size();
+    }
+
+    /**
+     * Returns the period, in nanoseconds.
+     * 
+     * @return The period, in nanoseconds.
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * Indicates if an unknown counted value should be blocked by default.
+     * 
+     * @return True if an unknown counted value should be blocked by default.
+     */
+    public boolean isBlockingUnknownCountedValue() {
+        return blockingUnknownCountedValue;
+    }
+
+    /**
+     * Indicates if a state is equivalent to a new one, in which case it can
+     * be forgotten without loss.
+     * 
+     * @param state
+     *            The value of the state.
+     * @param now
+     *            The time elapsed since the creation of the rule, in
+     *            nanoseconds.
+     * @return True if the state is equivalent to a new one.
+     */
+    protected abstract boolean isIdle(long state, long now);
+
+    /**
+     * Returns the current value of the time source, in nanoseconds. Uses
+     * {@link System#nanoTime()} by default.
+     * 
+     * @return The current value of the time source, in nanoseconds.
+     */
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Indicates if an unknown counted value should be blocked by default.
+     * 
+     * @param blockingUnknownCountedValue
+     *            True if an unknown counted value should be blocked by default.
+     */
+    public void setBlockingUnknownCountedValue(
+            boolean blockingUnknownCountedValue) {
+        this.blockingUnknownCountedValue = blockingUnknownCountedValue;
+    }
+
+    /**
+     * Tries to account for a new request in the given state. Must be lock-free
+     * and not allocate memory.
+     * 
+     * @param state
+     *            The state of the counted value, zero when it is new.
+     * @param limit
+     *            The number of requests allowed per period, strictly positive.
+     * @param now
+     *            The time elapsed since the creation of the rule, in
+     *            nanoseconds.
+     * @return True if the request is allowed.
+     */
+    protected abstract boolean tryAcquire(AtomicLong state, int limit,
+            long now);
+}
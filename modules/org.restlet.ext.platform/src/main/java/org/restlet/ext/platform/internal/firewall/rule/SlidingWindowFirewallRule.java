@@ -0,0 +1,181 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.platform.internal.firewall.rule;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.restlet.Context;
+import org.restlet.ext.platform.internal.firewall.handler.policy.LimitPolicy;
+import org.restlet.ext.platform.internal.firewall.rule.policy.CountingPolicy;
+
+/**
+ * {@link RateLimitingFirewallRule} based on a sliding window counter per
+ * counted value. The number of requests in the last period is estimated from
+ * the count of the current fixed window and the count of the previous one,
+ * weighted by the part of the previous window still covered by the sliding
+ * period. Unlike {@link PeriodicFirewallCounterRule}, it doesn't let twice the
+ * limit pass around window boundaries.<br>
+ * <br>
+ * Both counts and the index of the current window are packed in a single long
+ * value, so that they are updated atomically without locking. As a result,
+ * limits can't exceed {@value #MAX_LIMIT} requests per period. Higher limits
+ * are rejected when the rule is created. If the limit policy is changed later
+ * on to return higher limits, they are lowered to {@value #MAX_LIMIT} and a
+ * warning is logged.
+ */
+public class SlidingWindowFirewallRule extends RateLimitingFirewallRule {
+
+    /** Number of bits of each packed count. */
+    private static final int COUNT_BITS = 20;
+
+    /** Mask of a packed count. */
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    /** The maximum limit supported. */
+    public static final int MAX_LIMIT = (int) COUNT_MASK;
+
+    /** Mask of the packed window index. */
+    private static final long WINDOW_MASK = (1L << (64 - 2 * COUNT_BITS)) - 1;
+
+    /** Indicates if a limit over {@link #MAX_LIMIT} has been lowered. */
+    private volatile boolean limitLowered;
+
+    /**
+     * Constructor.
+     * 
+     * @param period
+     *            The period of time of the sliding window.
+     * @param periodUnit
+     *            Period time unit.
+     * @param countingPolicy
+     *            The associated counting policy.
+     * @param limitPolicy
+     *            The associated limit policy.
+     * @throws IllegalArgumentException
+     *             If the limit policy has a limit over {@link #MAX_LIMIT}.
+     */
+    public SlidingWindowFirewallRule(int period, TimeUnit periodUnit,
+            CountingPolicy countingPolicy, LimitPolicy limitPolicy) {
+        this(period, periodUnit, countingPolicy, limitPolicy,
+                DEFAULT_MAX_COUNTED_VALUES);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param period
+     *            The period of time of the sliding window.
+     * @param periodUnit
+     *            Period time unit.
+     * @param countingPolicy
+     *            The associated counting policy.
+     * @param limitPolicy
+     *            The associated limit policy.
+     * @param maxCountedValues
+     *            The maximum number of counted values tracked.
+     * @throws IllegalArgumentException
+     *             If the limit policy has a limit over {@link #MAX_LIMIT}.
+     */
+    public SlidingWindowFirewallRule(int period, TimeUnit periodUnit,
+            CountingPolicy countingPolicy, LimitPolicy limitPolicy,
+            int maxCountedValues) {
+        super(period, periodUnit, countingPolicy, limitPolicy,
+                maxCountedValues);
+
+        if (limitPolicy.getMaxLimit() > MAX_LIMIT) {
+            throw new IllegalArgumentException("The limit "
+                    + limitPolicy.getMaxLimit() + " exceeds the maximum of "
+                    + MAX_LIMIT
+                    + " requests per period of the sliding window rule");
+        }
+    }
+
+    @Override
+    protected boolean isIdle(long state, long now) {
+        long window = (now / getPeriod()) & WINDOW_MASK;
+        long storedWindow = state >>> (2 * COUNT_BITS);
+        long previous = (state >>> COUNT_BITS) & COUNT_MASK;
+        long current = state & COUNT_MASK;
+
+        if (storedWindow == window) {
+            return (previous == 0) && (current == 0);
+        }
+
+        // Older windows don't count anymore
+        return (((storedWindow + 1) & WINDOW_MASK) != window)
+                || (current == 0);
+    }
+
+    @Override
+    protected boolean tryAcquire(AtomicLong state, int limit, long now) {
+        int maxCount = limit;
+
+        if (maxCount > MAX_LIMIT) {
+            if (!this.limitLowered) {
+                this.limitLowered = true;
+                Context.getCurrentLogger().warning(
+                        "The limit " + limit + " exceeds the maximum of "
+                                + MAX_LIMIT
+                                + " requests per period and has been lowered");
+            }
+
+            maxCount = MAX_LIMIT;
+        }
+
+        long period = getPeriod();
+        long window = (now / period) & WINDOW_MASK;
+        long elapsed = now % period;
+
+        for (;;) {
+            long packed = state.get();
+            long storedWindow = packed >>> (2 * COUNT_BITS);
+            long previous = (packed >>> COUNT_BITS) & COUNT_MASK;
+            long current = packed & COUNT_MASK;
+
+            if (storedWindow != window) {
+                // Roll the fixed windows
+                previous = (((storedWindow + 1) & WINDOW_MASK) == window) ? current
+                        : 0;
+                current = 0;
+            }
+
+            double estimate = previous * (double) (period - elapsed) / period
+                    + current;
+
+            if (estimate + 1 > maxCount) {
+                return false;
+            }
+
+            long updated = (window << (2 * COUNT_BITS))
+                    | (previous << COUNT_BITS) | (current + 1);
+
+            if (state.compareAndSet(packed, updated)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.platform.internal.firewall.rule;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.restlet.ext.platform.internal.firewall.handler.policy.LimitPolicy;
+import org.restlet.ext.platform.internal.firewall.rule.policy.CountingPolicy;
+
+/**
+ * {@link RateLimitingFirewallRule} based on a token bucket per counted value.
+ * Each bucket holds up to "limit" tokens and is refilled at the rate of
+ * "limit" tokens per period, so that bursts can't exceed the limit, even
+ * across period boundaries.<br>
+ * <br>
+ * The bucket is implemented with the generic cell rate algorithm: the state is
+ * the theoretical arrival time of the next request, which is pushed by one
+ * emission interval (period / limit) for each accepted request. A request is
+ * rejected when this time is ahead of the current time by more than the burst
+ * tolerance.
+ */
+public class TokenBucketFirewallRule extends RateLimitingFirewallRule {
+
+    /**
+     * Constructor.
+     * 
+     * @param period
+     *            The period of time in which the limit of requests is refilled.
+     * @param periodUnit
+     *            Period time unit.
+     * @param countingPolicy
+     *            The associated counting policy.
+     * @param limitPolicy
+     *            The associated limit policy.
+     */
+    public TokenBucketFirewallRule(int period, TimeUnit periodUnit,
+            CountingPolicy countingPolicy, LimitPolicy limitPolicy) {
+        this(period, periodUnit, countingPolicy, limitPolicy,
+                DEFAULT_MAX_COUNTED_VALUES);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param period
+     *            The period of time in which the limit of requests is refilled.
+     * @param periodUnit
+     *            Period time unit.
+     * @param countingPolicy
+     *            The associated counting policy.
+     * @param limitPolicy
+     *            The associated limit policy.
+     * @param maxCountedValues
+     *            The maximum number of counted values tracked.
+     */
+    public TokenBucketFirewallRule(int period, TimeUnit periodUnit,
+            CountingPolicy countingPolicy, LimitPolicy limitPolicy,
+            int maxCountedValues) {
+        super(period, periodUnit, countingPolicy, limitPolicy,
+                maxCountedValues);
+    }
+
+    @Override
+    protected boolean isIdle(long state, long now) {
+        // The bucket is full again
+        return state <= now;
+    }
+
+    @Override
+    protected boolean tryAcquire(AtomicLong state, int limit, long now) {
+        long interval = Math.max(1, getPeriod() / limit);
+        long tolerance = getPeriod() - interval;
+
+        for (;;) {
+            long arrival = state.get();
+            long base = Math.max(arrival, now);
+
+            if (base - now > tolerance) {
+                return false;
+            }
+
+            if (state.compareAndSet(arrival, base + interval)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.platform.internal.firewall.rule.counter;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Table of rate limitation states, one {@link AtomicLong} per counted value.
+ * Idle states, that is to say states equivalent to new ones, are swept
+ * periodically and whenever the table is full, as they can be forgotten
+ * without loss. If the table is still nearly full after a sweep, states are
+ * evicted one by one until enough room is made, so that the other counted
+ * values keep their state.<br>
+ * <br>
+ * Looking up an existing state is lock-free and doesn't allocate memory. At
+ * worst, a request accounted concurrently to the eviction of its state isn't
+ * counted.
+ */
+public abstract class RateLimitStates {
+
+    /** The time of the latest sweep, in nanoseconds. */
+    private volatile long lastSweep;
+
+    /** The maximum number of states. */
+    private final int maxStates;
+
+    /** The number of states made free when the table is full. */
+    private final int minFreeStates;
+
+    /** The states by counted value. */
+    private final ConcurrentHashMap<String, AtomicLong> states;
+
+    /** The delay between two periodic sweeps, in nanoseconds. */
+    private final long sweepDelay;
+
+    /** Lock ensuring that a single thread sweeps the states. */
+    private final ReentrantLock sweepLock;
+
+    /**
+     * Constructor.
+     * 
+     * @param sweepDelay
+     *            The delay between two periodic sweeps of the idle states, in
+     *            nanoseconds.
+     * @param maxStates
+     *            The maximum number of states kept.
+     * @param now
+     *            The current time, in nanoseconds.
+     */
+    public RateLimitStates(long sweepDelay, int maxStates, long now) {
+        this.lastSweep = now;
+        this.maxStates = Math.max(1, maxStates);
+        this.minFreeStates = Math.max(1, this.maxStates / 16);
+        this.states = new ConcurrentHashMap<String, AtomicLong>();
+        this.sweepDelay = sweepDelay;
+        this.sweepLock = new ReentrantLock();
+    }
+
+    /**
+     * Returns the state of the given counted value, creating it with a zero
+     * value if needed.
+     * 
+     * @param countedValue
+     *            The counted value.
+     * @param now
+     *            The current time, in nanoseconds.
+     * @return The state of the counted value.
+     */
+    public AtomicLong get(String countedValue, long now) {
+        if (now - this.lastSweep >= this.sweepDelay) {
+            sweep(now, false);
+        }
+
+        AtomicLong result = this.states.get(countedValue);
+
+        if (result == null) {
+            if (this.states.size() >= this.maxStates) {
+                sweep(now, true);
+            }
+
+            result = new AtomicLong();
+            AtomicLong existing = this.states.putIfAbsent(countedValue,
+                    result);
+
+            if (existing != null) {
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Indicates if a state is equivalent to a new one.
+     * 
+     * @param state
+     *            The value of the state.
+     * @param now
+     *            The current time, in nanoseconds.
+     * @return True if the state is equivalent to a new one.
+     */
+    protected abstract boolean isIdle(long state, long now);
+
+    /**
+     * Returns the number of states currently kept.
+     * 
+     * @return The number of states currently kept.
+     */
+    public int size() {
+        return this.states.size();
+    }
+
+    /**
+     * Removes the idle states, unless another thread is already doing it. If
+     * room must be made, other states are then evicted until enough states
+     * are free.
+     * 
+     * @param now
+     *            The current time, in nanoseconds.
+     * @param full
+     *            True if room must be made for a new state.
+     */
+    private void sweep(long now, boolean full) {
+        if (!this.sweepLock.tryLock()) {
+            return;
+        }
+
+        try {
+            this.lastSweep = now;
+
+            for (Iterator<Map.Entry<String, AtomicLong>> iter = this.states
+                    .entrySet().iterator(); iter.hasNext();) {
+                if (isIdle(iter.next().getValue().get(), now)) {
+                    iter.remove();
+                }
+            }
+
+            if (full) {
+                int maxSize = this.maxStates - this.minFreeStates;
+
+                for (Iterator<String> iter = this.states.keySet().iterator(); iter
+                        .hasNext() && (this.states.size() > maxSize);) {
+                    iter.next();
+                    iter.remove();
+                }
+            }
+        } finally {
+            this.sweepLock.unlock();
+        }
+    }
+}
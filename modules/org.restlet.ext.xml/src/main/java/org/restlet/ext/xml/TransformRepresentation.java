@@ -47,8 +47,10 @@ import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.restlet.Context;
+import org.restlet.engine.util.Pool;
 import org.restlet.ext.xml.internal.AbstractXmlReader;
 import org.restlet.ext.xml.internal.ContextResolver;
+import org.restlet.ext.xml.internal.TemplatesCache;
 import org.restlet.representation.Representation;
 import org.restlet.representation.WriterRepresentation;
 import org.xml.sax.InputSource;
@@ -71,6 +73,57 @@ import org.xml.sax.XMLReader;
  * @author Jerome Louvel
  */
 public class TransformRepresentation extends WriterRepresentation {
+
+    /**
+     * URI resolver recording if the transform sheet includes or imports other
+     * sheets.
+     */
+    private static class RecordingResolver implements URIResolver {
+
+        /** The wrapped URI resolver, or null for the default resolution. */
+        private final URIResolver resolver;
+
+        /** Indicates if a URI was resolved. */
+        private volatile boolean used;
+
+        /**
+         * Constructor.
+         * 
+         * @param resolver
+         *            The wrapped URI resolver, or null for the default
+         *            resolution.
+         */
+        private RecordingResolver(URIResolver resolver) {
+            this.resolver = resolver;
+            this.used = false;
+        }
+
+        public Source resolve(String href, String base)
+                throws TransformerException {
+            this.used = true;
+            return (this.resolver == null) ? null : this.resolver.resolve(
+                    href, base);
+        }
+    }
+
+    /**
+     * Pool of SAX transformer factories, avoiding the costly lookup done by
+     * {@link TransformerFactory#newInstance()}. A factory is used by a single
+     * thread at a time.
+     */
+    private static final Pool<SAXTransformerFactory> SAX_TRANSFORMER_FACTORIES = new Pool<SAXTransformerFactory>() {
+        @Override
+        protected void clear(SAXTransformerFactory factory) {
+            // Don't leak the resolver to the next uses
+            factory.setURIResolver(null);
+        }
+
+        @Override
+        protected SAXTransformerFactory createObject() {
+            return (SAXTransformerFactory) TransformerFactory.newInstance();
+        }
+    };
+
     /**
      * Wraps a source representation into a {@link SAXSource}. This method can
      * detect other {@link XmlRepresentation} instances to use their
@@ -277,17 +330,6 @@ public class TransformRepresentation extends WriterRepresentation {
         return toSaxSource(getSourceRepresentation());
     }
 
-    /**
-     * Returns the default SAX transformer factory.
-     * 
-     * @return The default SAX transformer factory.
-     */
-    private SAXTransformerFactory getSaxTransformerFactory() {
-        SAXTransformerFactory result = (SAXTransformerFactory) TransformerFactory
-                .newInstance();
-        return result;
-    }
-
     /**
      * Returns the source representation to transform.
      * 
@@ -298,15 +340,29 @@ public class TransformRepresentation extends WriterRepresentation {
     }
 
     /**
-     * Returns the templates to be used and reused. If no one exists, it creates
-     * a new one based on the transformSheet representation and on the URI
-     * resolver.
+     * Returns the templates to be used and reused. If no one exists, it looks
+     * for templates compiled from the same transform sheet in the
+     * {@link TemplatesCache} of the context of the URI resolver, or creates a
+     * new one based on the transformSheet representation and on the URI
+     * resolver. The cache is bypassed when a custom URI resolver is set, and
+     * sheets including or importing other sheets aren't cached.
      * 
      * @return The templates to be used and reused.
      */
     public Templates getTemplates() throws IOException {
-        if (this.templates == null) {
-            if (getTransformSheet() != null) {
+        if ((this.templates == null) && (getTransformSheet() != null)) {
+            TemplatesCache cache = getTemplatesCache();
+            String key = (cache == null) ? null : TemplatesCache
+                    .getKey(getTransformSheet());
+
+            if (key != null) {
+                this.templates = cache.get(key);
+            }
+
+            if (this.templates == null) {
+                SAXTransformerFactory transformerFactory = SAX_TRANSFORMER_FACTORIES
+                        .checkout();
+
                 try {
                     // Prepare the XSLT transformer documents
                     final StreamSource transformSource = new StreamSource(
@@ -317,22 +373,24 @@ public class TransformRepresentation extends WriterRepresentation {
                                 .getLocationRef().getTargetRef().toString());
                     }
 
-                    // Create the transformer factory
-                    final TransformerFactory transformerFactory = TransformerFactory
-                            .newInstance();
-
                     // Set the URI resolver
-                    if (getUriResolver() != null) {
-                        transformerFactory.setURIResolver(getUriResolver());
-                    }
+                    RecordingResolver resolver = new RecordingResolver(
+                            getUriResolver());
+                    transformerFactory.setURIResolver(resolver);
 
                     // Create a new transformer
                     this.templates = transformerFactory
                             .newTemplates(transformSource);
+
+                    if ((key != null) && !resolver.used) {
+                        cache.put(key, this.templates);
+                    }
                 } catch (TransformerConfigurationException tce) {
                     throw new IOException(
                             "Transformer configuration exception. "
                                     + tce.getMessage());
+                } finally {
+                    SAX_TRANSFORMER_FACTORIES.checkin(transformerFactory);
                 }
             }
         }
@@ -340,6 +398,28 @@ public class TransformRepresentation extends WriterRepresentation {
         return this.templates;
     }
 
+    /**
+     * Returns the cache of compiled templates attached to the context of the
+     * URI resolver, if it is the default one.
+     * 
+     * @return The cache of compiled templates or null.
+     */
+    private TemplatesCache getTemplatesCache() {
+        TemplatesCache result = null;
+
+        if ((getUriResolver() != null)
+                && (getUriResolver().getClass() == ContextResolver.class)) {
+            Context context = ((ContextResolver) getUriResolver())
+                    .getContext();
+
+            if (context != null) {
+                result = TemplatesCache.getInstance(context);
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Returns a new transformer to be used. Creation is based on the
      * {@link #getTemplates()}.newTransformer() method.
@@ -395,12 +475,16 @@ public class TransformRepresentation extends WriterRepresentation {
         Templates templates = getTemplates();
 
         if (templates != null) {
+            SAXTransformerFactory transformerFactory = SAX_TRANSFORMER_FACTORIES
+                    .checkout();
+
             try {
-                result = getSaxTransformerFactory().newTransformerHandler(
-                        templates);
+                result = transformerFactory.newTransformerHandler(templates);
             } catch (TransformerConfigurationException tce) {
                 throw new IOException("Transformer configuration exception. "
                         + tce.getMessage());
+            } finally {
+                SAX_TRANSFORMER_FACTORIES.checkin(transformerFactory);
             }
         }
 
@@ -436,11 +520,16 @@ public class TransformRepresentation extends WriterRepresentation {
         final Templates templates = getTemplates();
 
         if (templates != null) {
+            SAXTransformerFactory transformerFactory = SAX_TRANSFORMER_FACTORIES
+                    .checkout();
+
             try {
-                result = getSaxTransformerFactory().newXMLFilter(templates);
+                result = transformerFactory.newXMLFilter(templates);
             } catch (TransformerConfigurationException tce) {
                 throw new IOException("Transformer configuration exception. "
                         + tce.getMessage());
+            } finally {
+                SAX_TRANSFORMER_FACTORIES.checkin(transformerFactory);
             }
         }
 
@@ -24,8 +24,12 @@
 
 package org.restlet.ext.xml;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+import javax.xml.transform.Templates;
 
 import org.restlet.Request;
 import org.restlet.Response;
@@ -33,6 +37,7 @@ import org.restlet.data.CharacterSet;
 import org.restlet.data.Encoding;
 import org.restlet.data.Language;
 import org.restlet.data.MediaType;
+import org.restlet.ext.xml.internal.ContextResolver;
 import org.restlet.representation.Representation;
 import org.restlet.routing.Filter;
 
@@ -83,6 +88,9 @@ public class Transformer extends Filter {
      */
     private volatile MediaType resultMediaType;
 
+    /** The templates compiled from the transform sheet. */
+    private volatile Templates templates;
+
     /** The XSLT transform sheet to apply to message entities. */
     private volatile Representation transformSheet;
 
@@ -196,6 +204,35 @@ public class Transformer extends Filter {
         return this.resultMediaType;
     }
 
+    /**
+     * Returns the templates compiled from the transform sheet. They are
+     * compiled on first use and reused by all transformations until the
+     * transform sheet is changed.
+     * 
+     * @return The compiled templates or null if the transform sheet can't be
+     *         compiled.
+     */
+    public Templates getTemplates() {
+        // Lazy initialization with double-check.
+        Templates t = this.templates;
+        if ((t == null) && (getTransformSheet() != null)) {
+            synchronized (this) {
+                t = this.templates;
+                if (t == null) {
+                    try {
+                        t = new TransformRepresentation(getContext(), null,
+                                getTransformSheet()).getTemplates();
+                        this.templates = t;
+                    } catch (IOException ioe) {
+                        getLogger().log(Level.WARNING,
+                                "Unable to compile the transform sheet", ioe);
+                    }
+                }
+            }
+        }
+        return t;
+    }
+
     /**
      * Returns the XSLT transform sheet to apply to message entities.
      * 
@@ -262,7 +299,10 @@ public class Transformer extends Filter {
      *            The XSLT transform sheet to apply to message entities.
      */
     public void setTransformSheet(Representation transformSheet) {
-        this.transformSheet = transformSheet;
+        synchronized (this) {
+            this.transformSheet = transformSheet;
+            this.templates = null;
+        }
     }
 
     /**
@@ -274,8 +314,18 @@ public class Transformer extends Filter {
      * @return The generated result representation.
      */
     public Representation transform(Representation source) {
-        final Representation result = new TransformRepresentation(getContext(),
-                source, getTransformSheet());
+        final Representation result;
+        Templates t = getTemplates();
+
+        if (t != null) {
+            // Reuse the compiled transform sheet
+            result = new TransformRepresentation(
+                    (getContext() == null) ? null : new ContextResolver(
+                            getContext()), source, t);
+        } else {
+            result = new TransformRepresentation(getContext(), source,
+                    getTransformSheet());
+        }
 
         if (this.resultLanguages != null) {
             result.getLanguages().addAll(getResultLanguages());
@@ -42,6 +42,8 @@ import javax.xml.xpath.XPathFactory;
 
 import org.restlet.Context;
 import org.restlet.data.MediaType;
+import org.restlet.engine.util.Pool;
+import org.restlet.ext.xml.internal.XPathCache;
 import org.restlet.representation.Representation;
 import org.restlet.representation.WriterRepresentation;
 import org.w3c.dom.Document;
@@ -86,6 +88,18 @@ public abstract class XmlRepresentation extends WriterRepresentation
     public final static boolean XML_VALIDATING_DTD = Boolean
             .getBoolean("org.restlet.ext.xml.validatingDtd");
 
+    /**
+     * Pool of document builder factories, avoiding the costly lookup done by
+     * {@link DocumentBuilderFactory#newInstance()}. A factory is used by a
+     * single thread at a time and is fully reconfigured before each use.
+     */
+    private static final Pool<DocumentBuilderFactory> DOCUMENT_BUILDER_FACTORIES = new Pool<DocumentBuilderFactory>() {
+        @Override
+        protected DocumentBuilderFactory createObject() {
+            return DocumentBuilderFactory.newInstance();
+        }
+    };
+
     // [ifdef android] method
     /**
      * Appends the text content of a given node and its descendants to the given
@@ -364,9 +378,9 @@ public abstract class XmlRepresentation extends WriterRepresentation
      */
     protected DocumentBuilder getDocumentBuilder() throws IOException {
         DocumentBuilder result = null;
+        DocumentBuilderFactory dbf = DOCUMENT_BUILDER_FACTORIES.checkout();
 
         try {
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
             dbf.setNamespaceAware(isNamespaceAware());
             dbf.setValidating(isValidatingDtd());
             dbf.setCoalescing(isCoalescing());
@@ -385,11 +399,8 @@ public abstract class XmlRepresentation extends WriterRepresentation
             }
 
             // [ifndef android]
-            javax.xml.validation.Schema xsd = getSchema();
-
-            if (xsd != null) {
-                dbf.setSchema(xsd);
-            }
+            // Also resets the schema set by a previous use of the factory
+            dbf.setSchema(getSchema());
             // [enddef]
 
             result = dbf.newDocumentBuilder();
@@ -398,6 +409,8 @@ public abstract class XmlRepresentation extends WriterRepresentation
         } catch (ParserConfigurationException pce) {
             throw new IOException("Couldn't create the empty document: "
                     + pce.getMessage());
+        } finally {
+            DOCUMENT_BUILDER_FACTORIES.checkin(dbf);
         }
 
         return result;
@@ -620,16 +633,20 @@ public abstract class XmlRepresentation extends WriterRepresentation
             javax.xml.namespace.QName returnType) {
         try {
             Object result = null;
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            xpath.setNamespaceContext(this);
             Document xmlDocument = getDocument();
 
-            if (xmlDocument != null) {
-                result = xpath.evaluate(expression, xmlDocument, returnType);
-            } else {
+            if (xmlDocument == null) {
                 throw new Exception(
                         "Unable to obtain a DOM document for the XML representation. "
                                 + "XPath evaluation cancelled.");
+            } else if (isNamespaceContextOverridden()) {
+                // The expression depends on the overridden methods
+                XPath xpath = XPathFactory.newInstance().newXPath();
+                xpath.setNamespaceContext(this);
+                result = xpath.evaluate(expression, xmlDocument, returnType);
+            } else {
+                result = XPathCache.evaluate(expression, this.namespaces,
+                        xmlDocument, returnType);
             }
 
             return result;
@@ -692,6 +709,29 @@ public abstract class XmlRepresentation extends WriterRepresentation
         return this.namespaceAware;
     }
 
+    // [ifndef android] method
+    /**
+     * Indicates if a subclass overrides the
+     * {@link javax.xml.namespace.NamespaceContext} methods, in which case
+     * compiled XPath expressions can't be shared with other representations
+     * declaring the same namespaces.
+     * 
+     * @return True if the namespace context methods are overridden.
+     */
+    private boolean isNamespaceContextOverridden() {
+        try {
+            Class<?> clazz = getClass();
+            return (clazz.getMethod("getNamespaceURI", String.class)
+                    .getDeclaringClass() != XmlRepresentation.class)
+                    || (clazz.getMethod("getPrefix", String.class)
+                            .getDeclaringClass() != XmlRepresentation.class)
+                    || (clazz.getMethod("getPrefixes", String.class)
+                            .getDeclaringClass() != XmlRepresentation.class);
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
     /**
      * Indicates the desire for validating this type of XML representations
      * against an XML schema if one is referenced within the contents.
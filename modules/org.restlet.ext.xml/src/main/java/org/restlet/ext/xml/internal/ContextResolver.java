@@ -57,6 +57,15 @@ public class ContextResolver implements URIResolver {
         this.context = context;
     }
 
+    /**
+     * Returns the Restlet context.
+     * 
+     * @return The Restlet context.
+     */
+    public Context getContext() {
+        return this.context;
+    }
+
     /**
      * Resolves a target reference into a Source document.
      * 
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.xml.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.transform.Templates;
+
+import org.restlet.Context;
+import org.restlet.representation.Representation;
+
+/**
+ * Bounded LRU cache of compiled XSLT templates shared by the transform
+ * representations resolving URIs via the same Restlet context, typically the
+ * one of an application. Compiling a transform sheet is expensive, so templates
+ * are reused as long as the sheet keeps the same location, tag and
+ * modification date. Sheets without a location or without any tag or
+ * modification date can't be identified reliably and aren't cached. As the
+ * freshness of the sheets they include or import can't be checked either,
+ * callers are expected to only cache self-contained sheets.<br>
+ * <br>
+ * Concurrency note: instances of this class are thread-safe, as are the
+ * {@link Templates} instances they hold.
+ */
+public class TemplatesCache {
+
+    /** The name of the context attribute holding the cache. */
+    public static final String ATTRIBUTE_CACHE = "org.restlet.ext.xml.templatesCache";
+
+    /** The default maximum number of cached templates. */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /**
+     * Returns the instance attached to the given context, creating it if
+     * needed. It is released with the context.
+     * 
+     * @param context
+     *            The Restlet context.
+     * @return The instance attached to the context.
+     */
+    public static TemplatesCache getInstance(Context context) {
+        Object result = context.getAttributes().get(ATTRIBUTE_CACHE);
+
+        if (result == null) {
+            TemplatesCache cache = new TemplatesCache(DEFAULT_MAX_ENTRIES);
+            result = context.getAttributes().putIfAbsent(ATTRIBUTE_CACHE,
+                    cache);
+
+            if (result == null) {
+                result = cache;
+            }
+        }
+
+        return (TemplatesCache) result;
+    }
+
+    /**
+     * Returns the cache key identifying a transform sheet, based on its
+     * location, tag and modification date.
+     * 
+     * @param transformSheet
+     *            The transform sheet.
+     * @return The cache key or null if the sheet can't be identified.
+     */
+    public static String getKey(Representation transformSheet) {
+        String result = null;
+
+        if ((transformSheet != null)
+                && (transformSheet.getLocationRef() != null)
+                && ((transformSheet.getTag() != null) || (transformSheet
+                        .getModificationDate() != null))) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(transformSheet.getLocationRef().getTargetRef());
+            sb.append(' ');
+
+            if (transformSheet.getTag() != null) {
+                sb.append(transformSheet.getTag().format());
+            }
+
+            sb.append(' ');
+
+            if (transformSheet.getModificationDate() != null) {
+                sb.append(transformSheet.getModificationDate().getTime());
+            }
+
+            result = sb.toString();
+        }
+
+        return result;
+    }
+
+    /** The cached templates, in access order. */
+    private final Map<String, Templates> entries;
+
+    /** The maximum number of cached templates. */
+    private final int maxEntries;
+
+    /**
+     * Constructor.
+     * 
+     * @param maxEntries
+     *            The maximum number of cached templates.
+     */
+    public TemplatesCache(int maxEntries) {
+        this.entries = new LinkedHashMap<String, Templates>(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    /** Removes all cached templates. */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Returns the templates cached for the given key.
+     * 
+     * @param key
+     *            The cache key.
+     * @return The cached templates or null.
+     * @see #getKey(Representation)
+     */
+    public Templates get(String key) {
+        if (key == null) {
+            return null;
+        }
+
+        synchronized (this.entries) {
+            return this.entries.get(key);
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached templates.
+     * 
+     * @return The maximum number of cached templates.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Caches compiled templates, evicting the least recently used entries
+     * beyond the maximum size.
+     * 
+     * @param key
+     *            The cache key.
+     * @param templates
+     *            The compiled templates.
+     */
+    public void put(String key, Templates templates) {
+        if ((key != null) && (templates != null)) {
+            synchronized (this.entries) {
+                this.entries.put(key, templates);
+
+                for (Iterator<String> iter = this.entries.keySet().iterator(); iter
+                        .hasNext() && (this.entries.size() > this.maxEntries);) {
+                    iter.next();
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached templates.
+     * 
+     * @return The number of cached templates.
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.ext.xml.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.restlet.engine.util.Pool;
+
+/**
+ * Cache of compiled XPath expressions. The JAXP XPath objects and compiled
+ * expressions aren't thread-safe, so each cache holds its own XPath object and
+ * a bounded LRU map of the expressions it compiled, and is used by a single
+ * thread at a time. Caches are checked out of a shared pool rather than kept
+ * in thread local variables, so that they don't outlive the class loader of
+ * this extension when used by container threads. Expressions are keyed by
+ * their text and by the namespace prefixes they were compiled with.
+ */
+public class XPathCache {
+
+    /** Namespace context based on an immutable map of namespaces. */
+    private static class MapNamespaceContext implements NamespaceContext {
+
+        /** The namespace URIs, keyed by prefix. */
+        private final Map<String, String> namespaces;
+
+        /**
+         * Constructor.
+         * 
+         * @param namespaces
+         *            The namespace URIs, keyed by prefix.
+         */
+        private MapNamespaceContext(Map<String, String> namespaces) {
+            this.namespaces = namespaces;
+        }
+
+        public String getNamespaceURI(String prefix) {
+            return this.namespaces.get(prefix);
+        }
+
+        public String getPrefix(String namespaceURI) {
+            Iterator<String> prefixes = getPrefixes(namespaceURI);
+            return prefixes.hasNext() ? prefixes.next() : null;
+        }
+
+        public Iterator<String> getPrefixes(String namespaceURI) {
+            List<String> result = new ArrayList<String>();
+
+            for (Map.Entry<String, String> entry : this.namespaces.entrySet()) {
+                if (entry.getValue().equals(namespaceURI)) {
+                    result.add(entry.getKey());
+                }
+            }
+
+            return Collections.unmodifiableList(result).iterator();
+        }
+    }
+
+    /** The maximum number of compiled expressions cached by each thread. */
+    public static final int MAX_ENTRIES = 64;
+
+    /** The pool of caches not used by any thread. */
+    private static final Pool<XPathCache> POOL = new Pool<XPathCache>() {
+        @Override
+        protected XPathCache createObject() {
+            return new XPathCache();
+        }
+    };
+
+    /**
+     * Removes all the pooled caches.
+     */
+    public static void clear() {
+        POOL.clear();
+    }
+
+    /**
+     * Evaluates an expression, compiling it if needed.
+     * 
+     * @param expression
+     *            The XPath expression.
+     * @param namespaces
+     *            The namespace URIs, keyed by prefix.
+     * @param item
+     *            The context item, such as a DOM document.
+     * @param returnType
+     *            The qualified name of the return type.
+     * @return The evaluation result.
+     * @throws XPathExpressionException
+     */
+    public static Object evaluate(String expression,
+            Map<String, String> namespaces, Object item, QName returnType)
+            throws XPathExpressionException {
+        XPathCache cache = POOL.checkout();
+
+        try {
+            return cache.getExpression(expression, namespaces).evaluate(item,
+                    returnType);
+        } finally {
+            POOL.checkin(cache);
+        }
+    }
+
+    /** The compiled expressions, in access order. */
+    private final Map<String, XPathExpression> expressions;
+
+    /** The XPath object used to compile expressions. */
+    private final XPath xpath;
+
+    /** Constructor. */
+    @SuppressWarnings("serial")
+    private XPathCache() {
+        this.expressions = new LinkedHashMap<String, XPathExpression>(16,
+                0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, XPathExpression> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+        this.xpath = XPathFactory.newInstance().newXPath();
+    }
+
+    /**
+     * Returns the compiled expression, compiling it if needed.
+     * 
+     * @param expression
+     *            The XPath expression.
+     * @param namespaces
+     *            The namespace URIs, keyed by prefix.
+     * @return The compiled expression.
+     * @throws XPathExpressionException
+     */
+    private XPathExpression getExpression(String expression,
+            Map<String, String> namespaces) throws XPathExpressionException {
+        Map<String, String> ns = (namespaces == null) ? Collections
+                .<String, String> emptyMap() : new TreeMap<String, String>(
+                namespaces);
+        String key = ns.isEmpty() ? expression : ns + " " + expression;
+        XPathExpression result = this.expressions.get(key);
+
+        if (result == null) {
+            this.xpath.setNamespaceContext(new MapNamespaceContext(ns));
+            result = this.xpath.compile(expression);
+            this.expressions.put(key, result);
+        }
+
+        return result;
+    }
+
+}
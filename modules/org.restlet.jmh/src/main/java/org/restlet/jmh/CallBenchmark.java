@@ -0,0 +1,130 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+package org.restlet.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Component;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.routing.Router;
+
+/**
+ * Benchmarks complete calls to an application hosted by a component running
+ * in the same JVM, either through the RIAP pseudo-protocol or through the
+ * internal HTTP connectors on the loopback interface.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallBenchmark {
+
+    /** The HTTP client connector. */
+    private Client client;
+
+    /** The component hosting the application. */
+    private Component component;
+
+    /** The URI of the resource through the HTTP server. */
+    private String httpUri;
+
+    @Benchmark
+    public String http() throws Exception {
+        Request request = new Request(Method.GET, this.httpUri);
+        Response response = new Response(request);
+        this.client.handle(request, response);
+        return response.getEntity().getText();
+    }
+
+    @Benchmark
+    public String riap() throws Exception {
+        Request request = new Request(Method.GET,
+                "riap://component/app/users/123");
+        Response response = new Response(request);
+        this.component.getContext().getClientDispatcher()
+                .handle(request, response);
+        return response.getEntity().getText();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        this.component = new Component();
+        this.component.getLogService().setEnabled(false);
+        Server server = this.component.getServers().add(Protocol.HTTP, 0);
+        this.component.getClients().add(Protocol.RIAP);
+
+        Application application = new Application() {
+            @Override
+            public Restlet createInboundRoot() {
+                Router router = new Router(getContext());
+                router.attach("/users/{user}", new Restlet() {
+                    @Override
+                    public void handle(Request request, Response response) {
+                        response.setEntity("User "
+                                + request.getAttributes().get("user"),
+                                MediaType.TEXT_PLAIN);
+                    }
+                });
+                return router;
+            }
+        };
+        this.component.getDefaultHost().attach("/app", application);
+        this.component.getInternalRouter().attach("/app", application);
+        this.component.start();
+
+        this.client = new Client(Protocol.HTTP);
+        this.client.start();
+        this.httpUri = "http://localhost:" + server.getActualPort()
+                + "/app/users/123";
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.client.stop();
+        this.component.stop();
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+package org.restlet.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Request;
+import org.restlet.data.Language;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Preference;
+import org.restlet.representation.Variant;
+import org.restlet.service.ConnegService;
+import org.restlet.service.MetadataService;
+
+/**
+ * Benchmarks the content negotiation between a browser-like client and a set
+ * of variants.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnegBenchmark {
+
+    /** The content negotiation service. */
+    private ConnegService connegService;
+
+    /** The metadata service. */
+    private MetadataService metadataService;
+
+    /** The request expressing the client preferences. */
+    private Request request;
+
+    /** The variants available. */
+    private List<Variant> variants;
+
+    @Benchmark
+    public Variant getPreferredVariant() {
+        return this.connegService.getPreferredVariant(this.variants,
+                this.request, this.metadataService);
+    }
+
+    @Setup
+    public void setUp() {
+        this.connegService = new ConnegService();
+        this.metadataService = new MetadataService();
+
+        this.request = new Request(Method.GET, "http://localhost/resource");
+        List<Preference<MediaType>> mediaTypes = this.request.getClientInfo()
+                .getAcceptedMediaTypes();
+        mediaTypes.add(new Preference<MediaType>(MediaType.TEXT_HTML));
+        mediaTypes.add(new Preference<MediaType>(
+                MediaType.APPLICATION_XHTML));
+        mediaTypes.add(new Preference<MediaType>(MediaType.APPLICATION_XML,
+                0.9F));
+        mediaTypes.add(new Preference<MediaType>(MediaType.ALL, 0.8F));
+        List<Preference<Language>> languages = this.request.getClientInfo()
+                .getAcceptedLanguages();
+        languages.add(new Preference<Language>(Language.valueOf("fr-FR")));
+        languages.add(new Preference<Language>(Language.FRENCH, 0.9F));
+        languages.add(new Preference<Language>(Language.ENGLISH, 0.5F));
+
+        this.variants = new ArrayList<Variant>();
+        this.variants.add(new Variant(MediaType.APPLICATION_JSON,
+                Language.ENGLISH));
+        this.variants.add(new Variant(MediaType.APPLICATION_XML,
+                Language.ENGLISH));
+        this.variants.add(new Variant(MediaType.TEXT_HTML, Language.ENGLISH));
+        this.variants.add(new Variant(MediaType.TEXT_HTML, Language.FRENCH));
+        this.variants.add(new Variant(MediaType.TEXT_PLAIN, Language.FRENCH));
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+package org.restlet.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.Form;
+import org.restlet.data.MediaType;
+import org.restlet.representation.Representation;
+import org.restlet.representation.Variant;
+import org.restlet.service.ConverterService;
+
+/**
+ * Benchmarks the conversion of Java objects into representations, including
+ * the lookup of the matching converter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    /** The converter service. */
+    private ConverterService converterService;
+
+    /** The form to convert. */
+    private Form form;
+
+    /** The target form variant. */
+    private Variant formVariant;
+
+    /** The target text variant. */
+    private Variant textVariant;
+
+    @Benchmark
+    public String formToRepresentation() throws IOException {
+        return this.converterService.toRepresentation(this.form,
+                this.formVariant, null).getText();
+    }
+
+    @Setup
+    public void setUp() {
+        this.converterService = new ConverterService();
+        this.form = new Form("user=jdoe&name=John%20Doe&page=2&sort=name");
+        this.formVariant = new Variant(MediaType.APPLICATION_WWW_FORM);
+        this.textVariant = new Variant(MediaType.TEXT_PLAIN);
+    }
+
+    @Benchmark
+    public Representation stringToRepresentation() throws IOException {
+        return this.converterService.toRepresentation("Hello, world!",
+                this.textVariant, null);
+    }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+package org.restlet.jmh;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Header;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Preference;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.header.HeaderReader;
+import org.restlet.engine.header.HeaderUtils;
+import org.restlet.engine.header.PreferenceReader;
+import org.restlet.representation.Representation;
+import org.restlet.util.Series;
+
+/**
+ * Benchmarks the parsing and formatting of HTTP headers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeaderBenchmark {
+
+    /** Typical browser Accept header. */
+    private static final String ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8";
+
+    /** The response headers received from a server. */
+    private Series<Header> responseHeaders;
+
+    @Setup
+    public void setUp() {
+        this.responseHeaders = new Series<Header>(Header.class);
+        this.responseHeaders.add(HeaderConstants.HEADER_CONTENT_TYPE,
+                "application/json; charset=UTF-8");
+        this.responseHeaders.add(HeaderConstants.HEADER_CONTENT_LENGTH,
+                "1234");
+        this.responseHeaders.add(HeaderConstants.HEADER_CONTENT_ENCODING,
+                "gzip");
+        this.responseHeaders.add(HeaderConstants.HEADER_CACHE_CONTROL,
+                "no-cache, max-age=0");
+        this.responseHeaders.add(HeaderConstants.HEADER_DATE,
+                "Tue, 15 Nov 1994 08:12:31 GMT");
+        this.responseHeaders.add(HeaderConstants.HEADER_LAST_MODIFIED,
+                "Tue, 15 Nov 1994 12:45:26 GMT");
+        this.responseHeaders.add(HeaderConstants.HEADER_ETAG, "\"abc123\"");
+        this.responseHeaders.add(HeaderConstants.HEADER_SERVER,
+                "Restlet-Framework/2.4");
+        this.responseHeaders.add(HeaderConstants.HEADER_VARY,
+                "Accept, Accept-Encoding");
+    }
+
+    @Benchmark
+    public List<Preference<MediaType>> readAccept() {
+        return new PreferenceReader<MediaType>(
+                PreferenceReader.TYPE_MEDIA_TYPE, ACCEPT).readValues();
+    }
+
+    @Benchmark
+    public Header readHeaderLine() throws IOException {
+        return HeaderReader
+                .readHeader("Content-Type: application/json; charset=UTF-8");
+    }
+
+    @Benchmark
+    public Response readResponseHeaders() {
+        Response response = new Response(new Request());
+        HeaderUtils.copyResponseTransportHeaders(this.responseHeaders,
+                response);
+        Representation entity = HeaderUtils.extractEntityHeaders(
+                this.responseHeaders, null);
+        response.setEntity(entity);
+        return response;
+    }
+
+    @Benchmark
+    public Series<Header> writeRequestHeaders() {
+        Request request = new Request(Method.GET,
+                "http://www.example.com/app/users/123");
+        request.getClientInfo().getAcceptedMediaTypes()
+                .add(new Preference<MediaType>(MediaType.APPLICATION_JSON));
+        Series<Header> headers = new Series<Header>(Header.class);
+        HeaderUtils.addGeneralHeaders(request, headers);
+        HeaderUtils.addRequestHeaders(request, headers);
+        return headers;
+    }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.MediaType;
+import org.restlet.ext.jackson.JacksonConverter;
+import org.restlet.ext.jackson.JacksonRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.representation.Variant;
+
+/**
+ * Benchmarks the {@link JacksonConverter} when reusing its cached object
+ * readers and writers, compared with the former behavior creating an object
+ * mapper for each representation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonConverterBenchmark {
+
+    /** Simple bean converted to and from JSON. */
+    public static class Bean {
+
+        private String description;
+
+        private String name;
+
+        public Bean() {
+        }
+
+        public Bean(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Converter creating a new object mapper for each representation.
+     */
+    private static class UncachedJacksonConverter extends JacksonConverter {
+        @Override
+        protected <T> JacksonRepresentation<T> create(MediaType mediaType,
+                T source) {
+            return new JacksonRepresentation<T>(mediaType, source);
+        }
+
+        @Override
+        protected <T> JacksonRepresentation<T> create(Representation source,
+                Class<T> objectClass) {
+            return new JacksonRepresentation<T>(source, objectClass);
+        }
+    }
+
+    /** The bean to format. */
+    private Bean bean;
+
+    /** The converter reusing its object readers and writers. */
+    private JacksonConverter cachedConverter;
+
+    /** The JSON document to parse. */
+    private String json;
+
+    /** The target JSON variant. */
+    private Variant jsonVariant;
+
+    /** The converter creating an object mapper for each representation. */
+    private JacksonConverter uncachedConverter;
+
+    @Benchmark
+    public Bean cachedToObject() throws IOException {
+        return this.cachedConverter.toObject(new StringRepresentation(
+                this.json, MediaType.APPLICATION_JSON), Bean.class, null);
+    }
+
+    @Benchmark
+    public String cachedToRepresentation() throws IOException {
+        return this.cachedConverter.toRepresentation(this.bean,
+                this.jsonVariant, null).getText();
+    }
+
+    @Setup
+    public void setUp() {
+        this.bean = new Bean("myName", "myDescription");
+        this.cachedConverter = new JacksonConverter();
+        this.json = "{\"name\":\"myName\",\"description\":\"myDescription\"}";
+        this.jsonVariant = new Variant(MediaType.APPLICATION_JSON);
+        this.uncachedConverter = new UncachedJacksonConverter();
+    }
+
+    @Benchmark
+    public Bean uncachedToObject() throws IOException {
+        return this.uncachedConverter.toObject(new StringRepresentation(
+                this.json, MediaType.APPLICATION_JSON), Bean.class, null);
+    }
+
+    @Benchmark
+    public String uncachedToRepresentation() throws IOException {
+        return this.uncachedConverter.toRepresentation(this.bean,
+                this.jsonVariant, null).getText();
+    }
+
+}
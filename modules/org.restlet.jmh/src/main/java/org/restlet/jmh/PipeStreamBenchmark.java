@@ -0,0 +1,184 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.engine.io.PipeStream;
+
+/**
+ * Benchmarks the throughput of the {@link PipeStream} ring buffer, compared
+ * with the former pipe based on a queue of boxed bytes. Each operation pipes
+ * the given number of bytes from a writer thread to the benchmark thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipeStreamBenchmark {
+
+    /**
+     * Former pipe implementation, moving each byte through a blocking queue.
+     */
+    private static class QueuePipeStream {
+
+        private final BlockingQueue<Integer> queue = new ArrayBlockingQueue<Integer>(
+                1024);
+
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private boolean endReached = false;
+
+                @Override
+                public int read() throws IOException {
+                    try {
+                        if (this.endReached) {
+                            return -1;
+                        }
+
+                        Integer value = queue.poll(5, TimeUnit.SECONDS);
+
+                        if (value == null) {
+                            throw new IOException("Timeout");
+                        }
+
+                        this.endReached = (value == -1);
+                        return value.intValue();
+                    } catch (InterruptedException ie) {
+                        throw new IOException("Interrupted");
+                    }
+                }
+            };
+        }
+
+        public OutputStream getOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void close() throws IOException {
+                    write(-1);
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    try {
+                        queue.offer((b == -1) ? -1 : (b & 0xff), 5,
+                                TimeUnit.SECONDS);
+                    } catch (InterruptedException ie) {
+                        throw new IOException("Interrupted");
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Writes the given number of bytes in a writer thread while reading them
+     * in the current thread.
+     * 
+     * @return The number of bytes read.
+     */
+    private static long pipe(InputStream in, final OutputStream out,
+            final long size) throws Exception {
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                byte[] chunk = new byte[IoUtils.BUFFER_SIZE];
+
+                try {
+                    for (long written = 0; written < size; written += chunk.length) {
+                        out.write(chunk, 0,
+                                (int) Math.min(chunk.length, size - written));
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                } finally {
+                    // Always lets the reader reach the end
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        });
+
+        writer.start();
+        byte[] chunk = new byte[IoUtils.BUFFER_SIZE];
+        long result = 0;
+
+        for (int n = in.read(chunk); n != -1; n = in.read(chunk)) {
+            result += n;
+        }
+
+        writer.join();
+
+        if (failure.get() != null) {
+            throw new IOException("The writer thread failed", failure.get());
+        }
+
+        if (result != size) {
+            throw new IOException((size - result) + " bytes were lost");
+        }
+
+        return result;
+    }
+
+    /** The number of bytes piped per operation. */
+    @Param({ "1048576" })
+    public int size;
+
+    @Benchmark
+    public long queuePipe() throws Exception {
+        QueuePipeStream pipe = new QueuePipeStream();
+        return pipe(pipe.getInputStream(), pipe.getOutputStream(), this.size);
+    }
+
+    @Benchmark
+    public long ringBufferPipe() throws Exception {
+        PipeStream pipe = new PipeStream();
+        return pipe(pipe.getInputStream(), pipe.getOutputStream(), this.size);
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+package org.restlet.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.restlet.data.Reference;
+
+/**
+ * Benchmarks the parsing, normalization and resolution of references.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReferenceBenchmark {
+
+    /** The base URI used to resolve relative references. */
+    @Param({ "http://www.example.com/app/v1/" })
+    public String base;
+
+    /** The relative URI to resolve. */
+    @Param({ "../v2/./users/123/../456?sort=name&page=2#top" })
+    public String relative;
+
+    /** The absolute URI to parse. */
+    @Param({ "http://user@www.example.com:8182/app/users/123/orders?sort=name&page=2#top" })
+    public String uri;
+
+    @Benchmark
+    public Reference normalize() {
+        return new Reference(this.base + this.relative).normalize();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        Reference reference = new Reference(this.uri);
+        blackhole.consume(reference.getScheme());
+        blackhole.consume(reference.getHostDomain());
+        blackhole.consume(reference.getHostPort());
+        blackhole.consume(reference.getPath());
+        blackhole.consume(reference.getQuery());
+        blackhole.consume(reference.getFragment());
+    }
+
+    @Benchmark
+    public Reference resolve() {
+        return new Reference(new Reference(this.base), this.relative)
+                .getTargetRef();
+    }
+
+}
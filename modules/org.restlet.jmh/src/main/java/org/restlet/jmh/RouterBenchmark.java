@@ -0,0 +1,103 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+package org.restlet.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.routing.Router;
+
+/**
+ * Benchmarks the selection of a route among many attached ones, with and
+ * without the compiled route index.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+    /** Indicates if the compiled route index is used. */
+    @Param({ "false", "true" })
+    public boolean compiledRouting;
+
+    /** The routing mode. */
+    @Param({ "" + Router.MODE_FIRST_MATCH, "" + Router.MODE_BEST_MATCH })
+    public int routingMode;
+
+    /** The number of attached routes. */
+    @Param({ "200" })
+    public int routes;
+
+    /** The request to route, matching the last route. */
+    private Request request;
+
+    /** The response to update. */
+    private Response response;
+
+    /** The router to benchmark. */
+    private Router router;
+
+    @Benchmark
+    public Restlet getNext() {
+        return this.router.getNext(this.request, this.response);
+    }
+
+    @Setup
+    public void setUp() {
+        Restlet target = new Restlet() {
+        };
+        this.router = new Router();
+        this.router.setCompiledRouting(this.compiledRouting);
+        this.router.setRoutingMode(this.routingMode);
+
+        for (int i = 0; i < this.routes; i++) {
+            this.router.attach("/resources" + i + "/{id}", target);
+        }
+
+        this.request = new Request(Method.GET, "http://localhost/resources"
+                + (this.routes - 1) + "/123");
+        this.request.getResourceRef().setBaseRef("http://localhost");
+        this.request.setLoggable(false);
+        this.response = new Response(this.request);
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+package org.restlet.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.data.Header;
+import org.restlet.util.Series;
+
+/**
+ * Benchmarks the lookup of named values in a series, such as headers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeriesBenchmark {
+
+    /** The number of entries in the series. */
+    @Param({ "20" })
+    public int size;
+
+    /** The headers to search. */
+    private Series<Header> headers;
+
+    /** The name of the last header. */
+    private String lastName;
+
+    @Benchmark
+    public String getFirstValue() {
+        return this.headers.getFirstValue(this.lastName);
+    }
+
+    @Benchmark
+    public String getFirstValueIgnoringCase() {
+        return this.headers.getFirstValue(this.lastName.toUpperCase(), true);
+    }
+
+    @Setup
+    public void setUp() {
+        this.headers = new Series<Header>(Header.class);
+
+        for (int i = 0; i < this.size; i++) {
+            this.headers.add("X-Header-" + i, "value-" + i);
+        }
+
+        this.lastName = "X-Header-" + (this.size - 1);
+    }
+
+}
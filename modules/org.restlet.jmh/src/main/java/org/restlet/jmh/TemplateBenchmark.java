@@ -0,0 +1,97 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.restlet.routing.Template;
+import org.restlet.routing.Variable;
+
+/**
+ * Benchmarks the matching and parsing of URI templates, comparing the simple
+ * matcher with the regular expressions, selected by the "simpleMatching"
+ * parameter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateBenchmark {
+
+    /** The formatted string to match. */
+    @Param({ "/users/1234/orders/abc%20def" })
+    public String formatted;
+
+    /** The URI template pattern. */
+    @Param({ "/users/{user}/orders/{order}" })
+    public String pattern;
+
+    /**
+     * Indicates if the simple matcher is used. Each parameter value runs in a
+     * separate fork, before the {@link Template} class is initialized.
+     */
+    @Param({ "true", "false" })
+    public String simpleMatching;
+
+    /** The template to match. */
+    private Template template;
+
+    @Benchmark
+    public int match() {
+        return this.template.match(this.formatted);
+    }
+
+    @Benchmark
+    public Map<String, Object> parse() {
+        Map<String, Object> variables = new HashMap<String, Object>();
+        this.template.parse(this.formatted, variables, false);
+        return variables;
+    }
+
+    @Setup
+    public void setUp() {
+        System.setProperty("org.restlet.routing.Template.simpleMatching",
+                this.simpleMatching);
+        this.template = new Template(this.pattern, Template.MODE_EQUALS,
+                Variable.TYPE_URI_SEGMENT, "", true, false);
+    }
+
+}
@@ -25,14 +25,18 @@
 package org.restlet.test.engine;
 
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.restlet.data.Method;
 import org.restlet.engine.resource.AnnotationInfo;
 import org.restlet.engine.resource.AnnotationUtils;
 import org.restlet.engine.resource.MethodAnnotationInfo;
+import org.restlet.representation.Variant;
 import org.restlet.resource.Get;
 import org.restlet.resource.Put;
+import org.restlet.service.ConverterService;
+import org.restlet.service.MetadataService;
 import org.restlet.test.RestletTestCase;
 
 /**
@@ -102,4 +106,53 @@ public class AnnotationUtilsTestCase extends RestletTestCase {
                 "Didn't find a method with IChild as the declaring class.",
                 true, found);
     }
+
+    public void testGetMethodAnnotations() {
+        Map<Method, List<MethodAnnotationInfo>> table = AnnotationUtils
+                .getInstance().getMethodAnnotations(IChild.class);
+        Assert.assertEquals(2, table.size());
+        Assert.assertSame(table, AnnotationUtils.getInstance()
+                .getMethodAnnotations(IChild.class));
+
+        List<MethodAnnotationInfo> gets = AnnotationUtils.getInstance()
+                .getMethodAnnotations(IChild.class, Method.GET);
+        Assert.assertEquals(2, gets.size());
+
+        for (MethodAnnotationInfo mai : gets) {
+            Assert.assertEquals(Method.GET, mai.getRestletMethod());
+        }
+
+        Assert.assertTrue(AnnotationUtils.getInstance()
+                .getMethodAnnotations(IChild.class, Method.DELETE).isEmpty());
+
+        try {
+            gets.clear();
+            Assert.fail("The dispatch table should be immutable");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+    public void testGetResponseVariants() throws Exception {
+        MethodAnnotationInfo get = AnnotationUtils.getInstance()
+                .getMethodAnnotations(IChild.class, Method.GET).get(0);
+        MetadataService metadataService = new MetadataService();
+        ConverterService converterService = new ConverterService();
+        List<Variant> variants = get.getResponseVariants(metadataService,
+                converterService);
+        Assert.assertFalse(variants.isEmpty());
+
+        // Computed once for the same services
+        Assert.assertSame(variants,
+                get.getResponseVariants(metadataService, converterService));
+        Assert.assertNotSame(variants, get.getResponseVariants(
+                new MetadataService(), converterService));
+
+        try {
+            variants.clear();
+            Assert.fail("The cached variants should be immutable");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
 }
@@ -24,7 +24,12 @@
 
 package org.restlet.test.engine;
 
+import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
 
 import org.restlet.engine.util.DateUtils;
 import org.restlet.test.RestletTestCase;
@@ -129,4 +134,59 @@ public class DateTestCase extends RestletTestCase {
         assertEquals("1991-01-01T00:00:00Z", dateFormat4);
         assertEquals("1937-01-01T11:40:27.87Z", dateFormat5);
     }
+
+    /**
+     * Tests that the HTTP dates are formatted and parsed like the
+     * {@link SimpleDateFormat} class does.
+     */
+    public void testHttpCodec() throws Exception {
+        Random random = new Random(1985);
+        checkHttpCodec(0L);
+        checkHttpCodec(951782400000L); // 29 Feb 2000
+        checkHttpCodec(253402300799000L); // 31 Dec 9999
+
+        for (int i = 0; i < 1000; i++) {
+            checkHttpCodec(random.nextLong() % 8000000000000L / 1000 * 1000);
+        }
+
+        // Space padded day of the asctime() format
+        assertEquals(DateUtils.parse("Sun Nov  6 08:49:37 1994",
+                DateUtils.FORMAT_ASC_TIME), DateUtils.parse(
+                "Sun, 06 Nov 1994 08:49:37 GMT", DateUtils.FORMAT_RFC_1123));
+
+        // Lenient parsing is delegated to the date format
+        assertEquals(DateUtils.parse("Sun, 06 Nov 1994 09:49:37 GMT"),
+                DateUtils.parse("Sun, 06 Nov 1994 08:49:37 GMT-01:00"));
+        assertNull(DateUtils.parse("Sun, 06 Nov"));
+    }
+
+    /**
+     * Tests the reuse of the formatted date within the same second.
+     */
+    public void testHttpCodecCache() throws Exception {
+        Date date = new Date();
+        String dateFormat1 = DateUtils.format(date);
+        String dateFormat2 = DateUtils.format(new Date(date.getTime()));
+        assertSame(dateFormat1, dateFormat2);
+        assertEquals(DateUtils.format(new Date(0L)),
+                "Thu, 01 Jan 1970 00:00:00 GMT");
+        assertSame(dateFormat1, DateUtils.format(date));
+    }
+
+    private void checkHttpCodec(long time) throws Exception {
+        Date date = new Date(time);
+        checkHttpCodec(date, DateUtils.FORMAT_RFC_1123);
+        checkHttpCodec(date, DateUtils.FORMAT_RFC_1036);
+        checkHttpCodec(date, DateUtils.FORMAT_ASC_TIME);
+    }
+
+    private void checkHttpCodec(Date date, List<String> formats)
+            throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat(formats.get(0),
+                Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        String expected = format.format(date);
+        assertEquals(expected, DateUtils.format(date, formats));
+        assertEquals(format.parse(expected), DateUtils.parse(expected, formats));
+    }
 }
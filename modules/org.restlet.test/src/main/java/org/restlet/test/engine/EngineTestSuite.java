@@ -31,6 +31,7 @@ import org.restlet.test.engine.application.CorsResponseFilterTestCase;
 import org.restlet.test.engine.connector.ConnectorsTestSuite;
 import org.restlet.test.engine.connector.HttpInboundRequestTestCase;
 import org.restlet.test.engine.io.BioUtilsTestCase;
+import org.restlet.test.engine.io.PipeStreamTestCase;
 import org.restlet.test.engine.io.ReaderInputStreamTestCase;
 
 /**
@@ -61,10 +62,13 @@ public class EngineTestSuite extends TestSuite {
         addTestSuite(HttpCallTestCase.class);
         addTestSuite(HttpInboundRequestTestCase.class);
         addTestSuite(ImmutableDateTestCase.class);
+        addTestSuite(MethodInvokerTestCase.class);
         addTestSuite(UnclosableInputStreamTestCase.class);
         addTestSuite(UnclosableOutputStreamTestCase.class);
+        addTestSuite(UserAgentClassifierTestCase.class);
         addTestSuite(PreferencesTestCase.class);
         addTestSuite(ReaderInputStreamTestCase.class);
+        addTestSuite(PipeStreamTestCase.class);
         addTestSuite(CorsResponseFilterTestCase.class);
 
         // Tests based on HTTP client connectors are not supported by the GAE
@@ -24,7 +24,10 @@
 
 package org.restlet.test.engine;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
@@ -35,6 +38,7 @@ import org.restlet.data.Encoding;
 import org.restlet.data.Header;
 import org.restlet.data.MediaType;
 import org.restlet.engine.header.EncodingReader;
+import org.restlet.engine.header.HeadBuilder;
 import org.restlet.engine.header.HeaderConstants;
 import org.restlet.engine.header.HeaderReader;
 import org.restlet.engine.header.HeaderUtils;
@@ -243,4 +247,51 @@ public class HeaderTestCase extends RestletTestCase {
         assertEquals("My-Header", result.getName());
         assertNull(result.getValue());
     }
+
+    public void testHeadBuilder() throws IOException {
+        HeadBuilder builder = new HeadBuilder();
+        String head = "Content-Type: text/plain\r\ncontent-length: 5\r\n"
+                + "X-Custom:  a\r\nX-Empty: \r\n\r\n";
+        InputStream is = new ByteArrayInputStream(
+                head.getBytes(StandardCharsets.ISO_8859_1));
+
+        // Standard names are shared, whatever the case used
+        Header header = builder.readHeader(is);
+        assertSame(HeaderConstants.HEADER_CONTENT_TYPE, header.getName());
+        assertEquals("text/plain", header.getValue());
+
+        header = builder.readHeader(is);
+        assertEquals("content-length", header.getName());
+        assertSame(header.getName(), builder.readHeader(
+                new ByteArrayInputStream("content-length: 1\r\n"
+                        .getBytes(StandardCharsets.ISO_8859_1))).getName());
+        assertEquals("5", header.getValue());
+
+        header = builder.readHeader(is);
+        assertEquals("X-Custom", header.getName());
+        assertEquals("a", header.getValue());
+        header.setValue("b");
+        assertEquals("b", header.getValue());
+
+        header = builder.readHeader(is);
+        assertEquals("X-Empty", header.getName());
+        assertNull(header.getValue());
+        assertNull(builder.readHeader(is));
+
+        try {
+            builder.readHeader(new ByteArrayInputStream("My-Header\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1)));
+            fail("Not allowed");
+        } catch (IOException e) {
+        }
+    }
+
+    public void testSingleCharacterValue() throws IOException {
+        Header result = HeaderReader.readHeader("Content-Length: 5");
+        assertEquals("Content-Length", result.getName());
+        assertEquals("5", result.getValue());
+
+        result = HeaderReader.readHeader("Content-Length:5");
+        assertEquals("5", result.getValue());
+    }
 }
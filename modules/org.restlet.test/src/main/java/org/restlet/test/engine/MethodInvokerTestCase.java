@@ -0,0 +1,139 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.engine;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import org.restlet.engine.util.MethodInvoker;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the {@link MethodInvoker} class.
+ */
+public class MethodInvokerTestCase extends RestletTestCase {
+
+    public static class Target {
+
+        public static String join(String first, String second) {
+            return first + second;
+        }
+
+        public int calls;
+
+        public int add(int first, Integer second) {
+            return first + second;
+        }
+
+        public void call() {
+            calls++;
+        }
+
+        public String cast(Object value) {
+            return (String) value;
+        }
+
+        public String fail() throws IOException {
+            throw new IOException("planned");
+        }
+    }
+
+    private static MethodInvoker invoker(String name, Class<?>... types)
+            throws Exception {
+        return new MethodInvoker(Target.class.getMethod(name, types));
+    }
+
+    public void testArgumentMismatch() throws Exception {
+        MethodInvoker invoker = invoker("add", int.class, Integer.class);
+        Object[][] mismatches = { { null, 3 }, { 2, "3" }, { 2L, 3 } };
+
+        for (Object[] arguments : mismatches) {
+            try {
+                invoker.invoke(new Target(), arguments);
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                // Reported like reflection, not as a failure of the method
+            }
+        }
+
+        try {
+            invoker.invoke("target", new Object[] { 2, 3 });
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        // Widening conversions are applied as with reflection
+        assertEquals(5, invoker.invoke(new Target(), new Object[] {
+                (short) 2, 3 }));
+    }
+
+    public void testException() throws Exception {
+        try {
+            invoker("fail").invoke(new Target(), null);
+            fail("InvocationTargetException expected");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getTargetException() instanceof IOException);
+        }
+
+        try {
+            invoker("cast", Object.class).invoke(new Target(),
+                    new Object[] { 1 });
+            fail("InvocationTargetException expected");
+        } catch (InvocationTargetException e) {
+            // Thrown by the method itself
+            assertTrue(e.getTargetException() instanceof ClassCastException);
+        }
+    }
+
+    public void testInstanceMethod() throws Exception {
+        assertEquals(5, invoker("add", int.class, Integer.class).invoke(
+                new Target(), new Object[] { 2, 3 }));
+    }
+
+    public void testStaticMethod() throws Exception {
+        assertEquals("ab", invoker("join", String.class, String.class)
+                .invoke(null, new Object[] { "a", "b" }));
+    }
+
+    public void testVoidMethod() throws Exception {
+        Target target = new Target();
+        MethodInvoker invoker = invoker("call");
+        assertNull(invoker.invoke(target, null));
+        assertNull(invoker.invoke(target, new Object[0]));
+        assertEquals(2, target.calls);
+    }
+
+    public void testWrongArguments() throws Exception {
+        try {
+            invoker("add", int.class, Integer.class).invoke(new Target(),
+                    new Object[] { 2 });
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+}
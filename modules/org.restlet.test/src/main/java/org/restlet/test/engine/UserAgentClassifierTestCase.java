@@ -0,0 +1,119 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.engine;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Product;
+import org.restlet.engine.header.UserAgentClassifier;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the {@link UserAgentClassifier} class.
+ */
+public class UserAgentClassifierTestCase extends RestletTestCase {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "{agentName}/{agentVersion} {facultativeData}",
+            "{agentName}/{agentVersion}");
+
+    public void testAttributes() {
+        UserAgentClassifier classifier = new UserAgentClassifier(PATTERNS,
+                10);
+        Map<String, String> attributes = classifier
+                .getAttributes("Wget/1.9");
+        assertEquals("Wget", attributes.get("agentName"));
+        assertEquals("1.9", attributes.get("agentVersion"));
+
+        // Returned maps are copies
+        attributes.clear();
+        attributes = classifier.getAttributes("Wget/1.9");
+        assertEquals("Wget", attributes.get("agentName"));
+        assertEquals(1, classifier.getHitCount());
+        assertEquals(1, classifier.getMissCount());
+
+        // No matching template
+        assertTrue(classifier.getAttributes("Unknown").isEmpty());
+        assertTrue(classifier.getAttributes(null).isEmpty());
+        assertEquals(2, classifier.size());
+    }
+
+    public void testClientInfo() {
+        ClientInfo clientInfo = new ClientInfo();
+        clientInfo.setAgent("Restlet-Framework/2.2-SNAPSHOT");
+        assertEquals("Restlet-Framework", clientInfo.getAgentName());
+        assertEquals("2.2-SNAPSHOT", clientInfo.getAgentVersion());
+
+        // Updates of one instance don't leak into the shared cache
+        clientInfo.getAgentAttributes().put("agentName", "Modified");
+        clientInfo.getAgentProducts().get(0).setName("Modified");
+
+        clientInfo = new ClientInfo();
+        clientInfo.setAgent("Restlet-Framework/2.2-SNAPSHOT");
+        assertEquals("Restlet-Framework",
+                clientInfo.getAgentAttributes().get("agentName"));
+        assertEquals("Restlet-Framework", clientInfo.getAgentProducts()
+                .get(0).getName());
+    }
+
+    public void testEviction() {
+        UserAgentClassifier classifier = new UserAgentClassifier(PATTERNS, 2);
+        classifier.getAttributes("a/1");
+        classifier.getAttributes("b/1");
+        classifier.getAttributes("a/1");
+        classifier.getAttributes("c/1");
+        assertEquals(2, classifier.size());
+
+        // "b/1" was the least recently used entry
+        long misses = classifier.getMissCount();
+        classifier.getAttributes("a/1");
+        assertEquals(misses, classifier.getMissCount());
+        classifier.getAttributes("b/1");
+        assertEquals(misses + 1, classifier.getMissCount());
+    }
+
+    public void testProducts() {
+        UserAgentClassifier classifier = new UserAgentClassifier(PATTERNS,
+                10);
+        String agent = "Mozilla/5.0 (X11; U; Linux i686) Gecko/20061024 Iceweasel/2.0";
+        List<Product> products = classifier.getProducts(agent);
+        assertEquals(3, products.size());
+        assertEquals("Mozilla", products.get(0).getName());
+        assertEquals("X11; U; Linux i686", products.get(0).getComment());
+        assertEquals("Iceweasel", products.get(2).getName());
+
+        products.get(0).setName("Modified");
+        products.clear();
+        products = classifier.getProducts(agent);
+        assertEquals(3, products.size());
+        assertEquals("Mozilla", products.get(0).getName());
+        assertTrue(classifier.getProducts(null).isEmpty());
+    }
+
+}
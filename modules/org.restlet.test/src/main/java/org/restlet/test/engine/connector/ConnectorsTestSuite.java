@@ -54,6 +54,9 @@ public class ConnectorsTestSuite extends TestSuite {
         addTestSuite(GetTestCase.class);
         addTestSuite(GetChunkedTestCase.class);
         addTestSuite(GetQueryParamTestCase.class);
+        addTestSuite(Http2TestCase.class);
+        addTestSuite(NioClientAbortTestCase.class);
+        addTestSuite(NioSelectorThreadsTestCase.class);
         addTestSuite(PostPutTestCase.class);
         addTestSuite(RemoteClientAddressTestCase.class);
         addTestSuite(SslClientContextGetTestCase.class);
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.engine.connector;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.restlet.Client;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.engine.Engine;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.engine.io.IoUtils;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test HTTP/2 support of the Jetty connectors.
+ */
+public class Http2TestCase extends RestletTestCase {
+
+    /** Restlet returning the protocol and version of the request. */
+    private static class ProtocolRestlet extends Restlet {
+        @Override
+        public void handle(Request request, Response response) {
+            Protocol protocol = request.getProtocol();
+            String constant = (protocol == Protocol.HTTP_2) ? "HTTP_2"
+                    : (protocol == Protocol.HTTPS_2) ? "HTTPS_2" : protocol
+                            .getName();
+            response.setEntity(constant + " " + protocol.getVersion(),
+                    MediaType.TEXT_PLAIN);
+        }
+    }
+
+    private final File testDir = new File(System.getProperty("java.io.tmpdir"),
+            "Http2TestCase");
+
+    private final File testKeystoreFile = new File(testDir, "dummy.jks");
+
+    private Server server;
+
+    /**
+     * Creates a client connector, backed by the Jetty client with HTTP/2
+     * enabled or by the internal HTTP/1.1 client.
+     */
+    private Client createClient(Protocol protocol, boolean http2) {
+        if (http2) {
+            Engine.getInstance().getRegisteredClients()
+                    .add(0, new org.restlet.ext.jetty.HttpClientHelper(null));
+        }
+
+        Client result = new Client(new Context(), protocol);
+
+        if (http2) {
+            result.getContext().getParameters().add("http2", "true");
+        }
+
+        if (protocol.isConfidential()) {
+            setSslParameters(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the given URI and returns the response with its entity buffered.
+     */
+    private Response get(Client client, String uri) throws Exception {
+        client.start();
+
+        try {
+            Response response = client.handle(new Request(Method.GET, uri));
+            assertTrue(response.getStatus().isSuccess());
+            response.setEntity(new StringRepresentation(response.getEntity()
+                    .getText()));
+            return response;
+        } finally {
+            client.stop();
+        }
+    }
+
+    private String start(Protocol protocol) throws Exception {
+        this.server = new Server(new Context(), protocol, 0,
+                new ProtocolRestlet());
+        this.server.getContext().getParameters().add("http2.enabled", "true");
+
+        if (protocol.isConfidential()) {
+            setSslParameters(this.server);
+            this.server.getContext().getParameters()
+                    .add("keyPassword", "testtest");
+        }
+
+        this.server.start();
+        return protocol.getSchemeName() + "://localhost:"
+                + this.server.getEphemeralPort() + "/";
+    }
+
+    private void setSslParameters(org.restlet.Connector connector) {
+        connector.getContext().getParameters()
+                .add("keystorePath", testKeystoreFile.getPath());
+        connector.getContext().getParameters()
+                .add("keystorePassword", "testtest");
+        connector.getContext().getParameters()
+                .add("truststorePath", testKeystoreFile.getPath());
+        connector.getContext().getParameters()
+                .add("truststorePassword", "testtest");
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Engine engine = Engine.register(false);
+        engine.getRegisteredClients().add(
+                new org.restlet.engine.local.ClapClientHelper(null));
+        engine.getRegisteredClients().add(
+                new org.restlet.engine.connector.HttpClientHelper(null));
+        engine.getRegisteredServers().add(
+                new org.restlet.ext.jetty.HttpServerHelper(null));
+        engine.getRegisteredServers().add(
+                new org.restlet.ext.jetty.HttpsServerHelper(null));
+
+        // Copy the keystore into a temporary directory
+        IoUtils.delete(this.testDir, true);
+        this.testDir.mkdir();
+        Response response = new Client(Protocol.CLAP).handle(new Request(
+                Method.GET,
+                "clap://class/org/restlet/test/engine/connector/dummy.jks"));
+        OutputStream outputStream = new FileOutputStream(testKeystoreFile);
+        response.getEntity().write(outputStream);
+        outputStream.close();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (this.server != null) {
+            this.server.stop();
+            this.server = null;
+        }
+
+        IoUtils.delete(this.testDir, true);
+        Engine.register();
+        super.tearDown();
+    }
+
+    public void testH2Alpn() throws Exception {
+        String uri = start(Protocol.HTTPS);
+        Response response = get(createClient(Protocol.HTTPS, true), uri);
+        assertEquals("HTTPS_2 2.0", response.getEntity().getText());
+        assertEquals("2.0",
+                response.getAttributes().get(HeaderConstants.ATTRIBUTE_VERSION));
+    }
+
+    public void testH2cPriorKnowledge() throws Exception {
+        String uri = start(Protocol.HTTP);
+        Response response = get(createClient(Protocol.HTTP, true), uri);
+        assertEquals("HTTP_2 2.0", response.getEntity().getText());
+        assertEquals("2.0",
+                response.getAttributes().get(HeaderConstants.ATTRIBUTE_VERSION));
+    }
+
+    public void testHttp11Fallback() throws Exception {
+        String uri = start(Protocol.HTTP);
+        Response response = get(createClient(Protocol.HTTP, false), uri);
+        assertEquals("HTTP 1.1", response.getEntity().getText());
+    }
+
+    public void testHttps11Fallback() throws Exception {
+        String uri = start(Protocol.HTTPS);
+        Response response = get(createClient(Protocol.HTTPS, false), uri);
+        assertEquals("HTTPS 1.1", response.getEntity().getText());
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.engine.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.restlet.Client;
+import org.restlet.Context;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.ext.nio.HttpClientHelper;
+import org.restlet.resource.ClientResource;
+import org.restlet.resource.ResourceException;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test the abort of asynchronous calls sent via the NIO client connector.
+ */
+@SuppressWarnings("deprecation")
+public class NioClientAbortTestCase extends RestletTestCase {
+
+    private Client client;
+
+    /** Server socket accepting connections but never responding. */
+    private ServerSocket serverSocket;
+
+    /**
+     * Accepts the connection of the client and reads its request header.
+     */
+    private Socket accept() throws IOException {
+        Socket result = this.serverSocket.accept();
+        result.setSoTimeout(5000);
+        InputStream in = result.getInputStream();
+
+        // Read until the empty line ending the request header
+        for (int matched = 0, b = 0; (matched < 4) && (b != -1);) {
+            b = in.read();
+            matched = ((b == '\r') || (b == '\n')) ? matched + 1 : 0;
+        }
+
+        return result;
+    }
+
+    private ClientResource createResource() {
+        ClientResource result = new ClientResource("http://localhost:"
+                + this.serverSocket.getLocalPort() + "/blocked");
+        result.setNext(this.client);
+        return result;
+    }
+
+    /**
+     * Indicates if the given socket is closed by the client.
+     */
+    private boolean isClosed(Socket socket) {
+        try {
+            return socket.getInputStream().read() == -1;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            // Reset by the client
+            return true;
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.serverSocket = new ServerSocket(0);
+        this.serverSocket.setSoTimeout(5000);
+        Engine.getInstance().getRegisteredClients()
+                .add(0, new HttpClientHelper(null));
+        this.client = new Client(new Context(), Protocol.HTTP);
+        this.client.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.client.stop();
+        this.client = null;
+        this.serverSocket.close();
+        this.serverSocket = null;
+        Engine.register();
+        super.tearDown();
+    }
+
+    public void testCancel() throws Exception {
+        assertTrue(this.client.isNonBlocking());
+        CompletableFuture<String> future = createResource().getAsync(
+                String.class);
+        Socket socket = accept();
+
+        try {
+            assertFalse(future.isDone());
+            assertTrue(future.cancel(true));
+
+            // The connection is closed instead of waiting for the response
+            assertTrue(isClosed(socket));
+        } finally {
+            socket.close();
+        }
+    }
+
+    public void testTimeout() throws Exception {
+        ClientResource resource = createResource();
+        resource.setAsyncTimeout(200);
+        CompletableFuture<String> future = resource.getAsync(String.class);
+        Socket socket = accept();
+
+        try {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("The call should have timed out");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ResourceException);
+                assertEquals(Status.CONNECTOR_ERROR_COMMUNICATION.getCode(),
+                        ((ResourceException) e.getCause()).getStatus()
+                                .getCode());
+            }
+
+            assertTrue(isClosed(socket));
+        } finally {
+            socket.close();
+        }
+    }
+
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.engine.connector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.Server;
+import org.restlet.data.MediaType;
+import org.restlet.data.Protocol;
+import org.restlet.engine.Engine;
+import org.restlet.ext.nio.HttpServerHelper;
+import org.restlet.ext.nio.internal.controller.SelectorController;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test the NIO server connector with several selector threads.
+ */
+@SuppressWarnings("deprecation")
+public class NioSelectorThreadsTestCase extends RestletTestCase {
+
+    /** Restlet returning the path of the request. */
+    private static class EchoRestlet extends Restlet {
+        @Override
+        public void handle(Request request, Response response) {
+            response.setEntity("hello " + request.getResourceRef().getPath(),
+                    MediaType.TEXT_PLAIN);
+        }
+    }
+
+    private HttpServerHelper helper;
+
+    private Server server;
+
+    /**
+     * Issues a GET request on a persistent connection and returns the
+     * response entity, or null if the connection was closed.
+     */
+    private String get(Socket socket, String path) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                .getBytes("US-ASCII"));
+        out.flush();
+
+        InputStream in = socket.getInputStream();
+        int contentLength = -1;
+
+        for (String line = readLine(in); line != null; line = readLine(in)) {
+            if (line.isEmpty()) {
+                byte[] entity = new byte[contentLength];
+
+                for (int read = 0; read < contentLength;) {
+                    int n = in.read(entity, read, contentLength - read);
+
+                    if (n == -1) {
+                        return null;
+                    }
+
+                    read += n;
+                }
+
+                return new String(entity, "US-ASCII");
+            } else if (line.toLowerCase().startsWith("content-length:")) {
+                contentLength = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads a header line, or returns null if the connection was closed.
+     */
+    private String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        for (int b = in.read(); b != -1; b = in.read()) {
+            if (b == '\n') {
+                String result = line.toString("US-ASCII");
+                return result.endsWith("\r") ? result.substring(0,
+                        result.length() - 1) : result;
+            }
+
+            line.write(b);
+        }
+
+        return null;
+    }
+
+    private Socket openSocket() throws IOException {
+        Socket result = new Socket("localhost", this.server.getActualPort());
+        result.setSoTimeout(10000);
+        return result;
+    }
+
+    private void start(int selectorThreads) throws Exception {
+        Engine.getInstance().getRegisteredServers()
+                .add(0, new HttpServerHelper(null));
+        this.server = new Server(new Context(), Protocol.HTTP, 0,
+                new EchoRestlet());
+        this.server.getContext().getParameters()
+                .add("selectorThreads", Integer.toString(selectorThreads));
+        this.server.start();
+        this.helper = (HttpServerHelper) this.server.getContext()
+                .getAttributes().get("org.restlet.engine.helper");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (this.server != null) {
+            this.server.stop();
+            this.server = null;
+        }
+
+        this.helper = null;
+        Engine.register();
+        super.tearDown();
+    }
+
+    public void testConcurrentKeepAliveClients() throws Exception {
+        start(3);
+        assertEquals(2, this.helper.getController().getSelectorControllers()
+                .size());
+
+        int clientsCount = 8;
+        final int requestsCount = 50;
+        final List<Socket> sockets = new ArrayList<Socket>();
+
+        for (int i = 0; i < clientsCount; i++) {
+            sockets.add(openSocket());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(clientsCount);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+
+            for (int i = 0; i < clientsCount; i++) {
+                final int client = i;
+                results.add(executor.submit(new Callable<Integer>() {
+                    public Integer call() throws Exception {
+                        int result = 0;
+
+                        for (int j = 0; j < requestsCount; j++) {
+                            String path = "/client" + client + "/" + j;
+
+                            if (("hello " + path).equals(get(
+                                    sockets.get(client), path))) {
+                                result++;
+                            }
+                        }
+
+                        return result;
+                    }
+                }));
+            }
+
+            for (Future<Integer> result : results) {
+                assertEquals(requestsCount, result.get().intValue());
+            }
+
+            // Each selector thread controls some of the connections
+            for (SelectorController controller : this.helper.getController()
+                    .getSelectorControllers()) {
+                assertFalse(controller.getConnections().isEmpty());
+            }
+        } finally {
+            executor.shutdownNow();
+
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    public void testStoppedSelectorController() throws Exception {
+        start(2);
+        Socket first = openSocket();
+        Socket second = openSocket();
+
+        try {
+            assertEquals("hello /first", get(first, "/first"));
+            assertEquals("hello /second", get(second, "/second"));
+
+            SelectorController controller = this.helper.getController()
+                    .getSelectorControllers().get(0);
+            assertEquals(1, controller.getConnections().size());
+            controller.shutdown();
+
+            for (int i = 0; (i < 100) && !controller.isReleased(); i++) {
+                Thread.sleep(50);
+            }
+
+            // Its connection is closed instead of hanging
+            assertTrue(controller.isReleased());
+            assertTrue(controller.getConnections().isEmpty());
+            assertEquals(1, this.helper.getConnections().size());
+            int closed = 0;
+
+            for (Socket socket : new Socket[] { first, second }) {
+                socket.setSoTimeout(1000);
+
+                try {
+                    if (socket.getInputStream().read() == -1) {
+                        closed++;
+                    }
+                } catch (SocketTimeoutException e) {
+                    // Still open
+                } catch (IOException e) {
+                    closed++;
+                }
+            }
+
+            assertEquals(1, closed);
+
+            // New connections are assigned to the running controller
+            Socket third = openSocket();
+
+            try {
+                assertEquals("hello /third", get(third, "/third"));
+                assertTrue(controller.getConnections().isEmpty());
+            } finally {
+                third.close();
+            }
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+}
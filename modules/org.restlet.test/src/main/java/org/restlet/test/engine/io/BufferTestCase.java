@@ -25,8 +25,10 @@
 package org.restlet.test.engine.io;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
 
 import org.restlet.ext.nio.internal.buffer.Buffer;
+import org.restlet.ext.nio.internal.buffer.BufferPool;
 import org.restlet.ext.nio.internal.buffer.BufferState;
 import org.restlet.test.RestletTestCase;
 
@@ -64,4 +66,97 @@ public class BufferTestCase extends RestletTestCase {
         buffer.drain(sb, BufferState.FILLING);
         assertEquals("Remaining buffer", "ijklmnopqrstuvwxyz", sb.toString());
     }
+
+    public void testPooled() throws IOException {
+        BufferPool pool = new BufferPool(true, 2);
+        Buffer buffer = new Buffer(pool, 8192);
+        assertTrue(buffer.isReleased());
+        assertTrue(buffer.isEmpty());
+        assertEquals(8192, buffer.capacity());
+        assertEquals(0, pool.getLeaseCount());
+
+        buffer.fill("abc");
+        assertFalse(buffer.isReleased());
+        assertEquals(1, pool.getLeasedCount());
+
+        // Not released while bytes remain
+        buffer.release();
+        assertFalse(buffer.isReleased());
+
+        buffer.flip();
+        StringBuilder sb = new StringBuilder();
+        buffer.drain(sb, BufferState.FILLING);
+        assertEquals("abc", sb.toString());
+        buffer.release();
+        assertTrue(buffer.isReleased());
+        assertEquals(0, pool.getLeasedCount());
+        assertEquals(1, pool.getIdleCount());
+
+        // The idle byte buffer is reused
+        buffer.fill("def");
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(2, pool.getLeaseCount());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    public void testConcurrentLease() throws Exception {
+        final BufferPool pool = new BufferPool(false, 2);
+
+        for (int i = 0; i < 100; i++) {
+            final Buffer buffer = new Buffer(pool, 1024);
+            final CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[4];
+
+            for (int j = 0; j < threads.length; j++) {
+                threads[j] = new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            buffer.getBytes();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+                threads[j].start();
+            }
+
+            start.countDown();
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // A single byte buffer is leased and given back
+            assertEquals(1, pool.getLeasedCount());
+            buffer.release();
+            assertEquals(0, pool.getLeasedCount());
+        }
+    }
+
+    public void testNegativeMaxIdle() {
+        try {
+            new BufferPool(false, -1);
+            fail("A negative maximum number of idle buffers was accepted");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    public void testUnpooled() throws IOException {
+        BufferPool pool = new BufferPool(false, 0);
+        Buffer buffer = new Buffer(pool, 8192);
+        buffer.fill("abc");
+        buffer.flip();
+        buffer.drain(new StringBuilder(), BufferState.FILLING);
+        buffer.release();
+        assertTrue(buffer.isReleased());
+        assertEquals(0, pool.getLeasedCount());
+        assertEquals(0, pool.getIdleCount());
+
+        // No idle byte buffer is kept for reuse
+        buffer.fill("def");
+        assertEquals(2, pool.getCreatedCount());
+    }
 }
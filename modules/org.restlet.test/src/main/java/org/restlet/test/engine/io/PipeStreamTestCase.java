@@ -0,0 +1,115 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.engine.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.restlet.engine.io.PipeStream;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit test case for the {@link PipeStream} class.
+ */
+public class PipeStreamTestCase extends RestletTestCase {
+
+    public void testBulkTransfer() throws Exception {
+        final byte[] content = new byte[100000];
+
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        // Small capacity to force the ring buffer to wrap around
+        PipeStream pipe = new PipeStream(1000);
+        final OutputStream os = pipe.getOutputStream();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    for (int i = 0; i < content.length; i += 777) {
+                        os.write(content, i, Math.min(777, content.length - i));
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                } finally {
+                    // Always lets the reader reach the end
+                    try {
+                        os.close();
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        });
+        writer.start();
+
+        InputStream is = pipe.getInputStream();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1234];
+
+        for (int n = is.read(chunk); n != -1; n = is.read(chunk)) {
+            baos.write(chunk, 0, n);
+        }
+
+        writer.join();
+
+        if (failure.get() != null) {
+            throw new Exception("The writer thread failed", failure.get());
+        }
+
+        assertTrue(Arrays.equals(content, baos.toByteArray()));
+        assertEquals(-1, is.read());
+    }
+
+    public void testClosedInput() throws Exception {
+        PipeStream pipe = new PipeStream(10);
+        pipe.getInputStream().close();
+
+        try {
+            pipe.getOutputStream().write(new byte[20]);
+            fail("Writing to a pipe with a closed input should fail");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    public void testTimeout() throws Exception {
+        PipeStream pipe = new PipeStream(10, 100);
+
+        try {
+            pipe.getInputStream().read();
+            fail("Reading from an empty pipe should time out");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+}
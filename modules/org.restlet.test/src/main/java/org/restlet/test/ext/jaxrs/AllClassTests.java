@@ -54,6 +54,7 @@ public class AllClassTests extends TestCase {
         mySuite.setName("All class tests");
         // package .
         mySuite.addTestSuite(ExceptionMappersTest.class);
+        mySuite.addTestSuite(MessageBodyProvidersTest.class);
         // logs only: mySuite.addTestSuite(JaxRsApplicationTest.class);
         // package .core.
         mySuite.addTestSuite(PathSegmentImplTest.class);
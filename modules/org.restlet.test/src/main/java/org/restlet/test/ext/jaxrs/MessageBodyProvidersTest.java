@@ -0,0 +1,104 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.ext.jaxrs;
+
+import java.lang.annotation.Annotation;
+
+import javax.ws.rs.core.MediaType;
+
+import junit.framework.TestCase;
+
+import org.restlet.engine.Engine;
+import org.restlet.ext.jaxrs.internal.wrappers.provider.JaxRsProviders;
+import org.restlet.ext.jaxrs.internal.wrappers.provider.MessageBodyReader;
+import org.restlet.test.ext.jaxrs.services.providers.IntegerEntityProvider;
+
+/**
+ * Tests the cached resolution of the message body readers and writers.
+ * 
+ * @see JaxRsProviders
+ */
+@SuppressWarnings("all")
+public class MessageBodyProvidersTest extends TestCase {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    private JaxRsProviders providers;
+
+    private MessageBodyReader getBestReader(Class<?> type) {
+        return this.providers.getBestReader(type, type, NO_ANNOTATIONS,
+                org.restlet.data.MediaType.TEXT_PLAIN);
+    }
+
+    private javax.ws.rs.ext.MessageBodyWriter<?> getWriter(Class<?> type) {
+        return this.providers.getMessageBodyWriter(type, type,
+                NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.providers = new JaxRsProviders(null, null, null,
+                Engine.getAnonymousLogger());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.providers = null;
+        super.tearDown();
+    }
+
+    public void testReaderAddedAfterResolution() throws Exception {
+        assertNull(getBestReader(Integer.class));
+        assertNull(getBestReader(Integer.class));
+
+        this.providers.addSingleton(new IntegerEntityProvider(), false);
+        assertNotNull(getBestReader(Integer.class));
+        assertNotNull(getBestReader(Integer.class));
+        assertNull(getBestReader(Long.class));
+    }
+
+    public void testWriterAddedAfterResolution() throws Exception {
+        assertNull(getWriter(Integer.class));
+        assertNull(getWriter(Integer.class));
+
+        this.providers.addSingleton(new IntegerEntityProvider(), false);
+        assertTrue(getWriter(Integer.class) instanceof IntegerEntityProvider);
+        assertTrue(getWriter(Integer.class) instanceof IntegerEntityProvider);
+        assertNull(getWriter(Long.class));
+    }
+
+    public void testWriterSubSet() throws Exception {
+        assertTrue(this.providers.writerSubSet(Integer.class, Integer.class)
+                .isEmpty());
+
+        this.providers.addSingleton(new IntegerEntityProvider(), false);
+        assertFalse(this.providers.writerSubSet(Integer.class, Integer.class)
+                .isEmpty());
+        assertFalse(this.providers.writerSubSet(Integer.class, Integer.class)
+                .isEmpty());
+    }
+}
@@ -87,6 +87,25 @@ public class PathRegExpTests extends TestCase {
 
     private final PathRegExp regExpOneSegment2 = newPathRegExp(PATH_PATTERN_2);
 
+    /**
+     * Test method for
+     * {@link org.restlet.ext.jaxrs.internal.util.PathRegExp#getFirstLiteralSegment()}
+     * .
+     */
+    public void testFirstLiteralSegment() {
+        assertEquals("abc", this.regExpMultipleSegments1
+                .getFirstLiteralSegment());
+        assertEquals("abc", this.regExpMultipleSegments2
+                .getFirstLiteralSegment());
+        assertEquals("abc", newPathRegExp("abc").getFirstLiteralSegment());
+        assertEquals("abc", newPathRegExp("/abc/").getFirstLiteralSegment());
+        assertNull(newPathRegExp("").getFirstLiteralSegment());
+        assertNull(newPathRegExp("/").getFirstLiteralSegment());
+        assertNull(newPathRegExp("{id}/abc").getFirstLiteralSegment());
+        assertNull(newPathRegExp("abc{id}").getFirstLiteralSegment());
+        assertNull(newPathRegExp("abc.xml").getFirstLiteralSegment());
+    }
+
     /**
      * Test method for
      * {@link org.restlet.ext.jaxrs.internal.util.PathRegExp#match(java.lang.String)}
@@ -24,6 +24,7 @@
 
 package org.restlet.test.ext.odata;
 
+import java.io.Closeable;
 import java.util.Iterator;
 
 import org.restlet.Component;
@@ -234,4 +235,74 @@ public class ODataCafeTestCase extends RestletTestCase {
         assertEquals("Marly Le Roi", cafe.getCity());
         assertEquals(78310, cafe.getZipCode());
     }
+
+    /**
+     * Tests the streaming of entities with server paging, with and without
+     * prefetching of the next page.
+     */
+    public void testServerPagingStreaming() throws Exception {
+        for (boolean prefetch : new boolean[] { false, true }) {
+            Query<Cafe> query = service.createCafeQuery("/Cafes")
+                    .stream(1, prefetch).skipToken("Skip1");
+            assertTrue(query.isStreaming());
+            Iterator<Cafe> iterator = query.iterator();
+
+            for (int i = 0; i < 2; i++) {
+                assertTrue(iterator.hasNext());
+                Cafe cafe = iterator.next();
+                assertEquals("1", cafe.getId());
+                assertEquals("Le Cafe Louis", cafe.getName());
+
+                assertTrue(iterator.hasNext());
+                cafe = iterator.next();
+                assertEquals("2", cafe.getId());
+                assertEquals("Le Petit Marly", cafe.getName());
+                assertEquals(78310, cafe.getZipCode());
+            }
+
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    /**
+     * Tests that a streaming iterator reports the errors instead of silently
+     * ending.
+     */
+    public void testStreamingFailure() throws Exception {
+        Query<Cafe> query = service.createCafeQuery("/Unknown").stream(
+                Query.DEFAULT_STREAM_BUFFER_SIZE, false);
+        Iterator<Cafe> iterator = query.iterator();
+
+        try {
+            iterator.hasNext();
+            fail("The error should be reported by the iterator");
+        } catch (RuntimeException e) {
+            assertNotNull(e.getCause());
+        }
+
+        try {
+            iterator.next();
+            fail("The error should be reported by the iterator");
+        } catch (RuntimeException e) {
+            assertNotNull(e.getCause());
+        }
+
+        // Closing the iterator discards the error
+        ((Closeable) iterator).close();
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Tests that a streaming iterator can be closed before its end.
+     */
+    public void testStreamingClose() throws Exception {
+        Query<Cafe> query = service.createCafeQuery("/Cafes").stream(
+                Query.DEFAULT_STREAM_BUFFER_SIZE, true);
+        Iterator<Cafe> iterator = query.iterator();
+        assertTrue(iterator.hasNext());
+        assertEquals("1", iterator.next().getId());
+
+        ((Closeable) iterator).close();
+        assertFalse(iterator.hasNext());
+    }
 }
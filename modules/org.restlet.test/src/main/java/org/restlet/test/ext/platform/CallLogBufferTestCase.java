@@ -0,0 +1,134 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.ext.platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.restlet.ext.platform.internal.agent.bean.CallLog;
+import org.restlet.ext.platform.internal.agent.bean.CallLogs;
+import org.restlet.ext.platform.internal.agent.module.CallLogBuffer;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the {@link CallLogBuffer} class.
+ */
+public class CallLogBufferTestCase extends RestletTestCase {
+
+    private boolean add(CallLogBuffer buffer, int duration) {
+        return buffer.add(1000L, duration, "GET", "/test", "10.0.0.1", 200,
+                "agent", "");
+    }
+
+    public void testConcurrentDrain() throws Exception {
+        final CallLogBuffer buffer = new CallLogBuffer(1000, 4);
+        final int threadsCount = 4;
+        final int callsCount = 20000;
+        final CountDownLatch done = new CountDownLatch(threadsCount);
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        for (int i = 0; i < threadsCount; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < callsCount; j++) {
+                            add(buffer, j);
+                        }
+                    } catch (Throwable t) {
+                        failed.set(true);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+
+        long drained = 0;
+
+        while (done.getCount() > 0) {
+            for (CallLog callLog : buffer.drain()) {
+                assertEquals("/test", callLog.getPath());
+                drained++;
+            }
+        }
+
+        // Every call is either drained or dropped
+        drained += buffer.drain().size();
+        assertFalse(failed.get());
+        assertEquals(threadsCount * callsCount,
+                drained + buffer.getDroppedCount());
+    }
+
+    public void testDrain() {
+        CallLogBuffer buffer = new CallLogBuffer(4, 1);
+        assertEquals(1, buffer.getStripesCount());
+        assertTrue(buffer.drain().isEmpty());
+
+        assertFalse(add(buffer, 1));
+        assertFalse(add(buffer, 2));
+        assertFalse(add(buffer, 3));
+        assertTrue(add(buffer, 4));
+
+        CallLogs callLogs = buffer.drain();
+        assertEquals(4, callLogs.size());
+        assertEquals(1, callLogs.get(0).getDuration());
+        assertEquals(4, callLogs.get(3).getDuration());
+        assertEquals(1000L, callLogs.get(0).getDate().getTime());
+        assertEquals("GET", callLogs.get(0).getMethod());
+        assertEquals("10.0.0.1", callLogs.get(0).getRemoteIp());
+        assertEquals(200, callLogs.get(0).getStatusCode());
+        assertTrue(buffer.drain().isEmpty());
+
+        // Records are reused across drains
+        for (int i = 0; i < 3; i++) {
+            add(buffer, 10 + i);
+            callLogs = buffer.drain();
+            assertEquals(1, callLogs.size());
+            assertEquals(10 + i, callLogs.get(0).getDuration());
+        }
+    }
+
+    public void testDrop() {
+        CallLogBuffer buffer = new CallLogBuffer(2, 1);
+        add(buffer, 1);
+        add(buffer, 2);
+        assertTrue(add(buffer, 3));
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals(2, buffer.drain().size());
+
+        add(buffer, 4);
+        assertEquals(1, buffer.drain().size());
+        assertEquals(1, buffer.getDroppedCount());
+    }
+
+    public void testStripes() {
+        assertEquals(1, new CallLogBuffer(10, 0).getStripesCount());
+        assertEquals(4, new CallLogBuffer(10, 3).getStripesCount());
+        assertEquals(8, new CallLogBuffer(10, 8).getStripesCount());
+    }
+
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.ext.platform;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.ext.platform.internal.firewall.handler.policy.PerValueLimitPolicy;
+import org.restlet.ext.platform.internal.firewall.handler.policy.RoleLimitPolicy;
+import org.restlet.ext.platform.internal.firewall.handler.policy.UniqueLimitPolicy;
+import org.restlet.ext.platform.internal.firewall.rule.RateLimitingFirewallRule;
+import org.restlet.ext.platform.internal.firewall.rule.SlidingWindowFirewallRule;
+import org.restlet.ext.platform.internal.firewall.rule.TokenBucketFirewallRule;
+import org.restlet.ext.platform.internal.firewall.rule.policy.IpAddressCountingPolicy;
+import org.restlet.ext.platform.internal.firewall.rule.policy.UserCountingPolicy;
+import org.restlet.routing.Filter;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the rate limiting firewall rules.
+ */
+public class FirewallRateLimitingTestCase extends RestletTestCase {
+
+    /** The simulated time, in nanoseconds. */
+    private long time;
+
+    private int handle(RateLimitingFirewallRule rule, String address) {
+        Request request = new Request(Method.GET, "http://localhost/test");
+        request.getClientInfo().setAddress(address);
+        Response response = new Response(request);
+        int result = rule.beforeHandle(request, response);
+
+        if (result == Filter.SKIP) {
+            assertEquals(Status.CLIENT_ERROR_TOO_MANY_REQUESTS,
+                    response.getStatus());
+        }
+
+        return result;
+    }
+
+    private void sleep(long millis) {
+        this.time += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public void testBoundedStates() {
+        RateLimitingFirewallRule rule = new TokenBucketFirewallRule(1,
+                TimeUnit.SECONDS, new IpAddressCountingPolicy(),
+                new UniqueLimitPolicy(1), 10) {
+            @Override
+            protected long nanoTime() {
+                return time;
+            }
+        };
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Filter.CONTINUE, handle(rule, "10.0.0." + i));
+            assertTrue(rule.getCountedValuesCount() <= 10);
+        }
+    }
+
+    public void testIdleStatesEvictedFirst() {
+        RateLimitingFirewallRule rule = new TokenBucketFirewallRule(1,
+                TimeUnit.SECONDS, new IpAddressCountingPolicy(),
+                new UniqueLimitPolicy(2), 10) {
+            @Override
+            protected long nanoTime() {
+                return time;
+            }
+        };
+
+        for (int i = 0; i < 9; i++) {
+            assertEquals(Filter.CONTINUE, handle(rule, "10.0.0." + i));
+        }
+
+        // The previous states are now idle
+        sleep(2000);
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.1.1"));
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.1.1"));
+        assertEquals(Filter.SKIP, handle(rule, "10.0.1.1"));
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(Filter.CONTINUE, handle(rule, "10.0.2." + i));
+            assertTrue(rule.getCountedValuesCount() <= 10);
+        }
+
+        // The active state wasn't reset to make room
+        assertEquals(Filter.SKIP, handle(rule, "10.0.1.1"));
+
+        // Idle states are swept periodically
+        sleep(120000);
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.1.1"));
+        assertEquals(1, rule.getCountedValuesCount());
+    }
+
+    public void testMaxLimit() {
+        new SlidingWindowFirewallRule(1, TimeUnit.SECONDS,
+                new IpAddressCountingPolicy(), new UniqueLimitPolicy(
+                        SlidingWindowFirewallRule.MAX_LIMIT));
+
+        try {
+            new SlidingWindowFirewallRule(1, TimeUnit.SECONDS,
+                    new IpAddressCountingPolicy(), new UniqueLimitPolicy(
+                            SlidingWindowFirewallRule.MAX_LIMIT + 1));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        Map<String, Integer> limitsPerRole = new HashMap<String, Integer>();
+        limitsPerRole.put("admin", SlidingWindowFirewallRule.MAX_LIMIT + 1);
+
+        try {
+            new SlidingWindowFirewallRule(1, TimeUnit.SECONDS,
+                    new UserCountingPolicy(), new RoleLimitPolicy(
+                            limitsPerRole, 10));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        // Limits raised afterwards are lowered instead of failing the calls
+        PerValueLimitPolicy limitPolicy = new PerValueLimitPolicy(1);
+        RateLimitingFirewallRule rule = new SlidingWindowFirewallRule(1,
+                TimeUnit.SECONDS, new IpAddressCountingPolicy(), limitPolicy);
+        limitPolicy.addCountedValue("10.0.0.1",
+                SlidingWindowFirewallRule.MAX_LIMIT + 1);
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+
+        // The token bucket doesn't restrict the limit
+        new TokenBucketFirewallRule(1, TimeUnit.SECONDS,
+                new IpAddressCountingPolicy(), new UniqueLimitPolicy(
+                        Integer.MAX_VALUE));
+    }
+
+    public void testSlidingWindow() {
+        RateLimitingFirewallRule rule = new SlidingWindowFirewallRule(1,
+                TimeUnit.SECONDS, new IpAddressCountingPolicy(),
+                new UniqueLimitPolicy(4)) {
+            @Override
+            protected long nanoTime() {
+                return time;
+            }
+        };
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        }
+
+        assertEquals(Filter.SKIP, handle(rule, "10.0.0.1"));
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.2"));
+
+        // The previous window still fully counts at its end
+        sleep(1000);
+        assertEquals(Filter.SKIP, handle(rule, "10.0.0.1"));
+
+        // Half of the previous window is still counted
+        sleep(500);
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        assertEquals(Filter.SKIP, handle(rule, "10.0.0.1"));
+
+        // Older windows are forgotten
+        sleep(1500);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        }
+        assertEquals(Filter.SKIP, handle(rule, "10.0.0.1"));
+    }
+
+    public void testTokenBucket() {
+        RateLimitingFirewallRule rule = new TokenBucketFirewallRule(1,
+                TimeUnit.SECONDS, new IpAddressCountingPolicy(),
+                new UniqueLimitPolicy(4)) {
+            @Override
+            protected long nanoTime() {
+                return time;
+            }
+        };
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        }
+
+        assertEquals(Filter.SKIP, handle(rule, "10.0.0.1"));
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.2"));
+
+        // One token is refilled every 250 ms
+        sleep(250);
+        assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        assertEquals(Filter.SKIP, handle(rule, "10.0.0.1"));
+
+        // The bucket never holds more than the limit
+        sleep(10000);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Filter.CONTINUE, handle(rule, "10.0.0.1"));
+        }
+        assertEquals(Filter.SKIP, handle(rule, "10.0.0.1"));
+    }
+
+    public void testUnknownCountedValue() {
+        RateLimitingFirewallRule rule = new TokenBucketFirewallRule(1,
+                TimeUnit.SECONDS, new IpAddressCountingPolicy(),
+                new UniqueLimitPolicy(4));
+        Request request = new Request(Method.GET, "http://localhost/test");
+        assertEquals(Filter.SKIP,
+                rule.beforeHandle(request, new Response(request)));
+
+        rule.setBlockingUnknownCountedValue(false);
+        assertEquals(Filter.CONTINUE,
+                rule.beforeHandle(request, new Response(request)));
+    }
+
+}
@@ -40,6 +40,8 @@ public class RestletCloudTestSuite extends TestCase {
     public static Test suite() {
         TestSuite result = new TestSuite();
         result.setName("Restlet Cloud extension");
+        result.addTestSuite(CallLogBufferTestCase.class);
+        result.addTestSuite(FirewallRateLimitingTestCase.class);
         result.addTestSuite(RestletCloudServiceTestCase.class);
         result.addTestSuite(SwaggerTranslatorTestCase.class);
         result.addTestSuite(Swagger2TranslatorTestCase.class);
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.ext.xml;
+
+import org.restlet.data.MediaType;
+import org.restlet.ext.xml.DomRepresentation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test case for the XPath evaluation of the {@link DomRepresentation} class.
+ */
+public class DomRepresentationTestCase extends RestletTestCase {
+
+    private static final String XML = "<?xml version=\"1.0\"?>"
+            + "<a:root xmlns:a=\"urn:a\" xmlns:b=\"urn:b\">"
+            + "<a:item>first</a:item><b:item>second</b:item></a:root>";
+
+    private DomRepresentation createRepresentation(String namespaceUri) {
+        DomRepresentation result = new DomRepresentation(
+                new StringRepresentation(XML, MediaType.TEXT_XML));
+        result.setNamespaceAware(true);
+        result.getNamespaces().put("x", namespaceUri);
+        return result;
+    }
+
+    public void testXPath() throws Exception {
+        // The same expression compiled with different prefix bindings
+        assertEquals("first", createRepresentation("urn:a").getText(
+                "/*/x:item"));
+        assertEquals("second", createRepresentation("urn:b").getText(
+                "/*/x:item"));
+        assertEquals("first", createRepresentation("urn:a").getText(
+                "/*/x:item"));
+
+        DomRepresentation dom = createRepresentation("urn:a");
+        assertEquals(2, dom.getNodes("/*/*").size());
+        assertEquals(Double.valueOf(2), dom.getNumber("count(/*/*)"));
+        assertTrue(dom.getBoolean("/*/x:item = 'first'"));
+    }
+
+    public void testXPathOverriddenNamespaceContext() throws Exception {
+        assertEquals("first", createRepresentation("urn:a").getText(
+                "/*/x:item"));
+
+        // The prefix bindings are provided by an overridden method
+        DomRepresentation dom = new DomRepresentation(new StringRepresentation(
+                XML, MediaType.TEXT_XML)) {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                return "x".equals(prefix) ? "urn:b" : null;
+            }
+        };
+        dom.setNamespaceAware(true);
+        assertEquals("second", dom.getText("/*/x:item"));
+    }
+
+}
@@ -24,8 +24,19 @@
 
 package org.restlet.test.ext.xml;
 
+import java.util.Date;
+
+import javax.xml.transform.URIResolver;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
 import org.restlet.data.MediaType;
+import org.restlet.data.Reference;
+import org.restlet.data.Tag;
 import org.restlet.ext.xml.TransformRepresentation;
+import org.restlet.ext.xml.internal.ContextResolver;
 import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.test.RestletTestCase;
@@ -82,4 +93,72 @@ public class TransformRepresentationTestCase extends RestletTestCase {
         assertEquals(this.output2, result);
     }
 
+    public void testTemplatesCache() throws Exception {
+        Context context = new Context();
+        this.xslt1.setLocationRef(new Reference("http://localhost/sheet.xsl"));
+        this.xslt1.setTag(new Tag("v1"));
+        this.xslt1.setModificationDate(new Date(1000L));
+        TransformRepresentation tr1 = new TransformRepresentation(context,
+                this.source, this.xslt1);
+        TransformRepresentation tr2 = new TransformRepresentation(context,
+                this.source, this.xslt1);
+        assertSame(tr1.getTemplates(), tr2.getTemplates());
+        assertEquals(this.output1, tr2.getText());
+
+        // The cache is scoped by context
+        TransformRepresentation other = new TransformRepresentation(
+                new Context(), this.source, this.xslt1);
+        assertNotSame(tr1.getTemplates(), other.getTemplates());
+
+        // The cache is bypassed by custom URI resolvers
+        URIResolver resolver = new ContextResolver(context) {
+        };
+        TransformRepresentation custom1 = new TransformRepresentation(
+                resolver, this.source, this.xslt1);
+        TransformRepresentation custom2 = new TransformRepresentation(
+                resolver, this.source, this.xslt1);
+        assertNotSame(custom1.getTemplates(), custom2.getTemplates());
+        assertNotSame(tr1.getTemplates(), custom1.getTemplates());
+
+        // A new version of the sheet is compiled again
+        this.xslt1.setTag(new Tag("v2"));
+        TransformRepresentation tr3 = new TransformRepresentation(context,
+                this.source, this.xslt1);
+        assertNotSame(tr1.getTemplates(), tr3.getTemplates());
+
+        // Sheets that can't be identified aren't cached
+        TransformRepresentation tr4 = new TransformRepresentation(context,
+                this.source, this.xslt2);
+        TransformRepresentation tr5 = new TransformRepresentation(context,
+                this.source, this.xslt2);
+        assertNotSame(tr4.getTemplates(), tr5.getTemplates());
+    }
+
+    public void testTemplatesCacheInclude() throws Exception {
+        final String included = this.xslt1.getText();
+        Context context = new Context();
+        context.setClientDispatcher(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                // Serves the included sheet
+                response.setEntity(included, MediaType.TEXT_XML);
+            }
+        });
+        Representation sheet = new StringRepresentation(
+                "<?xml version=\"1.0\"?>"
+                        + "<xsl:transform xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\" version=\"1.0\">"
+                        + "<xsl:include href=\"included.xsl\"/>"
+                        + "</xsl:transform>", MediaType.TEXT_XML);
+        sheet.setLocationRef(new Reference("http://localhost/including.xsl"));
+        sheet.setTag(new Tag("v1"));
+        TransformRepresentation tr1 = new TransformRepresentation(context,
+                this.source, sheet);
+        TransformRepresentation tr2 = new TransformRepresentation(context,
+                this.source, sheet);
+        assertEquals(this.output1, tr1.getText());
+
+        // The freshness of the included sheet can't be checked
+        assertNotSame(tr1.getTemplates(), tr2.getTemplates());
+    }
+
 }
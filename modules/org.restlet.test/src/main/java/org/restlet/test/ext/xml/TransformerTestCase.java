@@ -24,12 +24,14 @@
 
 package org.restlet.test.ext.xml;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 
 import org.restlet.Component;
 import org.restlet.data.MediaType;
 import org.restlet.ext.xml.TransformRepresentation;
 import org.restlet.ext.xml.Transformer;
+import org.restlet.representation.InputRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.test.RestletTestCase;
@@ -141,4 +143,22 @@ public class TransformerTestCase extends RestletTestCase {
         assertEquals(this.output, result);
     }
 
+    public void testTransformTransientSheet() throws Exception {
+        // The sheet stream can only be read once
+        final Transformer transformer = new Transformer(
+                Transformer.MODE_REQUEST, new InputRepresentation(
+                        new ByteArrayInputStream(this.xslt.getText()
+                                .getBytes("UTF-8")), MediaType.TEXT_XML));
+        assertNotNull(transformer.getTemplates());
+        assertSame(transformer.getTemplates(), transformer.getTemplates());
+        assertEquals(this.output, transformer.transform(this.source)
+                .getText());
+        assertEquals(this.output, transformer.transform(this.source)
+                .getText());
+
+        transformer.setTransformSheet(this.xslt);
+        assertEquals(this.output, transformer.transform(this.source)
+                .getText());
+    }
+
 }
@@ -38,6 +38,7 @@ public class XmlTestSuite extends TestCase {
     public static Test suite() {
         TestSuite result = new TestSuite();
         result.setName("XML extension");
+        result.addTestSuite(DomRepresentationTestCase.class);
         result.addTestSuite(ResolvingTransformerTestCase.class);
         result.addTestSuite(RestletXmlTestCase.class);
         result.addTestSuite(TransformerTestCase.class);
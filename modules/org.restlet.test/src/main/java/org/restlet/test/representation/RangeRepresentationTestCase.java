@@ -24,8 +24,15 @@
 
 package org.restlet.test.representation;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.channels.Channels;
+
+import org.restlet.data.MediaType;
 import org.restlet.data.Range;
 import org.restlet.engine.application.RangeRepresentation;
+import org.restlet.representation.FileRepresentation;
 import org.restlet.representation.StringRepresentation;
 import org.restlet.test.RestletTestCase;
 
@@ -47,6 +54,31 @@ public class RangeRepresentationTestCase extends RestletTestCase {
         assertEquals("34567", rr.getText());
     }
 
+    public void testFileChannel() throws Exception {
+        File file = File.createTempFile("restlet-range", ".txt");
+        file.deleteOnExit();
+        FileOutputStream fos = new FileOutputStream(file);
+        fos.write("1234567890".getBytes());
+        fos.close();
+
+        FileRepresentation fr = new FileRepresentation(file,
+                MediaType.TEXT_PLAIN);
+        RangeRepresentation rr = new RangeRepresentation(fr);
+        rr.setRange(new Range(2, 5));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        rr.write(Channels.newChannel(baos));
+        assertEquals("34567", baos.toString());
+
+        rr.setRange(new Range(Range.INDEX_LAST, 3));
+        baos.reset();
+        rr.write(Channels.newChannel(baos));
+        assertEquals("890", baos.toString());
+
+        baos.reset();
+        fr.write(Channels.newChannel(baos));
+        assertEquals("1234567890", baos.toString());
+    }
+
     public void testSize() throws Exception {
         StringRepresentation sr = new StringRepresentation("1234567890");
         RangeRepresentation rr = new RangeRepresentation(sr);
@@ -0,0 +1,207 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.resource;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.restlet.Application;
+import org.restlet.Client;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Protocol;
+import org.restlet.data.Status;
+import org.restlet.engine.resource.ClientFuture;
+import org.restlet.resource.ClientResource;
+import org.restlet.resource.ResourceException;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test the asynchronous methods of the client resource.
+ */
+public class ClientResourceAsyncTestCase extends RestletTestCase {
+
+    private ClientResource clientResource;
+
+    /** Released to let the blocked calls complete. */
+    private CountDownLatch release;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.release = new CountDownLatch(1);
+        this.clientResource = new ClientResource("http://local/path");
+        this.clientResource.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                try {
+                    if (request.getResourceRef().getPath().equals("/blocked")) {
+                        release.await(5, TimeUnit.SECONDS);
+                    }
+
+                    if (Method.GET.equals(request.getMethod())) {
+                        response.setEntity(Thread.currentThread().getName(),
+                                MediaType.TEXT_PLAIN);
+                    } else if (Method.POST.equals(request.getMethod())) {
+                        response.setEntity("Echo: "
+                                + request.getEntity().getText(),
+                                MediaType.TEXT_PLAIN);
+                    } else {
+                        response.setStatus(Status.CLIENT_ERROR_NOT_FOUND);
+                    }
+                } catch (InterruptedException | IOException e) {
+                    response.setStatus(Status.SERVER_ERROR_INTERNAL, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        release.countDown();
+        clientResource = null;
+        super.tearDown();
+    }
+
+    public void testAbortHandler() throws Exception {
+        final CountDownLatch aborted = new CountDownLatch(1);
+        clientResource.setReference("http://local/blocked");
+        clientResource.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                // Registers an abort handler like the NIO connectors
+                request.getAttributes().put(
+                        ClientFuture.ATTRIBUTE_ABORT_HANDLER,
+                        new BooleanSupplier() {
+                            public boolean getAsBoolean() {
+                                aborted.countDown();
+                                return true;
+                            }
+                        });
+
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    response.setStatus(Status.SERVER_ERROR_INTERNAL, e);
+                }
+            }
+        });
+        CompletableFuture<String> future = clientResource
+                .getAsync(String.class);
+
+        // Wait for the call to be sent
+        for (int i = 0; (i < 100)
+                && !future.isDone()
+                && !((ClientFuture<String>) future).getRequest()
+                        .getAttributes()
+                        .containsKey(ClientFuture.ATTRIBUTE_ABORT_HANDLER); i++) {
+            Thread.sleep(20);
+        }
+
+        assertTrue(future.cancel(true));
+        assertTrue(aborted.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    public void testCancel() throws Exception {
+        clientResource.setReference("http://local/blocked");
+        CompletableFuture<String> future = clientResource
+                .getAsync(String.class);
+        assertFalse(future.isDone());
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+        release.countDown();
+    }
+
+    public void testError() throws Exception {
+        CompletableFuture<String> future = clientResource
+                .deleteAsync(String.class);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("An error status should complete the future exceptionally");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ResourceException);
+            assertEquals(Status.CLIENT_ERROR_NOT_FOUND,
+                    ((ResourceException) e.getCause()).getStatus());
+        }
+    }
+
+    public void testGet() throws Exception {
+        String caller = Thread.currentThread().getName();
+        String handler = clientResource.getAsync(String.class).get(5,
+                TimeUnit.SECONDS);
+        assertNotNull(handler);
+        assertFalse(caller.equals(handler));
+    }
+
+    public void testNonBlocking() {
+        // The internal connector dedicates a thread to each call
+        assertFalse(new Client(Protocol.HTTP).isNonBlocking());
+    }
+
+    public void testPost() throws Exception {
+        assertEquals("Echo: hello", clientResource.postAsync("hello",
+                String.class).get(5, TimeUnit.SECONDS));
+    }
+
+    public void testTaskService() throws Exception {
+        Application application = new Application();
+        application.getTaskService().setEnabled(true);
+        clientResource.setApplication(application);
+
+        try {
+            // The call is dispatched to the task service of the application
+            assertTrue(clientResource.getAsync(String.class)
+                    .get(5, TimeUnit.SECONDS).startsWith("restlet-"));
+        } finally {
+            application.getTaskService().shutdownNow();
+        }
+    }
+
+    public void testTimeout() throws Exception {
+        clientResource.setReference("http://local/blocked");
+        clientResource.setAsyncTimeout(100);
+        CompletableFuture<String> future = clientResource
+                .getAsync(String.class);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The call should have timed out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ResourceException);
+            assertEquals(Status.CONNECTOR_ERROR_COMMUNICATION.getCode(),
+                    ((ResourceException) e.getCause()).getStatus().getCode());
+        }
+    }
+
+}
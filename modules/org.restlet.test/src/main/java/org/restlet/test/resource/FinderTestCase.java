@@ -0,0 +1,81 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.resource;
+
+import java.util.function.Function;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Method;
+import org.restlet.resource.Finder;
+import org.restlet.resource.ServerResource;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Test the instantiation of server resources by {@link Finder}.
+ */
+public class FinderTestCase extends RestletTestCase {
+
+    /** Server resource lacking a default constructor. */
+    public static class NoDefaultServerResource extends ServerResource {
+        public NoDefaultServerResource(String name) {
+        }
+    }
+
+    public void testCreate() {
+        Request request = new Request(Method.GET, "http://local");
+        Response response = new Response(request);
+        Finder finder = new Finder();
+
+        ServerResource resource = finder.create(MyServerResource14.class,
+                request, response);
+        assertTrue(resource instanceof MyServerResource14);
+        assertNotSame(resource, finder.create(MyServerResource14.class,
+                request, response));
+        assertNull(finder.create(NoDefaultServerResource.class, request,
+                response));
+    }
+
+    public void testResourceFactory() {
+        Request request = new Request(Method.GET, "http://local");
+        Response response = new Response(request);
+        Finder finder = new Finder();
+        finder.setResourceFactory(new Function<Class<? extends ServerResource>, ServerResource>() {
+            @Override
+            public ServerResource apply(
+                    Class<? extends ServerResource> targetClass) {
+                return new NoDefaultServerResource(targetClass.getName());
+            }
+        });
+
+        assertTrue(finder.create(NoDefaultServerResource.class, request,
+                response) instanceof NoDefaultServerResource);
+        finder.setResourceFactory(null);
+        assertNull(finder.create(NoDefaultServerResource.class, request,
+                response));
+    }
+
+}
@@ -26,7 +26,12 @@ package org.restlet.test.routing;
 
 import org.restlet.Request;
 import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.Method;
+import org.restlet.engine.util.RouteIndex;
 import org.restlet.routing.Route;
+import org.restlet.routing.Router;
+import org.restlet.routing.Template;
 import org.restlet.test.RestletTestCase;
 import org.restlet.util.RouteList;
 
@@ -51,6 +56,48 @@ public class RouteListTestCase extends RestletTestCase {
         }
     }
 
+    public void testGetIndex() {
+        Restlet target = new Restlet() {
+        };
+        Router router = new Router();
+        router.attach("/users", target);
+        router.attach("/users/{id}", target);
+        router.attach("/users/{id}/orders", target);
+        router.attach("/orders/{id}", target).setMatchingMode(
+                Template.MODE_EQUALS);
+        router.attach("/a+b", target);
+        router.attach("/search?q={query}", target).setMatchingQuery(true);
+        router.attach("{anything}", target);
+        RouteList list = router.getRoutes();
+        list.add(new MockScoringRoute(0));
+
+        String[] uris = { "http://localhost/users",
+                "http://localhost/users/123", "http://localhost/users/1/orders",
+                "http://localhost/orders/1", "http://localhost/orders/1/x",
+                "http://localhost/aab", "http://localhost/search?q=test",
+                "http://localhost/other", "http://localhost/" };
+
+        for (String uri : uris) {
+            Request request = new Request(Method.GET, uri);
+            request.getResourceRef().setBaseRef("http://localhost");
+
+            for (float requiredScore : new float[] { 0F, 0.5F, 0.9F }) {
+                router.setRequiredScore(requiredScore);
+                assertSame(uri, list.getFirst(request, null, requiredScore),
+                        list.getIndex().getFirst(request, null, requiredScore));
+                assertSame(uri, list.getBest(request, null, requiredScore),
+                        list.getIndex().getBest(request, null, requiredScore));
+            }
+        }
+
+        // The index is rebuilt after a change
+        RouteIndex index = list.getIndex();
+        assertSame(index, list.getIndex());
+        router.attach("/new", target);
+        assertNotSame(index, list.getIndex());
+        assertEquals(list.size(), list.getIndex().size());
+    }
+
     public void testGetLast() {
         final RouteList list = new RouteList();
 
@@ -110,4 +157,33 @@ public class RouteListTestCase extends RestletTestCase {
         assertNull(list.getRandom(null, null, 9f));
     }
 
+    public void testSubList() {
+        Restlet target = new Restlet() {
+        };
+        Router router = new Router();
+        router.attach("/a", target);
+        router.attach("/b", target);
+        router.attach("/c", target);
+        RouteList list = router.getRoutes();
+
+        // The sub-list is a snapshot, still usable after the list changes
+        RouteList subList = list.subList(1, 3);
+        router.attach("/d", target);
+        router.detach(target);
+        assertTrue(list.isEmpty());
+        assertEquals(2, subList.size());
+
+        for (Route route : subList) {
+            assertSame(target, route.getNext());
+        }
+
+        // Changing the sub-list doesn't affect the list nor its index
+        router.attach("/e", target);
+        RouteIndex index = list.getIndex();
+        subList.remove(0);
+        assertEquals(1, subList.size());
+        assertEquals(1, list.size());
+        assertSame(index, list.getIndex());
+    }
+
 }
@@ -0,0 +1,350 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.restlet.Application;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.ChallengeScheme;
+import org.restlet.data.Dimension;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.data.Preference;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.restlet.engine.application.ClientCacheFilter;
+import org.restlet.engine.application.ResponseCache;
+import org.restlet.representation.OutputRepresentation;
+import org.restlet.representation.StringRepresentation;
+import org.restlet.resource.ClientResource;
+import org.restlet.service.CacheService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the cache service.
+ */
+public class CacheServiceTestCase extends RestletTestCase {
+
+    /** The application tested. */
+    private Application application;
+
+    /** The number of calls handled by the resource. */
+    private AtomicInteger calls;
+
+    /** The cache directives of the resource responses. */
+    private volatile CacheDirective directive;
+
+    private Response handle(Method method, String uri) throws Exception {
+        Request request = new Request(method, uri);
+        Response response = new Response(request);
+        this.application.handle(request, response);
+        return response;
+    }
+
+    private Response handle(Method method, String uri, MediaType mediaType)
+            throws Exception {
+        Request request = new Request(method, uri);
+        request.getClientInfo().getAcceptedMediaTypes()
+                .add(new Preference<MediaType>(mediaType));
+        Response response = new Response(request);
+        this.application.handle(request, response);
+        return response;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.calls = new AtomicInteger();
+        this.directive = CacheDirective.maxAge(60);
+        this.application = new Application();
+        this.application.getCacheService().setEnabled(true);
+        this.application.setInboundRoot(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                int count = calls.incrementAndGet();
+
+                if (Method.GET.equals(request.getMethod())) {
+                    MediaType mediaType = request.getClientInfo()
+                            .getPreferredMediaType(
+                                    Arrays.asList(MediaType.TEXT_PLAIN,
+                                            MediaType.TEXT_HTML));
+                    StringRepresentation entity = new StringRepresentation(
+                            request.getResourceRef().getPath() + " " + count,
+                            mediaType);
+                    entity.setTag(new Tag("t" + count));
+                    response.setEntity(entity);
+                    response.getCacheDirectives().add(directive);
+                    response.getDimensions().add(Dimension.MEDIA_TYPE);
+                }
+
+                response.setStatus(Status.SUCCESS_OK);
+            }
+        });
+        this.application.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.application.stop();
+        this.application = null;
+        super.tearDown();
+    }
+
+    public void testClientCredentials() throws Exception {
+        final AtomicInteger originCalls = new AtomicInteger();
+        Restlet origin = new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                originCalls.incrementAndGet();
+                response.setEntity(new StringRepresentation(request
+                        .getChallengeResponse().getIdentifier()));
+                response.getCacheDirectives().add(CacheDirective.maxAge(60));
+
+                if (request.getResourceRef().getPath().equals("/public")) {
+                    response.getCacheDirectives().add(
+                            CacheDirective.publicInfo());
+                }
+
+                response.setStatus(Status.SUCCESS_OK);
+            }
+        };
+        ResponseCache cache = new ResponseCache(1024, 10);
+        ClientCacheFilter filter = new ClientCacheFilter(null, cache, 1024,
+                origin);
+
+        // Private responses to authenticated requests aren't shared
+        for (String user : new String[] { "alice", "bob", "alice" }) {
+            ClientResource resource = new ClientResource(
+                    "http://localhost/private");
+            resource.setNext(filter);
+            resource.setChallengeResponse(ChallengeScheme.HTTP_BASIC, user,
+                    "secret");
+            assertEquals(user, resource.get().getText());
+        }
+
+        assertEquals(3, originCalls.get());
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getHitCount());
+
+        // Public responses are explicitly shareable
+        for (String user : new String[] { "alice", "bob" }) {
+            ClientResource resource = new ClientResource(
+                    "http://localhost/public");
+            resource.setNext(filter);
+            resource.setChallengeResponse(ChallengeScheme.HTTP_BASIC, user,
+                    "secret");
+            assertEquals("alice", resource.get().getText());
+        }
+
+        assertEquals(4, originCalls.get());
+        assertEquals(1, cache.getCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    public void testClientSide() throws Exception {
+        final AtomicInteger originCalls = new AtomicInteger();
+        Restlet origin = new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                originCalls.incrementAndGet();
+                Tag tag = new Tag("v1");
+
+                if (request.getConditions().getNoneMatch().contains(tag)) {
+                    response.setStatus(Status.REDIRECTION_NOT_MODIFIED);
+                } else {
+                    StringRepresentation entity = new StringRepresentation(
+                            request.getResourceRef().getPath());
+                    entity.setTag(tag);
+                    response.setEntity(entity);
+                    response.setStatus(Status.SUCCESS_OK);
+                }
+
+                response.getCacheDirectives().add(
+                        request.getResourceRef().getPath().equals("/fresh") ? CacheDirective
+                                .maxAge(60) : CacheDirective.noCache());
+            }
+        };
+        ResponseCache cache = new ResponseCache(1024, 10);
+        ClientCacheFilter filter = new ClientCacheFilter(null, cache, 1024,
+                origin);
+
+        // Fresh entries are served locally
+        for (int i = 0; i < 3; i++) {
+            ClientResource resource = new ClientResource(
+                    "http://localhost/fresh");
+            resource.setNext(filter);
+            assertEquals("/fresh", resource.get().getText());
+        }
+
+        assertEquals(1, originCalls.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // Stale entries are revalidated
+        for (int i = 0; i < 3; i++) {
+            ClientResource resource = new ClientResource(
+                    "http://localhost/stale");
+            resource.setNext(filter);
+            assertEquals("/stale", resource.get().getText());
+            assertEquals(Status.SUCCESS_OK, resource.getStatus());
+        }
+
+        assertEquals(4, originCalls.get());
+        assertEquals(2, cache.getRevalidationCount());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(4D / 6D, cache.getHitRate(), 0.001D);
+    }
+
+    public void testConditional() throws Exception {
+        Response response = handle(Method.GET, "http://localhost/a");
+        Tag tag = response.getEntity().getTag();
+
+        Request request = new Request(Method.GET, "http://localhost/a");
+        request.getConditions().getNoneMatch().add(tag);
+        response = new Response(request);
+        this.application.handle(request, response);
+        assertEquals(Status.REDIRECTION_NOT_MODIFIED, response.getStatus());
+        assertEquals(1, this.calls.get());
+    }
+
+    public void testEviction() throws Exception {
+        CacheService cacheService = this.application.getCacheService();
+        cacheService.setMaxSize(6);
+        handle(Method.GET, "http://localhost/a");
+        handle(Method.GET, "http://localhost/b");
+        assertEquals(1, cacheService.getEvictionCount());
+        assertEquals(1, cacheService.getCache().getCount());
+
+        handle(Method.GET, "http://localhost/b");
+        assertEquals(2, this.calls.get());
+        handle(Method.GET, "http://localhost/a");
+        assertEquals(3, this.calls.get());
+    }
+
+    public void testHit() throws Exception {
+        Response response = handle(Method.GET, "http://localhost/a");
+        assertEquals("/a 1", response.getEntity().getText());
+
+        response = handle(Method.GET, "http://localhost/a");
+        assertEquals(Status.SUCCESS_OK, response.getStatus());
+        assertEquals("/a 1", response.getEntity().getText());
+        assertEquals(new Tag("t1"), response.getEntity().getTag());
+        assertTrue(response.getCacheDirectives().contains(
+                CacheDirective.maxAge(60)));
+
+        response = handle(Method.HEAD, "http://localhost/a");
+        assertEquals("/a 1", response.getEntity().getText());
+        assertEquals(1, this.calls.get());
+
+        CacheService cacheService = this.application.getCacheService();
+        assertEquals(2, cacheService.getHitCount());
+        assertEquals(1, cacheService.getMissCount());
+
+        // The client can bypass the cache
+        Request request = new Request(Method.GET, "http://localhost/a");
+        request.getCacheDirectives().add(CacheDirective.noCache());
+        response = new Response(request);
+        this.application.handle(request, response);
+        assertEquals("/a 2", response.getEntity().getText());
+    }
+
+    public void testInvalidation() throws Exception {
+        handle(Method.GET, "http://localhost/a");
+        handle(Method.GET, "http://localhost/a");
+        assertEquals(1, this.calls.get());
+
+        handle(Method.PUT, "http://localhost/a");
+        assertEquals(2, this.calls.get());
+
+        Response response = handle(Method.GET, "http://localhost/a");
+        assertEquals("/a 3", response.getEntity().getText());
+    }
+
+    public void testMaxEntrySize() throws Exception {
+        final AtomicInteger writes = new AtomicInteger();
+        OutputRepresentation entity = new OutputRepresentation(
+                MediaType.TEXT_PLAIN) {
+            @Override
+            public void write(OutputStream outputStream) throws IOException {
+                byte[] chunk = new byte[1024];
+
+                for (int i = 0; i < 1024; i++) {
+                    writes.incrementAndGet();
+                    outputStream.write(chunk);
+                }
+            }
+        };
+        ResponseCache cache = new ResponseCache(1024 * 1024, 10);
+        Request request = new Request(Method.GET, "http://localhost/a");
+        Response response = new Response(request);
+        response.setEntity(entity);
+
+        // The copy is aborted as soon as the maximum size is exceeded
+        assertNull(cache.createEntry(request, response, 0L, 0L, 4096L));
+        assertEquals(5, writes.get());
+        assertSame(entity, response.getEntity());
+
+        // Entities known to be too large aren't written
+        writes.set(0);
+        entity.setSize(1024 * 1024);
+        assertNull(cache.createEntry(request, response, 0L, 0L, 4096L));
+        assertEquals(0, writes.get());
+    }
+
+    public void testNoStore() throws Exception {
+        this.directive = CacheDirective.noStore();
+        handle(Method.GET, "http://localhost/a");
+        handle(Method.GET, "http://localhost/a");
+        assertEquals(2, this.calls.get());
+        assertEquals(0, this.application.getCacheService().getCache()
+                .getCount());
+    }
+
+    public void testVary() throws Exception {
+        Response response = handle(Method.GET, "http://localhost/a",
+                MediaType.TEXT_HTML);
+        assertEquals(MediaType.TEXT_HTML, response.getEntity().getMediaType());
+
+        response = handle(Method.GET, "http://localhost/a",
+                MediaType.TEXT_PLAIN);
+        assertEquals(MediaType.TEXT_PLAIN, response.getEntity().getMediaType());
+        assertEquals(2, this.calls.get());
+
+        response = handle(Method.GET, "http://localhost/a",
+                MediaType.TEXT_HTML);
+        assertEquals(MediaType.TEXT_HTML, response.getEntity().getMediaType());
+        assertEquals(2, this.calls.get());
+    }
+
+}
@@ -0,0 +1,272 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.test.service;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.MediaType;
+import org.restlet.data.Method;
+import org.restlet.engine.log.AccessLogEntry;
+import org.restlet.engine.log.AccessLogWriter;
+import org.restlet.routing.Filter;
+import org.restlet.service.LogService;
+import org.restlet.test.RestletTestCase;
+
+/**
+ * Unit tests for the log service.
+ */
+public class LogServiceTestCase extends RestletTestCase {
+
+    /** The temporary directory of the log files. */
+    private File directory;
+
+    /**
+     * Creates a handled call.
+     * 
+     * @param path
+     *            The resource path.
+     * @return The response.
+     */
+    private Response createCall(String path) {
+        Request request = new Request(Method.GET, "http://localhost:8182"
+                + path + "?q=1");
+        request.getClientInfo().setAddress("10.0.0.1");
+        request.getClientInfo().setAgent("Agent/1.0");
+        request.setHostRef("http://localhost:8182");
+        Response response = new Response(request);
+        response.getServerInfo().setAddress("10.0.0.2");
+        response.getServerInfo().setPort(8182);
+        response.setEntity("hello", MediaType.TEXT_PLAIN);
+        return response;
+    }
+
+    /**
+     * Deletes the log files.
+     */
+    private void delete(File file) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                delete(child);
+            }
+        }
+
+        file.delete();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.directory = Files.createTempDirectory("restlet-log").toFile();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(this.directory);
+        super.tearDown();
+    }
+
+    public void testAsynchronousFile() throws Exception {
+        File file = new File(this.directory, "access.log");
+        LogService logService = new LogService();
+        logService.setLogFile(file.getPath());
+        logService.start();
+
+        Filter filter = logService.createInboundFilter(new Context());
+        filter.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity("hello", MediaType.TEXT_PLAIN);
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            filter.handle(new Request(Method.GET, "http://localhost/path" + i));
+        }
+
+        assertNotNull(logService.getAccessLogWriter());
+        logService.stop();
+        assertNull(logService.getAccessLogWriter());
+
+        List<String> lines = Files.readAllLines(file.toPath(),
+                StandardCharsets.UTF_8);
+        assertEquals(100, lines.size());
+        assertTrue(lines.get(0).contains("\tGET\t/path0\t-\t200\t5\t0\t"));
+        assertTrue(lines.get(99).contains("\tGET\t/path99\t"));
+        assertEquals(0, logService.getDroppedLogCount());
+    }
+
+    public void testCustomMessage() throws Exception {
+        File file = new File(this.directory, "custom.log");
+        LogService logService = new LogService() {
+            @Override
+            public String getResponseLogMessage(Response response,
+                    int duration) {
+                return "custom " + response.getRequest().getResourceRef()
+                        .getPath();
+            }
+        };
+        logService.setLogFile(file.getPath());
+        logService.start();
+
+        Filter filter = logService.createInboundFilter(new Context());
+        filter.setNext(new Restlet() {
+            @Override
+            public void handle(Request request, Response response) {
+                response.setEntity("hello", MediaType.TEXT_PLAIN);
+            }
+        });
+        filter.handle(new Request(Method.GET, "http://localhost/path"));
+        logService.stop();
+
+        // The overridden method is used by the asynchronous mode
+        assertEquals(Arrays.asList("custom /path"), Files.readAllLines(
+                file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    public void testDefaultFormat() throws Exception {
+        Response response = createCall("/path");
+        String message = new LogService().getResponseLogMessage(response, 12);
+        String[] fields = message.split("\t");
+        assertEquals(16, fields.length);
+        assertTrue(fields[0].matches("\\d{4}-\\d{2}-\\d{2}"));
+        assertTrue(fields[1].matches("\\d{2}:\\d{2}:\\d{2}"));
+        assertEquals("10.0.0.1", fields[2]);
+        assertEquals("-", fields[3]);
+        assertEquals("10.0.0.2", fields[4]);
+        assertEquals("8182", fields[5]);
+        assertEquals("GET", fields[6]);
+        assertEquals("/path", fields[7]);
+        assertEquals("q=1", fields[8]);
+        assertEquals("200", fields[9]);
+        assertEquals("5", fields[10]);
+        assertEquals("0", fields[11]);
+        assertEquals("12", fields[12]);
+        assertEquals("http://localhost:8182", fields[13]);
+        assertEquals("Agent/1.0", fields[14]);
+        assertEquals("-", fields[15]);
+
+        // The captured entry is formatted the same way later on
+        AccessLogEntry entry = new AccessLogEntry(response, 12, false);
+        assertEquals(message.substring(20), entry.toString().substring(20));
+    }
+
+    public void testDropPolicy() throws Exception {
+        AccessLogWriter writer = new AccessLogWriter(new File(this.directory,
+                "dropping.log").getPath(), 0, 1, 1, false,
+                Context.getCurrentLogger());
+        AccessLogEntry entry = new AccessLogEntry("entry");
+
+        // Entries are dropped when the writer isn't started
+        assertFalse(writer.log(entry));
+        assertEquals(1, writer.getDroppedCount());
+
+        writer.start();
+
+        for (int i = 0; i < 10000; i++) {
+            writer.log(entry);
+        }
+
+        writer.stop();
+        assertEquals(10001, writer.getDroppedCount() + writer.getWrittenCount());
+
+        writer = new AccessLogWriter(new File(this.directory, "blocking.log")
+                .getPath(), 0, 1, 1, true, Context.getCurrentLogger());
+        writer.start();
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(writer.log(entry));
+        }
+
+        writer.stop();
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(10000, writer.getWrittenCount());
+    }
+
+    public void testLogWhileStopping() throws Exception {
+        final AccessLogWriter writer = new AccessLogWriter(new File(
+                this.directory, "stopping.log").getPath(), 0, 1, 1, true,
+                Context.getCurrentLogger());
+        final AtomicInteger attempts = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        writer.start();
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 2000; j++) {
+                        attempts.incrementAndGet();
+                        writer.log(new AccessLogEntry("entry"));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        Thread.sleep(10);
+        writer.stop();
+
+        for (Thread thread : threads) {
+            // Blocked callers give up once the writer is stopped
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+
+        // Each entry is either written or counted as dropped
+        assertEquals(attempts.get(),
+                writer.getWrittenCount() + writer.getDroppedCount());
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    public void testRotation() throws Exception {
+        File file = new File(this.directory, "rotated.log");
+        AccessLogWriter writer = new AccessLogWriter(file.getPath(), 100, 3,
+                16, true, Context.getCurrentLogger());
+        writer.start();
+
+        for (int i = 0; i < 50; i++) {
+            writer.log(new AccessLogEntry(
+                    "0123456789012345678901234567890123456789"));
+            Thread.sleep(1);
+        }
+
+        writer.stop();
+        assertTrue(file.exists());
+        assertTrue(new File(file.getPath() + ".1").exists());
+        assertTrue(new File(file.getPath() + ".2").exists());
+        assertFalse(new File(file.getPath() + ".3").exists());
+    }
+
+}
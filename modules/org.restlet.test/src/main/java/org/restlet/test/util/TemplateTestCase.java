@@ -81,6 +81,34 @@ public class TemplateTestCase extends RestletTestCase {
         assertEquals("123/456", variables3.get("v1"));
     }
 
+    public void testSegmentMatching() {
+        Template template = new Template("/a/{b}/c/{d}",
+                Template.MODE_EQUALS, Variable.TYPE_URI_SEGMENT, "", true,
+                false);
+
+        Map<String, Object> variables = new HashMap<String, Object>();
+        assertEquals(12, template.parse("/a/1%2F2/c/3", variables));
+        assertEquals("1%2F2", variables.get("b"));
+        assertEquals("3", variables.get("d"));
+
+        assertEquals(-1, template.match("/a/1/c/"));
+        assertEquals(-1, template.match("/a/1/2/c/3"));
+        assertEquals(-1, template.match("/a/1%2/c/3"));
+        assertEquals(-1, template.match("/a/1/c/3/"));
+
+        template.setMatchingMode(Template.MODE_STARTS_WITH);
+        assertEquals(8, template.match("/a/1/c/3/e"));
+        assertEquals(10, template.match("/a/1/c/3;x?q"));
+
+        // Ambiguous templates are still matched with regular expressions
+        template = new Template("/{a}.{b}", Template.MODE_EQUALS,
+                Variable.TYPE_URI_SEGMENT, "", true, false);
+        variables = new HashMap<String, Object>();
+        assertEquals(10, template.parse("/file.json", variables));
+        assertEquals("file", variables.get("a"));
+        assertEquals("json", variables.get("b"));
+    }
+
     public void testVariableNames() throws Exception {
         Template tpl = new Template(
                 "http://{userId}.restlet.com/invoices/{invoiceId}");
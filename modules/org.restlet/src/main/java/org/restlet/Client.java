@@ -31,6 +31,7 @@ import org.restlet.data.Protocol;
 import org.restlet.data.Status;
 import org.restlet.engine.Engine;
 import org.restlet.engine.RestletHelper;
+import org.restlet.engine.connector.ConnectorHelper;
 
 /**
  * Connector acting as a generic client. It internally uses one of the available
@@ -170,6 +171,20 @@ public class Client extends Connector {
         return getHelper() != null;
     }
 
+    /**
+     * Indicates if the underlying connector handles asynchronous calls without
+     * blocking a thread for each of them. Other connectors can still be
+     * invoked asynchronously, but their calls will consume a thread until
+     * completed.
+     * 
+     * @return True if the underlying connector is truly non-blocking.
+     * @see ConnectorHelper#isNonBlocking()
+     */
+    public boolean isNonBlocking() {
+        return (getHelper() instanceof ConnectorHelper)
+                && ((ConnectorHelper<?>) getHelper()).isNonBlocking();
+    }
+
     @Override
     public synchronized void start() throws Exception {
         if (isStopped()) {
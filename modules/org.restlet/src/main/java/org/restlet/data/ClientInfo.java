@@ -131,6 +131,15 @@ public final class ClientInfo {
      */
     private static volatile List<String> userAgentTemplates = null;
 
+    // [ifndef gwt] member
+    /**
+     * Shared classifier of user-agent strings, based on the precompiled
+     * user-agent templates.
+     * 
+     * @see The {@link ClientInfo#getAgentAttributes()} method.
+     */
+    private static volatile org.restlet.engine.header.UserAgentClassifier userAgentClassifier = null;
+
     // [ifndef gwt] method
     /**
      * Returns the preferred metadata taking into account both metadata
@@ -162,6 +171,31 @@ public final class ClientInfo {
         return result;
     }
 
+    // [ifndef gwt] method
+    /**
+     * Returns the shared classifier of user-agent strings, lazily built from
+     * the user-agent templates.
+     * 
+     * @return The shared classifier of user-agent strings.
+     * @see The {@link ClientInfo#getAgentAttributes()} method.
+     */
+    private static org.restlet.engine.header.UserAgentClassifier getUserAgentClassifier() {
+        // Lazy initialization with double-check.
+        org.restlet.engine.header.UserAgentClassifier c = ClientInfo.userAgentClassifier;
+        if (c == null) {
+            synchronized (ClientInfo.class) {
+                c = ClientInfo.userAgentClassifier;
+                if (c == null) {
+                    c = new org.restlet.engine.header.UserAgentClassifier(
+                            getUserAgentTemplates(),
+                            org.restlet.engine.header.UserAgentClassifier.DEFAULT_MAX_ENTRIES);
+                    ClientInfo.userAgentClassifier = c;
+                }
+            }
+        }
+        return c;
+    }
+
     // [ifndef gwt] method
     /**
      * Returns the list of user-agent templates defined in "agent.properties"
@@ -532,9 +566,6 @@ public final class ClientInfo {
      */
     public Map<String, String> getAgentAttributes() {
         if (this.agentAttributes == null) {
-            this.agentAttributes = new ConcurrentHashMap<String, String>();
-            Map<String, Object> map = new ConcurrentHashMap<String, Object>();
-
             // Loop on a list of user-agent templates until a template match
             // the current user-agent string. The list of templates is
             // located in a file named "agent.properties" available on
@@ -542,46 +573,10 @@ public final class ClientInfo {
             // Some defined variables are used in order to catch the name,
             // version and optional comment. Respectively, these
             // variables are called "agentName", "agentVersion" and
-            // "agentComment".
-            org.restlet.routing.Template template = null;
-            // Predefined variables.
-            org.restlet.routing.Variable agentName = new org.restlet.routing.Variable(
-                    org.restlet.routing.Variable.TYPE_TOKEN);
-            org.restlet.routing.Variable agentVersion = new org.restlet.routing.Variable(
-                    org.restlet.routing.Variable.TYPE_TOKEN);
-            org.restlet.routing.Variable agentComment = new org.restlet.routing.Variable(
-                    org.restlet.routing.Variable.TYPE_COMMENT);
-            org.restlet.routing.Variable agentCommentAttribute = new org.restlet.routing.Variable(
-                    org.restlet.routing.Variable.TYPE_COMMENT_ATTRIBUTE);
-            org.restlet.routing.Variable facultativeData = new org.restlet.routing.Variable(
-                    org.restlet.routing.Variable.TYPE_ALL, null, false, false);
-
-            if (ClientInfo.getUserAgentTemplates() != null) {
-                for (String string : ClientInfo.getUserAgentTemplates()) {
-                    template = new org.restlet.routing.Template(string,
-                            org.restlet.routing.Template.MODE_EQUALS);
-
-                    // Update the predefined variables.
-                    template.getVariables().put("agentName", agentName);
-                    template.getVariables().put("agentVersion", agentVersion);
-                    template.getVariables().put("agentComment", agentComment);
-                    template.getVariables().put("agentOs",
-                            agentCommentAttribute);
-                    template.getVariables().put("commentAttribute",
-                            agentCommentAttribute);
-                    template.getVariables().put("facultativeData",
-                            facultativeData);
-
-                    // Parse the template
-                    if (template.parse(getAgent(), map) > -1) {
-                        for (String key : map.keySet()) {
-                            this.agentAttributes
-                                    .put(key, (String) map.get(key));
-                        }
-                        break;
-                    }
-                }
-            }
+            // "agentComment". The templates are compiled once and the
+            // results cached by the shared classifier.
+            this.agentAttributes = new ConcurrentHashMap<String, String>(
+                    getUserAgentClassifier().getAttributes(getAgent()));
         }
 
         return this.agentAttributes;
@@ -612,8 +607,8 @@ public final class ClientInfo {
      */
     public List<Product> getAgentProducts() {
         if (this.agentProducts == null) {
-            this.agentProducts = org.restlet.engine.header.ProductReader
-                    .read(getAgent());
+            this.agentProducts = getUserAgentClassifier().getProducts(
+                    getAgent());
         }
         return this.agentProducts;
     }
@@ -297,7 +297,9 @@ public final class Conditions {
                         // rule is followed.
                         Date modifiedSince = getModifiedSince();
                         boolean isModifiedSince = (modifiedSince != null)
-                                && (DateUtils.after(new Date(), modifiedSince)
+                                && (DateUtils.after(
+                                        System.currentTimeMillis(),
+                                        modifiedSince)
                                         || (modificationDate == null) || DateUtils
                                             .after(modifiedSince,
                                                     modificationDate));
@@ -321,9 +323,10 @@ public final class Conditions {
         // Is the "if-Modified-Since" rule followed or not?
         if ((result == null) && (getModifiedSince() != null)) {
             Date modifiedSince = getModifiedSince();
-            boolean isModifiedSince = (DateUtils.after(new Date(),
-                    modifiedSince) || (modificationDate == null) || DateUtils
-                    .after(modifiedSince, modificationDate));
+            boolean isModifiedSince = (DateUtils.after(
+                    System.currentTimeMillis(), modifiedSince)
+                    || (modificationDate == null) || DateUtils.after(
+                    modifiedSince, modificationDate));
 
             if (!isModifiedSince) {
                 if (Method.GET.equals(method) || Method.HEAD.equals(method)) {
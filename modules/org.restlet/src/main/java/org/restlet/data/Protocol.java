@@ -81,10 +81,25 @@ public final class Protocol {
     public static final Protocol HTTP = new Protocol("http", "HTTP",
             "HyperText Transport Protocol", 80, "1.1");
 
+    /**
+     * HTTP/2 protocol. Equal to {@link #HTTP} as it shares the same scheme
+     * name, but exposes the "2.0" version. Server connectors supporting HTTP/2
+     * set it on the requests that were received with this version.
+     */
+    public static final Protocol HTTP_2 = new Protocol("http", "HTTP",
+            "HyperText Transport Protocol", 80, "2.0");
+
     /** HTTPS protocol (via SSL socket). */
     public static final Protocol HTTPS = new Protocol("https", "HTTPS", "HTTP",
             "HyperText Transport Protocol (Secure)", 443, true, "1.1");
 
+    /**
+     * HTTP/2 protocol over TLS. Equal to {@link #HTTPS} as it shares the same
+     * scheme name, but exposes the "2.0" version.
+     */
+    public static final Protocol HTTPS_2 = new Protocol("https", "HTTPS",
+            "HTTP", "HyperText Transport Protocol (Secure)", 443, true, "2.0");
+
     /**
      * JAR (Java ARchive) is a common scheme to access to representations inside
      * archive files. Example URI:
@@ -240,7 +255,12 @@ public final class Protocol {
     public static Protocol valueOf(String name, String version) {
         Protocol result = valueOf(name);
 
-        if (!version.equals(result.getVersion())) {
+        if (HTTP_2.getVersion().equals(version) && HTTP.equals(result)) {
+            result = HTTP_2;
+        } else if (HTTPS_2.getVersion().equals(version)
+                && HTTPS.equals(result)) {
+            result = HTTPS_2;
+        } else if (!version.equals(result.getVersion())) {
             result = new Protocol(result.getSchemeName(), result.getName(),
                     result.getTechnicalName(), result.getDescription(),
                     result.getDefaultPort(), result.isConfidential(), version);
@@ -73,6 +73,9 @@ public class ClientAdapter extends Adapter {
     public void commit(final ClientCall httpCall, Request request,
             Response response) throws Exception {
         if (httpCall != null) {
+            // Let the caller abort the call in progress
+            request.getAttributes().put(ClientCall.ATTRIBUTE_CALL, httpCall);
+
             // Check if the call is asynchronous
             if (request.isAsynchronous()) {
                 final Uniform userCallback = request.getOnResponse();
@@ -127,6 +130,11 @@ public class ClientAdapter extends Adapter {
             // Put the response headers in the call's attributes map
             response.getAttributes().put(HeaderConstants.ATTRIBUTE_HEADERS, responseHeaders);
 
+            if (httpCall.getVersion() != null) {
+                response.getAttributes().put(HeaderConstants.ATTRIBUTE_VERSION,
+                        httpCall.getVersion());
+            }
+
             HeaderUtils.copyResponseTransportHeaders(responseHeaders, response);
         } catch (Exception e) {
             getLogger()
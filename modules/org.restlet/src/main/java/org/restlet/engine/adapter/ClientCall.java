@@ -55,6 +55,12 @@ import org.restlet.util.Series;
  */
 public abstract class ClientCall extends Call {
 
+    /**
+     * Name of the request attribute referencing the client call in progress,
+     * allowing callers such as asynchronous client resources to abort it.
+     */
+    public static final String ATTRIBUTE_CALL = "org.restlet.engine.adapter.call";
+
     /**
      * Returns the local IP address or 127.0.0.1 if the resolution fails.
      * 
@@ -92,6 +98,16 @@ public abstract class ClientCall extends Call {
         setClientAddress(getLocalAddress());
     }
 
+    /**
+     * Ask the connector to abort the related network connection, for example
+     * immediately closing the socket. Does nothing by default.
+     * 
+     * @return True if the connection was aborted.
+     */
+    public boolean abort() {
+        return false;
+    }
+
     /**
      * Returns the content length of the request entity if know, {@link Representation#UNKNOWN_SIZE} otherwise.
      * 
@@ -37,6 +37,7 @@ import java.util.logging.Level;
 import org.restlet.Context;
 import org.restlet.data.Header;
 import org.restlet.data.Method;
+import org.restlet.data.Protocol;
 import org.restlet.data.Status;
 import org.restlet.engine.header.HeaderUtils;
 import org.restlet.representation.Representation;
@@ -237,6 +238,14 @@ public class ServerAdapter extends Adapter {
             result.getAttributes().put(ATTRIBUTE_VERSION, httpCall.getVersion());
         }
 
+        // Expose the HTTP/2 version negotiated by the connector as the scheme
+        // of the resource reference can't tell it
+        Protocol protocol = httpCall.getProtocol();
+
+        if ((protocol == Protocol.HTTP_2) || (protocol == Protocol.HTTPS_2)) {
+            result.setProtocol(protocol);
+        }
+
         if (httpCall.isConfidential()) {
             List<Certificate> clientCertificates = httpCall.getCertificates();
 
@@ -33,8 +33,8 @@ import org.restlet.engine.connector.ConnectorHelper;
 import org.restlet.engine.header.ContentType;
 import org.restlet.engine.header.DispositionReader;
 import org.restlet.engine.header.EncodingReader;
+import org.restlet.engine.header.HeadBuilder;
 import org.restlet.engine.header.HeaderConstants;
-import org.restlet.engine.header.HeaderReader;
 import org.restlet.engine.header.HeaderUtils;
 import org.restlet.engine.header.LanguageReader;
 import org.restlet.engine.header.RangeReader;
@@ -181,7 +181,8 @@ public abstract class ServerCall extends Call {
                 .isChunkedEncoding(getRequestHeaders());
         // In some cases there is an entity without a content-length header
         boolean connectionClosed = HeaderUtils
-                .isConnectionClose(getRequestHeaders());
+                .isConnectionClose(getRequestHeaders())
+                || isRequestEntityFramed();
 
         // Create the representation
         if (((contentLength != Representation.UNKNOWN_SIZE) && (contentLength != 0))
@@ -191,7 +192,7 @@ public abstract class ServerCall extends Call {
 
             if (connectionClosed) {
                 // We need to detect if there is really an entity or not as only
-                // the end of connection can let us know at this point
+                // the end of connection or stream can let us know at this point
                 PushbackInputStream pbi = new PushbackInputStream(requestStream);
 
                 try {
@@ -321,6 +322,19 @@ public abstract class ServerCall extends Call {
         return !HeaderUtils.isConnectionClose(getRequestHeaders());
     }
 
+    /**
+     * Indicates if the end of the request entity is signaled by the protocol
+     * framing, like the end of an HTTP/2 stream, so that an entity can be sent
+     * without a content-length or a transfer-encoding header. Returns false by
+     * default.
+     * 
+     * @return True if the end of the request entity is signaled by the
+     *         protocol framing.
+     */
+    protected boolean isRequestEntityFramed() {
+        return false;
+    }
+
     @Override
     protected boolean isServerKeepAlive() {
         return true;
@@ -407,12 +421,13 @@ public abstract class ServerCall extends Call {
             setVersion(sb.toString());
             sb.delete(0, sb.length());
 
-            // Parse the headers
-            Header header = HeaderReader.readHeader(headStream, sb);
+            // Parse the headers, decoding their values lazily
+            HeadBuilder headBuilder = new HeadBuilder();
+            Header header = headBuilder.readHeader(headStream);
 
             while (header != null) {
                 getRequestHeaders().add(header);
-                header = HeaderReader.readHeader(headStream, sb);
+                header = headBuilder.readHeader(headStream);
             }
         } else {
             throw new IOException(
@@ -0,0 +1,196 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.Dimension;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.routing.Filter;
+import org.restlet.service.CacheService;
+
+// [excludes gwt]
+/**
+ * Filter answering the GET and HEAD requests with the response entities
+ * stored by a previous call, without invoking the next Restlet. Only fresh
+ * "200 OK" responses are stored, based on their "max-age" or "s-maxage"
+ * cache directives, on the expiration date of their entity or on the default
+ * maximum age of the {@link CacheService}. The stored entries of a resource
+ * are invalidated when an unsafe method is successfully invoked on it.
+ */
+public class CacheFilter extends Filter {
+
+    /** The parent cache service. */
+    private final CacheService cacheService;
+
+    /**
+     * Constructor.
+     * 
+     * @param context
+     *            The parent context.
+     * @param cacheService
+     *            The parent cache service.
+     */
+    public CacheFilter(Context context, CacheService cacheService) {
+        super(context);
+        this.cacheService = cacheService;
+    }
+
+    /**
+     * Stores the response entity if it is cacheable, or invalidates the
+     * entries of the target resource if an unsafe method was successfully
+     * invoked.
+     * 
+     * @param request
+     *            The request to handle.
+     * @param response
+     *            The response to update.
+     */
+    @Override
+    protected void afterHandle(Request request, Response response) {
+        Method method = request.getMethod();
+        ResponseCache cache = getCache();
+
+        if (!method.isSafe()) {
+            if (response.getStatus().isSuccess()
+                    || response.getStatus().isRedirection()) {
+                cache.invalidate(ResponseCache.getUri(request.getResourceRef()));
+
+                if (response.getLocationRef() != null) {
+                    cache.invalidate(ResponseCache.getUri(response
+                            .getLocationRef()));
+                }
+            }
+        } else if (Method.GET.equals(method)
+                && Status.SUCCESS_OK.equals(response.getStatus())) {
+            long now = System.currentTimeMillis();
+            long expires = cache.getExpires(request, response, now,
+                    getCacheService().getDefaultMaxAge(), true);
+            String variantKey = ResponseCache.getVariantKey(request,
+                    response.getDimensions());
+
+            if ((expires > now) && (variantKey != null)) {
+                try {
+                    ResponseCache.Entry entry = cache.createEntry(request,
+                            response, now, expires, getCacheService()
+                                    .getMaxEntrySize());
+
+                    if (entry != null) {
+                        cache.put(
+                                ResponseCache.getUri(request.getResourceRef()),
+                                variantKey, entry);
+                    }
+                } catch (IOException e) {
+                    getLogger().log(Level.WARNING,
+                            "Unable to store the response entity in the cache",
+                            e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers the request from the cache if a fresh entry is available.
+     * 
+     * @param request
+     *            The request to handle.
+     * @param response
+     *            The response to update.
+     * @return The continuation status.
+     */
+    @Override
+    protected int beforeHandle(Request request, Response response) {
+        int result = CONTINUE;
+        Method method = request.getMethod();
+        List<CacheDirective> directives = request.getCacheDirectives();
+
+        if ((Method.GET.equals(method) || Method.HEAD.equals(method))
+                && !ResponseCache.hasDirective(directives,
+                        HeaderConstants.CACHE_NO_CACHE)
+                && !ResponseCache.hasDirective(directives,
+                        HeaderConstants.CACHE_NO_STORE)) {
+            ResponseCache cache = getCache();
+            String uri = ResponseCache.getUri(request.getResourceRef());
+            Set<Dimension> dimensions = cache.getDimensions(uri);
+            ResponseCache.Entry entry = (dimensions == null) ? null : cache
+                    .get(uri, ResponseCache.getVariantKey(request, dimensions));
+            long now = System.currentTimeMillis();
+
+            if ((entry != null)
+                    && entry.isFresh(now, ResponseCache.getSeconds(
+                            directives, HeaderConstants.CACHE_MAX_AGE))) {
+                cache.recordHit();
+                Status status = request.getConditions().getStatus(method,
+                        entry);
+                response.setAge(entry.getAge(now));
+                response.setCacheDirectives(entry.getCacheDirectives());
+                response.setDimensions(entry.getDimensions());
+
+                if ((status != null) && status.isError()) {
+                    response.setStatus(status);
+                } else {
+                    response.setStatus((status == null) ? Status.SUCCESS_OK
+                            : status);
+                    response.setEntity(entry.createEntity());
+                }
+
+                result = STOP;
+            } else {
+                cache.recordMiss();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the server-side cache of the parent service.
+     * 
+     * @return The server-side cache of the parent service.
+     */
+    private ResponseCache getCache() {
+        return getCacheService().getCache();
+    }
+
+    /**
+     * Returns the parent cache service.
+     * 
+     * @return The parent cache service.
+     */
+    public CacheService getCacheService() {
+        return this.cacheService;
+    }
+
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.application;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.Restlet;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.Conditions;
+import org.restlet.data.Dimension;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.representation.Representation;
+import org.restlet.routing.Filter;
+
+// [excludes gwt]
+/**
+ * Filter acting as a private cache for the client calls going through it. It
+ * can be attached to the outbound chain of an application via the
+ * {@link org.restlet.service.CacheService} or set as the next Restlet of a
+ * {@link org.restlet.resource.ClientResource}, in front of any client
+ * connector.<br>
+ * <br>
+ * Fresh entries are served without invoking the next Restlet. Stale entries
+ * having a tag or a modification date are revalidated with an
+ * "If-None-Match" or "If-Modified-Since" condition, a "304 Not Modified"
+ * reply being turned back into a full response with the stored entity.<br>
+ * <br>
+ * As the filter is usually shared by all the outbound calls of an
+ * application, the responses to requests carrying credentials are only stored
+ * when they are "public" or have a "s-maxage" directive.
+ */
+public class ClientCacheFilter extends Filter {
+
+    /** The response cache. */
+    private final ResponseCache cache;
+
+    /** The maximum size of a stored entity. */
+    private volatile long maxEntrySize;
+
+    /**
+     * Constructor.
+     * 
+     * @param context
+     *            The context.
+     * @param cache
+     *            The response cache.
+     * @param maxEntrySize
+     *            The maximum size of a stored entity.
+     */
+    public ClientCacheFilter(Context context, ResponseCache cache,
+            long maxEntrySize) {
+        this(context, cache, maxEntrySize, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param context
+     *            The context.
+     * @param cache
+     *            The response cache.
+     * @param maxEntrySize
+     *            The maximum size of a stored entity.
+     * @param next
+     *            The next Restlet, typically a client connector.
+     */
+    public ClientCacheFilter(Context context, ResponseCache cache,
+            long maxEntrySize, Restlet next) {
+        super(context, next);
+        this.cache = cache;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Answers the request from the cache if a fresh entry is available,
+     * otherwise invokes the next Restlet, revalidating the stale entry if
+     * possible, and stores the response if it is cacheable.
+     * 
+     * @param request
+     *            The request to handle.
+     * @param response
+     *            The response to update.
+     * @return The continuation status.
+     */
+    @Override
+    protected int doHandle(Request request, Response response) {
+        Method method = request.getMethod();
+        List<CacheDirective> directives = request.getCacheDirectives();
+
+        if (!method.isSafe()) {
+            int result = super.doHandle(request, response);
+
+            if (response.getStatus().isSuccess()
+                    || response.getStatus().isRedirection()) {
+                getCache().invalidate(
+                        ResponseCache.getUri(request.getResourceRef()));
+            }
+
+            return result;
+        } else if ((!Method.GET.equals(method) && !Method.HEAD.equals(method))
+                || ResponseCache.hasDirective(directives,
+                        HeaderConstants.CACHE_NO_STORE)) {
+            return super.doHandle(request, response);
+        }
+
+        ResponseCache cache = getCache();
+        String uri = ResponseCache.getUri(request.getResourceRef());
+        ResponseCache.Entry entry = null;
+
+        if (!ResponseCache.hasDirective(directives,
+                HeaderConstants.CACHE_NO_CACHE)) {
+            Set<Dimension> dimensions = cache.getDimensions(uri);
+            entry = (dimensions == null) ? null : cache.get(uri,
+                    ResponseCache.getVariantKey(request, dimensions));
+        }
+
+        long now = System.currentTimeMillis();
+
+        if ((entry != null)
+                && entry.isFresh(now, ResponseCache.getSeconds(directives,
+                        HeaderConstants.CACHE_MAX_AGE))) {
+            cache.recordHit();
+            Status status = request.getConditions().getStatus(method, entry);
+            response.setAge(entry.getAge(now));
+            response.setCacheDirectives(entry.getCacheDirectives());
+            response.setDimensions(entry.getDimensions());
+            response.setStatus((status == null) ? Status.SUCCESS_OK : status);
+
+            if ((status == null) || !status.isError()) {
+                response.setEntity(entry.createEntity());
+            }
+
+            return CONTINUE;
+        }
+
+        // Revalidate the stale entry unless the request is already
+        // conditional
+        boolean revalidating = (entry != null) && entry.isRevalidable()
+                && !request.getConditions().hasSome();
+
+        if (revalidating) {
+            Conditions conditions = request.getConditions();
+
+            if (entry.getTag() != null) {
+                conditions.getNoneMatch().add(entry.getTag());
+            }
+
+            if (entry.getModificationDate() != null) {
+                conditions.setModifiedSince(entry.getModificationDate());
+            }
+        }
+
+        int result = super.doHandle(request, response);
+        now = System.currentTimeMillis();
+
+        if (revalidating) {
+            // Restore the original conditions
+            request.setConditions(new Conditions());
+        }
+
+        if (revalidating
+                && Status.REDIRECTION_NOT_MODIFIED.equals(response.getStatus())) {
+            cache.recordHit();
+            cache.recordRevalidation();
+            response.setStatus(Status.SUCCESS_OK);
+            response.setEntity(entry.createEntity());
+
+            if (response.getCacheDirectives().isEmpty()) {
+                response.setCacheDirectives(entry.getCacheDirectives());
+            }
+
+            if (response.getDimensions().isEmpty()) {
+                response.setDimensions(entry.getDimensions());
+            }
+
+            store(request, response, uri, now, entry.getContent());
+        } else {
+            cache.recordMiss();
+
+            if (Method.GET.equals(method)
+                    && Status.SUCCESS_OK.equals(response.getStatus())) {
+                store(request, response, uri, now, null);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the response cache.
+     * 
+     * @return The response cache.
+     */
+    public ResponseCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Returns the maximum size of a stored entity.
+     * 
+     * @return The maximum size of a stored entity.
+     */
+    public long getMaxEntrySize() {
+        return this.maxEntrySize;
+    }
+
+    /**
+     * Sets the maximum size of a stored entity.
+     * 
+     * @param maxEntrySize
+     *            The maximum size of a stored entity.
+     */
+    public void setMaxEntrySize(long maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Stores the response if it is fresh or can be revalidated later.
+     * 
+     * @param request
+     *            The request handled.
+     * @param response
+     *            The response to store.
+     * @param uri
+     *            The resource URI.
+     * @param now
+     *            The current time.
+     * @param content
+     *            The content already stored for a revalidated entity, or
+     *            null.
+     */
+    private void store(Request request, Response response, String uri,
+            long now, byte[] content) {
+        ResponseCache cache = getCache();
+        long expires = cache.getExpires(request, response, now, 0, false);
+        List<CacheDirective> directives = response.getCacheDirectives();
+
+        if ((request.getChallengeResponse() != null)
+                && (ResponseCache.getSeconds(directives,
+                        HeaderConstants.CACHE_SHARED_MAX_AGE) == -1)
+                && !ResponseCache.hasDirective(directives,
+                        HeaderConstants.CACHE_PUBLIC)) {
+            // The filter may serve the calls of several users, so the
+            // authenticated responses must be explicitly shareable
+            expires = -1L;
+        }
+
+        String variantKey = ResponseCache.getVariantKey(request,
+                response.getDimensions());
+        Representation entity = response.getEntity();
+
+        if ((expires == -1L) || (variantKey == null)) {
+            cache.invalidate(uri);
+        } else if ((expires > now) || (entity.getTag() != null)
+                || (entity.getModificationDate() != null)) {
+            try {
+                ResponseCache.Entry entry = (content == null) ? cache
+                        .createEntry(request, response, now, expires,
+                                getMaxEntrySize()) : new ResponseCache.Entry(
+                        entity, content, response.getCacheDirectives(),
+                        response.getDimensions(), now, expires);
+
+                if (entry != null) {
+                    cache.put(uri, variantKey, entry);
+                }
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING,
+                        "Unable to store the response entity in the cache", e);
+            }
+        }
+    }
+
+}
@@ -28,11 +28,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 
 import org.restlet.data.Range;
 import org.restlet.engine.io.IoUtils;
 import org.restlet.engine.io.RangeInputStream;
+import org.restlet.representation.FileRepresentation;
 import org.restlet.representation.Representation;
 import org.restlet.util.WrapperRepresentation;
 
@@ -137,11 +139,31 @@ public class RangeRepresentation extends WrapperRepresentation {
         IoUtils.copy(getStream(), outputStream);
     }
 
+    /**
+     * Writes the range to a byte channel. When the wrapped representation is a
+     * {@link FileRepresentation}, optimizes using the file channel transferTo
+     * method on the sole region covered by the range.
+     * 
+     * @param writableChannel
+     *            A writable byte channel.
+     */
     @Override
     public void write(WritableByteChannel writableChannel) throws IOException {
-        OutputStream os = IoUtils.getStream(writableChannel);
-        write(os);
-        os.flush();
+        if (getWrappedRepresentation() instanceof FileRepresentation) {
+            FileChannel fileChannel = ((FileRepresentation) getWrappedRepresentation())
+                    .getChannel();
+
+            try {
+                IoUtils.copy(fileChannel, IoUtils.getAvailableIndex(this),
+                        getAvailableSize(), writableChannel);
+            } finally {
+                fileChannel.close();
+            }
+        } else {
+            OutputStream os = IoUtils.getStream(writableChannel);
+            write(os);
+            os.flush();
+        }
     }
 
 }
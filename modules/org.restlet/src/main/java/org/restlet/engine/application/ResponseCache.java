@@ -0,0 +1,843 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.application;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.CacheDirective;
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Dimension;
+import org.restlet.data.Reference;
+import org.restlet.engine.header.HeaderConstants;
+import org.restlet.representation.ByteArrayRepresentation;
+import org.restlet.representation.EmptyRepresentation;
+import org.restlet.representation.InputRepresentation;
+import org.restlet.representation.Representation;
+import org.restlet.representation.RepresentationInfo;
+
+// [excludes gwt]
+/**
+ * Bounded store of response entities used by the {@link CacheFilter} and the
+ * {@link ClientCacheFilter}. Entries are keyed by resource URI and by the
+ * request preferences matching the response dimensions (the "Vary" header).
+ * The least recently used entries are evicted once the total size of the
+ * stored entities or their number exceeds the configured maximum.
+ */
+public class ResponseCache {
+
+    /**
+     * Output stream copying the written bytes until a maximum size is
+     * exceeded. The write that overflows fails with an {@link IOException} so
+     * the copy is aborted early.
+     */
+    private static class BoundedOutputStream extends OutputStream {
+
+        /** The bytes written. */
+        private final ByteArrayOutputStream bytes;
+
+        /** The maximum number of bytes. */
+        private final long maxSize;
+
+        /** Indicates if the maximum size was exceeded. */
+        private boolean overflow;
+
+        /**
+         * Constructor.
+         * 
+         * @param maxSize
+         *            The maximum number of bytes.
+         */
+        private BoundedOutputStream(long maxSize) {
+            this.bytes = new ByteArrayOutputStream();
+            this.maxSize = maxSize;
+            this.overflow = false;
+        }
+
+        /**
+         * Checks that the given number of bytes can still be written.
+         * 
+         * @param length
+         *            The number of bytes to write.
+         * @throws IOException
+         *             If the maximum size is exceeded.
+         */
+        private void check(int length) throws IOException {
+            if (this.overflow || (this.bytes.size() + length > this.maxSize)) {
+                this.overflow = true;
+                throw new IOException(
+                        "The entity exceeds the maximum size of the cache entries");
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            check(len);
+            this.bytes.write(b, off, len);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            check(1);
+            this.bytes.write(b);
+        }
+    }
+
+    /**
+     * Response entity stored in the cache.
+     */
+    public static class Entry extends RepresentationInfo {
+
+        /** The cache directives of the response. */
+        private final List<CacheDirective> cacheDirectives;
+
+        /** The entity content. */
+        private final byte[] content;
+
+        /** The time when the response was stored or revalidated. */
+        private final long date;
+
+        /** The dimensions of the response. */
+        private final Set<Dimension> dimensions;
+
+        /** The time until which the entry is fresh. */
+        private final long expires;
+
+        /** The entity metadata. */
+        private final Representation metadata;
+
+        /**
+         * Constructor.
+         * 
+         * @param entity
+         *            The response entity.
+         * @param content
+         *            The entity content.
+         * @param cacheDirectives
+         *            The cache directives of the response.
+         * @param dimensions
+         *            The dimensions of the response.
+         * @param date
+         *            The time when the response was stored or revalidated.
+         * @param expires
+         *            The time until which the entry is fresh.
+         */
+        public Entry(Representation entity, byte[] content,
+                List<CacheDirective> cacheDirectives,
+                Set<Dimension> dimensions, long date, long expires) {
+            super(entity.getMediaType(), entity.getModificationDate(), entity
+                    .getTag());
+            this.cacheDirectives = new ArrayList<CacheDirective>(
+                    cacheDirectives);
+            this.content = content;
+            this.date = date;
+            this.dimensions = new HashSet<Dimension>(dimensions);
+            this.expires = expires;
+            this.metadata = copyMetadata(entity, new EmptyRepresentation());
+        }
+
+        /**
+         * Creates a new representation of the stored entity.
+         * 
+         * @return A new representation of the stored entity.
+         */
+        public Representation createEntity() {
+            return copyMetadata(this.metadata, new ByteArrayRepresentation(
+                    this.content));
+        }
+
+        /**
+         * Returns the age of the entry in seconds.
+         * 
+         * @param now
+         *            The current time.
+         * @return The age of the entry in seconds.
+         */
+        public int getAge(long now) {
+            return (int) Math.max(0L, (now - this.date) / 1000L);
+        }
+
+        /**
+         * Returns the cache directives of the response.
+         * 
+         * @return The cache directives of the response.
+         */
+        public List<CacheDirective> getCacheDirectives() {
+            return this.cacheDirectives;
+        }
+
+        /**
+         * Returns the entity content.
+         * 
+         * @return The entity content.
+         */
+        public byte[] getContent() {
+            return this.content;
+        }
+
+        /**
+         * Returns the dimensions of the response.
+         * 
+         * @return The dimensions of the response.
+         */
+        public Set<Dimension> getDimensions() {
+            return this.dimensions;
+        }
+
+        /**
+         * Returns the size of the stored entity.
+         * 
+         * @return The size of the stored entity.
+         */
+        public int getSize() {
+            return this.content.length;
+        }
+
+        /**
+         * Indicates if the entry is fresh enough for a request.
+         * 
+         * @param now
+         *            The current time.
+         * @param maxAge
+         *            The maximum age in seconds accepted by the client or -1.
+         * @return True if the entry is fresh enough.
+         */
+        public boolean isFresh(long now, int maxAge) {
+            return (now < this.expires)
+                    && ((maxAge == -1) || (getAge(now) <= maxAge));
+        }
+
+        /**
+         * Indicates if the entry can be revalidated with a conditional
+         * request, based on its tag or modification date.
+         * 
+         * @return True if the entry can be revalidated.
+         */
+        public boolean isRevalidable() {
+            return (getTag() != null) || (getModificationDate() != null);
+        }
+    }
+
+    /**
+     * Entries stored for the same resource URI.
+     */
+    private static class Variants {
+
+        /** The dimensions shared by the responses. */
+        private final Set<Dimension> dimensions;
+
+        /** The keys of the entries. */
+        private final Set<String> keys;
+
+        /**
+         * Constructor.
+         * 
+         * @param dimensions
+         *            The dimensions shared by the responses.
+         */
+        private Variants(Set<Dimension> dimensions) {
+            this.dimensions = dimensions;
+            this.keys = new HashSet<String>();
+        }
+    }
+
+    /**
+     * Copies the metadata of a representation into another one.
+     * 
+     * @param source
+     *            The source representation.
+     * @param target
+     *            The target representation.
+     * @return The target representation.
+     */
+    private static Representation copyMetadata(Representation source,
+            Representation target) {
+        target.setCharacterSet(source.getCharacterSet());
+        target.setDigest(source.getDigest());
+        target.setDisposition(source.getDisposition());
+        target.getEncodings().addAll(source.getEncodings());
+        target.setExpirationDate(source.getExpirationDate());
+        target.getLanguages().addAll(source.getLanguages());
+        target.setLocationRef(source.getLocationRef());
+        target.setMediaType(source.getMediaType());
+        target.setModificationDate(source.getModificationDate());
+        target.setTag(source.getTag());
+        return target;
+    }
+
+    /**
+     * Returns the value in seconds of a cache directive, -1 if absent or
+     * invalid.
+     * 
+     * @param directives
+     *            The cache directives.
+     * @param name
+     *            The directive name.
+     * @return The value in seconds of the cache directive.
+     */
+    public static int getSeconds(List<CacheDirective> directives, String name) {
+        for (CacheDirective directive : directives) {
+            if (name.equalsIgnoreCase(directive.getName())
+                    && (directive.getValue() != null)) {
+                try {
+                    return Integer.parseInt(directive.getValue().trim());
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the cache key of a resource reference, ignoring the fragment.
+     * 
+     * @param reference
+     *            The resource reference.
+     * @return The cache key of a resource reference.
+     */
+    public static String getUri(Reference reference) {
+        return reference.getTargetRef().toString(true, false);
+    }
+
+    /**
+     * Returns the key identifying the variant selected by the request for the
+     * given dimensions, or null if the dimensions prevent caching.
+     * 
+     * @param request
+     *            The request.
+     * @param dimensions
+     *            The response dimensions.
+     * @return The variant key or null.
+     */
+    public static String getVariantKey(Request request,
+            Set<Dimension> dimensions) {
+        StringBuilder sb = new StringBuilder();
+        ClientInfo clientInfo = request.getClientInfo();
+
+        for (Dimension dimension : Dimension.values()) {
+            if (dimensions.contains(dimension)) {
+                switch (dimension) {
+                case CHARACTER_SET:
+                    sb.append(clientInfo.getAcceptedCharacterSets());
+                    break;
+                case CLIENT_ADDRESS:
+                    sb.append(clientInfo.getAddress());
+                    break;
+                case CLIENT_AGENT:
+                    sb.append(clientInfo.getAgent());
+                    break;
+                case ENCODING:
+                    sb.append(clientInfo.getAcceptedEncodings());
+                    break;
+                case LANGUAGE:
+                    sb.append(clientInfo.getAcceptedLanguages());
+                    break;
+                case MEDIA_TYPE:
+                    sb.append(clientInfo.getAcceptedMediaTypes());
+                    break;
+                case ORIGIN:
+                    sb.append(request.getHeaders().getFirstValue(
+                            HeaderConstants.HEADER_ORIGIN, true));
+                    break;
+                default:
+                    // Authorization, time or unspecified dimensions
+                    return null;
+                }
+
+                sb.append('|');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Indicates if a cache directive is present.
+     * 
+     * @param directives
+     *            The cache directives.
+     * @param name
+     *            The directive name.
+     * @return True if the cache directive is present.
+     */
+    public static boolean hasDirective(List<CacheDirective> directives,
+            String name) {
+        for (CacheDirective directive : directives) {
+            if (name.equalsIgnoreCase(directive.getName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /** The entries stored, from the least to the most recently used. */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /** The number of entries evicted. */
+    private final AtomicLong evictionCount;
+
+    /** The number of requests answered from the cache. */
+    private final AtomicLong hitCount;
+
+    /** The maximum number of stored entries. */
+    private volatile int maxCount;
+
+    /** The maximum total size of the stored entities. */
+    private volatile long maxSize;
+
+    /** The number of cacheable requests not answered from the cache. */
+    private final AtomicLong missCount;
+
+    /** The number of stale entries revalidated. */
+    private final AtomicLong revalidationCount;
+
+    /** The total size of the stored entities. */
+    private long size;
+
+    /** The variants stored for each resource URI. */
+    private final Map<String, Variants> variants;
+
+    /**
+     * Constructor.
+     * 
+     * @param maxSize
+     *            The maximum total size of the stored entities.
+     * @param maxCount
+     *            The maximum number of stored entries.
+     */
+    public ResponseCache(long maxSize, int maxCount) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+        this.evictionCount = new AtomicLong();
+        this.hitCount = new AtomicLong();
+        this.maxCount = maxCount;
+        this.maxSize = maxSize;
+        this.missCount = new AtomicLong();
+        this.revalidationCount = new AtomicLong();
+        this.size = 0L;
+        this.variants = new HashMap<String, Variants>();
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.variants.clear();
+        this.size = 0L;
+    }
+
+    /**
+     * Creates an entry for a response whose entity doesn't exceed a maximum
+     * size. The content of a transient entity is consumed, so the response
+     * entity is replaced by a copy of the stored one, or by an equivalent
+     * entity if the maximum size is exceeded.
+     * 
+     * @param request
+     *            The request handled.
+     * @param response
+     *            The response to store.
+     * @param now
+     *            The current time.
+     * @param expires
+     *            The time until which the entry is fresh.
+     * @param maxEntrySize
+     *            The maximum size of the entity.
+     * @return The entry or null if the entity is too large.
+     * @throws IOException
+     */
+    public Entry createEntry(Request request, Response response, long now,
+            long expires, long maxEntrySize) throws IOException {
+        Entry result = null;
+        Representation entity = response.getEntity();
+        long size = entity.getSize();
+
+        if (size > maxEntrySize) {
+            // Known to be too large, so nothing is copied
+            return null;
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        boolean exceeded = false;
+
+        if (entity.isTransient()) {
+            InputStream in = entity.getStream();
+            byte[] buffer = new byte[4096];
+            int read = 0;
+
+            while (!exceeded && ((read = in.read(buffer)) != -1)) {
+                baos.write(buffer, 0, read);
+                exceeded = (baos.size() > maxEntrySize);
+            }
+
+            if (exceeded) {
+                // Restore the consumed bytes in front of the remaining ones
+                Representation restored = copyMetadata(entity,
+                        new InputRepresentation(new SequenceInputStream(
+                                new ByteArrayInputStream(baos.toByteArray()),
+                                in)));
+                restored.setSize(size);
+                response.setEntity(restored);
+            } else {
+                in.close();
+            }
+        } else {
+            // The entity can be written again if it is too large
+            BoundedOutputStream bos = new BoundedOutputStream(maxEntrySize);
+
+            try {
+                entity.write(bos);
+            } catch (IOException e) {
+                if (!bos.overflow) {
+                    throw e;
+                }
+            }
+
+            baos = bos.bytes;
+            exceeded = bos.overflow;
+        }
+
+        if (!exceeded) {
+            result = new Entry(entity, baos.toByteArray(),
+                    response.getCacheDirectives(), response.getDimensions(),
+                    now, expires);
+            response.setEntity(result.createEntity());
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the entry stored for a resource URI and a variant key, whether
+     * fresh or stale.
+     * 
+     * @param uri
+     *            The resource URI.
+     * @param variantKey
+     *            The variant key computed from the request and the dimensions
+     *            of the stored entries, see {@link #getDimensions(String)}.
+     * @return The entry or null.
+     */
+    public synchronized Entry get(String uri, String variantKey) {
+        return (variantKey == null) ? null : this.entries.get(uri + '\n'
+                + variantKey);
+    }
+
+    /**
+     * Returns the number of entries stored.
+     * 
+     * @return The number of entries stored.
+     */
+    public synchronized int getCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the dimensions of the responses stored for a resource URI.
+     * 
+     * @param uri
+     *            The resource URI.
+     * @return The dimensions or null if no response is stored.
+     */
+    public synchronized Set<Dimension> getDimensions(String uri) {
+        Variants result = this.variants.get(uri);
+        return (result == null) ? null : result.dimensions;
+    }
+
+    /**
+     * Returns the number of entries evicted to respect the maximum size.
+     * 
+     * @return The number of entries evicted.
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.get();
+    }
+
+    /**
+     * Returns the time until which a response is fresh, based on its
+     * "s-maxage" or "max-age" cache directives, or on the expiration date of
+     * its entity. The returned time is in the past for stale responses that
+     * can only be reused after revalidation.
+     * 
+     * @param request
+     *            The request handled.
+     * @param response
+     *            The response to store.
+     * @param now
+     *            The current time.
+     * @param defaultMaxAge
+     *            The maximum age in seconds of responses without explicit
+     *            freshness information.
+     * @param shared
+     *            True for a cache shared by several clients, false for a
+     *            private client cache.
+     * @return The time until which the response is fresh or -1 if it must
+     *         not be stored.
+     */
+    public long getExpires(Request request, Response response, long now,
+            int defaultMaxAge, boolean shared) {
+        List<CacheDirective> directives = response.getCacheDirectives();
+
+        if (!response.isEntityAvailable()
+                || (response.getEntity().getRange() != null)
+                || hasDirective(request.getCacheDirectives(),
+                        HeaderConstants.CACHE_NO_STORE)
+                || hasDirective(directives, HeaderConstants.CACHE_NO_STORE)) {
+            return -1L;
+        }
+
+        int maxAge = -1;
+
+        if (shared) {
+            if (hasDirective(directives, HeaderConstants.CACHE_NO_CACHE)
+                    || hasDirective(directives, HeaderConstants.CACHE_PRIVATE)) {
+                return -1L;
+            }
+
+            maxAge = getSeconds(directives,
+                    HeaderConstants.CACHE_SHARED_MAX_AGE);
+
+            if ((request.getChallengeResponse() != null) && (maxAge == -1)
+                    && !hasDirective(directives, HeaderConstants.CACHE_PUBLIC)) {
+                // Authenticated responses must be explicitly shareable
+                return -1L;
+            }
+        } else if (hasDirective(directives, HeaderConstants.CACHE_NO_CACHE)) {
+            // Must always be revalidated
+            return now;
+        }
+
+        if (maxAge == -1) {
+            maxAge = getSeconds(directives, HeaderConstants.CACHE_MAX_AGE);
+        }
+
+        if (maxAge != -1) {
+            return now + maxAge * 1000L;
+        } else if (response.getEntity().getExpirationDate() != null) {
+            return response.getEntity().getExpirationDate().getTime();
+        }
+
+        return now + defaultMaxAge * 1000L;
+    }
+
+    /**
+     * Returns the number of requests answered from the cache.
+     * 
+     * @return The number of requests answered from the cache.
+     */
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    /**
+     * Returns the ratio of requests answered from the cache, between 0 and 1.
+     * 
+     * @return The ratio of requests answered from the cache.
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return (total == 0) ? 0D : (double) hits / total;
+    }
+
+    /**
+     * Returns the maximum number of stored entries.
+     * 
+     * @return The maximum number of stored entries.
+     */
+    public int getMaxCount() {
+        return this.maxCount;
+    }
+
+    /**
+     * Returns the maximum total size of the stored entities.
+     * 
+     * @return The maximum total size of the stored entities.
+     */
+    public long getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Returns the number of cacheable requests not answered from the cache.
+     * 
+     * @return The number of cacheable requests not answered from the cache.
+     */
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    /**
+     * Returns the number of stale entries revalidated with a conditional
+     * request.
+     * 
+     * @return The number of stale entries revalidated.
+     */
+    public long getRevalidationCount() {
+        return this.revalidationCount.get();
+    }
+
+    /**
+     * Returns the total size of the stored entities.
+     * 
+     * @return The total size of the stored entities.
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Removes all the entries stored for a resource URI.
+     * 
+     * @param uri
+     *            The resource URI.
+     */
+    public synchronized void invalidate(String uri) {
+        Variants variants = this.variants.remove(uri);
+
+        if (variants != null) {
+            for (String key : variants.keys) {
+                this.size -= this.entries.remove(key).getSize();
+            }
+        }
+    }
+
+    /**
+     * Stores an entry, evicting the least recently used ones if needed. If
+     * the dimensions differ from the ones of the entries already stored for
+     * the resource URI, those entries are removed first.
+     * 
+     * @param uri
+     *            The resource URI.
+     * @param variantKey
+     *            The variant key computed from the request and the dimensions
+     *            of the entry.
+     * @param entry
+     *            The entry to store.
+     */
+    public synchronized void put(String uri, String variantKey, Entry entry) {
+        Variants variants = this.variants.get(uri);
+
+        if ((variants != null)
+                && !variants.dimensions.equals(entry.getDimensions())) {
+            invalidate(uri);
+            variants = null;
+        }
+
+        if (variants == null) {
+            variants = new Variants(entry.getDimensions());
+            this.variants.put(uri, variants);
+        }
+
+        String key = uri + '\n' + variantKey;
+        variants.keys.add(key);
+        Entry previous = this.entries.put(key, entry);
+
+        if (previous != null) {
+            this.size -= previous.getSize();
+        }
+
+        this.size += entry.getSize();
+
+        // Evict the least recently used entries
+        for (Iterator<Map.Entry<String, Entry>> iter = this.entries
+                .entrySet().iterator(); ((this.size > getMaxSize()) || (this.entries
+                .size() > getMaxCount())) && iter.hasNext();) {
+            Map.Entry<String, Entry> eldest = iter.next();
+            String eldestUri = eldest.getKey().substring(0,
+                    eldest.getKey().indexOf('\n'));
+            Variants eldestVariants = this.variants.get(eldestUri);
+            eldestVariants.keys.remove(eldest.getKey());
+
+            if (eldestVariants.keys.isEmpty()) {
+                this.variants.remove(eldestUri);
+            }
+
+            this.size -= eldest.getValue().getSize();
+            iter.remove();
+            this.evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a request answered from the cache.
+     */
+    public void recordHit() {
+        this.hitCount.incrementAndGet();
+    }
+
+    /**
+     * Records a cacheable request not answered from the cache.
+     */
+    public void recordMiss() {
+        this.missCount.incrementAndGet();
+    }
+
+    /**
+     * Records a stale entry revalidated with a conditional request.
+     */
+    public void recordRevalidation() {
+        this.revalidationCount.incrementAndGet();
+    }
+
+    /**
+     * Sets the maximum number of stored entries.
+     * 
+     * @param maxCount
+     *            The maximum number of stored entries.
+     */
+    public void setMaxCount(int maxCount) {
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * Sets the maximum total size of the stored entities.
+     * 
+     * @param maxSize
+     *            The maximum total size of the stored entities.
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+}
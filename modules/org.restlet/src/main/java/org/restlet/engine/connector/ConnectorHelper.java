@@ -95,6 +95,19 @@ public abstract class ConnectorHelper<T extends Connector> extends
         return this.protocols;
     }
 
+    /**
+     * Indicates if the connector handles asynchronous calls without dedicating
+     * a thread to each of them, for example by relying on NIO selectors. Such
+     * connectors return from the handle method before the response is received
+     * and later invoke the request's callback. Returns false by default, for
+     * connectors blocking the calling thread until the call completes.
+     * 
+     * @return True if the connector is truly non-blocking.
+     */
+    public boolean isNonBlocking() {
+        return false;
+    }
+
     @Override
     public void start() throws Exception {
     }
@@ -138,6 +138,18 @@ public class HttpUrlConnectionCall extends ClientCall {
         }
     }
 
+    /**
+     * Disconnects the underlying connection, making any blocked read or write
+     * fail.
+     *
+     * @return True if the connection was aborted.
+     */
+    @Override
+    public boolean abort() {
+        getConnection().disconnect();
+        return true;
+    }
+
     /**
      * Returns the connection.
      * 
@@ -0,0 +1,305 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.header;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.restlet.data.Header;
+
+/**
+ * Builder of message heads working at the byte level. The bytes of the header
+ * lines are appended, without their line terminators, to an array kept for the
+ * whole message head. Each header then only records the offsets of its value in
+ * this array, which is decoded lazily by {@link RawHeader}. The standard header
+ * names declared in {@link HeaderConstants} are shared instead of being created
+ * for each message.<br>
+ * <br>
+ * Concurrency note: instances of this class are not thread-safe.
+ */
+public class HeadBuilder {
+
+    /** The initial capacity of the byte array. */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** Open addressing table of the standard header names. */
+    private static final String[] NAMES;
+
+    static {
+        List<String> names = new ArrayList<String>();
+
+        for (Field field : HeaderConstants.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers())
+                    && (field.getType() == String.class)
+                    && field.getName().startsWith("HEADER_")) {
+                try {
+                    String name = (String) field.get(null);
+                    names.add(name);
+
+                    // Lower case variant used by some clients
+                    names.add(name.toLowerCase(Locale.ENGLISH));
+                } catch (IllegalAccessException e) {
+                    // Ignore the field
+                }
+            }
+        }
+
+        int size = Integer.highestOneBit(names.size() * 4);
+        NAMES = new String[size];
+
+        for (String name : names) {
+            int index = hash(name) & (size - 1);
+
+            while ((NAMES[index] != null) && !NAMES[index].equals(name)) {
+                index = (index + 1) & (size - 1);
+            }
+
+            NAMES[index] = name;
+        }
+    }
+
+    /**
+     * Returns the header name stored in the given bytes, sharing the standard
+     * header names.
+     * 
+     * @param bytes
+     *            The bytes.
+     * @param start
+     *            The start index of the name.
+     * @param end
+     *            The end index of the name, exclusive.
+     * @return The header name.
+     */
+    public static String getHeaderName(byte[] bytes, int start, int end) {
+        int hash = 0;
+
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + (bytes[i] & 0xFF);
+        }
+
+        int index = hash & (NAMES.length - 1);
+
+        for (String name = NAMES[index]; name != null; name = NAMES[index]) {
+            if (matches(name, bytes, start, end)) {
+                return name;
+            }
+
+            index = (index + 1) & (NAMES.length - 1);
+        }
+
+        return new String(bytes, start, end - start,
+                StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns the hash code of a name, consistent with the one computed by
+     * {@link #getHeaderName(byte[], int, int)}.
+     * 
+     * @param name
+     *            The name.
+     * @return The hash code.
+     */
+    private static int hash(String name) {
+        int result = 0;
+
+        for (int i = 0; i < name.length(); i++) {
+            result = 31 * result + (name.charAt(i) & 0xFF);
+        }
+
+        return result;
+    }
+
+    /**
+     * Indicates if the given bytes match a name.
+     * 
+     * @param name
+     *            The name.
+     * @param bytes
+     *            The bytes.
+     * @param start
+     *            The start index.
+     * @param end
+     *            The end index, exclusive.
+     * @return True if the bytes match the name.
+     */
+    private static boolean matches(String name, byte[] bytes, int start,
+            int end) {
+        if (name.length() != (end - start)) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != (bytes[start + i] & 0xFF)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /** The bytes of the message head, without line terminators. */
+    private byte[] bytes;
+
+    /** The number of bytes appended. */
+    private int length;
+
+    /** The start index of the current line. */
+    private int lineStart;
+
+    /**
+     * Appends a byte to the current line.
+     * 
+     * @param b
+     *            The byte to append.
+     */
+    public void append(int b) {
+        if (this.bytes == null) {
+            this.bytes = new byte[INITIAL_CAPACITY];
+        } else if (this.length == this.bytes.length) {
+            // Headers already read keep referencing the previous array
+            byte[] newBytes = new byte[this.bytes.length * 2];
+            System.arraycopy(this.bytes, 0, newBytes, 0, this.length);
+            this.bytes = newBytes;
+        }
+
+        this.bytes[this.length++] = (byte) b;
+    }
+
+    /**
+     * Clears the builder before reading the next message head. A new byte
+     * array will be allocated as the previous one is still referenced by the
+     * headers read.
+     */
+    public void clear() {
+        this.bytes = null;
+        this.length = 0;
+        this.lineStart = 0;
+    }
+
+    /**
+     * Returns the current line, for logging purpose.
+     * 
+     * @return The current line.
+     */
+    public String getLine() {
+        return (this.bytes == null) ? "" : new String(this.bytes,
+                this.lineStart, this.length - this.lineStart,
+                StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns the length of the current line.
+     * 
+     * @return The length of the current line.
+     */
+    public int getLineLength() {
+        return this.length - this.lineStart;
+    }
+
+    /**
+     * Reads a header line from a stream, then parses it as a header. Returns
+     * null if the line is empty, marking the end of the headers.
+     * 
+     * @param is
+     *            The message input stream.
+     * @return The header read or null.
+     * @throws IOException
+     * @see #readHeader()
+     */
+    public Header readHeader(InputStream is) throws IOException {
+        int next = is.read();
+
+        while ((next != -1) && !HeaderUtils.isCarriageReturn(next)) {
+            append(next);
+            next = is.read();
+        }
+
+        if (next == -1) {
+            throw new IOException(
+                    "Unable to parse the header. End of stream reached too early.");
+        }
+
+        if (!HeaderUtils.isLineFeed(is.read())) {
+            throw new IOException(
+                    "Unable to parse the header. The carriage return must be followed by a line feed.");
+        }
+
+        return readHeader();
+    }
+
+    /**
+     * Parses the current line as a header and starts a new line. Returns null
+     * if the current line is empty, marking the end of the headers.
+     * 
+     * @return The header read or null.
+     * @throws IOException
+     */
+    public Header readHeader() throws IOException {
+        Header result = null;
+        int start = this.lineStart;
+        int end = this.length;
+        this.lineStart = end;
+
+        if (end > start) {
+            // Parse the header name
+            int colon = start;
+
+            while ((colon < end) && (this.bytes[colon] != ':')) {
+                colon++;
+            }
+
+            if (colon == end) {
+                // Colon character is mandatory
+                throw new IOException(
+                        "Unable to parse the header name. End of line reached too early.");
+            }
+
+            String name = getHeaderName(this.bytes, start, colon);
+            int valueStart = colon + 1;
+
+            while ((valueStart < end)
+                    && HeaderUtils.isSpace(this.bytes[valueStart])) {
+                // Skip any separator space between colon and header value
+                valueStart++;
+            }
+
+            if (valueStart < end) {
+                result = new RawHeader(name, this.bytes, valueStart, end);
+            } else {
+                result = new Header(name, null);
+            }
+        }
+
+        return result;
+    }
+
+}
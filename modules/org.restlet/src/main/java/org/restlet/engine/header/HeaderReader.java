@@ -184,9 +184,10 @@ public class HeaderReader<V> {
                     // Skip any separator space between colon and header value
                     next = header.charAt(index++);
                 }
-                if (index < header.length()) {
+                if (!isSpace(next)) {
+                    // The value may be a single character at the end of line
                     start = index - 1;
-                    
+
                     // Parse the header value
                     result.setValue(header.subSequence(start, header.length())
                             .toString());
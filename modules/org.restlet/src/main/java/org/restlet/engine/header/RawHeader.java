@@ -0,0 +1,91 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.header;
+
+import java.nio.charset.StandardCharsets;
+
+import org.restlet.data.Header;
+
+/**
+ * Header whose value is decoded from the raw bytes of the message head only
+ * when it is first read. As most headers are never read by applications, this
+ * avoids creating their value strings.
+ * 
+ * @see HeadBuilder
+ */
+public class RawHeader extends Header {
+
+    /** The raw bytes, or null once the value is decoded. */
+    private byte[] bytes;
+
+    /** The end index of the value in the raw bytes, exclusive. */
+    private final int valueEnd;
+
+    /** The start index of the value in the raw bytes. */
+    private final int valueStart;
+
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *            The header name.
+     * @param bytes
+     *            The raw bytes, which must not be modified afterwards.
+     * @param valueStart
+     *            The start index of the value in the raw bytes.
+     * @param valueEnd
+     *            The end index of the value in the raw bytes, exclusive.
+     */
+    public RawHeader(String name, byte[] bytes, int valueStart, int valueEnd) {
+        super(name, null);
+        this.bytes = bytes;
+        this.valueEnd = valueEnd;
+        this.valueStart = valueStart;
+    }
+
+    @Override
+    public String getValue() {
+        synchronized (this) {
+            if (this.bytes != null) {
+                super.setValue(new String(this.bytes, this.valueStart,
+                        this.valueEnd - this.valueStart,
+                        StandardCharsets.ISO_8859_1));
+                this.bytes = null;
+            }
+        }
+
+        return super.getValue();
+    }
+
+    @Override
+    public void setValue(String value) {
+        synchronized (this) {
+            this.bytes = null;
+            super.setValue(value);
+        }
+    }
+
+}
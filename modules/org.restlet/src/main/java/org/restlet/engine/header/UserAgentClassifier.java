@@ -0,0 +1,286 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.header;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.restlet.data.ClientInfo;
+import org.restlet.data.Product;
+import org.restlet.routing.Template;
+import org.restlet.routing.Variable;
+
+/**
+ * Classifies user-agent strings using a list of templates, such as the ones
+ * declared in the "agent.properties" file. The templates are compiled once and
+ * shared by all callers, and the results are kept in a bounded LRU cache as
+ * clients tend to reuse a small set of agent strings.<br>
+ * <br>
+ * Concurrency note: instances of this class are thread-safe.
+ * 
+ * @see ClientInfo#getAgentAttributes()
+ */
+public class UserAgentClassifier {
+
+    /** Result of the classification of a user-agent string. */
+    private static class Classification {
+        /** The immutable attributes taken from the matching template. */
+        private final Map<String, String> attributes;
+
+        /** The agent string. */
+        private final String agent;
+
+        /** The immutable product tokens, lazily parsed. */
+        private volatile List<Product> products;
+
+        /**
+         * Constructor.
+         * 
+         * @param agent
+         *            The agent string.
+         * @param attributes
+         *            The attributes taken from the matching template.
+         */
+        private Classification(String agent, Map<String, String> attributes) {
+            this.agent = agent;
+            this.attributes = Collections.unmodifiableMap(attributes);
+        }
+
+        /**
+         * Returns the product tokens, parsing them on first access.
+         * 
+         * @return The product tokens.
+         */
+        private List<Product> getProducts() {
+            List<Product> result = this.products;
+
+            if (result == null) {
+                result = Collections.unmodifiableList(ProductReader
+                        .read(this.agent));
+                this.products = result;
+            }
+
+            return result;
+        }
+    }
+
+    /** The default maximum number of cached agent strings. */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /** The classifications of the most recently used agent strings. */
+    private final Map<String, Classification> cache;
+
+    /** The number of classifications found in the cache. */
+    private final AtomicLong hitCount;
+
+    /** The maximum number of cached agent strings. */
+    private final int maxEntries;
+
+    /** The number of classifications computed. */
+    private final AtomicLong missCount;
+
+    /** The compiled templates, in declaration order. */
+    private final List<Template> templates;
+
+    /**
+     * Constructor.
+     * 
+     * @param patterns
+     *            The user-agent template patterns, in matching order.
+     * @param maxEntries
+     *            The maximum number of cached agent strings.
+     */
+    public UserAgentClassifier(List<String> patterns, int maxEntries) {
+        this.cache = new LinkedHashMap<String, Classification>(16, 0.75f, true);
+        this.hitCount = new AtomicLong();
+        this.maxEntries = maxEntries;
+        this.missCount = new AtomicLong();
+        this.templates = new ArrayList<Template>();
+
+        if (patterns != null) {
+            // Predefined variables, shared by all templates
+            Variable agentName = new Variable(Variable.TYPE_TOKEN);
+            Variable agentVersion = new Variable(Variable.TYPE_TOKEN);
+            Variable agentComment = new Variable(Variable.TYPE_COMMENT);
+            Variable agentCommentAttribute = new Variable(
+                    Variable.TYPE_COMMENT_ATTRIBUTE);
+            Variable facultativeData = new Variable(Variable.TYPE_ALL, null,
+                    false, false);
+
+            for (String pattern : patterns) {
+                Template template = new Template(pattern,
+                        Template.MODE_EQUALS);
+                template.getVariables().put("agentName", agentName);
+                template.getVariables().put("agentVersion", agentVersion);
+                template.getVariables().put("agentComment", agentComment);
+                template.getVariables().put("agentOs", agentCommentAttribute);
+                template.getVariables().put("commentAttribute",
+                        agentCommentAttribute);
+                template.getVariables().put("facultativeData",
+                        facultativeData);
+                this.templates.add(template);
+            }
+        }
+    }
+
+    /**
+     * Returns the classification of an agent string, from the cache if
+     * available.
+     * 
+     * @param agent
+     *            The agent string.
+     * @return The classification.
+     */
+    private Classification classify(String agent) {
+        Classification result;
+
+        synchronized (this.cache) {
+            result = this.cache.get(agent);
+        }
+
+        if (result != null) {
+            this.hitCount.incrementAndGet();
+        } else {
+            this.missCount.incrementAndGet();
+            Map<String, Object> variables = new HashMap<String, Object>();
+            Map<String, String> attributes = new HashMap<String, String>();
+
+            // The first matching template wins
+            for (Template template : this.templates) {
+                if (template.parse(agent, variables) > -1) {
+                    for (Map.Entry<String, Object> entry : variables
+                            .entrySet()) {
+                        attributes.put(entry.getKey(),
+                                (String) entry.getValue());
+                    }
+
+                    break;
+                }
+            }
+
+            result = new Classification(agent, attributes);
+
+            synchronized (this.cache) {
+                Classification previous = this.cache.put(agent, result);
+
+                if (previous != null) {
+                    // Reuse previous classification
+                    this.cache.put(agent, previous);
+                    result = previous;
+                } else if (this.cache.size() > this.maxEntries) {
+                    this.cache.remove(this.cache.keySet().iterator().next());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a new mutable map of the attributes taken from the first
+     * template matching the agent string.
+     * 
+     * @param agent
+     *            The agent string.
+     * @return The attributes, empty if no template matched.
+     */
+    public Map<String, String> getAttributes(String agent) {
+        if (agent == null) {
+            return new HashMap<String, String>();
+        }
+
+        return new HashMap<String, String>(classify(agent).attributes);
+    }
+
+    /**
+     * Returns the number of classifications found in the cache.
+     * 
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the maximum number of cached agent strings.
+     * 
+     * @return The maximum number of cached agent strings.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the number of classifications computed.
+     * 
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns a new mutable list of copies of the product tokens of the agent
+     * string.
+     * 
+     * @param agent
+     *            The agent string.
+     * @return The product tokens.
+     * @throws IllegalArgumentException
+     *             If the agent string can't be parsed as a list of products.
+     * @see ProductReader#read(String)
+     */
+    public List<Product> getProducts(String agent)
+            throws IllegalArgumentException {
+        List<Product> result = new ArrayList<Product>();
+
+        if (agent != null) {
+            for (Product product : classify(agent).getProducts()) {
+                result.add(new Product(product.getName(), product
+                        .getVersion(), product.getComment()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of cached agent strings.
+     * 
+     * @return The number of cached agent strings.
+     */
+    public int size() {
+        synchronized (this.cache) {
+            return this.cache.size();
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.io;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// [excludes gwt]
+/**
+ * Factory used to dispatch/share direct <code>ByteBuffer</code> instances of
+ * {@link IoUtils#BUFFER_SIZE} bytes. Native allocation of direct buffers is
+ * expensive and their memory is freed late, so they are recycled instead of
+ * being allocated for each copy.
+ */
+public class DirectBufferFactory {
+
+    /**
+     * The maximum number of idle buffers kept in the cache. It looks for the
+     * System property "org.restlet.engine.io.maxDirectBuffers" and if not
+     * defined, uses the "64" default value.
+     */
+    public static final int MAX_BUFFERS = Integer.getInteger(
+            "org.restlet.engine.io.maxDirectBuffers", 64);
+
+    /** Cache of idle <code>ByteBuffer</code>. */
+    private static final Queue<ByteBuffer> BUFFERS = new ConcurrentLinkedQueue<ByteBuffer>();
+
+    /** The number of idle buffers in the cache. */
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    /**
+     * Get an exclusive direct <code>ByteBuffer</code>, ready to be filled. A
+     * new one is allocated if the cache is empty.
+     * 
+     * @return An exclusive direct <code>ByteBuffer</code>.
+     */
+    public final static ByteBuffer getBuffer() {
+        ByteBuffer result = BUFFERS.poll();
+
+        if (result == null) {
+            result = ByteBuffer.allocateDirect(IoUtils.BUFFER_SIZE);
+        } else {
+            COUNT.decrementAndGet();
+            result.clear();
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the <code>ByteBuffer</code> to the cache. It is silently
+     * discarded if the cache is full or if it isn't a direct buffer of the
+     * expected capacity.
+     * 
+     * @param buffer
+     *            The <code>ByteBuffer</code> to return.
+     */
+    public final static void returnBuffer(ByteBuffer buffer) {
+        if ((buffer != null) && buffer.isDirect()
+                && (buffer.capacity() == IoUtils.BUFFER_SIZE)) {
+            if (COUNT.incrementAndGet() <= MAX_BUFFERS) {
+                BUFFERS.offer(buffer);
+            } else {
+                COUNT.decrementAndGet();
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ package org.restlet.engine.io;
 import static org.restlet.data.Range.isBytesRange;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,8 +37,10 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
@@ -141,7 +144,10 @@ public class IoUtils {
 
     // [ifndef gwt] method
     /**
-     * Writes a readable channel to a writable channel.
+     * Writes a readable channel to a writable channel. When the reading is
+     * done, the readable channel is closed. File channels, either as source or
+     * as target, are copied using their transferTo and transferFrom methods,
+     * other blocking channels through a pooled direct byte buffer.
      * 
      * @param readableChannel
      *            The readable channel.
@@ -152,7 +158,88 @@ public class IoUtils {
     public static void copy(ReadableByteChannel readableChannel,
             WritableByteChannel writableChannel) throws IOException {
         if ((readableChannel != null) && (writableChannel != null)) {
-            copy(getStream(readableChannel), getStream(writableChannel));
+            if (!isBlocking(readableChannel)) {
+                copy(getStream(readableChannel), getStream(writableChannel));
+                return;
+            }
+
+            try {
+                if (readableChannel instanceof FileChannel) {
+                    FileChannel fileChannel = (FileChannel) readableChannel;
+                    long position = fileChannel.position();
+                    copy(fileChannel, position, fileChannel.size() - position,
+                            writableChannel);
+                } else if (writableChannel instanceof FileChannel) {
+                    FileChannel fileChannel = (FileChannel) writableChannel;
+                    long position = fileChannel.position();
+                    long transferred;
+
+                    while ((transferred = fileChannel.transferFrom(
+                            readableChannel, position, BUFFER_SIZE)) > 0) {
+                        position += transferred;
+                    }
+
+                    fileChannel.position(position);
+                } else {
+                    ByteBuffer buffer = DirectBufferFactory.getBuffer();
+
+                    try {
+                        while (readableChannel.read(buffer) != -1) {
+                            buffer.flip();
+                            write(buffer, writableChannel);
+                            buffer.clear();
+                        }
+                    } finally {
+                        DirectBufferFactory.returnBuffer(buffer);
+                    }
+                }
+            } finally {
+                readableChannel.close();
+            }
+        }
+    }
+
+    // [ifndef gwt] method
+    /**
+     * Writes a region of a file channel to a writable channel. Relies on the
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)} method
+     * so that the operating system can directly copy the bytes from the file
+     * system cache to the target channel, typically a socket, without copying
+     * them in the JVM heap. Non-blocking target channels are waited upon when
+     * they can't accept more bytes. The position of the file channel isn't
+     * modified.
+     * 
+     * @param fileChannel
+     *            The readable file channel.
+     * @param position
+     *            The position of the first byte to write.
+     * @param count
+     *            The number of bytes to write.
+     * @param writableChannel
+     *            The writable channel.
+     * @throws IOException
+     */
+    public static void copy(FileChannel fileChannel, long position,
+            long count, WritableByteChannel writableChannel)
+            throws IOException {
+        if ((fileChannel != null) && (writableChannel != null)) {
+            long remaining = Math.min(count, fileChannel.size() - position);
+            long transferred;
+
+            while (remaining > 0) {
+                transferred = fileChannel.transferTo(position, remaining,
+                        writableChannel);
+
+                if (transferred > 0) {
+                    position += transferred;
+                    remaining -= transferred;
+                } else if (isBlocking(writableChannel)) {
+                    throw new EOFException(
+                            "Unable to transfer the file channel. End of file detected.");
+                } else {
+                    waitForWritable((SelectableChannel) writableChannel);
+                }
+            }
         }
     }
 
@@ -291,6 +378,33 @@ public class IoUtils {
         return result;
     }
 
+    // [ifndef gwt] method
+    /**
+     * Returns the index of the first byte effectively available. This returns
+     * 0 if no range is defined, otherwise it returns the index of the range
+     * using {@link Range#getIndex()}, resolving the {@link Range#INDEX_LAST}
+     * value when the size of the representation is known.
+     * 
+     * @param representation
+     *            The representation to evaluate.
+     * @return The index of the first available byte.
+     * @see #getAvailableSize(Representation)
+     */
+    public static long getAvailableIndex(Representation representation) {
+        Range range = representation.getRange();
+
+        if (range == null || !isBytesRange(range)) {
+            return 0;
+        } else if (range.getIndex() != Range.INDEX_LAST) {
+            return range.getIndex();
+        } else if ((range.getSize() != Range.SIZE_MAX)
+                && representation.hasKnownSize()) {
+            return Math.max(0, representation.getSize() - range.getSize());
+        }
+
+        return 0;
+    }
+
     /**
      * Returns the size effectively available. This returns the same value as {@link Representation#getSize()} if no
      * range is defined, otherwise it
@@ -723,6 +837,37 @@ public class IoUtils {
         return result;
     }
 
+    // [ifndef gwt] method
+    /**
+     * Blocks until the given non-blocking channel is ready to be written.
+     * 
+     * @param selectableChannel
+     *            The channel to wait for.
+     * @throws IOException
+     */
+    private static void waitForWritable(SelectableChannel selectableChannel)
+            throws IOException {
+        Selector selector = SelectorFactory.getSelector();
+        SelectionKey selectionKey = null;
+
+        if (selector == null) {
+            throw new IOException(
+                    "Unable to obtain a selector. Selector factory returned null.");
+        }
+
+        try {
+            selectionKey = selectableChannel.register(selector,
+                    SelectionKey.OP_WRITE);
+
+            if (selector.select(TIMEOUT_MS) == 0) {
+                throw new IOException(
+                        "Unable to select the channel to write to it. Selection timed out.");
+            }
+        } finally {
+            release(selector, selectionKey);
+        }
+    }
+
     // [ifndef gwt] method
     /**
      * Release the selection key, working around for bug #6403933.
@@ -748,6 +893,28 @@ public class IoUtils {
 
     }
 
+    // [ifndef gwt] method
+    /**
+     * Writes all the remaining bytes of a buffer to a writable channel. The
+     * channel is waited upon if it is non-blocking and can't accept more
+     * bytes.
+     * 
+     * @param buffer
+     *            The byte buffer to write.
+     * @param writableChannel
+     *            The writable channel.
+     * @throws IOException
+     */
+    private static void write(ByteBuffer buffer,
+            WritableByteChannel writableChannel) throws IOException {
+        while (buffer.hasRemaining()) {
+            if ((writableChannel.write(buffer) == 0)
+                    && !isBlocking(writableChannel)) {
+                waitForWritable((SelectableChannel) writableChannel);
+            }
+        }
+    }
+
     // [ifndef gwt] method
     /**
      * Converts a char array into a byte array using the default character set.
@@ -22,33 +22,121 @@
  * Restlet is a registered trademark of Talend S.A.
  */
 
+
 package org.restlet.engine.io;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 // [excludes gwt]
 /**
  * Pipe stream that pipes output streams into input streams. Implementation
- * based on a shared synchronized queue.
+ * based on a bounded ring buffer of bytes, shared by the reader and the writer
+ * threads. Bytes are copied in bulk, as many as the buffer can hold or as
+ * available, and the writer is blocked while the buffer is full.
  * 
  * @author Jerome Louvel
  */
 public class PipeStream {
 
+    /** The default capacity of the ring buffer, in bytes. */
+    public static final int DEFAULT_CAPACITY = 4 * IoUtils.BUFFER_SIZE;
+
     /** The queue timeout. */
     private static final long QUEUE_TIMEOUT = 5;
 
-    /** The supporting synchronized queue. */
-    private final BlockingQueue<Integer> queue;
+    /** The supporting ring buffer. */
+    private final byte[] buffer;
+
+    /** The number of bytes available in the ring buffer. */
+    private int count;
+
+    /** Indicates if the input stream was closed. */
+    private boolean inputClosed;
+
+    /** Indicates if the output stream was closed. */
+    private boolean outputClosed;
+
+    /** The index of the next byte to read in the ring buffer. */
+    private int readIndex;
+
+    /** The timeout when reading or writing is blocked, in milliseconds. */
+    private final long timeoutMs;
 
     /** Constructor. */
     public PipeStream() {
-        this.queue = new ArrayBlockingQueue<Integer>(1024);
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param capacity
+     *            The capacity of the ring buffer, in bytes.
+     */
+    public PipeStream(int capacity) {
+        this(capacity, TimeUnit.SECONDS.toMillis(QUEUE_TIMEOUT));
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param capacity
+     *            The capacity of the ring buffer, in bytes.
+     * @param timeoutMs
+     *            The timeout when reading from an empty pipe or writing to a
+     *            full pipe, in milliseconds.
+     */
+    public PipeStream(int capacity, long timeoutMs) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "The capacity of the pipe must be strictly positive");
+        }
+
+        this.buffer = new byte[capacity];
+        this.count = 0;
+        this.inputClosed = false;
+        this.outputClosed = false;
+        this.readIndex = 0;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Waits until the state of the pipe changes or the timeout is reached.
+     * Must be called while holding the lock of the pipe.
+     * 
+     * @param deadline
+     *            The deadline, in milliseconds.
+     * @param message
+     *            The message of the exception thrown when the timeout is
+     *            reached.
+     * @throws IOException
+     */
+    private void await(long deadline, String message) throws IOException {
+        long delay = deadline - System.currentTimeMillis();
+
+        if (delay <= 0) {
+            throw new IOException(message);
+        }
+
+        try {
+            wait(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException(
+                    "Interruption occurred while waiting on the pipe");
+        }
+    }
+
+    /**
+     * Returns the capacity of the ring buffer, in bytes.
+     * 
+     * @return The capacity of the ring buffer, in bytes.
+     */
+    public int getCapacity() {
+        return this.buffer.length;
     }
 
     /**
@@ -58,30 +146,34 @@ public class PipeStream {
      */
     public InputStream getInputStream() {
         return new InputStream() {
-            private boolean endReached = false;
+            /** Array reused by single byte reads. */
+            private final byte[] single = new byte[1];
 
             @Override
-            public int read() throws IOException {
-                try {
-                    if (this.endReached) {
-                        return -1;
-                    }
-
-                    final Integer value = queue.poll(QUEUE_TIMEOUT,
-                            TimeUnit.SECONDS);
-
-                    if (value == null) {
-                        throw new IOException(
-                                "Timeout while reading from the queue-based input stream");
-                    } else {
-                        this.endReached = (value == -1);
-                        return value.intValue();
-                    }
-                } catch (InterruptedException ie) {
-                    throw new IOException(
-                            "Interruption occurred while writing in the queue");
+            public int available() throws IOException {
+                synchronized (PipeStream.this) {
+                    return count;
                 }
             }
+
+            @Override
+            public void close() throws IOException {
+                synchronized (PipeStream.this) {
+                    inputClosed = true;
+                    PipeStream.this.notifyAll();
+                }
+            }
+
+            @Override
+            public int read() throws IOException {
+                return (read(this.single, 0, 1) == -1) ? -1
+                        : (this.single[0] & 0xff);
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return PipeStream.this.read(b, off, len);
+            }
         };
     }
 
@@ -92,32 +184,121 @@ public class PipeStream {
      */
     public OutputStream getOutputStream() {
         return new OutputStream() {
+            /** Array reused by single byte writes. */
+            private final byte[] single = new byte[1];
+
             @Override
-            public void write(int b) throws IOException {
-                try {
-                    if (!queue.offer(b & 0xff, QUEUE_TIMEOUT, TimeUnit.SECONDS)) {
-                        throw new IOException(
-                                "Timeout while writing to the queue-based output stream");
-                    }
-                } catch (InterruptedException ie) {
-                    throw new IOException(
-                            "Interruption occurred while writing in the queue");
+            public void close() throws IOException {
+                synchronized (PipeStream.this) {
+                    outputClosed = true;
+                    PipeStream.this.notifyAll();
                 }
             }
 
             @Override
-            public void close() throws IOException {
-                try {
-                    if (!queue.offer(-1, QUEUE_TIMEOUT, TimeUnit.SECONDS)) {
-                        throw new IOException(
-                                "Timeout while writing to the queue-based output stream");
-                    }
-                } catch (InterruptedException ie) {
-                    throw new IOException(
-                            "Interruption occurred while writing in the queue");
-                }
+            public void write(byte[] b, int off, int len) throws IOException {
+                PipeStream.this.write(b, off, len);
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                this.single[0] = (byte) b;
+                write(this.single, 0, 1);
             }
         };
     }
 
+    /**
+     * Reads available bytes from the ring buffer, waiting for at least one
+     * byte to be written or for the end of the pipe.
+     * 
+     * @param b
+     *            The target byte array.
+     * @param off
+     *            The offset in the target array.
+     * @param len
+     *            The maximum number of bytes to read.
+     * @return The number of bytes read or -1 if the end of the pipe was
+     *         reached.
+     * @throws IOException
+     */
+    private synchronized int read(byte[] b, int off, int len)
+            throws IOException {
+        if ((off < 0) || (len < 0) || (len > b.length - off)) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+
+        long deadline = System.currentTimeMillis() + this.timeoutMs;
+
+        while (this.count == 0) {
+            if (this.outputClosed) {
+                return -1;
+            } else if (this.inputClosed) {
+                throw new IOException("The pipe input stream is closed");
+            }
+
+            await(deadline,
+                    "Timeout while reading from the queue-based input stream");
+        }
+
+        int result = Math.min(len, this.count);
+        int first = Math.min(result, this.buffer.length - this.readIndex);
+        System.arraycopy(this.buffer, this.readIndex, b, off, first);
+        System.arraycopy(this.buffer, 0, b, off + first, result - first);
+        this.readIndex = (this.readIndex + result) % this.buffer.length;
+        this.count -= result;
+        notifyAll();
+        return result;
+    }
+
+    /**
+     * Writes bytes into the ring buffer, waiting for free space as long as
+     * necessary.
+     * 
+     * @param b
+     *            The source byte array.
+     * @param off
+     *            The offset in the source array.
+     * @param len
+     *            The number of bytes to write.
+     * @throws IOException
+     */
+    private synchronized void write(byte[] b, int off, int len)
+            throws IOException {
+        if ((off < 0) || (len < 0) || (len > b.length - off)) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        while (len > 0) {
+            long deadline = System.currentTimeMillis() + this.timeoutMs;
+
+            while (this.count == this.buffer.length) {
+                if (this.inputClosed) {
+                    break;
+                }
+
+                await(deadline,
+                        "Timeout while writing to the queue-based output stream");
+            }
+
+            if (this.inputClosed) {
+                throw new IOException("The pipe input stream is closed");
+            } else if (this.outputClosed) {
+                throw new IOException("The pipe output stream is closed");
+            }
+
+            int writeIndex = (this.readIndex + this.count) % this.buffer.length;
+            int written = Math.min(len, this.buffer.length - this.count);
+            int first = Math.min(written, this.buffer.length - writeIndex);
+            System.arraycopy(b, off, this.buffer, writeIndex, first);
+            System.arraycopy(b, off + first, this.buffer, 0, written - first);
+            this.count += written;
+            off += written;
+            len -= written;
+            notifyAll();
+        }
+    }
+
 }
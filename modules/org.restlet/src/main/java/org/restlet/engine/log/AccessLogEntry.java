@@ -0,0 +1,342 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.log;
+
+import java.util.logging.Level;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Method;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.service.LogService;
+
+/**
+ * Snapshot of a call to be written in the access log. Either holds a message
+ * already formatted, or the values of the default access log format captured
+ * from the request and the response, so that the formatting can be deferred to
+ * another thread once the call is completed.
+ * 
+ * @see LogService
+ */
+public class AccessLogEntry {
+
+    /** Date and time formatted for a given second. */
+    private static class CachedDateTime {
+        /** The number of seconds since the epoch. */
+        private final long second;
+
+        /** The formatted local date and time, separated by a tab. */
+        private final String value;
+
+        private CachedDateTime(long second, String value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
+
+    /** The date and time formatted for the last logged second. */
+    private static volatile CachedDateTime cachedDateTime;
+
+    /**
+     * Appends a value or a dash if it is null.
+     * 
+     * @param sb
+     *            The target builder.
+     * @param value
+     *            The value to append.
+     */
+    private static void append(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append('-');
+        } else {
+            sb.append(value);
+        }
+    }
+
+    /**
+     * Appends a size or a dash if it is unknown.
+     * 
+     * @param sb
+     *            The target builder.
+     * @param size
+     *            The size to append.
+     */
+    private static void appendSize(StringBuilder sb, long size) {
+        if (size == -1) {
+            sb.append('-');
+        } else {
+            sb.append(size);
+        }
+    }
+
+    /**
+     * Returns the local date (YYYY-MM-DD) and time (HH:MM:SS), separated by a
+     * tab. The value is cached for the whole second.
+     * 
+     * @param time
+     *            The time in milliseconds since the epoch.
+     * @return The formatted date and time.
+     */
+    private static String getDateTime(long time) {
+        long second = time / 1000L;
+        CachedDateTime cached = cachedDateTime;
+
+        if ((cached == null) || (cached.second != second)) {
+            cached = new CachedDateTime(second, String.format(
+                    "%1$tF\t%1$tT", time));
+            cachedDateTime = cached;
+        }
+
+        return cached.value;
+    }
+
+    /** The agent name. */
+    private final String agentName;
+
+    /** The client IP address. */
+    private final String clientAddress;
+
+    /** The call duration in milliseconds. */
+    private final int duration;
+
+    /** The host reference. */
+    private final String hostRef;
+
+    /** The message already formatted. */
+    private final String message;
+
+    /** The method name. */
+    private final String methodName;
+
+    /** The size of the request entity, -1 if unknown. */
+    private final long receivedSize;
+
+    /** The referrer reference. */
+    private final String referrerRef;
+
+    /** The resource path. */
+    private final String resourcePath;
+
+    /** The resource query. */
+    private final String resourceQuery;
+
+    /** The size of the response entity, -1 if unknown. */
+    private final long sentSize;
+
+    /** The server IP address. */
+    private final String serverAddress;
+
+    /** The server port. */
+    private final Integer serverPort;
+
+    /** The status code. */
+    private final Integer statusCode;
+
+    /** The time of the log entry in milliseconds since the epoch. */
+    private final long time;
+
+    /**
+     * The user identifier, checked via IDENT or taken from the challenge
+     * response.
+     */
+    private final String userIdentifier;
+
+    /**
+     * Constructor capturing the values of the default access log format.
+     * 
+     * @param response
+     *            The response to log.
+     * @param duration
+     *            The call duration (in milliseconds).
+     * @param identityCheck
+     *            Indicates if the user identifier must be checked via IDENT.
+     *            The check is done by this constructor, so on the thread
+     *            handling the call rather than on the thread writing the log.
+     */
+    public AccessLogEntry(Response response, int duration, boolean identityCheck) {
+        Request request = response.getRequest();
+        this.message = null;
+        this.time = System.currentTimeMillis();
+        this.duration = duration;
+        this.clientAddress = request.getClientInfo().getUpstreamAddress();
+        this.serverAddress = response.getServerInfo().getAddress();
+        this.serverPort = response.getServerInfo().getPort();
+        String identifier = null;
+
+        // Check the user name (via IDENT protocol)
+        if (identityCheck) {
+            // [ifndef gae]
+            IdentClient ic = new IdentClient(this.clientAddress, request
+                    .getClientInfo().getPort(), this.serverPort);
+            identifier = ic.getUserIdentifier();
+        } else if (request.getChallengeResponse() != null) {
+            identifier = request.getChallengeResponse().getIdentifier();
+            // [enddef]
+        }
+
+        this.userIdentifier = identifier;
+        this.methodName = (request.getMethod() == null) ? null : request
+                .getMethod().getName();
+        this.resourcePath = (request.getResourceRef() == null) ? null
+                : request.getResourceRef().getPath();
+        this.resourceQuery = (request.getResourceRef() == null) ? null
+                : request.getResourceRef().getQuery();
+        this.statusCode = (response.getStatus() == null) ? null : response
+                .getStatus().getCode();
+
+        if (!response.isEntityAvailable()
+                || Status.REDIRECTION_NOT_MODIFIED.equals(response.getStatus())
+                || Status.SUCCESS_NO_CONTENT.equals(response.getStatus())
+                || Method.HEAD.equals(request.getMethod())) {
+            this.sentSize = 0;
+        } else {
+            this.sentSize = response.getEntity().getSize();
+        }
+
+        long size;
+
+        try {
+            size = (request.getEntity() == null) ? 0 : request.getEntity()
+                    .getSize();
+        } catch (Throwable t) {
+            // Error while getting the request's entity, cf issue #931
+            Engine.getLogger(LogService.class).log(Level.SEVERE,
+                    "Cannot retrieve size of request's entity", t);
+            size = -1;
+        }
+
+        this.receivedSize = size;
+        this.hostRef = (request.getHostRef() == null) ? null : request
+                .getHostRef().toString();
+        this.agentName = request.getClientInfo().getAgent();
+        this.referrerRef = (request.getReferrerRef() == null) ? null
+                : request.getReferrerRef().getIdentifier();
+    }
+
+    /**
+     * Constructor for a message already formatted, for example using a custom
+     * log template.
+     * 
+     * @param message
+     *            The formatted message.
+     */
+    public AccessLogEntry(String message) {
+        this.message = message;
+        this.time = System.currentTimeMillis();
+        this.agentName = null;
+        this.clientAddress = null;
+        this.duration = 0;
+        this.hostRef = null;
+        this.methodName = null;
+        this.receivedSize = 0;
+        this.referrerRef = null;
+        this.resourcePath = null;
+        this.resourceQuery = null;
+        this.sentSize = 0;
+        this.serverAddress = null;
+        this.serverPort = null;
+        this.statusCode = null;
+        this.userIdentifier = null;
+    }
+
+    /**
+     * Formats the entry using the default W3C extended log format described in
+     * {@link LogService}, unless a formatted message was given.
+     * 
+     * @param sb
+     *            The target builder, without line terminator.
+     * @return The target builder.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        if (this.message != null) {
+            return sb.append(this.message);
+        }
+
+        // Append the date and time of the request
+        sb.append(getDateTime(this.time)).append('\t');
+
+        // Append the client IP address
+        append(sb, this.clientAddress);
+        sb.append('\t');
+
+        // Append the user name
+        append(sb, this.userIdentifier);
+        sb.append('\t');
+
+        // Append the server IP address and port
+        append(sb, this.serverAddress);
+        sb.append('\t');
+        append(sb, this.serverPort);
+        sb.append('\t');
+
+        // Append the method name, resource path and query
+        append(sb, this.methodName);
+        sb.append('\t');
+        append(sb, this.resourcePath);
+        sb.append('\t');
+        append(sb, this.resourceQuery);
+
+        // Append the status code
+        sb.append('\t');
+        append(sb, this.statusCode);
+
+        // Append the returned and received sizes
+        sb.append('\t');
+        appendSize(sb, this.sentSize);
+        sb.append('\t');
+        appendSize(sb, this.receivedSize);
+
+        // Append the duration
+        sb.append('\t');
+        sb.append(this.duration);
+
+        // Append the host reference, agent name and referrer
+        sb.append('\t');
+        append(sb, this.hostRef);
+        sb.append('\t');
+        append(sb, this.agentName);
+        sb.append('\t');
+        append(sb, this.referrerRef);
+        return sb;
+    }
+
+    /**
+     * Returns the time of the log entry.
+     * 
+     * @return The time of the log entry in milliseconds since the epoch.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return (this.message != null) ? this.message : appendTo(
+                new StringBuilder(256)).toString();
+    }
+
+}
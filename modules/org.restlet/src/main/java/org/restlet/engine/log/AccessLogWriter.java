@@ -0,0 +1,351 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous access log writer. Log entries are added by the calling threads
+ * to a bounded ring buffer, then drained in batches by a single background
+ * thread that formats them into a reusable buffer and appends them to a log
+ * file. When the file exceeds its size limit, it is rotated by renaming it
+ * with a ".1" suffix, previous files being shifted up to the configured count.<br>
+ * <br>
+ * When the buffer is full, entries are either dropped and counted, or the
+ * calling thread blocks until room is available, depending on the blocking
+ * policy.
+ */
+public class AccessLogWriter implements Runnable {
+
+    /** The maximum number of entries written in a single batch. */
+    private static final int MAX_BATCH_SIZE = 512;
+
+    /** Indicates if callers block when the buffer is full. */
+    private final boolean blocking;
+
+    /** The buffer of pending entries. */
+    private final BlockingQueue<AccessLogEntry> buffer;
+
+    /** The number of entries dropped because the buffer was full. */
+    private final AtomicLong droppedCount;
+
+    /** The log file path. */
+    private final File file;
+
+    /** The number of files to keep, including the current one. */
+    private final int fileCount;
+
+    /** The maximum size of a file before rotation, 0 for no rotation. */
+    private final long fileLimit;
+
+    /** The logger used to report write errors. */
+    private final Logger logger;
+
+    /** Indicates if the writer is running. */
+    private volatile boolean running;
+
+    /**
+     * The number of characters written in the current file, approximating its
+     * size in bytes.
+     */
+    private volatile long size;
+
+    /** The background writer thread. */
+    private volatile Thread thread;
+
+    /** The number of entries written. */
+    private final AtomicLong writtenCount;
+
+    /** The current file writer. */
+    private volatile Writer writer;
+
+    /**
+     * Constructor.
+     * 
+     * @param file
+     *            The log file path.
+     * @param fileLimit
+     *            The maximum size in bytes of a file before rotation, 0 for no
+     *            rotation.
+     * @param fileCount
+     *            The number of files to keep, including the current one.
+     * @param capacity
+     *            The maximum number of pending entries.
+     * @param blocking
+     *            True if callers block when the buffer is full, false if
+     *            entries are dropped.
+     * @param logger
+     *            The logger used to report write errors.
+     */
+    public AccessLogWriter(String file, long fileLimit, int fileCount,
+            int capacity, boolean blocking, Logger logger) {
+        this.file = new File(file);
+        this.fileLimit = fileLimit;
+        this.fileCount = Math.max(1, fileCount);
+        this.buffer = new ArrayBlockingQueue<AccessLogEntry>(capacity);
+        this.blocking = blocking;
+        this.logger = logger;
+        this.droppedCount = new AtomicLong();
+        this.writtenCount = new AtomicLong();
+    }
+
+    /**
+     * Closes the current file, if any.
+     */
+    private void close() {
+        if (this.writer != null) {
+            try {
+                this.writer.close();
+            } catch (IOException e) {
+                this.logger.log(Level.WARNING,
+                        "Unable to close the access log file", e);
+            }
+
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Returns the number of entries dropped because the buffer was full.
+     * 
+     * @return The number of dropped entries.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the number of pending entries.
+     * 
+     * @return The number of pending entries.
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns the number of entries written.
+     * 
+     * @return The number of entries written.
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * Indicates if callers block when the buffer is full.
+     * 
+     * @return True if callers block when the buffer is full, false if entries
+     *         are dropped.
+     */
+    public boolean isBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Adds an entry to the buffer. Depending on the blocking policy, the entry
+     * is dropped or the calling thread waits if the buffer is full. Once the
+     * writer is stopping, entries are dropped.
+     * 
+     * @param entry
+     *            The entry to write.
+     * @return True if the entry was added, false if it was dropped.
+     */
+    public boolean log(AccessLogEntry entry) {
+        boolean result = this.running && this.buffer.offer(entry);
+
+        try {
+            while (!result && this.running && isBlocking()) {
+                // Wait for room while checking that the writer isn't stopping
+                result = this.buffer.offer(entry, 100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (result && !this.running && this.buffer.remove(entry)) {
+            // Added while stopping, so possibly after the last drain
+            result = false;
+        }
+
+        if (!result) {
+            this.droppedCount.incrementAndGet();
+        }
+
+        return result;
+    }
+
+    /**
+     * Opens the current file in append mode.
+     * 
+     * @throws IOException
+     */
+    private void open() throws IOException {
+        File parent = this.file.getAbsoluteFile().getParentFile();
+
+        if ((parent != null) && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        this.size = this.file.length();
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(this.file, true), StandardCharsets.UTF_8),
+                64 * 1024);
+    }
+
+    /**
+     * Closes the current file and shifts the previous ones, dropping the
+     * oldest.
+     * 
+     * @throws IOException
+     */
+    private void rotate() throws IOException {
+        close();
+
+        if (this.fileCount == 1) {
+            this.file.delete();
+        } else {
+            String path = this.file.getPath();
+            new File(path + "." + (this.fileCount - 1)).delete();
+
+            for (int i = this.fileCount - 2; i > 0; i--) {
+                new File(path + "." + i).renameTo(new File(path + "."
+                        + (i + 1)));
+            }
+
+            this.file.renameTo(new File(path + ".1"));
+        }
+
+        open();
+    }
+
+    /**
+     * Drains the buffer in batches until the writer is stopped and the buffer
+     * is empty.
+     */
+    public void run() {
+        List<AccessLogEntry> batch = new ArrayList<AccessLogEntry>(
+                MAX_BATCH_SIZE);
+        StringBuilder sb = new StringBuilder(MAX_BATCH_SIZE * 256);
+        String lineSeparator = System.getProperty("line.separator");
+
+        while (this.running || !this.buffer.isEmpty()) {
+            try {
+                AccessLogEntry first = this.buffer.poll(100,
+                        TimeUnit.MILLISECONDS);
+
+                if (first != null) {
+                    batch.add(first);
+                    this.buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+                    for (AccessLogEntry entry : batch) {
+                        entry.appendTo(sb).append(lineSeparator);
+                    }
+
+                    write(sb);
+                    this.writtenCount.addAndGet(batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Keep draining until stopped
+            } catch (Throwable t) {
+                this.logger.log(Level.WARNING,
+                        "Unable to write to the access log file", t);
+            } finally {
+                batch.clear();
+                sb.setLength(0);
+            }
+        }
+
+        close();
+    }
+
+    /**
+     * Starts the background writer thread.
+     * 
+     * @throws IOException
+     */
+    public synchronized void start() throws IOException {
+        if (!this.running) {
+            open();
+            this.running = true;
+            this.thread = new Thread(this, "restlet-access-log");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+    }
+
+    /**
+     * Stops the background writer thread, after the pending entries are
+     * written. Entries added concurrently are dropped.
+     * 
+     * @throws InterruptedException
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (this.running) {
+            this.running = false;
+            this.thread.join();
+            this.thread = null;
+            this.droppedCount.addAndGet(this.buffer
+                    .drainTo(new ArrayList<AccessLogEntry>()));
+        }
+    }
+
+    /**
+     * Writes a batch of formatted entries and rotates the file if needed.
+     * 
+     * @param sb
+     *            The formatted entries.
+     * @throws IOException
+     */
+    private void write(StringBuilder sb) throws IOException {
+        if (this.writer == null) {
+            open();
+        }
+
+        this.writer.append(sb);
+        this.writer.flush();
+        this.size += sb.length();
+
+        if ((this.fileLimit > 0) && (this.size >= this.fileLimit)) {
+            rotate();
+        }
+    }
+
+}
@@ -91,12 +91,23 @@ public class LogFilter extends Filter {
     @Override
     protected void afterHandle(Request request, Response response) {
         try {
-            if (request.isLoggable() && this.logLogger.isLoggable(Level.INFO)) {
-                long startTime = (Long) request.getAttributes().get(
-                        "org.restlet.startTime");
-                int duration = (int) (System.currentTimeMillis() - startTime);
-                this.logLogger.log(Level.INFO, this.logService
-                        .getResponseLogMessage(response, duration));
+            if (request.isLoggable()) {
+                // [ifndef gae]
+                AccessLogWriter writer = this.logService.getAccessLogWriter();
+
+                if (writer != null) {
+                    // Defer the formatting and writing to the writer thread
+                    writer.log(this.logService.createResponseLogEntry(
+                            response, getDuration(request)));
+                    return;
+                }
+                // [enddef]
+
+                if (this.logLogger.isLoggable(Level.INFO)) {
+                    this.logLogger.log(Level.INFO, this.logService
+                            .getResponseLogMessage(response,
+                                    getDuration(request)));
+                }
             }
         } catch (Throwable e) {
             // Error while logging the call, cf issue #931
@@ -132,4 +143,18 @@ public class LogFilter extends Filter {
         return CONTINUE;
     }
 
+    /**
+     * Returns the duration of the call, based on the start time saved by
+     * {@link #beforeHandle(Request, Response)}.
+     *
+     * @param request
+     *            The request handled.
+     * @return The call duration in milliseconds.
+     */
+    private int getDuration(Request request) {
+        long startTime = (Long) request.getAttributes().get(
+                "org.restlet.startTime");
+        return (int) (System.currentTimeMillis() - startTime);
+    }
+
 }
@@ -26,7 +26,11 @@ package org.restlet.engine.resource;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -50,6 +54,12 @@ public class AnnotationUtils {
     /** Annotation info cache. */
     private static final ConcurrentMap<Class<?>, List<AnnotationInfo>> cache = new ConcurrentHashMap<Class<?>, List<AnnotationInfo>>();
 
+    /**
+     * Method annotation info cache, grouped by Restlet method for each
+     * resource class.
+     */
+    private static final ConcurrentMap<Class<?>, Map<Method, List<MethodAnnotationInfo>>> methodCache = new ConcurrentHashMap<Class<?>, Map<Method, List<MethodAnnotationInfo>>>();
+
     /** Current instance. */
     private static AnnotationUtils instance = new AnnotationUtils();
 
@@ -216,6 +226,7 @@ public class AnnotationUtils {
      */
     public void clearCache() {
         cache.clear();
+        methodCache.clear();
     }
 
     /**
@@ -225,7 +236,7 @@ public class AnnotationUtils {
      *            The resource class to introspect.
      * @return The list of annotation descriptors.
      */
-    public synchronized List<AnnotationInfo> getAnnotations(Class<?> clazz) {
+    public List<AnnotationInfo> getAnnotations(Class<?> clazz) {
         List<AnnotationInfo> result = cache.get(clazz);
 
         if (result == null) {
@@ -256,6 +267,79 @@ public class AnnotationUtils {
         return addMethodAnnotationDescriptors(null, clazz, clazz, javaMethod);
     }
 
+    /**
+     * Returns the method annotation descriptors for the given resource class,
+     * grouped by Restlet method in an immutable dispatch table. The table is
+     * computed once per class and cached.
+     *
+     * @param clazz
+     *            The resource class to introspect.
+     * @return The method annotation descriptors grouped by Restlet method.
+     */
+    public Map<Method, List<MethodAnnotationInfo>> getMethodAnnotations(
+            Class<?> clazz) {
+        Map<Method, List<MethodAnnotationInfo>> result = methodCache.get(clazz);
+
+        if (result == null) {
+            Map<Method, List<MethodAnnotationInfo>> methods = new LinkedHashMap<Method, List<MethodAnnotationInfo>>();
+            List<AnnotationInfo> annotations = getAnnotations(clazz);
+
+            if (annotations != null) {
+                for (AnnotationInfo annotationInfo : annotations) {
+                    if (annotationInfo instanceof MethodAnnotationInfo) {
+                        MethodAnnotationInfo methodAnnotationInfo = (MethodAnnotationInfo) annotationInfo;
+                        List<MethodAnnotationInfo> list = methods
+                                .get(methodAnnotationInfo.getRestletMethod());
+
+                        if (list == null) {
+                            list = new ArrayList<MethodAnnotationInfo>();
+                            methods.put(methodAnnotationInfo.getRestletMethod(),
+                                    list);
+                        }
+
+                        list.add(methodAnnotationInfo);
+                    }
+                }
+            }
+
+            for (Map.Entry<Method, List<MethodAnnotationInfo>> entry : methods
+                    .entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+
+            result = Collections.unmodifiableMap(methods);
+
+            // Put the table in the cache if no one was previously present
+            Map<Method, List<MethodAnnotationInfo>> prev = methodCache
+                    .putIfAbsent(clazz, result);
+
+            if (prev != null) {
+                // Reuse the previous entry
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the method annotation descriptors for the given resource class
+     * and Restlet method.
+     *
+     * @param clazz
+     *            The resource class to introspect.
+     * @param restletMethod
+     *            The Restlet method to match.
+     * @return The method annotation descriptors, possibly empty.
+     */
+    public List<MethodAnnotationInfo> getMethodAnnotations(Class<?> clazz,
+            Method restletMethod) {
+        List<MethodAnnotationInfo> result = getMethodAnnotations(clazz).get(
+                restletMethod);
+        return (result == null) ? Collections
+                .<MethodAnnotationInfo> emptyList() : result;
+    }
+
     /**
      * Returns the first annotation descriptor matching the given Java method.
      *
@@ -300,8 +384,8 @@ public class AnnotationUtils {
      * @throws IOException
      */
     public MethodAnnotationInfo getMethodAnnotation(
-            List<AnnotationInfo> annotations, Method restletMethod, Form query,
-            Representation entity, MetadataService metadataService,
+            List<? extends AnnotationInfo> annotations, Method restletMethod,
+            Form query, Representation entity, MetadataService metadataService,
             org.restlet.service.ConverterService converterService)
             throws IOException {
         if (annotations != null) {
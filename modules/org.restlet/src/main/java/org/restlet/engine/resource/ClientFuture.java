@@ -0,0 +1,264 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.resource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+import org.restlet.Application;
+import org.restlet.Context;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Status;
+import org.restlet.engine.Engine;
+import org.restlet.engine.adapter.ClientCall;
+import org.restlet.engine.log.LoggingThreadFactory;
+import org.restlet.resource.ResourceException;
+import org.restlet.routing.VirtualHost;
+
+// [excludes gwt]
+/**
+ * Future completed by an asynchronous client call. Cancelling the future or
+ * reaching its timeout aborts the underlying call when the connector supports
+ * it, that is when it registered a {@link ClientCall} under the
+ * {@link ClientCall#ATTRIBUTE_CALL} request attribute (connectors based on the
+ * {@link org.restlet.engine.adapter.ClientAdapter} like the default HTTP
+ * client) or an abort handler under the {@link #ATTRIBUTE_ABORT_HANDLER}
+ * request attribute (like the NIO client connectors). With other connectors,
+ * the future still completes but the call runs to its end.<br>
+ * <br>
+ * Calls sent via connectors that aren't truly non-blocking are dispatched to
+ * an executor, by default a shared and bounded pool of daemon threads, one
+ * thread being consumed by each call until it completes. Calls exceeding the
+ * size of the pool wait for a thread to be available.
+ * 
+ * @param <T>
+ *            The type of the response entity object.
+ */
+public class ClientFuture<T> extends CompletableFuture<T> {
+
+    /**
+     * Name of the request attribute set to {@link Boolean#TRUE} once the call
+     * has been aborted, preventing any further retry or redirection.
+     */
+    public static final String ATTRIBUTE_ABORTED = "org.restlet.engine.resource.aborted";
+
+    /**
+     * Name of the request attribute holding the {@link BooleanSupplier} that
+     * client connectors can register to abort the call they are sending. It
+     * returns true if the call was aborted.
+     */
+    public static final String ATTRIBUTE_ABORT_HANDLER = "org.restlet.engine.resource.abortHandler";
+
+    /**
+     * The maximum number of threads of the shared pool running calls via
+     * blocking connectors.
+     */
+    public static final int MAX_DISPATCHER_THREADS = 32;
+
+    /** Lazily creates the shared executors. */
+    private static class SharedExecutors {
+        /** The pool of threads running calls via blocking connectors. */
+        private static final ThreadPoolExecutor DISPATCHER = new ThreadPoolExecutor(
+                MAX_DISPATCHER_THREADS, MAX_DISPATCHER_THREADS, 60L,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new LoggingThreadFactory(Context.getCurrentLogger(), true));
+
+        static {
+            // Idle threads don't stay alive
+            DISPATCHER.allowCoreThreadTimeOut(true);
+        }
+
+        /** The thread scheduling timeouts. */
+        private static final ScheduledExecutorService TIMER = Executors
+                .newSingleThreadScheduledExecutor(new LoggingThreadFactory(
+                        Context.getCurrentLogger(), true));
+    }
+
+    /** The request sent. */
+    private final Request request;
+
+    /**
+     * Constructor.
+     * 
+     * @param request
+     *            The request sent.
+     */
+    public ClientFuture(Request request) {
+        this.request = request;
+    }
+
+    /**
+     * Aborts the underlying client call, if any, via the {@link ClientCall} or
+     * the abort handler registered in the request attributes. Connectors that
+     * haven't yet registered them are expected to check the
+     * {@link #ATTRIBUTE_ABORTED} attribute before sending the call.
+     * 
+     * @return True if the call was aborted.
+     */
+    public boolean abort() {
+        getRequest().getAttributes().put(ATTRIBUTE_ABORTED, Boolean.TRUE);
+        Object call = getRequest().getAttributes().get(
+                ClientCall.ATTRIBUTE_CALL);
+        Object abortHandler = getRequest().getAttributes().get(
+                ATTRIBUTE_ABORT_HANDLER);
+        boolean result = false;
+
+        if (call instanceof ClientCall) {
+            result = ((ClientCall) call).abort();
+        }
+
+        if (abortHandler instanceof BooleanSupplier) {
+            result = ((BooleanSupplier) abortHandler).getAsBoolean() || result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Cancels the future and aborts the underlying client call.
+     * 
+     * @param mayInterruptIfRunning
+     *            Ignored as the call isn't interrupted but aborted.
+     * @return True if the future is now cancelled.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean result = super.cancel(mayInterruptIfRunning);
+
+        if (result) {
+            abort();
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs the given task on a thread of the shared pool, unless the future is
+     * already completed. The thread local variables of the calling thread are
+     * copied and the future is completed exceptionally if the task fails.
+     * 
+     * @param task
+     *            The task sending the call and completing the future.
+     */
+    public void dispatch(Runnable task) {
+        dispatch(task, SharedExecutors.DISPATCHER);
+    }
+
+    /**
+     * Runs the given task with the given executor, unless the future is
+     * already completed. The thread local variables of the calling thread are
+     * copied and the future is completed exceptionally if the task fails or
+     * is rejected by the executor.
+     * 
+     * @param task
+     *            The task sending the call and completing the future.
+     * @param executor
+     *            The executor running the task, such as the application's
+     *            {@link org.restlet.service.TaskService}.
+     */
+    public void dispatch(final Runnable task, Executor executor) {
+        // Save the thread local variables
+        final Application currentApplication = Application.getCurrent();
+        final Context currentContext = Context.getCurrent();
+        final Integer currentVirtualHost = VirtualHost.getCurrent();
+        final Response currentResponse = Response.getCurrent();
+
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    if (!isDone()) {
+                        // Copy the thread local variables
+                        Response.setCurrent(currentResponse);
+                        Context.setCurrent(currentContext);
+                        VirtualHost.setCurrent(currentVirtualHost);
+                        Application.setCurrent(currentApplication);
+
+                        try {
+                            task.run();
+                        } catch (Throwable t) {
+                            completeExceptionally(t);
+                        } finally {
+                            Engine.clearThreadLocalVariables();
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Returns the request sent.
+     * 
+     * @return The request sent.
+     */
+    public Request getRequest() {
+        return request;
+    }
+
+    /**
+     * Completes the future exceptionally and aborts the underlying client call
+     * if no response was received within the given delay. The exception is a
+     * {@link ResourceException} with a
+     * {@link Status#CONNECTOR_ERROR_COMMUNICATION} status.
+     * 
+     * @param timeout
+     *            The timeout in milliseconds.
+     */
+    public void setTimeout(final long timeout) {
+        final ScheduledFuture<?> timeoutTask = SharedExecutors.TIMER.schedule(
+                new Runnable() {
+                    public void run() {
+                        if (completeExceptionally(new ResourceException(
+                                new Status(
+                                        Status.CONNECTOR_ERROR_COMMUNICATION,
+                                        "No response received after "
+                                                + timeout + " ms"),
+                                getRequest(), null))) {
+                            abort();
+                        }
+                    }
+                }, timeout, TimeUnit.MILLISECONDS);
+
+        whenComplete(new BiConsumer<T, Throwable>() {
+            public void accept(T value, Throwable throwable) {
+                timeoutTask.cancel(false);
+            }
+        });
+    }
+
+}
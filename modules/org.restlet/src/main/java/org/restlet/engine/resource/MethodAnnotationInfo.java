@@ -26,6 +26,7 @@ package org.restlet.engine.resource;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -39,6 +40,7 @@ import org.restlet.data.MediaType;
 import org.restlet.data.Metadata;
 import org.restlet.data.Method;
 import org.restlet.data.Parameter;
+import org.restlet.engine.util.MethodInvoker;
 import org.restlet.engine.util.StringUtils;
 import org.restlet.engine.util.SystemUtils;
 import org.restlet.representation.Representation;
@@ -54,15 +56,78 @@ import org.restlet.service.MetadataService;
  */
 public class MethodAnnotationInfo extends AnnotationInfo {
 
+    /**
+     * List computed from the annotation value for a given pair of services.
+     * 
+     * @param <T>
+     *            The element type.
+     */
+    private static final class CachedList<T> {
+
+        /** The converter service used, or null. */
+        private final org.restlet.service.ConverterService converterService;
+
+        /** The immutable list, or null. */
+        private final List<T> list;
+
+        /** The metadata service used. */
+        private final MetadataService metadataService;
+
+        private CachedList(MetadataService metadataService,
+                org.restlet.service.ConverterService converterService,
+                List<T> list) {
+            this.metadataService = metadataService;
+            this.converterService = converterService;
+            this.list = (list == null) ? null : Collections
+                    .unmodifiableList(new ArrayList<T>(list));
+        }
+
+        /**
+         * Indicates if the list was computed with the given services.
+         * 
+         * @param metadataService
+         *            The metadata service.
+         * @param converterService
+         *            The converter service.
+         * @return True if the list was computed with the given services.
+         */
+        private boolean matches(MetadataService metadataService,
+                org.restlet.service.ConverterService converterService) {
+            return (this.metadataService == metadataService)
+                    && (this.converterService == converterService);
+        }
+    }
+
     /** The input part of the annotation value. */
     private final String input;
 
+    /** The media types of the input part, cached for the last service. */
+    private volatile CachedList<MediaType> inputMediaTypes;
+
+    /** The resolved input types of the Java method. */
+    private final Class<?>[] javaInputTypes;
+
+    /** The invoker of the Java method, lazily created. */
+    private volatile MethodInvoker javaMethodInvoker;
+
+    /** The resolved output type of the Java method. */
+    private final Class<?> javaOutputType;
+
     /** The output part of the annotation value. */
     private final String output;
 
     /** The optional query part of the annotation value. */
     private final String query;
 
+    /** The parsed query parameters required by the annotation value. */
+    private final Form queryParameters;
+
+    /** The request variants, cached for the last services. */
+    private volatile CachedList<Variant> requestVariants;
+
+    /** The response variants, cached for the last services. */
+    private volatile CachedList<Variant> responseVariants;
+
     /** The matching Restlet method. */
     private final Method restletMethod;
 
@@ -109,6 +174,19 @@ public class MethodAnnotationInfo extends AnnotationInfo {
             this.input = null;
             this.output = null;
         }
+
+        // Resolve once the generic types and the required query parameters
+        int count = javaMethodImpl.getParameterTypes().length;
+        this.javaInputTypes = new Class<?>[count];
+
+        for (int i = 0; i < count; i++) {
+            this.javaInputTypes[i] = getJavaInputType(i);
+        }
+
+        this.javaOutputType = getJavaActualType(javaMethodImpl.getReturnType(),
+                javaMethodImpl.getGenericReturnType());
+        this.queryParameters = (this.query == null) ? null : new Form(
+                this.query);
     }
 
     /**
@@ -142,6 +220,26 @@ public class MethodAnnotationInfo extends AnnotationInfo {
         return input;
     }
 
+    /**
+     * Returns the media types matching the input part of the annotation value.
+     * The list is computed once for a given metadata service, then cached.
+     *
+     * @param metadataService
+     *         The metadata service to use.
+     * @return An immutable list of media types, or null.
+     */
+    public List<MediaType> getInputMediaTypes(MetadataService metadataService) {
+        CachedList<MediaType> cached = this.inputMediaTypes;
+
+        if ((cached == null) || !cached.matches(metadataService, null)) {
+            cached = new CachedList<MediaType>(metadataService, null,
+                    metadataService.getAllMediaTypes(getInput()));
+            this.inputMediaTypes = cached;
+        }
+
+        return cached.list;
+    }
+
     /**
      * Returns the generic type for the given input parameter.
      *
@@ -160,14 +258,24 @@ public class MethodAnnotationInfo extends AnnotationInfo {
      * @return The input types of the Java method.
      */
     public Class<?>[] getJavaInputTypes() {
-        int count = getJavaMethod().getParameterTypes().length;
-        Class<?>[] classes = new Class[count];
+        return javaInputTypes.clone();
+    }
 
-        for (int i = 0; i < count; i++) {
-            classes[i] = getJavaInputType(i);
+    /**
+     * Returns the invoker of the annotated Java method, created on first use.
+     *
+     * @return The invoker of the annotated Java method.
+     */
+    public MethodInvoker getJavaMethodInvoker() {
+        MethodInvoker result = this.javaMethodInvoker;
+
+        if (result == null) {
+            // Concurrent creations are harmless
+            result = new MethodInvoker(getJavaMethod());
+            this.javaMethodInvoker = result;
         }
 
-        return classes;
+        return result;
     }
 
     /**
@@ -176,8 +284,7 @@ public class MethodAnnotationInfo extends AnnotationInfo {
      * @return The output type of the Java method.
      */
     public Class<?> getJavaOutputType() {
-        return getJavaActualType(javaMethodImpl.getReturnType(),
-                javaMethodImpl.getGenericReturnType());
+        return javaOutputType;
     }
 
     /**
@@ -201,16 +308,46 @@ public class MethodAnnotationInfo extends AnnotationInfo {
     // [ifndef gwt] method
 
     /**
-     * Returns a list of request variants based on the annotation value.
+     * Returns a list of request variants based on the annotation value. The
+     * list is computed once for a given pair of services, then cached.
      *
      * @param metadataService
      *         The metadata service to use.
-     * @return A list of request variants.
+     * @param converterService
+     *         The converter service to use.
+     * @return An immutable list of request variants, or null.
      * @throws IOException
      */
     public List<Variant> getRequestVariants(MetadataService metadataService,
             org.restlet.service.ConverterService converterService)
             throws IOException {
+        CachedList<Variant> cached = this.requestVariants;
+
+        if ((cached == null) || !cached.matches(metadataService,
+                converterService)) {
+            cached = new CachedList<Variant>(metadataService,
+                    converterService, computeRequestVariants(metadataService,
+                            converterService));
+            this.requestVariants = cached;
+        }
+
+        return cached.list;
+    }
+
+    /**
+     * Computes the list of request variants based on the annotation value.
+     *
+     * @param metadataService
+     *         The metadata service to use.
+     * @param converterService
+     *         The converter service to use.
+     * @return A list of request variants.
+     * @throws IOException
+     */
+    private List<Variant> computeRequestVariants(
+            MetadataService metadataService,
+            org.restlet.service.ConverterService converterService)
+            throws IOException {
         List<Variant> result = null;
         Class<?>[] classes = getJavaInputTypes();
 
@@ -233,18 +370,46 @@ public class MethodAnnotationInfo extends AnnotationInfo {
     // [ifndef gwt] method
 
     /**
-     * Returns a list of response variants based on the annotation value.
+     * Returns a list of response variants based on the annotation value. The
+     * list is computed once for a given pair of services, then cached.
      *
      * @param metadataService
      *         The metadata service to use.
      * @param converterService
      *         The converter service to use.
-     * @return A list of response variants.
+     * @return An immutable list of response variants, or null.
      * @throws IOException
      */
     public List<Variant> getResponseVariants(MetadataService metadataService,
             org.restlet.service.ConverterService converterService)
             throws IOException {
+        CachedList<Variant> cached = this.responseVariants;
+
+        if ((cached == null) || !cached.matches(metadataService,
+                converterService)) {
+            cached = new CachedList<Variant>(metadataService,
+                    converterService, computeResponseVariants(metadataService,
+                            converterService));
+            this.responseVariants = cached;
+        }
+
+        return cached.list;
+    }
+
+    /**
+     * Computes the list of response variants based on the annotation value.
+     *
+     * @param metadataService
+     *         The metadata service to use.
+     * @param converterService
+     *         The converter service to use.
+     * @return A list of response variants.
+     * @throws IOException
+     */
+    private List<Variant> computeResponseVariants(
+            MetadataService metadataService,
+            org.restlet.service.ConverterService converterService)
+            throws IOException {
         List<Variant> result = null;
 
         if ((getJavaOutputType() != null)
@@ -391,10 +556,8 @@ public class MethodAnnotationInfo extends AnnotationInfo {
         boolean result = true;
 
         // Verify query parameters
-        if (getQuery() != null) {
-            Form requiredParams = new Form(getQuery());
-
-            for (Iterator<Parameter> iter = requiredParams.iterator(); iter
+        if (queryParameters != null) {
+            for (Iterator<Parameter> iter = queryParameters.iterator(); iter
                     .hasNext() && result; ) {
                 result = queryParams.contains(iter.next());
             }
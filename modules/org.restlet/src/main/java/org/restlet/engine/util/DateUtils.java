@@ -75,6 +75,40 @@ public final class DateUtils {
     // [ifdef gwt] member uncomment
     // private static final com.google.gwt.i18n.client.TimeZone TIMEZONE_GMT =
     // com.google.gwt.i18n.client.TimeZone.createTimeZone(0);
+
+    // [ifndef gwt]
+    /**
+     * Date formatted in the default HTTP format, reused for all dates within
+     * the same second.
+     */
+    private static final class CachedDate {
+        /** The number of seconds since the epoch. */
+        private final long seconds;
+
+        /** The formatted date. */
+        private final String value;
+
+        /**
+         * Constructor.
+         * 
+         * @param seconds
+         *            The number of seconds since the epoch.
+         * @param value
+         *            The formatted date.
+         */
+        private CachedDate(long seconds, String value) {
+            this.seconds = seconds;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The most recent date formatted in the default HTTP format, typically the
+     * one of the current "Date" header.
+     */
+    private static volatile CachedDate cachedDate;
+
+    // [enddef]
     /**
      * Compares two date with a precision of one second.
      * 
@@ -90,9 +124,25 @@ public final class DateUtils {
                     "Can't compare the dates, at least one of them is null");
         }
 
-        long baseTime = baseDate.getTime() / 1000;
-        long afterTime = afterDate.getTime() / 1000;
-        return baseTime < afterTime;
+        return after(baseDate.getTime(), afterDate);
+    }
+
+    /**
+     * Compares two date with a precision of one second.
+     * 
+     * @param baseTime
+     *            The base time in milliseconds since the epoch.
+     * @param afterDate
+     *            The date supposed to be after.
+     * @return True if the afterDate is indeed after the baseTime.
+     */
+    public static boolean after(final long baseTime, final Date afterDate) {
+        if (afterDate == null) {
+            throw new IllegalArgumentException(
+                    "Can't compare the dates, at least one of them is null");
+        }
+
+        return (baseTime / 1000) < (afterDate.getTime() / 1000);
     }
 
     /**
@@ -174,6 +224,35 @@ public final class DateUtils {
         }
 
         // [ifndef gwt]
+        int style = getStyle(format);
+
+        if (style == HttpDateCodec.STYLE_RFC_1123) {
+            long seconds = Math.floorDiv(date.getTime(), 1000L);
+            CachedDate cached = cachedDate;
+
+            if ((cached != null) && (cached.seconds == seconds)) {
+                return cached.value;
+            }
+
+            String result = HttpDateCodec.format(date.getTime(), style);
+
+            if ((result != null)
+                    && ((cached == null) || (cached.seconds < seconds))) {
+                // Only keep the most recent date, following the clock
+                cachedDate = new CachedDate(seconds, result);
+            }
+
+            if (result != null) {
+                return result;
+            }
+        } else if (style != -1) {
+            String result = HttpDateCodec.format(date.getTime(), style);
+
+            if (result != null) {
+                return result;
+            }
+        }
+
         java.text.DateFormat formatter = null;
 
         if (FORMAT_RFC_3339.get(0).equals(format)) {
@@ -203,6 +282,27 @@ public final class DateUtils {
         // [enddef]
     }
 
+    // [ifndef gwt] method
+    /**
+     * Returns the {@link HttpDateCodec} style matching a date format.
+     * 
+     * @param format
+     *            The date format.
+     * @return The matching style or -1 if the format isn't handled by the
+     *         codec.
+     */
+    private static int getStyle(String format) {
+        if (FORMAT_RFC_1123.get(0).equals(format)) {
+            return HttpDateCodec.STYLE_RFC_1123;
+        } else if (FORMAT_RFC_1036.get(0).equals(format)) {
+            return HttpDateCodec.STYLE_RFC_1036;
+        } else if (FORMAT_ASC_TIME.get(0).equals(format)) {
+            return HttpDateCodec.STYLE_ASC_TIME;
+        }
+
+        return -1;
+    }
+
     /**
      * Parses a formatted date into a Date object using the default HTTP format
      * (RFC 1123).
@@ -237,6 +337,17 @@ public final class DateUtils {
         for (int i = 0; (result == null) && (i < formatsSize); i++) {
             format = formats.get(i);
             // [ifndef gwt]
+            int style = getStyle(format);
+
+            if (style != -1) {
+                long time = HttpDateCodec.parse(date, style);
+
+                if (time != Long.MIN_VALUE) {
+                    result = new Date(time);
+                    continue;
+                }
+            }
+
             java.text.DateFormat parser = null;
 
             if (FORMAT_RFC_3339.get(0).equals(format)) {
@@ -0,0 +1,479 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.util;
+
+/**
+ * Hand-written codec for the HTTP date formats (RFC 1123, RFC 1036 and ANSI C
+ * asctime()) in the GMT time zone. Contrary to {@link java.text.DateFormat}
+ * instances, no intermediary object is created beside the formatted string.
+ * Dates outside the 1600-9999 years range or strings not strictly following
+ * the expected format are not handled and should be delegated to the
+ * {@link java.text.SimpleDateFormat} class.
+ */
+public final class HttpDateCodec {
+
+    /** The ANSI C asctime() style, "EEE MMM dd HH:mm:ss yyyy". */
+    public static final int STYLE_ASC_TIME = 2;
+
+    /** The RFC 1036 style, "EEEE, dd-MMM-yy HH:mm:ss zzz". */
+    public static final int STYLE_RFC_1036 = 1;
+
+    /** The RFC 1123 style, "EEE, dd MMM yyyy HH:mm:ss zzz". */
+    public static final int STYLE_RFC_1123 = 0;
+
+    /** The number of milliseconds in a day. */
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    /** The month names. */
+    private static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr",
+            "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
+    /** The maximum supported time, the end of year 9999. */
+    private static final long TIME_MAX = 253402300799999L;
+
+    /** The minimum supported time, the beginning of year 1600. */
+    private static final long TIME_MIN = -11676096000000L;
+
+    /** The long week day names, starting with Sunday. */
+    private static final String[] WEEK_DAYS = { "Sunday", "Monday",
+            "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday" };
+
+    /**
+     * Appends a number as two digits.
+     * 
+     * @param chars
+     *            The target characters.
+     * @param index
+     *            The index of the first digit.
+     * @param value
+     *            The number between 0 and 99.
+     * @return The index after the last digit.
+     */
+    private static int append2(char[] chars, int index, int value) {
+        chars[index] = (char) ('0' + value / 10);
+        chars[index + 1] = (char) ('0' + value % 10);
+        return index + 2;
+    }
+
+    /**
+     * Appends a string.
+     * 
+     * @param chars
+     *            The target characters.
+     * @param index
+     *            The index of the first character.
+     * @param value
+     *            The string to append.
+     * @param length
+     *            The number of characters to append.
+     * @return The index after the last character.
+     */
+    private static int append(char[] chars, int index, String value,
+            int length) {
+        value.getChars(0, length, chars, index);
+        return index + length;
+    }
+
+    /**
+     * Returns the number of days since the epoch of a given date in the
+     * proleptic Gregorian calendar.
+     * 
+     * @param year
+     *            The year.
+     * @param month
+     *            The month, from 1 to 12.
+     * @param day
+     *            The day of the month, from 1 to 31.
+     * @return The number of days since the epoch.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = (month <= 2) ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468L;
+    }
+
+    /**
+     * Returns the number of days in a given month.
+     * 
+     * @param year
+     *            The year.
+     * @param month
+     *            The month, from 1 to 12.
+     * @return The number of days in the month.
+     */
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            return ((year % 4 == 0) && ((year % 100 != 0) || (year % 400 == 0))) ? 29
+                    : 28;
+        }
+
+        return ((month == 4) || (month == 6) || (month == 9) || (month == 11)) ? 30
+                : 31;
+    }
+
+    /**
+     * Formats a time according to the given style.
+     * 
+     * @param time
+     *            The number of milliseconds since the epoch.
+     * @param style
+     *            The date style.
+     * @return The formatted date or null if the time is not supported.
+     */
+    public static String format(long time, int style) {
+        if ((time < TIME_MIN) || (time > TIME_MAX)) {
+            return null;
+        }
+
+        long days = Math.floorDiv(time, MILLIS_PER_DAY);
+        int secondOfDay = (int) (Math.floorMod(time, MILLIS_PER_DAY) / 1000);
+        int weekDay = (int) Math.floorMod(days + 4, 7L);
+
+        // Converts the days into a civil date, see
+        // http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719468L;
+        long era = Math.floorDiv(z, 146097L);
+        int doe = (int) (z - era * 146097L);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+        char[] chars = new char[36];
+        int index = 0;
+
+        if (style == STYLE_RFC_1036) {
+            String weekDayName = WEEK_DAYS[weekDay];
+            index = append(chars, index, weekDayName, weekDayName.length());
+            chars[index++] = ',';
+            chars[index++] = ' ';
+            index = append2(chars, index, day);
+            chars[index++] = '-';
+            index = append(chars, index, MONTHS[month - 1], 3);
+            chars[index++] = '-';
+            index = append2(chars, index, year % 100);
+        } else if (style == STYLE_ASC_TIME) {
+            index = append(chars, index, WEEK_DAYS[weekDay], 3);
+            chars[index++] = ' ';
+            index = append(chars, index, MONTHS[month - 1], 3);
+            chars[index++] = ' ';
+            index = append2(chars, index, day);
+        } else {
+            index = append(chars, index, WEEK_DAYS[weekDay], 3);
+            chars[index++] = ',';
+            chars[index++] = ' ';
+            index = append2(chars, index, day);
+            chars[index++] = ' ';
+            index = append(chars, index, MONTHS[month - 1], 3);
+            chars[index++] = ' ';
+            index = append2(chars, index, year / 100);
+            index = append2(chars, index, year % 100);
+        }
+
+        chars[index++] = ' ';
+        index = append2(chars, index, secondOfDay / 3600);
+        chars[index++] = ':';
+        index = append2(chars, index, (secondOfDay / 60) % 60);
+        chars[index++] = ':';
+        index = append2(chars, index, secondOfDay % 60);
+
+        if (style == STYLE_ASC_TIME) {
+            chars[index++] = ' ';
+            index = append2(chars, index, year / 100);
+            index = append2(chars, index, year % 100);
+        } else {
+            index = append(chars, index, " GMT", 4);
+        }
+
+        return new String(chars, 0, index);
+    }
+
+    /**
+     * Indicates if a character is a digit.
+     * 
+     * @param c
+     *            The character to test.
+     * @return True if the character is a digit.
+     */
+    private static boolean isDigit(char c) {
+        return (c >= '0') && (c <= '9');
+    }
+
+    /**
+     * Returns the length of the name matched at the given index, ignoring
+     * case. The full name is preferred to its three letters abbreviation.
+     * 
+     * @param date
+     *            The date string.
+     * @param index
+     *            The index of the name.
+     * @param name
+     *            The full name.
+     * @return The length of the matched name or -1.
+     */
+    private static int matchName(String date, int index, String name) {
+        if (date.regionMatches(true, index, name, 0, name.length())) {
+            return name.length();
+        } else if (date.regionMatches(true, index, name, 0, 3)) {
+            return 3;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Parses a date according to the given style.
+     * 
+     * @param date
+     *            The date string to parse.
+     * @param style
+     *            The date style.
+     * @return The number of milliseconds since the epoch or
+     *         {@link Long#MIN_VALUE} if the string could not be parsed.
+     */
+    public static long parse(String date, int style) {
+        int length = date.length();
+        int index = 0;
+        int matched = -1;
+
+        // Week day, only checked as it is redundant
+        for (int i = 0; (matched == -1) && (i < WEEK_DAYS.length); i++) {
+            matched = matchName(date, index, WEEK_DAYS[i]);
+        }
+
+        if (matched == -1) {
+            return Long.MIN_VALUE;
+        }
+
+        index += matched;
+
+        if (style != STYLE_ASC_TIME) {
+            if ((index >= length) || (date.charAt(index++) != ',')) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        if ((index >= length) || (date.charAt(index++) != ' ')) {
+            return Long.MIN_VALUE;
+        }
+
+        int day = -1;
+        int month = -1;
+
+        if (style == STYLE_ASC_TIME) {
+            month = parseMonth(date, index);
+            index += 3;
+
+            if ((month == -1) || (index >= length)
+                    || (date.charAt(index++) != ' ')) {
+                return Long.MIN_VALUE;
+            }
+
+            if ((index < length) && (date.charAt(index) == ' ')) {
+                // Space padded day
+                index++;
+            }
+        }
+
+        // Day of month, with one or two digits
+        if ((index < length) && isDigit(date.charAt(index))) {
+            day = date.charAt(index++) - '0';
+
+            if ((index < length) && isDigit(date.charAt(index))) {
+                day = day * 10 + (date.charAt(index++) - '0');
+            }
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        if (style != STYLE_ASC_TIME) {
+            char separator = (style == STYLE_RFC_1036) ? '-' : ' ';
+
+            if ((index >= length) || (date.charAt(index++) != separator)) {
+                return Long.MIN_VALUE;
+            }
+
+            month = parseMonth(date, index);
+            index += 3;
+
+            if ((month == -1) || (index >= length)
+                    || (date.charAt(index++) != separator)) {
+                return Long.MIN_VALUE;
+            }
+        } else if ((index >= length) || (date.charAt(index++) != ' ')) {
+            return Long.MIN_VALUE;
+        }
+
+        int year = -1;
+
+        if (style != STYLE_ASC_TIME) {
+            int digits = 0;
+            year = 0;
+
+            while ((index < length) && isDigit(date.charAt(index))
+                    && (digits < 4)) {
+                year = year * 10 + (date.charAt(index++) - '0');
+                digits++;
+            }
+
+            if (digits == 2 && style == STYLE_RFC_1036) {
+                year = resolveYear(year);
+            } else if (digits != 4) {
+                return Long.MIN_VALUE;
+            }
+
+            if ((year < 0) || (index >= length)
+                    || (date.charAt(index++) != ' ')) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        // Time of day
+        if (index + 8 > length) {
+            return Long.MIN_VALUE;
+        }
+
+        int hour = parse2(date, index);
+        int minute = parse2(date, index + 3);
+        int second = parse2(date, index + 6);
+
+        if ((hour < 0) || (hour > 23) || (date.charAt(index + 2) != ':')
+                || (minute < 0) || (minute > 59)
+                || (date.charAt(index + 5) != ':') || (second < 0)
+                || (second > 59)) {
+            return Long.MIN_VALUE;
+        }
+
+        index += 8;
+
+        if ((index >= length) || (date.charAt(index++) != ' ')) {
+            return Long.MIN_VALUE;
+        }
+
+        if (style == STYLE_ASC_TIME) {
+            if ((index + 4 != length) || (parse2(date, index) < 0)
+                    || (parse2(date, index + 2) < 0)) {
+                return Long.MIN_VALUE;
+            }
+
+            year = parse2(date, index) * 100 + parse2(date, index + 2);
+        } else if ((index + 3 != length)
+                || (!date.regionMatches(index, "GMT", 0, 3) && !date
+                        .regionMatches(index, "UTC", 0, 3))) {
+            return Long.MIN_VALUE;
+        }
+
+        if ((year < 1600) || (day < 1) || (day > daysInMonth(year, month))) {
+            return Long.MIN_VALUE;
+        }
+
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                + (hour * 3600 + minute * 60 + second) * 1000L;
+    }
+
+    /**
+     * Parses a two digits number.
+     * 
+     * @param date
+     *            The date string.
+     * @param index
+     *            The index of the first digit.
+     * @return The number parsed or -1.
+     */
+    private static int parse2(String date, int index) {
+        char c1 = date.charAt(index);
+        char c2 = date.charAt(index + 1);
+
+        if (isDigit(c1) && isDigit(c2)) {
+            return (c1 - '0') * 10 + (c2 - '0');
+        }
+
+        return -1;
+    }
+
+    /**
+     * Parses a three letters month name, ignoring case.
+     * 
+     * @param date
+     *            The date string.
+     * @param index
+     *            The index of the month name.
+     * @return The month, from 1 to 12, or -1.
+     */
+    private static int parseMonth(String date, int index) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (date.regionMatches(true, index, MONTHS[i], 0, 3)) {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Resolves a two digits year in the same way as
+     * {@link java.text.SimpleDateFormat}, within the century starting 80
+     * years before the current year.
+     * 
+     * @param year
+     *            The two digits year.
+     * @return The full year or -1 if the year is ambiguous.
+     */
+    private static int resolveYear(int year) {
+        long days = Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_DAY);
+        int currentYear = 1970 + (int) (days / 365.2425);
+
+        if (daysFromCivil(currentYear, 1, 1) > days) {
+            currentYear--;
+        } else if (daysFromCivil(currentYear + 1, 1, 1) <= days) {
+            currentYear++;
+        }
+
+        int startYear = currentYear - 80;
+        int ambiguousYear = startYear % 100;
+
+        if (Math.abs(year - ambiguousYear) <= 1) {
+            // Leaves the boundary cases to the date format
+            return -1;
+        }
+
+        return year + (startYear / 100) * 100
+                + ((year < ambiguousYear) ? 100 : 0);
+    }
+
+    /**
+     * Private constructor to ensure that the class acts as a true utility class
+     * i.e. it isn't instantiable and extensible.
+     */
+    private HttpDateCodec() {
+    }
+
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+// [excludes gwt]
+/**
+ * Invoker of a Java method, based on a method handle created once with a
+ * uniform (target, arguments array) signature. Contrary to
+ * {@link Method#invoke(Object, Object...)}, the invocation can be inlined by
+ * the JIT compiler and doesn't check the access rights on each call.<br>
+ * <br>
+ * When no method handle can be created, for example because the method isn't
+ * accessible, the invoker falls back to reflection so that the same exceptions
+ * are thrown as before. The same goes for the invocations whose target or
+ * arguments need a check or a conversion that the method handle doesn't do, so
+ * that they are reported as {@link IllegalArgumentException} instead of
+ * {@link InvocationTargetException}.
+ */
+public final class MethodInvoker {
+
+    /** Empty arguments array. */
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /** The uniform signature of the method handles. */
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(
+            Object.class, Object.class, Object[].class);
+
+    /**
+     * Creates a method handle taking the target object and the arguments
+     * array.
+     * 
+     * @param method
+     *            The Java method.
+     * @return The method handle or null if the method isn't accessible.
+     */
+    private static MethodHandle createHandle(Method method) {
+        MethodHandle result;
+
+        try {
+            result = MethodHandles.lookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+
+        if (Modifier.isStatic(method.getModifiers())) {
+            result = MethodHandles.dropArguments(result, 0, Object.class);
+        }
+
+        return result.asSpreader(Object[].class,
+                method.getParameterTypes().length).asType(SPREAD_TYPE);
+    }
+
+    /**
+     * The types accepted for the arguments, primitive types being replaced by
+     * their wrapper type.
+     */
+    private final Class<?>[] argumentTypes;
+
+    /** The method handle, or null if reflection must be used. */
+    private final MethodHandle handle;
+
+    /** The Java method. */
+    private final Method method;
+
+    /** The number of parameters of the method. */
+    private final int parameterCount;
+
+    /** Indicates which parameters have a primitive type. */
+    private final boolean[] primitives;
+
+    /** Indicates if the method is static. */
+    private final boolean staticMethod;
+
+    /**
+     * Constructor.
+     * 
+     * @param method
+     *            The Java method to invoke.
+     */
+    public MethodInvoker(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.argumentTypes = new Class<?>[parameterTypes.length];
+        this.method = method;
+        this.parameterCount = parameterTypes.length;
+        this.primitives = new boolean[parameterTypes.length];
+        this.staticMethod = Modifier.isStatic(method.getModifiers());
+        this.handle = createHandle(method);
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            this.primitives[i] = parameterTypes[i].isPrimitive();
+            this.argumentTypes[i] = MethodType.methodType(parameterTypes[i])
+                    .wrap().returnType();
+        }
+    }
+
+    /**
+     * Returns the Java method.
+     * 
+     * @return The Java method.
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Invokes the method on the given target, with the same contract as
+     * {@link Method#invoke(Object, Object...)}.
+     * 
+     * @param target
+     *            The target object, ignored for static methods.
+     * @param arguments
+     *            The arguments, can be null if there are none.
+     * @return The result of the invocation, null for void methods.
+     * @throws IllegalAccessException
+     *             If the method isn't accessible.
+     * @throws IllegalArgumentException
+     *             If the target or the arguments don't match the method.
+     * @throws InvocationTargetException
+     *             If the method throws an exception.
+     */
+    public Object invoke(Object target, Object[] arguments)
+            throws IllegalAccessException, InvocationTargetException {
+        if (this.handle == null) {
+            return this.method.invoke(target, arguments);
+        }
+
+        Object[] args = (arguments == null) ? NO_ARGUMENTS : arguments;
+
+        if (args.length != this.parameterCount) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+
+        if ((target == null) && !this.staticMethod) {
+            throw new NullPointerException("Target object of "
+                    + this.method + " is null");
+        }
+
+        if (!isAcceptable(target, args)) {
+            // Let reflection convert the arguments or report the mismatch
+            return this.method.invoke(target, arguments);
+        }
+
+        try {
+            return (Object) this.handle.invokeExact(target, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Indicates if the target and the arguments can be passed as is to the
+     * method handle. Null values for primitive parameters, values of the wrong
+     * type and values needing a widening conversion aren't accepted.
+     * 
+     * @param target
+     *            The target object.
+     * @param arguments
+     *            The arguments.
+     * @return True if the target and the arguments can be passed as is.
+     */
+    private boolean isAcceptable(Object target, Object[] arguments) {
+        if (!this.staticMethod
+                && !this.method.getDeclaringClass().isInstance(target)) {
+            return false;
+        }
+
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+
+            if ((argument == null) ? this.primitives[i]
+                    : !this.argumentTypes[i].isInstance(argument)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "MethodInvoker [" + method + "]";
+    }
+}
@@ -0,0 +1,321 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.engine.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Reference;
+import org.restlet.routing.Route;
+import org.restlet.routing.TemplateRoute;
+
+// [excludes gwt]
+/**
+ * Compiled index of a list of routes, based on a character trie built over the
+ * literal prefix of each URI template. For a given request, only the routes
+ * whose literal prefix starts the remaining part of the resource reference are
+ * scored, in their original order. Routes whose score can't be predicted from
+ * their template, such as custom {@link Route} subclasses, are always scored.<br>
+ * <br>
+ * The index is an immutable snapshot of the routes, their templates and their
+ * matching query flag at construction time.
+ */
+public final class RouteIndex {
+
+    /** Trie node, indexing the routes whose literal prefix ends here. */
+    private static final class Node {
+
+        /** The child nodes, by next character. */
+        private final Map<Character, Node> children = new HashMap<Character, Node>();
+
+        /** The indexes of the routes whose literal prefix ends here. */
+        private int[] routes = new int[0];
+
+        /**
+         * Adds a route index to this node.
+         * 
+         * @param index
+         *            The route index.
+         */
+        private void add(int index) {
+            int[] newRoutes = new int[this.routes.length + 1];
+            System.arraycopy(this.routes, 0, newRoutes, 0, this.routes.length);
+            newRoutes[this.routes.length] = index;
+            this.routes = newRoutes;
+        }
+    }
+
+    /**
+     * Returns the literal prefix of a URI template pattern, that any string
+     * matched by the template starts with. It stops before the first variable
+     * and before any character followed by a '+' quantifier, the only regex
+     * special character not quoted by the template.
+     * 
+     * @param pattern
+     *            The URI template pattern.
+     * @return The literal prefix.
+     */
+    public static String getLiteralPrefix(String pattern) {
+        if (pattern == null) {
+            return "";
+        }
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char next = pattern.charAt(i);
+
+            if (next == '{') {
+                return pattern.substring(0, i);
+            } else if (next == '+') {
+                return pattern.substring(0, Math.max(0, i - 1));
+            }
+        }
+
+        return pattern;
+    }
+
+    /**
+     * Indicates if the score of a route can be predicted from its template,
+     * that is to say if it is a {@link TemplateRoute} that doesn't override
+     * the {@link TemplateRoute#score(Request, Response)} method.
+     * 
+     * @param route
+     *            The route to test.
+     * @return True if the route can be indexed.
+     */
+    private static boolean isIndexable(Route route) {
+        boolean result = (route instanceof TemplateRoute)
+                && (((TemplateRoute) route).getTemplate() != null);
+
+        if (result) {
+            try {
+                result = (route.getClass()
+                        .getMethod("score", Request.class, Response.class)
+                        .getDeclaringClass() == TemplateRoute.class);
+            } catch (NoSuchMethodException e) {
+                result = false;
+            }
+        }
+
+        return result;
+    }
+
+    /** The trie of routes matching the remaining part without query. */
+    private final Node pathRoot;
+
+    /** The trie of routes matching the remaining part with query. */
+    private final Node queryRoot;
+
+    /** The snapshot of the indexed routes. */
+    private final Route[] routes;
+
+    /** The routes that must always be scored. */
+    private final BitSet unindexed;
+
+    /**
+     * Constructor.
+     * 
+     * @param routes
+     *            The routes to index, in their routing order.
+     */
+    public RouteIndex(List<Route> routes) {
+        List<Route> snapshot = new ArrayList<Route>(routes);
+        this.routes = snapshot.toArray(new Route[snapshot.size()]);
+        this.pathRoot = new Node();
+        this.queryRoot = new Node();
+        this.unindexed = new BitSet(this.routes.length);
+
+        for (int i = 0; i < this.routes.length; i++) {
+            Route route = this.routes[i];
+
+            if (isIndexable(route)) {
+                TemplateRoute templateRoute = (TemplateRoute) route;
+                Node node = templateRoute.isMatchingQuery() ? this.queryRoot
+                        : this.pathRoot;
+                String prefix = getLiteralPrefix(templateRoute.getTemplate()
+                        .getPattern());
+
+                for (int j = 0; j < prefix.length(); j++) {
+                    Character next = Character.valueOf(prefix.charAt(j));
+                    Node child = node.children.get(next);
+
+                    if (child == null) {
+                        child = new Node();
+                        node.children.put(next, child);
+                    }
+
+                    node = child;
+                }
+
+                node.add(i);
+            } else {
+                this.unindexed.set(i);
+            }
+        }
+    }
+
+    /**
+     * Adds to the candidates the routes indexed in a trie whose literal prefix
+     * starts the given remaining part.
+     * 
+     * @param root
+     *            The trie root.
+     * @param remainingPart
+     *            The remaining part of the resource reference.
+     * @param candidates
+     *            The candidates to update.
+     */
+    private void collect(Node root, String remainingPart, BitSet candidates) {
+        Node node = root;
+
+        for (int i = 0; node != null; i++) {
+            for (int index : node.routes) {
+                candidates.set(index);
+            }
+
+            node = (i < remainingPart.length()) ? node.children.get(Character
+                    .valueOf(remainingPart.charAt(i))) : null;
+        }
+    }
+
+    /**
+     * Returns the routes that may score above zero for the given request.
+     * 
+     * @param request
+     *            The request to handle.
+     * @param requiredScore
+     *            The minimum score required to have a match.
+     * @return The candidate route indexes.
+     */
+    private BitSet getCandidates(Request request, float requiredScore) {
+        BitSet result = new BitSet(this.routes.length);
+
+        if (requiredScore <= 0F) {
+            // Even routes scoring zero can be selected
+            result.set(0, this.routes.length);
+        } else {
+            result.or(this.unindexed);
+            Reference resourceRef = (request == null) ? null : request
+                    .getResourceRef();
+
+            if (resourceRef != null) {
+                if (!this.pathRoot.children.isEmpty()
+                        || (this.pathRoot.routes.length > 0)) {
+                    String remainingPart = resourceRef.getRemainingPart(false,
+                            false);
+
+                    if (remainingPart != null) {
+                        collect(this.pathRoot, remainingPart, result);
+                    }
+                }
+
+                if (!this.queryRoot.children.isEmpty()
+                        || (this.queryRoot.routes.length > 0)) {
+                    String remainingPart = resourceRef.getRemainingPart(false,
+                            true);
+
+                    if (remainingPart != null) {
+                        collect(this.queryRoot, remainingPart, result);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the best route match for a given call, with the same semantics
+     * as {@link org.restlet.util.RouteList#getBest(Request, Response, float)}.
+     * 
+     * @param request
+     *            The request to score.
+     * @param response
+     *            The response to score.
+     * @param requiredScore
+     *            The minimum score required to have a match.
+     * @return The best route match or null.
+     */
+    public Route getBest(Request request, Response response, float requiredScore) {
+        Route result = null;
+        float bestScore = 0F;
+        float score;
+        BitSet candidates = getCandidates(request, requiredScore);
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates
+                .nextSetBit(i + 1)) {
+            score = this.routes[i].score(request, response);
+
+            if ((score > bestScore) && (score >= requiredScore)) {
+                bestScore = score;
+                result = this.routes[i];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the first route match for a given call, with the same semantics
+     * as {@link org.restlet.util.RouteList#getFirst(Request, Response, float)}.
+     * 
+     * @param request
+     *            The request to score.
+     * @param response
+     *            The response to score.
+     * @param requiredScore
+     *            The minimum score required to have a match.
+     * @return The first route match or null.
+     */
+    public Route getFirst(Request request, Response response,
+            float requiredScore) {
+        BitSet candidates = getCandidates(request, requiredScore);
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates
+                .nextSetBit(i + 1)) {
+            if (this.routes[i].score(request, response) >= requiredScore) {
+                return this.routes[i];
+            }
+        }
+
+        // No match found
+        return null;
+    }
+
+    /**
+     * Returns the number of indexed routes.
+     * 
+     * @return The number of indexed routes.
+     */
+    public int size() {
+        return this.routes.length;
+    }
+
+}
@@ -27,6 +27,7 @@ package org.restlet.resource;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 import org.restlet.Client;
@@ -128,6 +129,13 @@ public class ClientResource extends Resource {
         return create(null, new Reference(uri), resourceInterface);
     }
 
+    // [ifndef gwt] member
+    /**
+     * The delay in milliseconds after which asynchronous calls fail, 0 for no
+     * timeout.
+     */
+    private volatile long asyncTimeout;
+
     // [ifndef gwt] member
     /** Indicates if redirections should be automatically followed. */
     private volatile boolean followingRedirects;
@@ -189,6 +197,7 @@ public class ClientResource extends Resource {
         this.retryAttempts = resource.getRetryAttempts();
 
         // [ifndef gwt]
+        this.asyncTimeout = resource.getAsyncTimeout();
         this.followingRedirects = resource.isFollowingRedirects();
         this.requestEntityBuffering = resource.isRequestEntityBuffering();
         this.responseEntityBuffering = resource.isResponseEntityBuffering();
@@ -552,6 +561,55 @@ public class ClientResource extends Resource {
         return new Request(getRequest());
     }
 
+    // [ifndef gwt] method
+    /**
+     * Creates a new request by cloning the one wrapped by this class, setting
+     * the method and serializing the object entity using the
+     * {@link org.restlet.service.ConverterService}.
+     * 
+     * @param method
+     *            The request method to use.
+     * @param entity
+     *            The object entity to send or null.
+     * @param resultClass
+     *            The class of the response entity, used to update the client
+     *            preferences if none are set.
+     * @return The new request.
+     * @throws ResourceException
+     */
+    protected Request createRequest(Method method, Object entity,
+            Class<?> resultClass) throws ResourceException {
+        org.restlet.service.ConverterService cs = getConverterService();
+        ClientInfo clientInfo = getClientInfo();
+
+        if (clientInfo.getAcceptedMediaTypes().isEmpty()) {
+            cs.updatePreferences(clientInfo.getAcceptedMediaTypes(),
+                    resultClass);
+        }
+
+        // Prepare the request by cloning the prototype request
+        Request result = createRequest();
+        result.setMethod(method);
+        result.setClientInfo(clientInfo);
+
+        if (entity != null) {
+            List<? extends Variant> entityVariants;
+            try {
+                entityVariants = cs.getVariants(entity.getClass(), null);
+                result.setEntity(toRepresentation(
+                        entity,
+                        getConnegService().getPreferredVariant(entityVariants,
+                                result, getMetadataService())));
+            } catch (IOException e) {
+                throw new ResourceException(e);
+            }
+        } else {
+            result.setEntity(null);
+        }
+
+        return result;
+    }
+
     /**
      * Creates a new response for the given request.
      * 
@@ -610,6 +668,23 @@ public class ClientResource extends Resource {
         return handle(Method.DELETE, mediaType);
     }
 
+    // [ifndef gwt] method
+    /**
+     * Asynchronously deletes the target resource and all its representations.
+     * If a success status is not returned, then the future completes
+     * exceptionally with a resource exception.
+     * 
+     * @param <T>
+     *            The expected type for the response entity.
+     * @param resultClass
+     *            The expected class for the response entity object.
+     * @return The future response entity object.
+     * @see #handleAsync(Method, Object, Class)
+     */
+    public <T> CompletableFuture<T> deleteAsync(Class<T> resultClass) {
+        return handleAsync(Method.DELETE, null, resultClass);
+    }
+
     /**
      * By default, it throws a new resource exception.
      * Call {@link #doError(org.restlet.data.Status, org.restlet.Request, org.restlet.Response)}.
@@ -740,6 +815,34 @@ public class ClientResource extends Resource {
         return handle(Method.GET, mediaType);
     }
 
+    // [ifndef gwt] method
+    /**
+     * Asynchronously represents the resource in the given object class. If a
+     * success status is not returned, then the future completes exceptionally
+     * with a resource exception.
+     * 
+     * @param <T>
+     *            The expected type for the response entity.
+     * @param resultClass
+     *            The expected class for the response entity object.
+     * @return The future response entity object.
+     * @see #handleAsync(Method, Object, Class)
+     */
+    public <T> CompletableFuture<T> getAsync(Class<T> resultClass) {
+        return handleAsync(Method.GET, null, resultClass);
+    }
+
+    // [ifndef gwt] method
+    /**
+     * Returns the delay in milliseconds after which asynchronous calls fail
+     * and are aborted. Zero by default, meaning no timeout.
+     * 
+     * @return The timeout of asynchronous calls in milliseconds.
+     */
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
     /**
      * Returns the attribute value by looking up the given name in the response
      * attributes maps. The toString() method is then invoked on the attribute
@@ -1040,33 +1143,7 @@ public class ClientResource extends Resource {
      */
     protected <T> T handle(Method method, Object entity, Class<T> resultClass)
             throws ResourceException {
-        org.restlet.service.ConverterService cs = getConverterService();
-        ClientInfo clientInfo = getClientInfo();
-
-        if (clientInfo.getAcceptedMediaTypes().isEmpty()) {
-            cs.updatePreferences(clientInfo.getAcceptedMediaTypes(),
-                    resultClass);
-        }
-
-        // Prepare the request by cloning the prototype request
-        Request request = createRequest();
-        request.setMethod(method);
-        request.setClientInfo(clientInfo);
-
-        if (entity != null) {
-            List<? extends Variant> entityVariants;
-            try {
-                entityVariants = cs.getVariants(entity.getClass(), null);
-                request.setEntity(toRepresentation(
-                        entity,
-                        getConnegService().getPreferredVariant(entityVariants,
-                                request, getMetadataService())));
-            } catch (IOException e) {
-                throw new ResourceException(e);
-            }
-        } else {
-            request.setEntity(null);
-        }
+        Request request = createRequest(method, entity, resultClass);
 
         // Actually handle the call
         Response response = handleOutbound(request);
@@ -1158,6 +1235,14 @@ public class ClientResource extends Resource {
             // Actually handle the call
             next.handle(request, response);
 
+            // [ifndef gwt]
+            if (Boolean.TRUE.equals(request.getAttributes().get(
+                    org.restlet.engine.resource.ClientFuture.ATTRIBUTE_ABORTED))) {
+                // The asynchronous call was cancelled or timed out
+                return;
+            }
+            // [enddef]
+
             if (isRetryOnError()
                     && response.getStatus().isRecoverableError()
                     && request.getMethod().isIdempotent()
@@ -1207,6 +1292,104 @@ public class ClientResource extends Resource {
         }
     }
 
+    // [ifndef gwt] method
+    /**
+     * Asynchronously handles an object entity, returning immediately a future
+     * completed with the converted response entity, or exceptionally with the
+     * exception thrown by {@link #doError(Status, Request, Response)} when an
+     * error status is received.<br>
+     * <br>
+     * When the next handler is a truly non-blocking client connector (see
+     * {@link Client#isNonBlocking()}), the request is sent with a callback and
+     * no thread waits for the response. In this case, redirections and
+     * retries aren't handled. Otherwise, the synchronous call is dispatched to
+     * the task service of the application when it is enabled, or to a shared
+     * and bounded pool of threads.<br>
+     * <br>
+     * Cancelling the future, or reaching the timeout set via
+     * {@link #setAsyncTimeout(long)}, aborts the underlying connector call
+     * when supported. As this class isn't thread-safe, the resource shouldn't
+     * be used until the future completes.
+     * 
+     * @param <T>
+     *            The expected type for the response entity.
+     * @param method
+     *            The request method to use.
+     * @param entity
+     *            The object entity to send or null.
+     * @param resultClass
+     *            The class of the response entity.
+     * @return The future response entity object.
+     */
+    protected <T> CompletableFuture<T> handleAsync(Method method,
+            Object entity, final Class<T> resultClass) {
+        final org.restlet.engine.resource.ClientFuture<T> result;
+        final Request request;
+
+        try {
+            request = createRequest(method, entity, resultClass);
+        } catch (ResourceException re) {
+            CompletableFuture<T> failed = new CompletableFuture<T>();
+            failed.completeExceptionally(re);
+            return failed;
+        }
+
+        result = new org.restlet.engine.resource.ClientFuture<T>(request);
+
+        if (getAsyncTimeout() > 0) {
+            result.setTimeout(getAsyncTimeout());
+        }
+
+        // Completes the future once a final response is received
+        final Uniform callback = new Uniform() {
+            public void handle(Request request, Response response) {
+                if (!response.getStatus().isInformational()) {
+                    try {
+                        Representation responseEntity = null;
+
+                        if (response.getStatus().isError()) {
+                            doError(response.getStatus(), request, response);
+                        } else {
+                            responseEntity = response.getEntity();
+                        }
+
+                        result.complete(toObject(responseEntity, resultClass));
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+                }
+            }
+        };
+
+        if (isNextNonBlocking()) {
+            request.setOnResponse(callback);
+            Response response = handleOutbound(request);
+
+            if (response.getStatus().isConnectorError()) {
+                // The request couldn't even be sent
+                callback.handle(request, response);
+            }
+        } else {
+            // Bind the application before leaving the current thread
+            org.restlet.Application application = getApplication();
+            Runnable task = new Runnable() {
+                public void run() {
+                    callback.handle(request, handleOutbound(request));
+                }
+            };
+
+            if ((application != null)
+                    && (application.getTaskService() != null)
+                    && application.getTaskService().isEnabled()) {
+                result.dispatch(task, application.getTaskService());
+            } else {
+                result.dispatch(task);
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Handles the inbound call. Note that only synchronous calls are processed.
      * 
@@ -1321,6 +1504,25 @@ public class ClientResource extends Resource {
         return followingRedirects;
     }
 
+    // [ifndef gwt] method
+    /**
+     * Indicates if the next handler is a truly non-blocking client connector,
+     * possibly wrapped by the default template dispatcher.
+     * 
+     * @return True if the next handler is a truly non-blocking connector.
+     * @see Client#isNonBlocking()
+     */
+    protected boolean isNextNonBlocking() {
+        Uniform next = getNext();
+
+        if (next instanceof org.restlet.engine.util.TemplateDispatcher) {
+            next = ((org.restlet.engine.util.TemplateDispatcher) next)
+                    .getNext();
+        }
+
+        return (next instanceof Client) && ((Client) next).isNonBlocking();
+    }
+
     // [ifndef gwt] method
     /**
      * Indicates if transient or unknown size response entities should be
@@ -1562,6 +1764,26 @@ public class ClientResource extends Resource {
         return handle(Method.POST, entity);
     }
 
+    // [ifndef gwt] method
+    /**
+     * Asynchronously posts an object entity. If a success status is not
+     * returned, then the future completes exceptionally with a resource
+     * exception.
+     * 
+     * @param <T>
+     *            The expected type for the response entity.
+     * @param entity
+     *            The object entity to post.
+     * @param resultClass
+     *            The class of the response entity.
+     * @return The future response entity object.
+     * @see #handleAsync(Method, Object, Class)
+     */
+    public <T> CompletableFuture<T> postAsync(Object entity,
+            Class<T> resultClass) {
+        return handleAsync(Method.POST, entity, resultClass);
+    }
+
     /**
      * Puts an object entity. Automatically serializes the object using the
      * {@link org.restlet.service.ConverterService}.
@@ -1642,6 +1864,26 @@ public class ClientResource extends Resource {
         return handle(Method.PUT, entity);
     }
 
+    // [ifndef gwt] method
+    /**
+     * Asynchronously puts an object entity. If a success status is not
+     * returned, then the future completes exceptionally with a resource
+     * exception.
+     * 
+     * @param <T>
+     *            The expected type for the response entity.
+     * @param entity
+     *            The object entity to put.
+     * @param resultClass
+     *            The class of the response entity.
+     * @return The future response entity object.
+     * @see #handleAsync(Method, Object, Class)
+     */
+    public <T> CompletableFuture<T> putAsync(Object entity,
+            Class<T> resultClass) {
+        return handleAsync(Method.PUT, entity, resultClass);
+    }
+
     /**
      * Effectively redirects a client call. By default, it checks for infinite
      * loops and unavailable entities, the references list is updated and the
@@ -1739,6 +1981,18 @@ public class ClientResource extends Resource {
         handle(request, response, references, ++retryAttempt, next);
     }
 
+    // [ifndef gwt] method
+    /**
+     * Sets the delay in milliseconds after which asynchronous calls fail and
+     * are aborted. Zero means no timeout.
+     * 
+     * @param asyncTimeout
+     *            The timeout of asynchronous calls in milliseconds.
+     */
+    public void setAsyncTimeout(long asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
     /**
      * Sets the request attribute value.
      * 
@@ -25,6 +25,10 @@
 package org.restlet.resource;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,6 +52,11 @@ import org.restlet.data.Status;
  * Once the call is handled, the {@link ServerResource#release()} method is
  * invoked to permit clean-up actions.<br>
  * <br>
+ * The default constructors of the target classes are looked up once and then
+ * cached. Alternatively, a resource factory can be set via the
+ * {@link #setResourceFactory(Function)} method, for example to obtain the
+ * resources from a dependency injection container.<br>
+ * <br>
  * Concurrency note: instances of this class or its subclasses can be invoked by
  * several threads at the same time and therefore must be thread-safe. You
  * should be especially careful when storing state in member variables.
@@ -55,6 +64,10 @@ import org.restlet.data.Status;
  * @author Jerome Louvel
  */
 public class Finder extends Restlet {
+
+    /** The default constructors of the target classes. */
+    private static final ConcurrentMap<Class<?>, Constructor<?>> constructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
     /**
      * Creates a new finder instance based on the "targetClass" property.
      * 
@@ -92,6 +105,37 @@ public class Finder extends Restlet {
         return result;
     }
 
+    /**
+     * Returns the default constructor of a given class. It is looked up once
+     * and then cached.
+     * 
+     * @param targetClass
+     *            The target class.
+     * @return The default constructor of the target class.
+     * @throws NoSuchMethodException
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> getConstructor(Class<T> targetClass)
+            throws NoSuchMethodException {
+        Constructor<T> result = (Constructor<T>) constructors.get(targetClass);
+
+        if (result == null) {
+            result = targetClass.getConstructor();
+            Constructor<T> prev = (Constructor<T>) constructors.putIfAbsent(
+                    targetClass, result);
+
+            if (prev != null) {
+                // Reuse previous constructor
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
+    /** The optional factory of target resources. */
+    private volatile Function<Class<? extends ServerResource>, ? extends ServerResource> resourceFactory;
+
     /** Target {@link ServerResource} subclass. */
     private volatile Class<? extends ServerResource> targetClass;
 
@@ -127,10 +171,11 @@ public class Finder extends Restlet {
     }
 
     /**
-     * Creates a new instance of a given {@link ServerResource} subclass. Note
-     * that {@link Error} and {@link RuntimeException} thrown by
-     * {@link ServerResource} constructors are re-thrown by this method. Other
-     * exception are caught and logged.
+     * Creates a new instance of a given {@link ServerResource} subclass. If a
+     * resource factory is set, it is used, otherwise the cached default
+     * constructor of the subclass is invoked. Note that {@link Error} thrown
+     * by {@link ServerResource} constructors are re-thrown by this method.
+     * Other exception are caught and logged.
      * 
      * @param request
      *            The request to handle.
@@ -143,9 +188,24 @@ public class Finder extends Restlet {
         ServerResource result = null;
 
         if (targetClass != null) {
+            Function<Class<? extends ServerResource>, ? extends ServerResource> factory = getResourceFactory();
+
             try {
-                // Invoke the default constructor
-                result = targetClass.newInstance();
+                if (factory != null) {
+                    result = factory.apply(targetClass);
+                } else {
+                    // Invoke the default constructor
+                    result = getConstructor(targetClass).newInstance();
+                }
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+
+                getLogger()
+                        .log(Level.WARNING,
+                                "Exception while instantiating the target server resource.",
+                                e.getCause());
             } catch (Exception e) {
                 getLogger()
                         .log(Level.WARNING,
@@ -193,6 +253,17 @@ public class Finder extends Restlet {
         return create(request, response);
     }
 
+    /**
+     * Returns the optional factory of target resources. When set, it is
+     * invoked by {@link #create(Class, Request, Response)} with the target
+     * class instead of the default constructor.
+     * 
+     * @return The optional factory of target resources.
+     */
+    public Function<Class<? extends ServerResource>, ? extends ServerResource> getResourceFactory() {
+        return this.resourceFactory;
+    }
+
     /**
      * Returns the target resource class which must be either a subclass of
      * {@link ServerResource}.
@@ -245,6 +316,19 @@ public class Finder extends Restlet {
         }
     }
 
+    /**
+     * Sets the optional factory of target resources. It allows the creation of
+     * resources by generated code or by a dependency injection container,
+     * instead of the default constructor of the target class.
+     * 
+     * @param resourceFactory
+     *            The optional factory of target resources.
+     */
+    public void setResourceFactory(
+            Function<Class<? extends ServerResource>, ? extends ServerResource> resourceFactory) {
+        this.resourceFactory = resourceFactory;
+    }
+
     /**
      * Sets the target resource class which must be a subclass of
      * {@link ServerResource}.
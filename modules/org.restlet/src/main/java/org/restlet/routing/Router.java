@@ -124,6 +124,13 @@ public class Router extends Restlet {
      */
     public static final int MODE_RANDOM_MATCH = 5;
 
+    // [ifndef gwt] member
+    /**
+     * Indicates if the first and best match modes rely on the compiled index
+     * of the routes.
+     */
+    private volatile boolean compiledRouting;
+
     /** The default matching mode to use when selecting routes based on URIs. */
     private volatile int defaultMatchingMode;
 
@@ -173,6 +180,8 @@ public class Router extends Restlet {
     public Router(Context context) {
         super(context);
         this.routes = new RouteList();
+        // [ifndef gwt] instruction
+        this.compiledRouting = false;
         this.defaultMatchingMode = Template.MODE_EQUALS;
         this.defaultMatchingQuery = false;
         this.defaultRoute = null;
@@ -534,11 +543,25 @@ public class Router extends Restlet {
                 // Select the routing mode
                 switch (getRoutingMode()) {
                 case MODE_BEST_MATCH:
+                    // [ifndef gwt]
+                    if (isCompiledRouting()) {
+                        result = getRoutes().getIndex().getBest(request,
+                                response, getRequiredScore());
+                        break;
+                    }
+                    // [enddef]
                     result = getRoutes().getBest(request, response,
                             getRequiredScore());
                     break;
 
                 case MODE_FIRST_MATCH:
+                    // [ifndef gwt]
+                    if (isCompiledRouting()) {
+                        result = getRoutes().getIndex().getFirst(request,
+                                response, getRequiredScore());
+                        break;
+                    }
+                    // [enddef]
                     result = getRoutes().getFirst(request, response,
                             getRequiredScore());
                     break;
@@ -644,6 +667,20 @@ public class Router extends Restlet {
         }
     }
 
+    // [ifndef gwt] method
+    /**
+     * Indicates if the {@link #MODE_FIRST_MATCH} and {@link #MODE_BEST_MATCH}
+     * routing modes rely on the compiled index of the routes, returned by
+     * {@link RouteList#getIndex()}. In this case, only the routes whose URI
+     * template starts with a literal prefix of the remaining part of the
+     * resource reference are scored. By default, it returns false.
+     * 
+     * @return True if the compiled index of the routes is used.
+     */
+    public boolean isCompiledRouting() {
+        return this.compiledRouting;
+    }
+
     /**
      * Logs the route selected.
      * 
@@ -716,6 +753,22 @@ public class Router extends Restlet {
                 Redirector.MODE_CLIENT_TEMPORARY));
     }
 
+    // [ifndef gwt] method
+    /**
+     * Indicates if the {@link #MODE_FIRST_MATCH} and {@link #MODE_BEST_MATCH}
+     * routing modes rely on the compiled index of the routes. The selected
+     * routes are the same as with the default linear scoring. Note that the
+     * index is rebuilt when the list of routes or the template of a route is
+     * replaced, but not when the pattern of an attached template is updated;
+     * call {@link RouteList#invalidateIndex()} in this case.
+     * 
+     * @param compiledRouting
+     *            True if the compiled index of the routes should be used.
+     */
+    public void setCompiledRouting(boolean compiledRouting) {
+        this.compiledRouting = compiledRouting;
+    }
+
     /**
      * Sets the default matching mode to use when selecting routes based on
      * URIs. By default it is set to {@link Template#MODE_EQUALS}.
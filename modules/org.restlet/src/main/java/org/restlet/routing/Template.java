@@ -66,6 +66,288 @@ public class Template {
     /** Mode where characters at the beginning must match the template. */
     public static final int MODE_STARTS_WITH = 1;
 
+    /**
+     * Indicates if simple templates are matched without regular expressions.
+     * Default value provided by system property
+     * "org.restlet.routing.Template.simpleMatching", true by default.
+     */
+    private static final boolean SIMPLE_MATCHING = Boolean.parseBoolean(System
+            .getProperty("org.restlet.routing.Template.simpleMatching", "true"));
+
+    /**
+     * Matcher for simple templates, made of literal parts and
+     * {@link Variable#TYPE_URI_SEGMENT} variables, each followed by the end of
+     * the pattern or by a literal part starting with a character that can't be
+     * part of a segment, such as '/'. As the end of each variable is then
+     * unambiguous, the formatted string is scanned once without backtracking,
+     * with the same result as the equivalent regular expression.
+     */
+    private static final class SimpleMatcher {
+
+        /** Sentinel indicating that a template isn't simple. */
+        private static final SimpleMatcher NONE = new SimpleMatcher(null,
+                null, null);
+
+        /**
+         * Compiles a template into a simple matcher if possible.
+         * 
+         * @param template
+         *            The template to compile.
+         * @return The simple matcher or {@link #NONE} if the template isn't
+         *         simple.
+         */
+        private static SimpleMatcher compile(Template template) {
+            String pattern = template.getPattern();
+
+            if (pattern == null) {
+                return NONE;
+            }
+
+            List<String> literals = new ArrayList<String>();
+            List<String> names = new ArrayList<String>();
+            List<Variable> variables = new ArrayList<Variable>();
+            StringBuilder buffer = new StringBuilder();
+            boolean inVariable = false;
+            char next;
+
+            for (int i = 0; i < pattern.length(); i++) {
+                next = pattern.charAt(i);
+
+                if (inVariable) {
+                    if (Reference.isUnreserved(next)) {
+                        // Append to the variable name
+                        buffer.append(next);
+                    } else if (next == '}') {
+                        String name = buffer.toString();
+                        Variable variable = template.getVariables().get(name);
+
+                        if (variable == null) {
+                            variable = template.getDefaultVariable();
+                        }
+
+                        if (name.isEmpty() || names.contains(name)
+                                || variable.isFixed()
+                                || (variable.getType() != Variable.TYPE_URI_SEGMENT)) {
+                            return NONE;
+                        }
+
+                        names.add(name);
+                        variables.add(variable);
+                        buffer = new StringBuilder();
+                        inVariable = false;
+                    } else {
+                        return NONE;
+                    }
+                } else if (next == '{') {
+                    if (!isLiteralFollowing(names, buffer)
+                            || (!names.isEmpty() && (buffer.length() == 0))) {
+                        return NONE;
+                    }
+
+                    literals.add(buffer.toString());
+                    buffer = new StringBuilder();
+                    inVariable = true;
+                } else if ((next == '}') || (next == '+')) {
+                    // '+' isn't quoted in the regular expression
+                    return NONE;
+                } else {
+                    buffer.append(next);
+                }
+            }
+
+            if (inVariable || !isLiteralFollowing(names, buffer)) {
+                return NONE;
+            }
+
+            literals.add(buffer.toString());
+            return new SimpleMatcher(
+                    literals.toArray(new String[literals.size()]),
+                    names.toArray(new String[names.size()]),
+                    variables.toArray(new Variable[variables.size()]));
+        }
+
+        /**
+         * Indicates if the given character can start a literal part following
+         * a variable, i.e. it can't be part of an URI segment.
+         * 
+         * @param character
+         *            The character to test.
+         * @return True if the character can follow a variable.
+         */
+        private static boolean isDelimiter(char character) {
+            return !Reference.isUnreserved(character)
+                    && !Reference.isSubDelimiter(character)
+                    && (character != ':') && (character != '@')
+                    && (character != '%');
+        }
+
+        /**
+         * Indicates if a literal part can follow the last parsed variable, if
+         * any, without ambiguity on the end of the variable value.
+         * 
+         * @param names
+         *            The names of the variables parsed so far.
+         * @param literal
+         *            The literal part.
+         * @return True if the literal part can follow the last variable.
+         */
+        private static boolean isLiteralFollowing(List<String> names,
+                CharSequence literal) {
+            return names.isEmpty() || (literal.length() == 0)
+                    || isDelimiter(literal.charAt(0));
+        }
+
+        /**
+         * Indicates if the given character is an hexadecimal digit.
+         * 
+         * @param character
+         *            The character to test.
+         * @return True if the character is an hexadecimal digit.
+         */
+        private static boolean isHexa(char character) {
+            return ((character >= '0') && (character <= '9'))
+                    || ((character >= 'A') && (character <= 'F'))
+                    || ((character >= 'a') && (character <= 'f'));
+        }
+
+        /**
+         * The literal parts, the first one preceding the first variable and
+         * the other ones following each variable.
+         */
+        private final String[] literals;
+
+        /** The variable names. */
+        private final String[] names;
+
+        /** The variable descriptors. */
+        private final Variable[] variables;
+
+        /**
+         * Constructor.
+         * 
+         * @param literals
+         *            The literal parts.
+         * @param names
+         *            The variable names.
+         * @param variables
+         *            The variable descriptors.
+         */
+        private SimpleMatcher(String[] literals, String[] names,
+                Variable[] variables) {
+            this.literals = literals;
+            this.names = names;
+            this.variables = variables;
+        }
+
+        /**
+         * Matches a formatted string.
+         * 
+         * @param formatted
+         *            The formatted string.
+         * @param matchingMode
+         *            The matching mode.
+         * @param bounds
+         *            The start and end indexes of each variable value to
+         *            update, or null.
+         * @return The number of matched characters or -1 if the match failed.
+         */
+        private int match(CharSequence formatted, int matchingMode,
+                int[] bounds) {
+            int index = startsWith(formatted, 0, this.literals[0]);
+
+            for (int i = 0; (index != -1) && (i < this.variables.length); i++) {
+                int start = index;
+                index = scanSegment(formatted, index);
+
+                if (this.variables[i].isRequired() && (index == start)) {
+                    index = -1;
+                } else {
+                    if (bounds != null) {
+                        bounds[2 * i] = start;
+                        bounds[2 * i + 1] = index;
+                    }
+
+                    index = startsWith(formatted, index, this.literals[i + 1]);
+                }
+            }
+
+            if ((matchingMode == MODE_EQUALS)
+                    && (index != formatted.length())) {
+                index = -1;
+            } else if ((matchingMode != MODE_EQUALS)
+                    && (matchingMode != MODE_STARTS_WITH)) {
+                index = -1;
+            }
+
+            return index;
+        }
+
+        /**
+         * Returns the index following the longest URI segment starting at the
+         * given index. Percent-encoded characters must be complete.
+         * 
+         * @param formatted
+         *            The formatted string.
+         * @param index
+         *            The start index.
+         * @return The end index of the segment.
+         */
+        private int scanSegment(CharSequence formatted, int index) {
+            int length = formatted.length();
+            boolean scanning = true;
+
+            while (scanning && (index < length)) {
+                char next = formatted.charAt(index);
+
+                if (next == '%') {
+                    scanning = (index + 2 < length)
+                            && isHexa(formatted.charAt(index + 1))
+                            && isHexa(formatted.charAt(index + 2));
+
+                    if (scanning) {
+                        index += 3;
+                    }
+                } else {
+                    scanning = !isDelimiter(next);
+
+                    if (scanning) {
+                        index++;
+                    }
+                }
+            }
+
+            return index;
+        }
+
+        /**
+         * Indicates if the formatted string contains a literal part at a given
+         * index.
+         * 
+         * @param formatted
+         *            The formatted string.
+         * @param index
+         *            The start index.
+         * @param literal
+         *            The literal part.
+         * @return The index following the literal part or -1 if it didn't
+         *         match.
+         */
+        private int startsWith(CharSequence formatted, int index,
+                String literal) {
+            if (index + literal.length() > formatted.length()) {
+                return -1;
+            }
+
+            for (int i = 0; i < literal.length(); i++) {
+                if (formatted.charAt(index + i) != literal.charAt(i)) {
+                    return -1;
+                }
+            }
+
+            return index + literal.length();
+        }
+    }
+
     /**
      * Appends to a pattern a repeating group of a given content based on a
      * class of characters.
@@ -249,6 +531,9 @@ public class Template {
     /** The internal Regex pattern. */
     private volatile Pattern regexPattern;
 
+    /** The internal simple matcher, used instead of the Regex pattern. */
+    private volatile SimpleMatcher simpleMatcher;
+
     /** The sequence of Regex variable names as found in the pattern string. */
     private volatile List<String> regexVariables;
 
@@ -332,6 +617,7 @@ public class Template {
         this.matchingMode = matchingMode;
         this.variables = new ConcurrentHashMap<String, Variable>();
         this.regexPattern = null;
+        this.simpleMatcher = null;
         this.encodingVariables = encodingVariables;
     }
 
@@ -588,6 +874,24 @@ public class Template {
         return rv;
     }
 
+    /**
+     * Compiles the URI pattern into a simple matcher if possible.
+     * 
+     * @return The simple matcher or {@link SimpleMatcher#NONE}.
+     */
+    private SimpleMatcher getSimpleMatcher() {
+        if (this.simpleMatcher == null) {
+            synchronized (this) {
+                if (this.simpleMatcher == null) {
+                    this.simpleMatcher = SIMPLE_MATCHING ? SimpleMatcher
+                            .compile(this) : SimpleMatcher.NONE;
+                }
+            }
+        }
+
+        return this.simpleMatcher;
+    }
+
     /**
      * Returns the list of variable names in the template.
      * 
@@ -672,6 +976,12 @@ public class Template {
      */
     public int match(String formattedString) {
         int result = -1;
+        SimpleMatcher simpleMatcher = getSimpleMatcher();
+
+        if (simpleMatcher != SimpleMatcher.NONE) {
+            return (formattedString == null) ? result : simpleMatcher.match(
+                    formattedString, getMatchingMode(), null);
+        }
 
         try {
             if (formattedString != null) {
@@ -731,8 +1041,34 @@ public class Template {
     public int parse(String formattedString, Map<String, Object> variables,
             boolean loggable) {
         int result = -1;
+        SimpleMatcher simpleMatcher = getSimpleMatcher();
+
+        if ((formattedString != null) && (simpleMatcher != SimpleMatcher.NONE)) {
+            int[] bounds = new int[2 * simpleMatcher.names.length];
+            result = simpleMatcher.match(formattedString, getMatchingMode(),
+                    bounds);
+
+            for (int i = 0; (result != -1) && (i < simpleMatcher.names.length); i++) {
+                String attributeName = simpleMatcher.names[i];
+                String attributeValue = formattedString.substring(
+                        bounds[2 * i], bounds[2 * i + 1]);
+
+                Variable var = getVariables().get(attributeName);
 
-        if (formattedString != null) {
+                if ((var != null) && var.isDecodingOnParse()) {
+                    attributeValue = Reference.decode(attributeValue);
+                }
+
+                if (loggable) {
+                    getLogger().fine(
+                            "Template variable \"" + attributeName
+                                    + "\" matched with value \""
+                                    + attributeValue + "\"");
+                }
+
+                variables.put(attributeName, attributeValue);
+            }
+        } else if (formattedString != null) {
             try {
                 Matcher matcher = getRegexPattern().matcher(formattedString);
                 boolean matched = ((getMatchingMode() == MODE_EQUALS) && matcher
@@ -892,6 +1228,7 @@ public class Template {
     public void setPattern(String pattern) {
         this.pattern = pattern;
         this.regexPattern = null;
+        this.simpleMatcher = null;
     }
 
     /**
@@ -201,6 +201,16 @@ public class TemplateRoute extends Route {
         return this.template;
     }
 
+    /**
+     * Discards the compiled index of the parent router's routes, as it depends
+     * on the template and query matching of this route.
+     */
+    private void invalidateIndex() {
+        if ((getRouter() != null) && (getRouter().getRoutes() != null)) {
+            getRouter().getRoutes().invalidateIndex();
+        }
+    }
+
     /**
      * Indicates whether the query part should be taken into account when
      * matching a reference with the template.
@@ -275,6 +285,7 @@ public class TemplateRoute extends Route {
      */
     public void setMatchingQuery(boolean matchingQuery) {
         this.matchingQuery = matchingQuery;
+        invalidateIndex();
     }
 
     /**
@@ -285,6 +296,7 @@ public class TemplateRoute extends Route {
      */
     public void setTemplate(Template template) {
         this.template = template;
+        invalidateIndex();
     }
 
     @Override
@@ -0,0 +1,308 @@
+/**
+ * Copyright 2005-2020 Talend
+ * 
+ * The contents of this file are subject to the terms of one of the following
+ * open source licenses: Apache 2.0 or or EPL 1.0 (the "Licenses"). You can
+ * select the license that you prefer but you may not use this file except in
+ * compliance with one of these Licenses.
+ * 
+ * You can obtain a copy of the Apache 2.0 license at
+ * http://www.opensource.org/licenses/apache-2.0
+ * 
+ * You can obtain a copy of the EPL 1.0 license at
+ * http://www.opensource.org/licenses/eclipse-1.0
+ * 
+ * See the Licenses for the specific language governing permissions and
+ * limitations under the Licenses.
+ * 
+ * Alternatively, you can obtain a royalty free commercial license with less
+ * limitations, transferable or non-transferable, directly at
+ * https://restlet.talend.com/
+ * 
+ * Restlet is a registered trademark of Talend S.A.
+ */
+
+
+package org.restlet.service;
+
+import org.restlet.Context;
+import org.restlet.engine.application.CacheFilter;
+import org.restlet.engine.application.ClientCacheFilter;
+import org.restlet.engine.application.ResponseCache;
+import org.restlet.routing.Filter;
+
+/**
+ * Application service caching response entities in memory. GET and HEAD
+ * requests are then answered from the cache, including conditional ones,
+ * without invoking the target resource while the stored entities are fresh.
+ * The freshness of a response is based on its "s-maxage" or "max-age" cache
+ * directives, on the expiration date of its entity or on the default maximum
+ * age of this service.<br>
+ * <br>
+ * Responses with a "no-store", "no-cache" or "private" cache directive, or
+ * varying on the client authorization, are never stored. Entries are stored
+ * per resource URI and per client preferences matching the response
+ * dimensions (the "Vary" header). They are invalidated when an unsafe method
+ * is successfully invoked on the same resource.<br>
+ * <br>
+ * The service can also act as a private cache for the client calls of the
+ * application, see {@link #setClientSide(boolean)}. In this case, stale
+ * entries are revalidated with conditional requests. The server-side and
+ * client-side caches have their own entries and statistics, but share the
+ * same limits.
+ */
+public class CacheService extends Service {
+
+    /** The default maximum number of entries per cache. */
+    public static final int DEFAULT_MAX_COUNT = 10000;
+
+    /** The default maximum size of a stored entity, 1 MB. */
+    public static final long DEFAULT_MAX_ENTRY_SIZE = 1024L * 1024L;
+
+    /** The default maximum total size of the entities per cache, 16 MB. */
+    public static final long DEFAULT_MAX_SIZE = 16L * 1024L * 1024L;
+
+    /** The server-side response cache. */
+    private final ResponseCache cache;
+
+    /** The client-side response cache. */
+    private final ResponseCache clientCache;
+
+    /** Indicates if the client calls are cached. */
+    private volatile boolean clientSide;
+
+    /**
+     * The maximum age in seconds of responses without explicit freshness
+     * information.
+     */
+    private volatile int defaultMaxAge;
+
+    /** The maximum size of a stored entity. */
+    private volatile long maxEntrySize;
+
+    /** Indicates if the server calls are cached. */
+    private volatile boolean serverSide;
+
+    /**
+     * Constructor.
+     */
+    public CacheService() {
+        this(true);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param enabled
+     *            True if the service has been enabled.
+     */
+    public CacheService(boolean enabled) {
+        super(enabled);
+        this.cache = new ResponseCache(DEFAULT_MAX_SIZE, DEFAULT_MAX_COUNT);
+        this.clientCache = new ResponseCache(DEFAULT_MAX_SIZE,
+                DEFAULT_MAX_COUNT);
+        this.clientSide = false;
+        this.defaultMaxAge = 0;
+        this.maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+        this.serverSide = true;
+    }
+
+    /**
+     * Removes all the stored entries.
+     */
+    public void clear() {
+        getCache().clear();
+        getClientCache().clear();
+    }
+
+    @Override
+    public Filter createInboundFilter(Context context) {
+        return isServerSide() ? new CacheFilter(context, this) : null;
+    }
+
+    @Override
+    public Filter createOutboundFilter(Context context) {
+        return isClientSide() ? new ClientCacheFilter(context,
+                getClientCache(), getMaxEntrySize()) : null;
+    }
+
+    /**
+     * Returns the server-side response cache.
+     * 
+     * @return The server-side response cache.
+     */
+    public ResponseCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Returns the client-side response cache, giving access to its
+     * statistics.
+     * 
+     * @return The client-side response cache.
+     */
+    public ResponseCache getClientCache() {
+        return this.clientCache;
+    }
+
+    /**
+     * Returns the maximum age in seconds of responses without explicit
+     * freshness information. By default it is 0 so these responses aren't
+     * stored.
+     * 
+     * @return The default maximum age in seconds.
+     */
+    public int getDefaultMaxAge() {
+        return this.defaultMaxAge;
+    }
+
+    /**
+     * Returns the number of server-side entries evicted to respect the
+     * limits.
+     * 
+     * @return The number of entries evicted.
+     */
+    public long getEvictionCount() {
+        return getCache().getEvictionCount();
+    }
+
+    /**
+     * Returns the number of server requests answered from the cache.
+     * 
+     * @return The number of requests answered from the cache.
+     */
+    public long getHitCount() {
+        return getCache().getHitCount();
+    }
+
+    /**
+     * Returns the maximum number of entries per cache. By default it is
+     * {@link #DEFAULT_MAX_COUNT}.
+     * 
+     * @return The maximum number of entries per cache.
+     */
+    public int getMaxCount() {
+        return getCache().getMaxCount();
+    }
+
+    /**
+     * Returns the maximum size of a stored entity. Larger entities aren't
+     * stored. By default it is {@link #DEFAULT_MAX_ENTRY_SIZE}.
+     * 
+     * @return The maximum size of a stored entity.
+     */
+    public long getMaxEntrySize() {
+        return this.maxEntrySize;
+    }
+
+    /**
+     * Returns the maximum total size of the entities per cache. By default it
+     * is
+     * {@link #DEFAULT_MAX_SIZE}.
+     * 
+     * @return The maximum total size of the stored entities.
+     */
+    public long getMaxSize() {
+        return getCache().getMaxSize();
+    }
+
+    /**
+     * Returns the number of GET and HEAD server requests not answered from
+     * the cache.
+     * 
+     * @return The number of requests not answered from the cache.
+     */
+    public long getMissCount() {
+        return getCache().getMissCount();
+    }
+
+    /**
+     * Indicates if the client calls of the application are cached. False by
+     * default.
+     * 
+     * @return True if the client calls are cached.
+     */
+    public boolean isClientSide() {
+        return this.clientSide;
+    }
+
+    /**
+     * Indicates if the server calls of the application are cached. True by
+     * default.
+     * 
+     * @return True if the server calls are cached.
+     */
+    public boolean isServerSide() {
+        return this.serverSide;
+    }
+
+    /**
+     * Indicates if the client calls of the application should be cached.
+     * 
+     * @param clientSide
+     *            True if the client calls should be cached.
+     */
+    public void setClientSide(boolean clientSide) {
+        this.clientSide = clientSide;
+    }
+
+    /**
+     * Sets the maximum age in seconds of responses without explicit freshness
+     * information.
+     * 
+     * @param defaultMaxAge
+     *            The default maximum age in seconds.
+     */
+    public void setDefaultMaxAge(int defaultMaxAge) {
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    /**
+     * Sets the maximum number of entries per cache.
+     * 
+     * @param maxCount
+     *            The maximum number of entries per cache.
+     */
+    public void setMaxCount(int maxCount) {
+        getCache().setMaxCount(maxCount);
+        getClientCache().setMaxCount(maxCount);
+    }
+
+    /**
+     * Sets the maximum size of a stored entity.
+     * 
+     * @param maxEntrySize
+     *            The maximum size of a stored entity.
+     */
+    public void setMaxEntrySize(long maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Sets the maximum total size of the entities per cache.
+     * 
+     * @param maxSize
+     *            The maximum total size of the entities per cache.
+     */
+    public void setMaxSize(long maxSize) {
+        getCache().setMaxSize(maxSize);
+        getClientCache().setMaxSize(maxSize);
+    }
+
+    /**
+     * Indicates if the server calls of the application should be cached.
+     * 
+     * @param serverSide
+     *            True if the server calls should be cached.
+     */
+    public void setServerSide(boolean serverSide) {
+        this.serverSide = serverSide;
+    }
+
+    @Override
+    public synchronized void stop() throws Exception {
+        super.stop();
+        clear();
+    }
+
+}
@@ -24,16 +24,16 @@
 
 package org.restlet.service;
 
-import java.util.logging.Level;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import org.restlet.Application;
 import org.restlet.Context;
 import org.restlet.Request;
 import org.restlet.Response;
-import org.restlet.data.Method;
 import org.restlet.data.Reference;
-import org.restlet.data.Status;
 import org.restlet.engine.Engine;
+import org.restlet.engine.log.AccessLogEntry;
 import org.restlet.engine.log.LogFilter;
 import org.restlet.representation.Representation;
 import org.restlet.resource.ClientResource;
@@ -73,6 +73,14 @@ import org.restlet.routing.Template;
  * <br>
  * For custom access log format, see the syntax to use and the list of available
  * variable names in {@link org.restlet.routing.Template}. <br>
+ * <br>
+ * By default, each entry is passed to the access logger on the thread handling
+ * the call. When a log file is set (see {@link #setLogFile(String)}), entries
+ * are instead captured into a bounded buffer and written in batches to this
+ * rotating file by a background thread, so that formatting and disk latency
+ * don't delay responses. When the buffer is full, entries are dropped and
+ * counted (see {@link #getDroppedLogCount()}), unless
+ * {@link #setLogBufferBlocking(boolean)} is enabled.<br>
  * 
  * @see <a href="http://wiki.restlet.org/docs_2.2/201-restlet.html">User Guide -
  *      Access logging</a>
@@ -82,12 +90,46 @@ import org.restlet.routing.Template;
  */
 public class LogService extends Service {
 
+    /** The default maximum number of pending entries in asynchronous mode. */
+    public static final int DEFAULT_LOG_BUFFER_SIZE = 8192;
+
+    /** The default number of log files to keep, including the current one. */
+    public static final int DEFAULT_LOG_FILE_COUNT = 10;
+
+    /** The default maximum size in bytes of a log file before rotation. */
+    public static final long DEFAULT_LOG_FILE_LIMIT = 10L * 1024 * 1024;
+
+    // [ifndef gae] member
+    /** The asynchronous writer of the access log file. */
+    private volatile org.restlet.engine.log.AccessLogWriter accessLogWriter;
+
+    /**
+     * Indicates if a subclass overrides the formatting of the response log
+     * messages.
+     */
+    private final boolean customResponseLogMessage;
+
     /** Indicates if the debugging mode is enabled. */
     private volatile boolean debugging;
 
     /** Indicates if the identity check (as specified by RFC1413) is enabled. */
     private volatile boolean identityCheck;
 
+    /** Indicates if callers block when the log buffer is full. */
+    private volatile boolean logBufferBlocking;
+
+    /** The maximum number of pending entries in asynchronous mode. */
+    private volatile int logBufferSize;
+
+    /** The path of the access log file written asynchronously. */
+    private volatile String logFile;
+
+    /** The number of log files to keep, including the current one. */
+    private volatile int logFileCount;
+
+    /** The maximum size in bytes of a log file before rotation. */
+    private volatile long logFileLimit;
+
     /** The URI template of loggable resource references. */
     private volatile Template loggableTemplate;
 
@@ -118,11 +160,17 @@ public class LogService extends Service {
      */
     public LogService(boolean enabled) {
         super(enabled);
+        this.customResponseLogMessage = isResponseLogMessageOverridden();
         this.loggableTemplate = null;
         this.loggerName = null;
         this.responseLogFormat = null;
         this.logPropertiesRef = null;
         this.identityCheck = false;
+        this.logBufferBlocking = false;
+        this.logBufferSize = DEFAULT_LOG_BUFFER_SIZE;
+        this.logFile = null;
+        this.logFileCount = DEFAULT_LOG_FILE_COUNT;
+        this.logFileLimit = DEFAULT_LOG_FILE_LIMIT;
     }
 
     @Override
@@ -130,6 +178,41 @@ public class LogService extends Service {
         return new LogFilter(context, this);
     }
 
+    /**
+     * Captures an access log entry to be written asynchronously. If the log
+     * template property isn't provided and the formatting methods aren't
+     * overridden, then the values of the default IIS like format are captured,
+     * deferring the formatting to the writer thread. Otherwise, the message is
+     * formatted immediately by {@link #getResponseLogMessage(Response, int)}.
+     * 
+     * @param response
+     *            The response to log.
+     * @param duration
+     *            The call duration (in milliseconds).
+     * @return The captured log entry.
+     */
+    public AccessLogEntry createResponseLogEntry(Response response,
+            int duration) {
+        if ((this.responseLogTemplate != null)
+                || this.customResponseLogMessage) {
+            return new AccessLogEntry(getResponseLogMessage(response,
+                    duration));
+        }
+
+        return new AccessLogEntry(response, duration, isIdentityCheck());
+    }
+
+    // [ifndef gae] method
+    /**
+     * Returns the asynchronous writer of the access log file, available while
+     * the service is started with a log file set.
+     * 
+     * @return The asynchronous writer or null.
+     */
+    public org.restlet.engine.log.AccessLogWriter getAccessLogWriter() {
+        return accessLogWriter;
+    }
+
     /**
      * Format a log entry using the default IIS log format.
      * 
@@ -141,124 +224,67 @@ public class LogService extends Service {
      */
     protected String getDefaultResponseLogMessage(Response response,
             int duration) {
-        StringBuilder sb = new StringBuilder();
-        Request request = response.getRequest();
-        long currentTime = System.currentTimeMillis();
-
-        // Append the date of the request
-        sb.append(String.format("%tF", currentTime));
-        sb.append('\t');
-
-        // Append the time of the request
-        sb.append(String.format("%tT", currentTime));
-        sb.append('\t');
-
-        // Append the client IP address
-        String clientAddress = request.getClientInfo().getUpstreamAddress();
-        sb.append((clientAddress == null) ? "-" : clientAddress);
-        sb.append('\t');
-
-        // Append the user name (via IDENT protocol)
-        if (isIdentityCheck()) {
-            // [ifndef gae]
-            org.restlet.engine.log.IdentClient ic = new org.restlet.engine.log.IdentClient(
-                    request.getClientInfo().getUpstreamAddress(), request
-                            .getClientInfo().getPort(), response
-                            .getServerInfo().getPort());
-            sb.append((ic.getUserIdentifier() == null) ? "-" : ic
-                    .getUserIdentifier());
-        } else if ((request.getChallengeResponse() != null)
-                && (request.getChallengeResponse().getIdentifier() != null)) {
-            sb.append(request.getChallengeResponse().getIdentifier());
-        } else {
-            // [enddef]
-            sb.append('-');
-        }
-
-        sb.append('\t');
-
-        // Append the server IP address
-        String serverAddress = response.getServerInfo().getAddress();
-        sb.append((serverAddress == null) ? "-" : serverAddress);
-        sb.append('\t');
-
-        // Append the server port
-        Integer serverport = response.getServerInfo().getPort();
-        sb.append((serverport == null) ? "-" : serverport.toString());
-        sb.append('\t');
-
-        // Append the method name
-        String methodName = (request.getMethod() == null) ? "-" : request
-                .getMethod().getName();
-        sb.append((methodName == null) ? "-" : methodName);
-
-        // Append the resource path
-        sb.append('\t');
-        String resourcePath = (request.getResourceRef() == null) ? "-"
-                : request.getResourceRef().getPath();
-        sb.append((resourcePath == null) ? "-" : resourcePath);
-
-        // Append the resource query
-        sb.append('\t');
-        String resourceQuery = (request.getResourceRef() == null) ? "-"
-                : request.getResourceRef().getQuery();
-        sb.append((resourceQuery == null) ? "-" : resourceQuery);
-
-        // Append the status code
-        sb.append('\t');
-        sb.append((response.getStatus() == null) ? "-" : Integer
-                .toString(response.getStatus().getCode()));
-
-        // Append the returned size
-        sb.append('\t');
-
-        if (!response.isEntityAvailable()
-                || Status.REDIRECTION_NOT_MODIFIED.equals(response.getStatus())
-                || Status.SUCCESS_NO_CONTENT.equals(response.getStatus())
-                || Method.HEAD.equals(request.getMethod())) {
-            sb.append('0');
-        } else {
-            sb.append((response.getEntity().getSize() == -1) ? "-" : Long
-                    .toString(response.getEntity().getSize()));
-        }
+        return new AccessLogEntry(response, duration, isIdentityCheck())
+                .toString();
+    }
 
-        // Append the received size
-        sb.append('\t');
+    /**
+     * Returns the number of access log entries dropped because the log buffer
+     * was full.
+     * 
+     * @return The number of dropped entries.
+     */
+    public long getDroppedLogCount() {
+        long result = 0;
+        // [ifndef gae]
+        org.restlet.engine.log.AccessLogWriter writer = getAccessLogWriter();
 
-        try {
-            if (request.getEntity() == null) {
-                sb.append('0');
-            } else {
-                sb.append((request.getEntity().getSize() == -1) ? "-" : Long
-                        .toString(request.getEntity().getSize()));
-            }
-        } catch (Throwable t) {
-            // Error while getting the request's entity, cf issue #931
-            Engine.getLogger(LogService.class).log(Level.SEVERE,
-                    "Cannot retrieve size of request's entity", t);
-            sb.append("-");
+        if (writer != null) {
+            result = writer.getDroppedCount();
         }
+        // [enddef]
+        return result;
+    }
 
-        // Append the duration
-        sb.append('\t');
-        sb.append(duration);
-
-        // Append the host reference
-        sb.append('\t');
-        sb.append((request.getHostRef() == null) ? "-" : request.getHostRef()
-                .toString());
+    /**
+     * Returns the maximum number of pending entries in asynchronous mode.
+     * Default value is {@link #DEFAULT_LOG_BUFFER_SIZE}.
+     * 
+     * @return The maximum number of pending entries.
+     */
+    public int getLogBufferSize() {
+        return logBufferSize;
+    }
 
-        // Append the agent name
-        sb.append('\t');
-        String agentName = request.getClientInfo().getAgent();
-        sb.append((agentName == null) ? "-" : agentName);
+    /**
+     * Returns the path of the access log file written asynchronously. Null by
+     * default, meaning that entries are synchronously passed to the access
+     * logger.
+     * 
+     * @return The path of the access log file or null.
+     */
+    public String getLogFile() {
+        return logFile;
+    }
 
-        // Append the referrer
-        sb.append('\t');
-        sb.append((request.getReferrerRef() == null) ? "-" : request
-                .getReferrerRef().getIdentifier());
+    /**
+     * Returns the number of log files to keep, including the current one.
+     * Default value is {@link #DEFAULT_LOG_FILE_COUNT}.
+     * 
+     * @return The number of log files to keep.
+     */
+    public int getLogFileCount() {
+        return logFileCount;
+    }
 
-        return sb.toString();
+    /**
+     * Returns the maximum size in bytes of a log file before rotation, 0
+     * meaning no rotation. Default value is {@link #DEFAULT_LOG_FILE_LIMIT}.
+     * 
+     * @return The maximum size in bytes of a log file.
+     */
+    public long getLogFileLimit() {
+        return logFileLimit;
     }
 
     /**
@@ -350,6 +376,16 @@ public class LogService extends Service {
         return this.identityCheck;
     }
 
+    /**
+     * Indicates if callers block when the log buffer is full, instead of
+     * dropping the entry. Default value is false.
+     * 
+     * @return True if callers block when the log buffer is full.
+     */
+    public boolean isLogBufferBlocking() {
+        return logBufferBlocking;
+    }
+
     /**
      * Indicates if the call should be logged during the processing chain. By
      * default, it tries to match the request URI with the
@@ -364,6 +400,30 @@ public class LogService extends Service {
                 .match(request.getResourceRef().getTargetRef().toString()) > 0;
     }
 
+    /**
+     * Indicates if a subclass overrides
+     * {@link #getResponseLogMessage(Response, int)} or
+     * {@link #getDefaultResponseLogMessage(Response, int)}.
+     * 
+     * @return True if the formatting of the response log messages is
+     *         overridden.
+     */
+    private boolean isResponseLogMessageOverridden() {
+        for (Class<?> clazz = getClass(); clazz != LogService.class; clazz = clazz
+                .getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                if ((method.getName().equals("getResponseLogMessage") || method
+                        .getName().equals("getDefaultResponseLogMessage"))
+                        && Arrays.equals(method.getParameterTypes(),
+                                new Class<?>[] { Response.class, int.class })) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Indicates if the debugging mode is enabled.
      * 
@@ -386,6 +446,59 @@ public class LogService extends Service {
         this.identityCheck = identityCheck;
     }
 
+    /**
+     * Indicates if callers block when the log buffer is full, instead of
+     * dropping the entry.
+     * 
+     * @param logBufferBlocking
+     *            True if callers block when the log buffer is full.
+     */
+    public void setLogBufferBlocking(boolean logBufferBlocking) {
+        this.logBufferBlocking = logBufferBlocking;
+    }
+
+    /**
+     * Sets the maximum number of pending entries in asynchronous mode.
+     * 
+     * @param logBufferSize
+     *            The maximum number of pending entries.
+     */
+    public void setLogBufferSize(int logBufferSize) {
+        this.logBufferSize = logBufferSize;
+    }
+
+    /**
+     * Sets the path of the access log file written asynchronously. Must be
+     * set before the service is started.
+     * 
+     * @param logFile
+     *            The path of the access log file or null.
+     */
+    public void setLogFile(String logFile) {
+        this.logFile = logFile;
+    }
+
+    /**
+     * Sets the number of log files to keep, including the current one.
+     * 
+     * @param logFileCount
+     *            The number of log files to keep.
+     */
+    public void setLogFileCount(int logFileCount) {
+        this.logFileCount = logFileCount;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a log file before rotation, 0 meaning
+     * no rotation.
+     * 
+     * @param logFileLimit
+     *            The maximum size in bytes of a log file.
+     */
+    public void setLogFileLimit(long logFileLimit) {
+        this.logFileLimit = logFileLimit;
+    }
+
     /**
      * Sets the URI template of loggable resource references.
      * 
@@ -455,7 +568,8 @@ public class LogService extends Service {
 
     /**
      * Starts the log service by attempting to read the log properties if the
-     * {@link #getLogPropertiesRef()} returns a non null URI reference.
+     * {@link #getLogPropertiesRef()} returns a non null URI reference. Also
+     * starts the asynchronous writer if a log file is set.
      */
     @Override
     public synchronized void start() throws Exception {
@@ -473,6 +587,30 @@ public class LogService extends Service {
                         logProperties.getStream());
             }
         }
+
+        if (getLogFile() != null) {
+            this.accessLogWriter = new org.restlet.engine.log.AccessLogWriter(
+                    getLogFile(), getLogFileLimit(), getLogFileCount(),
+                    getLogBufferSize(), isLogBufferBlocking(),
+                    Engine.getLogger(LogService.class));
+            this.accessLogWriter.start();
+        }
         // [enddef]
     }
+
+    /**
+     * Stops the log service, writing the pending access log entries if a log
+     * file is set.
+     */
+    @Override
+    public synchronized void stop() throws Exception {
+        // [ifndef gae]
+        if (this.accessLogWriter != null) {
+            this.accessLogWriter.stop();
+            this.accessLogWriter = null;
+        }
+        // [enddef]
+
+        super.stop();
+    }
 }
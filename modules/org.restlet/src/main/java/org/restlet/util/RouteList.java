@@ -24,6 +24,7 @@
 
 package org.restlet.util;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -32,6 +33,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.Restlet;
+import org.restlet.engine.util.RouteIndex;
 import org.restlet.routing.Route;
 
 /**
@@ -48,9 +50,16 @@ import org.restlet.routing.Route;
  * @see java.util.List
  */
 public final class RouteList extends WrapperList<Route> {
+    // [ifndef gwt] member
+    /** The compiled index of the routes, lazily built. */
+    private volatile RouteIndex index;
+
     /** The index of the last route used in the round robin mode. */
     private volatile int lastIndex;
 
+    /** The number of modifications, used to detect stale indexes. */
+    private volatile int modifications;
+
     /**
      * Constructor.
      */
@@ -70,6 +79,51 @@ public final class RouteList extends WrapperList<Route> {
         this.lastIndex = -1;
     }
 
+    @Override
+    public boolean add(Route element) {
+        try {
+            return super.add(element);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
+    @Override
+    public void add(int index, Route element) {
+        try {
+            super.add(index, element);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Route> elements) {
+        try {
+            return super.addAll(elements);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Route> elements) {
+        try {
+            return super.addAll(index, elements);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            super.clear();
+        } finally {
+            invalidateIndex();
+        }
+    }
+
     /**
      * Returns the best route match for a given call.
      * 
@@ -121,6 +175,32 @@ public final class RouteList extends WrapperList<Route> {
         return null;
     }
 
+    // [ifndef gwt] method
+    /**
+     * Returns the compiled index of the routes, building it if the list was
+     * modified since the last call.
+     * 
+     * @return The compiled index of the routes.
+     * @see #invalidateIndex()
+     */
+    public RouteIndex getIndex() {
+        RouteIndex result = this.index;
+
+        if (result == null) {
+            int current = this.modifications;
+            result = new RouteIndex(this);
+
+            synchronized (this) {
+                // Don't keep an index built concurrently with a change
+                if (current == this.modifications) {
+                    this.index = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Returns the last route match for a given call.
      * 
@@ -220,6 +300,45 @@ public final class RouteList extends WrapperList<Route> {
         return null;
     }
 
+    /**
+     * Discards the compiled index of the routes, so that it is built again on
+     * next usage. It is automatically invoked when this list is modified, but
+     * needs to be explicitly invoked when the template of an attached route is
+     * modified.
+     */
+    public synchronized void invalidateIndex() {
+        this.modifications++;
+        // [ifndef gwt] instruction
+        this.index = null;
+    }
+
+    @Override
+    public Route remove(int index) {
+        try {
+            return super.remove(index);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        try {
+            return super.remove(element);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> elements) {
+        try {
+            return super.removeAll(elements);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
     /**
      * Removes all routes routing to a given target.
      * 
@@ -234,9 +353,28 @@ public final class RouteList extends WrapperList<Route> {
         }
     }
 
+    @Override
+    public boolean retainAll(Collection<?> elements) {
+        try {
+            return super.retainAll(elements);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
+    @Override
+    public Route set(int index, Route element) {
+        try {
+            return super.set(index, element);
+        } finally {
+            invalidateIndex();
+        }
+    }
+
     /**
-     * Returns a view of the portion of this list between the specified
-     * fromIndex, inclusive, and toIndex, exclusive.
+     * Returns a copy of the portion of this list between the specified
+     * fromIndex, inclusive, and toIndex, exclusive. The copy isn't affected by
+     * the later changes of this list, and conversely.
      * 
      * @param fromIndex
      *            The start position.
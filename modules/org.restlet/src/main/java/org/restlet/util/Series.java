@@ -24,6 +24,7 @@
 
 package org.restlet.util;
 
+import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -31,6 +32,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 
 import org.restlet.Context;
@@ -61,6 +64,39 @@ public class Series<T extends NamedValue<String>> extends WrapperList<T> {
      */
     public static final Object EMPTY_VALUE = new Object();
 
+    // [ifndef gwt] member
+    /** The (name, value) constructors of the entry classes. */
+    private static final ConcurrentMap<Class<?>, Constructor<?>> constructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
+    // [ifndef gwt] method
+    /**
+     * Returns the constructor of a given entry class taking the name and the
+     * value as parameters. It is looked up once and then cached.
+     * 
+     * @param entryClass
+     *            The entry class.
+     * @return The constructor of the entry class.
+     * @throws NoSuchMethodException
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> getConstructor(Class<T> entryClass)
+            throws NoSuchMethodException {
+        Constructor<T> result = (Constructor<T>) constructors.get(entryClass);
+
+        if (result == null) {
+            result = entryClass.getConstructor(String.class, String.class);
+            Constructor<T> prev = (Constructor<T>) constructors.putIfAbsent(
+                    entryClass, result);
+
+            if (prev != null) {
+                // Reuse previous constructor
+                result = prev;
+            }
+        }
+
+        return result;
+    }
+
     // [ifndef gwt] method
     /**
      * Returns an unmodifiable view of the specified series. Attempts to call a
@@ -184,8 +220,7 @@ public class Series<T extends NamedValue<String>> extends WrapperList<T> {
      */
     public T createEntry(String name, String value) {
         try {
-            return this.entryClass.getConstructor(String.class, String.class)
-                    .newInstance(name, value);
+            return getConstructor(this.entryClass).newInstance(name, value);
         } catch (Exception e) {
             Context.getCurrentLogger().log(Level.WARNING,
                     "Unable to create a series entry", e);